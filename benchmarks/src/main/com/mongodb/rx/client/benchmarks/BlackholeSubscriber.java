@@ -0,0 +1,80 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.benchmarks;
+
+import org.openjdk.jmh.infra.Blackhole;
+import rx.Subscriber;
+
+import static com.mongodb.assertions.Assertions.isTrueArgument;
+
+/**
+ * A Subscriber that consumes each result into a Blackhole, requesting them {@code requestSize} at a time.
+ *
+ * <p>The stubs complete synchronously, so a subscription has terminated by the time that {@code subscribe} returns, which
+ * {@link #checkCompleted()} verifies.</p>
+ */
+final class BlackholeSubscriber<T> extends Subscriber<T> {
+    private final Blackhole blackhole;
+    private final long requestSize;
+    private long outstanding;
+    private boolean completed;
+    private Throwable error;
+
+    BlackholeSubscriber(final Blackhole blackhole) {
+        this(blackhole, Long.MAX_VALUE);
+    }
+
+    BlackholeSubscriber(final Blackhole blackhole, final long requestSize) {
+        isTrueArgument("requestSize > 0", requestSize > 0);
+        this.blackhole = blackhole;
+        this.requestSize = requestSize;
+    }
+
+    @Override
+    public void onStart() {
+        outstanding = requestSize;
+        request(requestSize);
+    }
+
+    @Override
+    public void onNext(final T result) {
+        blackhole.consume(result);
+        if (requestSize != Long.MAX_VALUE && --outstanding == 0) {
+            outstanding = requestSize;
+            request(requestSize);
+        }
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+        error = t;
+    }
+
+    @Override
+    public void onCompleted() {
+        completed = true;
+    }
+
+    void checkCompleted() {
+        if (error != null) {
+            throw new IllegalStateException("The benchmarked operation failed", error);
+        }
+        if (!completed) {
+            throw new IllegalStateException("The benchmarked operation did not complete synchronously");
+        }
+    }
+}
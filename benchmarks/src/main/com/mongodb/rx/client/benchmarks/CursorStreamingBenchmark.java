@@ -0,0 +1,91 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.benchmarks;
+
+import com.mongodb.rx.client.MongoCollection;
+import com.mongodb.rx.client.internal.ObservableHelper.NoopObservableAdapter;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures streaming the results of a cursor through {@code ObservableToProducer}, for subscribers that request one result at a time,
+ * a batch at a time and everything at once.
+ *
+ * <p>Each operation streams all the documents, in batches of 101 unless the batch size is derived from the demand, so the documents per
+ * second are the operations per second times {@code documents}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CursorStreamingBenchmark {
+
+    @Param({"1000"})
+    public int documents;
+
+    /**
+     * The number of results that the subscriber requests at a time, where 0 requests them all at once.
+     */
+    @Param({"1", "16", "101", "0"})
+    public long requestSize;
+
+    private MongoCollection<Document> collection;
+
+    @Setup
+    public void setUp() {
+        collection = Documents.collection(Documents.create(documents), new NoopObservableAdapter());
+    }
+
+    @Benchmark
+    public void toObservable(final Blackhole blackhole) {
+        BlackholeSubscriber<Document> subscriber = new BlackholeSubscriber<Document>(blackhole,
+                requestSize == 0 ? Long.MAX_VALUE : requestSize);
+        collection.find().toObservable().subscribe(subscriber);
+        subscriber.checkCompleted();
+    }
+
+    @Benchmark
+    public void toObservableWithBatchSizeFromDemand(final Blackhole blackhole) {
+        BlackholeSubscriber<Document> subscriber = new BlackholeSubscriber<Document>(blackhole,
+                requestSize == 0 ? Long.MAX_VALUE : requestSize);
+        collection.find().batchSizeFromDemand(1, documents).toObservable().subscribe(subscriber);
+        subscriber.checkCompleted();
+    }
+
+    @Benchmark
+    public void toObservableBatches(final Blackhole blackhole) {
+        BlackholeSubscriber<List<Document>> subscriber = new BlackholeSubscriber<List<Document>>(blackhole);
+        collection.find().toObservableBatches().subscribe(subscriber);
+        subscriber.checkCompleted();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.benchmarks;
+
+import com.mongodb.rx.client.MongoClient;
+import com.mongodb.rx.client.MongoClients;
+import com.mongodb.rx.client.MongoCollection;
+import com.mongodb.rx.client.ObservableAdapter;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The documents and collections that the benchmarks use.
+ */
+final class Documents {
+
+    static List<Document> create(final int count) {
+        List<Document> documents = new ArrayList<Document>(count);
+        for (int i = 0; i < count; i++) {
+            documents.add(new Document("_id", new ObjectId())
+                    .append("index", i)
+                    .append("name", "document " + i)
+                    .append("tags", Arrays.asList("a", "b", "c")));
+        }
+        return documents;
+    }
+
+    /**
+     * Creates a client of a stub async client, whose collection returns the documents, and gets the collection from it.
+     */
+    static MongoCollection<Document> collection(final List<Document> documents, final ObservableAdapter observableAdapter) {
+        MongoClient client = MongoClients.create(Stubs.client(Stubs.collection(Document.class, documents)), observableAdapter);
+        return client.getDatabase(Stubs.NAMESPACE.getDatabaseName()).getCollection(Stubs.NAMESPACE.getCollectionName());
+    }
+
+    private Documents() {
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.benchmarks;
+
+import com.mongodb.rx.client.gridfs.GridFSBucket;
+import com.mongodb.rx.client.internal.GridFSBucketImpl;
+import com.mongodb.rx.client.internal.ObservableHelper.NoopObservableAdapter;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.rx.client.gridfs.helpers.AsyncStreamHelper.toAsyncInputStream;
+import static com.mongodb.rx.client.gridfs.helpers.AsyncStreamHelper.toAsyncOutputStream;
+
+/**
+ * Measures uploading and downloading a file through the RX GridFS bucket, whose streams the async driver reads and writes a chunk at a
+ * time through {@code GridFSAsyncStreamHelper}, which subscribes to a new {@code Observable} for each read or write.
+ *
+ * <p>Each operation transfers the whole file, so the bytes per second are the operations per second times {@code fileSize}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GridFSBenchmark {
+
+    @Param({"1048576", "16777216"})
+    public int fileSize;
+
+    @Param({"261120"})
+    public int chunkSize;
+
+    private GridFSBucket bucket;
+    private ByteBuffer file;
+    private ByteBuffer destination;
+    private ObjectId id;
+
+    @Setup
+    public void setUp() {
+        byte[] bytes = new byte[fileSize];
+        new Random(42).nextBytes(bytes);
+        file = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        destination = ByteBuffer.allocate(fileSize);
+        bucket = new GridFSBucketImpl(Stubs.bucket(chunkSize, file), new NoopObservableAdapter());
+        id = new ObjectId();
+    }
+
+    @Benchmark
+    public void uploadFromStream(final Blackhole blackhole) {
+        BlackholeSubscriber<ObjectId> subscriber = new BlackholeSubscriber<ObjectId>(blackhole);
+        bucket.uploadFromStream("file", toAsyncInputStream(file.duplicate())).subscribe(subscriber);
+        subscriber.checkCompleted();
+    }
+
+    @Benchmark
+    public void downloadToStream(final Blackhole blackhole) {
+        destination.clear();
+        BlackholeSubscriber<Long> subscriber = new BlackholeSubscriber<Long>(blackhole);
+        bucket.downloadToStream(id, toAsyncOutputStream(destination)).subscribe(subscriber);
+        subscriber.checkCompleted();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.benchmarks;
+
+import com.mongodb.rx.client.MongoCollection;
+import com.mongodb.rx.client.ObservableAdapter;
+import com.mongodb.rx.client.OperationAwareObservableAdapter;
+import com.mongodb.rx.client.OperationContext;
+import com.mongodb.rx.client.SingleMongoCollection;
+import com.mongodb.rx.client.internal.ObservableHelper.NoopObservableAdapter;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rx.Observable;
+import rx.SingleSubscriber;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of the observable adapter chain, comparing the no-op adapter that the driver short-circuits, an adapter that
+ * returns the {@code Observable} unchanged, and an operation aware adapter, which is also given the context of each operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObservableAdapterBenchmark {
+
+    @Param({"noop", "identity", "operationAware"})
+    public String adapter;
+
+    @Param({"100"})
+    public int documents;
+
+    private MongoCollection<Document> collection;
+    private SingleMongoCollection<Document> singleCollection;
+
+    @Setup
+    public void setUp() {
+        collection = Documents.collection(Documents.create(documents), createAdapter());
+        singleCollection = collection.asSingle();
+    }
+
+    @Benchmark
+    public void count(final Blackhole blackhole) {
+        BlackholeSubscriber<Long> subscriber = new BlackholeSubscriber<Long>(blackhole);
+        collection.count().subscribe(subscriber);
+        subscriber.checkCompleted();
+    }
+
+    @Benchmark
+    public void singleCount(final Blackhole blackhole) {
+        singleCollection.count().subscribe(new SingleSubscriber<Long>() {
+            @Override
+            public void onSuccess(final Long value) {
+                blackhole.consume(value);
+            }
+
+            @Override
+            public void onError(final Throwable error) {
+                throw new IllegalStateException("The benchmarked operation failed", error);
+            }
+        });
+    }
+
+    @Benchmark
+    public void find(final Blackhole blackhole) {
+        BlackholeSubscriber<Document> subscriber = new BlackholeSubscriber<Document>(blackhole);
+        collection.find().toObservable().subscribe(subscriber);
+        subscriber.checkCompleted();
+    }
+
+    private ObservableAdapter createAdapter() {
+        if (adapter.equals("noop")) {
+            return new NoopObservableAdapter();
+        } else if (adapter.equals("identity")) {
+            return new ObservableAdapter() {
+                @Override
+                public <T> Observable<T> adapt(final Observable<T> observable) {
+                    return observable;
+                }
+            };
+        } else if (adapter.equals("operationAware")) {
+            return new OperationAwareObservableAdapter() {
+                @Override
+                public <T> Observable<T> adapt(final Observable<T> observable, final OperationContext context) {
+                    return observable;
+                }
+
+                @Override
+                public <T> Observable<T> adapt(final Observable<T> observable) {
+                    return observable;
+                }
+            };
+        }
+        throw new IllegalArgumentException("Unknown adapter " + adapter);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.benchmarks;
+
+import com.mongodb.rx.client.MongoCollection;
+import com.mongodb.rx.client.SingleMongoCollection;
+import com.mongodb.rx.client.Success;
+import com.mongodb.rx.client.internal.ObservableHelper.NoopObservableAdapter;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rx.CompletableSubscriber;
+import rx.SingleSubscriber;
+import rx.Subscription;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the operations that produce a single result, through the {@code Observable} of a collection and the {@code Single} of its
+ * single collection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SingleResultBenchmark {
+    private MongoCollection<Document> collection;
+    private SingleMongoCollection<Document> singleCollection;
+    private Document document;
+
+    @Setup
+    public void setUp() {
+        collection = Documents.collection(Documents.create(1), new NoopObservableAdapter());
+        singleCollection = collection.asSingle();
+        document = new Document("_id", 1);
+    }
+
+    @Benchmark
+    public void insertOne(final Blackhole blackhole) {
+        BlackholeSubscriber<Success> subscriber = new BlackholeSubscriber<Success>(blackhole);
+        collection.insertOne(document).subscribe(subscriber);
+        subscriber.checkCompleted();
+    }
+
+    @Benchmark
+    public void count(final Blackhole blackhole) {
+        BlackholeSubscriber<Long> subscriber = new BlackholeSubscriber<Long>(blackhole);
+        collection.count().subscribe(subscriber);
+        subscriber.checkCompleted();
+    }
+
+    @Benchmark
+    public void findFirst(final Blackhole blackhole) {
+        BlackholeSubscriber<Document> subscriber = new BlackholeSubscriber<Document>(blackhole);
+        collection.find().first().subscribe(subscriber);
+        subscriber.checkCompleted();
+    }
+
+    @Benchmark
+    public void singleInsertOne(final Blackhole blackhole) {
+        singleCollection.insertOne(document).subscribe(new CompletableSubscriber() {
+            @Override
+            public void onCompleted() {
+                blackhole.consume(document);
+            }
+
+            @Override
+            public void onError(final Throwable error) {
+                throw new IllegalStateException("The benchmarked operation failed", error);
+            }
+
+            @Override
+            public void onSubscribe(final Subscription subscription) {
+            }
+        });
+    }
+
+    @Benchmark
+    public void singleCount(final Blackhole blackhole) {
+        singleCollection.count().subscribe(new BlackholeSingleSubscriber<Long>(blackhole));
+    }
+
+    private static final class BlackholeSingleSubscriber<T> extends SingleSubscriber<T> {
+        private final Blackhole blackhole;
+
+        BlackholeSingleSubscriber(final Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void onSuccess(final T value) {
+            blackhole.consume(value);
+        }
+
+        @Override
+        public void onError(final Throwable error) {
+            throw new IllegalStateException("The benchmarked operation failed", error);
+        }
+    }
+}
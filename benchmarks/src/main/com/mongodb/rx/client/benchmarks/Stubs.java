@@ -0,0 +1,350 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.benchmarks;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import com.mongodb.async.AsyncBatchCursor;
+import com.mongodb.async.SingleResultCallback;
+import com.mongodb.async.client.FindIterable;
+import com.mongodb.async.client.MongoClient;
+import com.mongodb.async.client.MongoClientSettings;
+import com.mongodb.async.client.MongoCollection;
+import com.mongodb.async.client.MongoDatabase;
+import com.mongodb.async.client.gridfs.AsyncInputStream;
+import com.mongodb.async.client.gridfs.AsyncOutputStream;
+import com.mongodb.async.client.gridfs.GridFSBucket;
+import com.mongodb.client.model.CountOptions;
+import com.mongodb.rx.client.MongoClients;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * In-process stubs of the async driver, which complete every operation synchronously on the calling thread, so that the benchmarks
+ * measure the RX driver rather than the server or the network.
+ *
+ * <p>Each stub is a dynamic proxy of an async driver interface that calls the method of the same signature on a target, and returns the
+ * proxy itself from the builder methods that the target does not implement. Any other method throws an
+ * {@code UnsupportedOperationException}. The proxies are only called once for each operation or batch, not for each document.</p>
+ */
+final class Stubs {
+    static final MongoNamespace NAMESPACE = new MongoNamespace("benchmarks.stub");
+
+    /**
+     * Creates a stub collection whose queries return the documents in batches, and whose writes succeed.
+     */
+    static <T> MongoCollection<T> collection(final Class<T> documentClass, final List<T> documents) {
+        return proxy(MongoCollection.class, new StubCollection<T>(documentClass, documents));
+    }
+
+    /**
+     * Creates a stub client whose databases return the stub collection for every name.
+     */
+    static MongoClient client(final MongoCollection<?> collection) {
+        return proxy(MongoClient.class, new StubClient(proxy(MongoDatabase.class, new StubDatabase(collection))));
+    }
+
+    /**
+     * Creates a stub GridFS bucket that reads every upload in chunks and discards it, and writes every download in chunks from the
+     * given file.
+     */
+    static GridFSBucket bucket(final int chunkSizeBytes, final ByteBuffer file) {
+        return proxy(GridFSBucket.class, new StubBucket(chunkSizeBytes, file));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(final Class<?> type, final Object target) {
+        return (T) Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class<?>[]{type}, new TargetInvocationHandler(target));
+    }
+
+    private static final class TargetInvocationHandler implements InvocationHandler {
+        private final Object target;
+        private final ConcurrentMap<Method, Method> targetMethods = new ConcurrentHashMap<Method, Method>();
+
+        TargetInvocationHandler(final Object target) {
+            this.target = notNull("target", target);
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            Method targetMethod = targetMethods.get(method);
+            if (targetMethod == null) {
+                try {
+                    targetMethod = target.getClass().getMethod(method.getName(), method.getParameterTypes());
+                } catch (NoSuchMethodException e) {
+                    if (method.getReturnType().isInstance(proxy)) {
+                        return proxy;
+                    }
+                    throw new UnsupportedOperationException("The stub does not support " + method);
+                }
+                targetMethods.put(method, targetMethod);
+            }
+            try {
+                Object result = targetMethod.invoke(target, args);
+                return result == null && method.getReturnType().isInstance(proxy) ? proxy : result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * The target of the stub collections.
+     */
+    public static final class StubCollection<T> {
+        private final Class<T> documentClass;
+        private final List<T> documents;
+
+        StubCollection(final Class<T> documentClass, final List<T> documents) {
+            this.documentClass = notNull("documentClass", documentClass);
+            this.documents = notNull("documents", documents);
+        }
+
+        public MongoNamespace getNamespace() {
+            return NAMESPACE;
+        }
+
+        public Class<T> getDocumentClass() {
+            return documentClass;
+        }
+
+        public CodecRegistry getCodecRegistry() {
+            return MongoClients.getDefaultCodecRegistry();
+        }
+
+        public ReadPreference getReadPreference() {
+            return ReadPreference.primary();
+        }
+
+        public WriteConcern getWriteConcern() {
+            return WriteConcern.ACKNOWLEDGED;
+        }
+
+        public ReadConcern getReadConcern() {
+            return ReadConcern.DEFAULT;
+        }
+
+        public void insertOne(final Object document, final SingleResultCallback<Void> callback) {
+            callback.onResult(null, null);
+        }
+
+        public void count(final Bson filter, final CountOptions options, final SingleResultCallback<Long> callback) {
+            callback.onResult((long) documents.size(), null);
+        }
+
+        public FindIterable<T> find(final Bson filter, final Class<T> resultClass) {
+            return proxy(FindIterable.class, new StubFindIterable<T>(documents));
+        }
+    }
+
+    /**
+     * The target of the stub find iterables.
+     */
+    public static final class StubFindIterable<T> {
+        private final List<T> documents;
+        private int batchSize;
+
+        StubFindIterable(final List<T> documents) {
+            this.documents = documents;
+        }
+
+        public void batchSize(final int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public void first(final SingleResultCallback<T> callback) {
+            callback.onResult(documents.isEmpty() ? null : documents.get(0), null);
+        }
+
+        public void batchCursor(final SingleResultCallback<AsyncBatchCursor<T>> callback) {
+            callback.onResult(new StubBatchCursor<T>(documents, batchSize), null);
+        }
+    }
+
+    /**
+     * A cursor over the documents, which returns views of the list as batches.
+     */
+    private static final class StubBatchCursor<T> implements AsyncBatchCursor<T> {
+        private static final int DEFAULT_BATCH_SIZE = 101;
+
+        private final List<T> documents;
+        private int batchSize;
+        private int position;
+        private boolean closed;
+
+        StubBatchCursor(final List<T> documents, final int batchSize) {
+            this.documents = documents;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public void next(final SingleResultCallback<List<T>> callback) {
+            if (closed || position == documents.size()) {
+                closed = true;
+                callback.onResult(null, null);
+                return;
+            }
+            int end = Math.min(documents.size(), position + (batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE));
+            List<T> batch = documents.subList(position, end);
+            position = end;
+            callback.onResult(batch, null);
+        }
+
+        @Override
+        public void setBatchSize(final int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    /**
+     * The target of the stub clients.
+     */
+    public static final class StubClient {
+        private final MongoDatabase database;
+
+        StubClient(final MongoDatabase database) {
+            this.database = database;
+        }
+
+        public MongoDatabase getDatabase(final String name) {
+            return database;
+        }
+
+        public MongoClientSettings getSettings() {
+            return MongoClientSettings.builder().build();
+        }
+
+        public void close() {
+        }
+    }
+
+    /**
+     * The target of the stub databases.
+     */
+    public static final class StubDatabase {
+        private final MongoCollection<?> collection;
+
+        StubDatabase(final MongoCollection<?> collection) {
+            this.collection = collection;
+        }
+
+        public String getName() {
+            return NAMESPACE.getDatabaseName();
+        }
+
+        public CodecRegistry getCodecRegistry() {
+            return MongoClients.getDefaultCodecRegistry();
+        }
+
+        public ReadPreference getReadPreference() {
+            return ReadPreference.primary();
+        }
+
+        public MongoCollection<?> getCollection(final String name, final Class<?> documentClass) {
+            return collection;
+        }
+    }
+
+    /**
+     * The target of the stub GridFS buckets.
+     */
+    public static final class StubBucket {
+        private final int chunkSizeBytes;
+        private final ByteBuffer file;
+
+        StubBucket(final int chunkSizeBytes, final ByteBuffer file) {
+            this.chunkSizeBytes = chunkSizeBytes;
+            this.file = file;
+        }
+
+        public String getBucketName() {
+            return "fs";
+        }
+
+        public int getChunkSizeBytes() {
+            return chunkSizeBytes;
+        }
+
+        public void uploadFromStream(final String filename, final AsyncInputStream source, final SingleResultCallback<ObjectId> callback) {
+            final ByteBuffer chunk = ByteBuffer.allocate(chunkSizeBytes);
+            source.read(chunk, new SingleResultCallback<Integer>() {
+                @Override
+                public void onResult(final Integer bytesRead, final Throwable t) {
+                    if (t != null) {
+                        callback.onResult(null, t);
+                    } else if (bytesRead < 0) {
+                        callback.onResult(new ObjectId(), null);
+                    } else {
+                        chunk.clear();
+                        source.read(chunk, this);
+                    }
+                }
+            });
+        }
+
+        public void downloadToStream(final ObjectId id, final AsyncOutputStream destination, final SingleResultCallback<Long> callback) {
+            final ByteBuffer remaining = file.duplicate();
+            new SingleResultCallback<Integer>() {
+                @Override
+                public void onResult(final Integer bytesWritten, final Throwable t) {
+                    if (t != null) {
+                        callback.onResult(null, t);
+                    } else if (!remaining.hasRemaining()) {
+                        callback.onResult((long) file.remaining(), null);
+                    } else {
+                        ByteBuffer chunk = remaining.duplicate();
+                        chunk.limit(Math.min(remaining.limit(), remaining.position() + chunkSizeBytes));
+                        remaining.position(chunk.limit());
+                        destination.write(chunk, this);
+                    }
+                }
+            }.onResult(0, null);
+        }
+    }
+
+    private Stubs() {
+    }
+}
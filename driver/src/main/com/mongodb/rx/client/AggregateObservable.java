@@ -95,4 +95,35 @@ public interface AggregateObservable<TResult> extends MongoObservable<TResult> {
      */
     AggregateObservable<TResult> collation(Collation collation);
 
+    /**
+     * Sizes each batch requested from the server from the outstanding demand of the subscriber.
+     *
+     * <p>By default the size of each batch is the number of results requested by the subscriber. When set, the size of each batch is
+     * the outstanding demand less any results already buffered, bounded by the given minimum and maximum. Small requests then no
+     * longer fetch more results than needed and unbounded requests no longer ask the server for an unbounded batch.</p>
+     *
+     * <p>A batch size of one is requested as two, as a batch size of one closes the cursor after the first batch on servers that are
+     * queried with OP_QUERY.</p>
+     *
+     * @param minBatchSize the minimum batch size, which must be greater than zero
+     * @param maxBatchSize the maximum batch size, which must not be less than {@code minBatchSize}
+     * @return this
+     * @since 1.6
+     */
+    AggregateObservable<TResult> batchSizeFromDemand(int minBatchSize, int maxBatchSize);
+
+    /**
+     * Reads ahead of the subscriber, so that the round trip for the next batch overlaps with the processing of the current one.
+     *
+     * <p>Whenever the number of documents received but not yet emitted falls to {@code lowWatermark} or below, the next batch is
+     * requested from the server even if the subscriber has not yet requested more. Each batch is sized to refill the buffer to
+     * {@code highWatermark} documents and at most one request is in flight at a time. When set, this takes precedence over
+     * {@link #batchSizeFromDemand(int, int)} for the size of each batch.</p>
+     *
+     * @param lowWatermark  the number of buffered documents at or below which the next batch is requested, which must not be negative
+     * @param highWatermark the maximum number of documents to buffer, which must be greater than {@code lowWatermark}
+     * @return this
+     * @since 1.6
+     */
+    AggregateObservable<TResult> prefetch(int lowWatermark, int highWatermark);
 }
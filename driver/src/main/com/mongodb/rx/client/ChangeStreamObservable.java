@@ -0,0 +1,78 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client;
+
+import com.mongodb.client.model.Collation;
+import org.bson.BsonDocument;
+
+/**
+ * Observable of the change events of a collection or a database.
+ *
+ * <p>Change events are only read from the server as they are requested. The resume token of each event is tracked, and after a network
+ * error, a cursor that was not found or a change of primary, the change stream is resumed once after the last event that was emitted.
+ * The stream completes when it is invalidated, for example because the collection was dropped.</p>
+ *
+ * @param <TResult> The type of the result.
+ * @mongodb.server.release 3.6
+ * @since 1.6
+ */
+public interface ChangeStreamObservable<TResult> extends MongoObservable<TResult> {
+
+    /**
+     * Sets whether update events include the full document.
+     *
+     * @param fullDocument the full document option, which defaults to {@link FullDocument#DEFAULT}
+     * @return this
+     */
+    ChangeStreamObservable<TResult> fullDocument(FullDocument fullDocument);
+
+    /**
+     * Sets the resume token after which the change stream starts, taking precedence over a token loaded from the
+     * {@link #resumeTokenStore(ResumeTokenStore) resume token store}.
+     *
+     * @param resumeToken the resume token
+     * @return this
+     */
+    ChangeStreamObservable<TResult> resumeAfter(BsonDocument resumeToken);
+
+    /**
+     * Sets the store that the resume token is loaded from when the change stream starts, and saved to after each change event has
+     * been processed by the subscriber.
+     *
+     * @param resumeTokenStore the resume token store
+     * @return this
+     */
+    ChangeStreamObservable<TResult> resumeTokenStore(ResumeTokenStore resumeTokenStore);
+
+    /**
+     * Sets the number of change events to return per batch.
+     *
+     * @param batchSize the batch size
+     * @return this
+     * @mongodb.driver.manual reference/method/cursor.batchSize/#cursor.batchSize Batch Size
+     */
+    ChangeStreamObservable<TResult> batchSize(int batchSize);
+
+    /**
+     * Sets the collation options
+     *
+     * <p>A null value represents the server default.</p>
+     * @param collation the collation options to use
+     * @return this
+     */
+    ChangeStreamObservable<TResult> collation(Collation collation);
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client;
+
+import com.mongodb.annotations.Immutable;
+import com.mongodb.annotations.NotThreadSafe;
+import com.mongodb.rx.client.internal.LoggingSlowDeliveryListener;
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.assertions.Assertions.isTrueArgument;
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * Settings for delivering results to subscribers on a scheduler, rather than on the thread that the async driver completes operations
+ * on, which is usually an I/O thread shared by many connections.
+ *
+ * <p>The results of each subscription are handed off to the scheduler in batches, in order, and no more than the batch size are
+ * requested from the driver ahead of the subscriber. The time that the I/O threads spend delivering results, with or without these
+ * settings, is recorded in {@link OperationMetrics#getDeliveryTime()}, and deliveries that take longer than the slow delivery threshold
+ * are reported to the slow delivery listener.</p>
+ *
+ * @see MongoClients
+ * @since 1.6
+ */
+@Immutable
+public final class DeliverySettings {
+    private final Scheduler scheduler;
+    private final int batchSize;
+    private final long slowDeliveryThresholdNanos;
+    private final SlowDeliveryListener slowDeliveryListener;
+
+    /**
+     * Gets a Builder for creating a new DeliverySettings instance.
+     *
+     * @return a new Builder for DeliverySettings
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * A builder for DeliverySettings.
+     */
+    @NotThreadSafe
+    public static final class Builder {
+        private Scheduler scheduler = Schedulers.computation();
+        private int batchSize = 128;
+        private long slowDeliveryThresholdNanos;
+        private SlowDeliveryListener slowDeliveryListener = new LoggingSlowDeliveryListener();
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the scheduler to deliver results on. Defaults to {@link Schedulers#computation()}.
+         *
+         * <p>{@link Schedulers#immediate()} keeps delivering results on the threads of the driver, for example to only report slow
+         * deliveries.</p>
+         *
+         * @param scheduler the scheduler
+         * @return this
+         */
+        public Builder scheduler(final Scheduler scheduler) {
+            this.scheduler = notNull("scheduler", scheduler);
+            return this;
+        }
+
+        /**
+         * Sets the executor to deliver results on, which should be bounded.
+         *
+         * @param executor the executor
+         * @return this
+         * @see Schedulers#from(Executor)
+         */
+        public Builder executor(final Executor executor) {
+            return scheduler(Schedulers.from(notNull("executor", executor)));
+        }
+
+        /**
+         * Sets the maximum number of results that are buffered for each subscription while they wait to be delivered. Defaults to 128.
+         *
+         * <p>Larger batches hand off more results per hop to the scheduler.</p>
+         *
+         * @param batchSize the batch size, which must be greater than zero
+         * @return this
+         */
+        public Builder batchSize(final int batchSize) {
+            isTrueArgument("batchSize > 0", batchSize > 0);
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Sets how long a subscriber may spend handling a result, error or completion on a thread of the driver before it is reported to
+         * the slow delivery listener. Defaults to 0, which disables the reports.
+         *
+         * <p>A watchdog thread samples the deliveries in progress, so that the reported stack trace shows where the subscriber is blocked.
+         * The deliveries themselves only read the clock and update preallocated state, so the threshold can be left enabled.</p>
+         *
+         * @param threshold the threshold, which must not be negative
+         * @param timeUnit  the time unit
+         * @return this
+         */
+        public Builder slowDeliveryThreshold(final long threshold, final TimeUnit timeUnit) {
+            isTrueArgument("threshold >= 0", threshold >= 0);
+            this.slowDeliveryThresholdNanos = notNull("timeUnit", timeUnit).toNanos(threshold);
+            return this;
+        }
+
+        /**
+         * Sets the listener for deliveries that take longer than the slow delivery threshold. Defaults to a listener that logs a warning
+         * with the stack trace to the {@code org.mongodb.driver.rx.delivery} logger.
+         *
+         * @param slowDeliveryListener the listener
+         * @return this
+         */
+        public Builder slowDeliveryListener(final SlowDeliveryListener slowDeliveryListener) {
+            this.slowDeliveryListener = notNull("slowDeliveryListener", slowDeliveryListener);
+            return this;
+        }
+
+        /**
+         * Build an instance of DeliverySettings.
+         *
+         * @return the settings from this builder
+         */
+        public DeliverySettings build() {
+            return new DeliverySettings(this);
+        }
+    }
+
+    /**
+     * Gets the scheduler that results are delivered on.
+     *
+     * @return the scheduler
+     */
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Gets the maximum number of results that are buffered for each subscription.
+     *
+     * @return the batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Gets how long a subscriber may spend handling a result, error or completion before it is reported to the slow delivery listener.
+     *
+     * @param timeUnit the time unit
+     * @return the threshold, or 0 if slow deliveries are not reported
+     */
+    public long getSlowDeliveryThreshold(final TimeUnit timeUnit) {
+        return timeUnit.convert(slowDeliveryThresholdNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the listener for deliveries that take longer than the slow delivery threshold.
+     *
+     * @return the listener
+     */
+    public SlowDeliveryListener getSlowDeliveryListener() {
+        return slowDeliveryListener;
+    }
+
+    private DeliverySettings(final Builder builder) {
+        this.scheduler = builder.scheduler;
+        this.batchSize = builder.batchSize;
+        this.slowDeliveryThresholdNanos = builder.slowDeliveryThresholdNanos;
+        this.slowDeliveryListener = builder.slowDeliveryListener;
+    }
+
+    @Override
+    public String toString() {
+        return "DeliverySettings{"
+                + "scheduler=" + scheduler
+                + ", batchSize=" + batchSize
+                + ", slowDeliveryThresholdMS=" + TimeUnit.NANOSECONDS.toMillis(slowDeliveryThresholdNanos)
+                + '}';
+    }
+}
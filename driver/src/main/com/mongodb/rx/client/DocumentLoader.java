@@ -0,0 +1,57 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client;
+
+import com.mongodb.annotations.ThreadSafe;
+import rx.Observable;
+
+/**
+ * Loads documents by the value of a key field, collapsing the loads made within a short window into a single {@code $in} query.
+ *
+ * <p>Concurrent loads of the same key share one entry in the query, and the documents that are found are matched back to each load by
+ * the value of their key field. Numeric keys match stored numbers of any numeric type with the same value, as they do on the server. Any
+ * other key is matched by its BSON value, and if the server returns a document whose key field matches none of the keys of the query,
+ * for example because of a collation, the loads of that query fail with a {@code MongoClientException}.</p>
+ *
+ * @param <TDocument> the document type
+ * @see MongoCollection#loader(String)
+ * @since 1.6
+ */
+@ThreadSafe
+public interface DocumentLoader<TDocument> {
+
+    /**
+     * Loads the documents whose key field has the given value. The key is added to a batch when the returned Observable is subscribed
+     * to.
+     *
+     * @param key the key value
+     * @return an Observable emitting each matching document, which completes without emitting if there are none
+     */
+    Observable<TDocument> load(Object key);
+
+    /**
+     * Removes the key from the memo cache, so that it is loaded from the server the next time.
+     *
+     * @param key the key value
+     */
+    void clear(Object key);
+
+    /**
+     * Removes every key from the memo cache.
+     */
+    void clearAll();
+}
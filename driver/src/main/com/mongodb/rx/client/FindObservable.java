@@ -21,6 +21,7 @@ import com.mongodb.client.model.Collation;
 import org.bson.conversions.Bson;
 import rx.Observable;
 
+import java.nio.ByteBuffer;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -241,4 +242,77 @@ public interface FindObservable<TResult> extends MongoObservable<TResult> {
      * @since 1.5
      */
     FindObservable<TResult> snapshot(boolean snapshot);
+
+    /**
+     * Sizes each batch requested from the server from the outstanding demand of the subscriber.
+     *
+     * <p>By default the size of each batch is the number of results requested by the subscriber. When set, the size of each batch is
+     * the outstanding demand less any results already buffered, bounded by the given minimum and maximum. Small requests then no
+     * longer fetch more results than needed and unbounded requests no longer ask the server for an unbounded batch.</p>
+     *
+     * <p>A batch size of one is requested as two, as a batch size of one closes the cursor after the first batch on servers that are
+     * queried with OP_QUERY.</p>
+     *
+     * @param minBatchSize the minimum batch size, which must be greater than zero
+     * @param maxBatchSize the maximum batch size, which must not be less than {@code minBatchSize}
+     * @return this
+     * @since 1.6
+     */
+    FindObservable<TResult> batchSizeFromDemand(int minBatchSize, int maxBatchSize);
+
+    /**
+     * Reads ahead of the subscriber, so that the round trip for the next batch overlaps with the processing of the current one.
+     *
+     * <p>Whenever the number of documents received but not yet emitted falls to {@code lowWatermark} or below, the next batch is
+     * requested from the server even if the subscriber has not yet requested more. Each batch is sized to refill the buffer to
+     * {@code highWatermark} documents and at most one request is in flight at a time. When set, this takes precedence over
+     * {@link #batchSizeFromDemand(int, int)} for the size of each batch.</p>
+     *
+     * @param lowWatermark  the number of buffered documents at or below which the next batch is requested, which must not be negative
+     * @param highWatermark the maximum number of documents to buffer, which must be greater than {@code lowWatermark}
+     * @return this
+     * @since 1.6
+     */
+    FindObservable<TResult> prefetch(int lowWatermark, int highWatermark);
+
+    /**
+     * Fetches a single page of results using keyset pagination.
+     *
+     * <p>Rather than skipping the documents of the previous pages, the page is found with a range filter built from the sort key values
+     * of the last document of the previous page, so the cost of a page does not depend on its depth. The filter of this find is combined
+     * with the range filter, its sort and limit are replaced by those of the token, and its skip is ignored. The options of this find are
+     * left as they were configured. Any projection must include the sort keys.</p>
+     *
+     * <p>Null and missing sort key values are supported, but otherwise the values of each sort key should have the same BSON type, as
+     * the range filter only matches values that are comparable with those of the last document of the previous page.</p>
+     *
+     * @param pageToken the token for the page, from {@link PageToken#first(Bson, int)} or {@link Page#getNextPageToken()}
+     * @return an Observable with a single element, the page
+     * @since 1.6
+     */
+    Observable<Page<TResult>> page(PageToken pageToken);
+
+    /**
+     * Fetches every page of results using keyset pagination, fetching each page only once it has been requested.
+     *
+     * @param sort     the sort criteria, to which an ascending {@code _id} is appended as a tie-breaker if it is not already included
+     * @param pageSize the number of documents in each page, which must be greater than zero
+     * @return an Observable emitting each page in turn
+     * @see #page(PageToken)
+     * @since 1.6
+     */
+    Observable<Page<TResult>> pages(Bson sort, int pageSize);
+
+    /**
+     * Returns an Observable that emits the documents of each batch received from the server as a single buffer of concatenated BSON
+     * documents, for passing results on without decoding them.
+     *
+     * <p>If the results are {@link org.bson.RawBsonDocument}s, for example from a collection returned by
+     * {@link MongoCollection#withRawDocuments()}, their bytes are copied as they are. Otherwise each result is encoded with the codec of
+     * the result class. As with {@link #toObservableBatches()}, demand is counted in batches.</p>
+     *
+     * @return an Observable emitting a buffer, positioned at zero, for each non empty batch
+     * @since 1.6
+     */
+    Observable<ByteBuffer> toObservableRawBatches();
 }
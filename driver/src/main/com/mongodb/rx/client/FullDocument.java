@@ -0,0 +1,49 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client;
+
+/**
+ * Whether change events for updates include the full document.
+ *
+ * @see ChangeStreamObservable#fullDocument(FullDocument)
+ * @since 1.6
+ */
+public enum FullDocument {
+
+    /**
+     * Update events only include the delta of the fields that were changed.
+     */
+    DEFAULT("default"),
+
+    /**
+     * Update events also include the most current majority committed version of the updated document.
+     */
+    UPDATE_LOOKUP("updateLookup");
+
+    private final String value;
+
+    FullDocument(final String value) {
+        this.value = value;
+    }
+
+    /**
+     * @return the value of the {@code fullDocument} option of the {@code $changeStream} stage
+     */
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client;
+
+import com.mongodb.annotations.Immutable;
+import com.mongodb.annotations.NotThreadSafe;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.assertions.Assertions.isTrueArgument;
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * Settings for hedged reads.
+ *
+ * @see MongoCollection#withHedgedReads(HedgedReadSettings)
+ * @since 1.6
+ */
+@Immutable
+public final class HedgedReadSettings {
+    private final long delayNanos;
+    private final double percentile;
+    private final int minSamples;
+    private final int maxFindLimit;
+
+    /**
+     * Gets a Builder for creating a new HedgedReadSettings instance.
+     *
+     * @return a new Builder for HedgedReadSettings
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * A builder for HedgedReadSettings.
+     */
+    @NotThreadSafe
+    public static final class Builder {
+        private long delayNanos = TimeUnit.MILLISECONDS.toNanos(50);
+        private double percentile;
+        private int minSamples = 100;
+        private int maxFindLimit = 100;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets how long to wait for a response before sending the duplicate read. Defaults to 50 milliseconds.
+         *
+         * <p>If a percentile is set, this is only used until enough latencies have been observed.</p>
+         *
+         * @param delay    the delay, which must not be negative
+         * @param timeUnit the time unit
+         * @return this
+         */
+        public Builder delay(final long delay, final TimeUnit timeUnit) {
+            isTrueArgument("delay >= 0", delay >= 0);
+            this.delayNanos = notNull("timeUnit", timeUnit).toNanos(delay);
+            return this;
+        }
+
+        /**
+         * Sets the percentile of the observed read latencies after which the duplicate read is sent, for example 95. Defaults to 0, which
+         * always waits for the fixed delay.
+         *
+         * @param percentile the percentile, which must be at least 0 and less than 100
+         * @return this
+         */
+        public Builder percentile(final double percentile) {
+            isTrueArgument("percentile >= 0 and < 100", percentile >= 0 && percentile < 100);
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * Sets the number of latencies that need to be observed before the percentile is used instead of the fixed delay. Defaults to 100.
+         *
+         * @param minSamples the minimum number of samples, which must be greater than zero
+         * @return this
+         */
+        public Builder minSamples(final int minSamples) {
+            isTrueArgument("minSamples > 0", minSamples > 0);
+            this.minSamples = minSamples;
+            return this;
+        }
+
+        /**
+         * Sets the largest limit of a find that is hedged. Defaults to 100.
+         *
+         * <p>A hedged find reads all of its results into memory before emitting them, so that only one of the attempts is emitted. Finds
+         * without a limit, or with a larger one, are streamed from a cursor without being hedged.</p>
+         *
+         * @param maxFindLimit the largest limit, which must be greater than zero
+         * @return this
+         */
+        public Builder maxFindLimit(final int maxFindLimit) {
+            isTrueArgument("maxFindLimit > 0", maxFindLimit > 0);
+            this.maxFindLimit = maxFindLimit;
+            return this;
+        }
+
+        /**
+         * Build an instance of HedgedReadSettings.
+         *
+         * @return the settings from this builder
+         */
+        public HedgedReadSettings build() {
+            return new HedgedReadSettings(this);
+        }
+    }
+
+    /**
+     * Gets the fixed delay before the duplicate read is sent.
+     *
+     * @param timeUnit the time unit
+     * @return the delay
+     */
+    public long getDelay(final TimeUnit timeUnit) {
+        return timeUnit.convert(delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the percentile of the observed read latencies after which the duplicate read is sent.
+     *
+     * @return the percentile, or 0 if the fixed delay is always used
+     */
+    public double getPercentile() {
+        return percentile;
+    }
+
+    /**
+     * Gets the number of latencies that need to be observed before the percentile is used.
+     *
+     * @return the minimum number of samples
+     */
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    /**
+     * Gets the largest limit of a find that is hedged.
+     *
+     * @return the largest limit
+     */
+    public int getMaxFindLimit() {
+        return maxFindLimit;
+    }
+
+    private HedgedReadSettings(final Builder builder) {
+        this.delayNanos = builder.delayNanos;
+        this.percentile = builder.percentile;
+        this.minSamples = builder.minSamples;
+        this.maxFindLimit = builder.maxFindLimit;
+    }
+
+    @Override
+    public String toString() {
+        return "HedgedReadSettings{"
+                + "delayMS=" + TimeUnit.NANOSECONDS.toMillis(delayNanos)
+                + ", percentile=" + percentile
+                + ", minSamples=" + minSamples
+                + ", maxFindLimit=" + maxFindLimit
+                + '}';
+    }
+}
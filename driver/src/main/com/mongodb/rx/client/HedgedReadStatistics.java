@@ -0,0 +1,101 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client;
+
+import com.mongodb.annotations.Immutable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A snapshot of the statistics of hedged reads.
+ *
+ * <p>A duplicate read may be sent to the same server as the original, and is counted whichever server it was sent to, so the hedge and
+ * hedge win counts are an upper bound on the reads that were actually answered by another server.</p>
+ *
+ * @see MongoCollection#getHedgedReadStatistics()
+ * @since 1.6
+ */
+@Immutable
+public final class HedgedReadStatistics {
+    private final long readCount;
+    private final long hedgeCount;
+    private final long hedgeWinCount;
+    private final long delayNanos;
+
+    /**
+     * Construct a new instance
+     *
+     * @param readCount     the number of hedgeable reads
+     * @param hedgeCount    the number of reads for which a duplicate read was sent
+     * @param hedgeWinCount the number of reads answered by the duplicate read
+     * @param delayNanos    the current delay before a duplicate read is sent, in nanoseconds
+     */
+    public HedgedReadStatistics(final long readCount, final long hedgeCount, final long hedgeWinCount, final long delayNanos) {
+        this.readCount = readCount;
+        this.hedgeCount = hedgeCount;
+        this.hedgeWinCount = hedgeWinCount;
+        this.delayNanos = delayNanos;
+    }
+
+    /**
+     * @return the number of hedgeable reads
+     */
+    public long getReadCount() {
+        return readCount;
+    }
+
+    /**
+     * @return the number of reads for which a duplicate read was sent
+     */
+    public long getHedgeCount() {
+        return hedgeCount;
+    }
+
+    /**
+     * @return the number of reads answered by the duplicate read
+     */
+    public long getHedgeWinCount() {
+        return hedgeWinCount;
+    }
+
+    /**
+     * @return the fraction of reads for which a duplicate read was sent
+     */
+    public double getHedgeRate() {
+        return readCount == 0 ? 0 : (double) hedgeCount / readCount;
+    }
+
+    /**
+     * Gets the current delay before a duplicate read is sent.
+     *
+     * @param timeUnit the time unit
+     * @return the delay
+     */
+    public long getDelay(final TimeUnit timeUnit) {
+        return timeUnit.convert(delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "HedgedReadStatistics{"
+                + "readCount=" + readCount
+                + ", hedgeCount=" + hedgeCount
+                + ", hedgeWinCount=" + hedgeWinCount
+                + ", delayMS=" + TimeUnit.NANOSECONDS.toMillis(delayNanos)
+                + '}';
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client;
+
+import com.mongodb.annotations.Immutable;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.assertions.Assertions.isTrueArgument;
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * A snapshot of a histogram of latencies.
+ *
+ * <p>Latencies are recorded into buckets whose width is proportional to their value, so percentiles are accurate to within about
+ * 2%.</p>
+ *
+ * @see OperationMetrics
+ * @since 1.6
+ */
+@Immutable
+public final class LatencyHistogram {
+    private final long[] bucketNanos;
+    private final long[] bucketCounts;
+    private final long count;
+    private final long minNanos;
+    private final long maxNanos;
+    private final long totalNanos;
+
+    /**
+     * Construct a new instance
+     *
+     * @param bucketNanos  the highest latency of each non-empty bucket, in ascending order and in nanoseconds
+     * @param bucketCounts the number of latencies recorded in each non-empty bucket
+     * @param minNanos     the lowest latency recorded, in nanoseconds
+     * @param maxNanos     the highest latency recorded, in nanoseconds
+     * @param totalNanos   the sum of the latencies recorded, in nanoseconds
+     */
+    public LatencyHistogram(final long[] bucketNanos, final long[] bucketCounts, final long minNanos, final long maxNanos,
+                            final long totalNanos) {
+        notNull("bucketNanos", bucketNanos);
+        notNull("bucketCounts", bucketCounts);
+        isTrueArgument("bucketNanos and bucketCounts have the same length", bucketNanos.length == bucketCounts.length);
+        this.bucketNanos = Arrays.copyOf(bucketNanos, bucketNanos.length);
+        this.bucketCounts = Arrays.copyOf(bucketCounts, bucketCounts.length);
+        long total = 0;
+        for (long bucketCount : bucketCounts) {
+            total += bucketCount;
+        }
+        this.count = total;
+        this.minNanos = minNanos;
+        this.maxNanos = maxNanos;
+        this.totalNanos = totalNanos;
+    }
+
+    /**
+     * @return the number of latencies recorded
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the lowest latency recorded.
+     *
+     * @param timeUnit the time unit
+     * @return the lowest latency, or 0 if none were recorded
+     */
+    public long getMin(final TimeUnit timeUnit) {
+        return count == 0 ? 0 : timeUnit.convert(minNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the highest latency recorded.
+     *
+     * @param timeUnit the time unit
+     * @return the highest latency, or 0 if none were recorded
+     */
+    public long getMax(final TimeUnit timeUnit) {
+        return count == 0 ? 0 : timeUnit.convert(maxNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the mean of the latencies recorded.
+     *
+     * @param timeUnit the time unit
+     * @return the mean latency, or 0 if none were recorded
+     */
+    public long getMean(final TimeUnit timeUnit) {
+        return count == 0 ? 0 : timeUnit.convert(totalNanos / count, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the latency that the given percentage of the recorded latencies are at or below.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @param timeUnit   the time unit
+     * @return the latency, or 0 if none were recorded
+     */
+    public long getValueAtPercentile(final double percentile, final TimeUnit timeUnit) {
+        isTrueArgument("percentile between 0 and 100", percentile >= 0 && percentile <= 100);
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                return timeUnit.convert(Math.min(Math.max(bucketNanos[i], minNanos), maxNanos), TimeUnit.NANOSECONDS);
+            }
+        }
+        return timeUnit.convert(maxNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{"
+                + "count=" + count
+                + ", p50Micros=" + getValueAtPercentile(50, TimeUnit.MICROSECONDS)
+                + ", p99Micros=" + getValueAtPercentile(99, TimeUnit.MICROSECONDS)
+                + ", maxMicros=" + getMax(TimeUnit.MICROSECONDS)
+                + '}';
+    }
+}
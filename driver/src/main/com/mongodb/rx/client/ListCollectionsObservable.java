@@ -47,4 +47,20 @@ public interface ListCollectionsObservable<TResult> extends MongoObservable<TRes
      */
     ListCollectionsObservable<TResult> maxTime(long maxTime, TimeUnit timeUnit);
 
+    /**
+     * Sizes each batch requested from the server from the outstanding demand of the subscriber.
+     *
+     * <p>By default the size of each batch is the number of results requested by the subscriber. When set, the size of each batch is
+     * the outstanding demand less any results already buffered, bounded by the given minimum and maximum. Small requests then no
+     * longer fetch more results than needed and unbounded requests no longer ask the server for an unbounded batch.</p>
+     *
+     * <p>A batch size of one is requested as two, as a batch size of one closes the cursor after the first batch on servers that are
+     * queried with OP_QUERY.</p>
+     *
+     * @param minBatchSize the minimum batch size, which must be greater than zero
+     * @param maxBatchSize the maximum batch size, which must not be less than {@code minBatchSize}
+     * @return this
+     * @since 1.6
+     */
+    ListCollectionsObservable<TResult> batchSizeFromDemand(int minBatchSize, int maxBatchSize);
 }
@@ -83,4 +83,16 @@ public interface MongoClient extends Closeable {
      */
     <TResult> ListDatabasesObservable<TResult> listDatabases(Class<TResult> clazz);
 
+    /**
+     * Gets a snapshot of the metrics of the operations started through this client, by namespace and operation.
+     *
+     * <p>Operations on a database, and on the collections and GridFS buckets of a database, are recorded when the database was obtained
+     * from this client. The namespace of a GridFS bucket is the name of its database followed by the name of the bucket, and the
+     * namespace of the operations on the client itself is {@code admin}.</p>
+     *
+     * @return the metrics
+     * @since 1.6
+     */
+    MongoMetrics getMetrics();
+
 }
@@ -126,8 +126,24 @@ public final class MongoClients {
      */
     public static MongoClient create(final ConnectionString connectionString, final ObservableAdapter observableAdapter,
                                      final MongoDriverInformation mongoDriverInformation) {
+        return create(connectionString, observableAdapter, mongoDriverInformation, null);
+    }
+
+    /**
+     * Create a new client with the given connection string, delivering the results of its operations on the scheduler of the delivery
+     * settings.
+     *
+     * @param connectionString the settings
+     * @param observableAdapter the {@link ObservableAdapter} to adapt all {@code Observables}.
+     * @param mongoDriverInformation any driver information to associate with the MongoClient, which may be null
+     * @param deliverySettings the settings for delivering results, or null to deliver them on the threads of the async driver
+     * @return the client
+     * @since 1.6
+     */
+    public static MongoClient create(final ConnectionString connectionString, final ObservableAdapter observableAdapter,
+                                     final MongoDriverInformation mongoDriverInformation, final DeliverySettings deliverySettings) {
         return create(com.mongodb.async.client.MongoClients.create(connectionString, getMongoDriverInformation(mongoDriverInformation)),
-                observableAdapter);
+                observableAdapter, deliverySettings);
     }
 
     /**
@@ -143,8 +159,24 @@ public final class MongoClients {
      */
     public static MongoClient create(final MongoClientSettings settings, final ObservableAdapter observableAdapter,
                                      final MongoDriverInformation mongoDriverInformation) {
+        return create(settings, observableAdapter, mongoDriverInformation, null);
+    }
+
+    /**
+     * Creates a new client with the given client settings, delivering the results of its operations on the scheduler of the delivery
+     * settings.
+     *
+     * @param settings the settings
+     * @param observableAdapter the {@link ObservableAdapter} to adapt all {@code Observables}.
+     * @param mongoDriverInformation any driver information to associate with the MongoClient, which may be null
+     * @param deliverySettings the settings for delivering results, or null to deliver them on the threads of the async driver
+     * @return the client
+     * @since 1.6
+     */
+    public static MongoClient create(final MongoClientSettings settings, final ObservableAdapter observableAdapter,
+                                     final MongoDriverInformation mongoDriverInformation, final DeliverySettings deliverySettings) {
         return create(com.mongodb.async.client.MongoClients.create(settings, getMongoDriverInformation(mongoDriverInformation)),
-                observableAdapter);
+                observableAdapter, deliverySettings);
     }
 
     /**
@@ -172,7 +204,28 @@ public final class MongoClients {
      */
     public static MongoClient create(final com.mongodb.async.client.MongoClient asyncMongoClient,
                                      final ObservableAdapter observableAdapter) {
-        return new MongoClientImpl(asyncMongoClient, observableAdapter);
+        return create(asyncMongoClient, observableAdapter, null);
+    }
+
+    /**
+     * Creates a new client with the given async MongoClient, delivering the results of its operations on the scheduler of the delivery
+     * settings.
+     *
+     * <p>The delivery settings apply to the Observables of the client and of the databases, collections and GridFS buckets obtained
+     * from it, before the observable adapter. Replacing the observable adapter of a database or collection also replaces the delivery
+     * settings.</p>
+     *
+     * <p>Note: This shares the {@code MongoClient} between two APIs. Calling close from either API will close the client.</p>
+     *
+     * @param asyncMongoClient the async MongoClient
+     * @param observableAdapter the {@link ObservableAdapter} to adapt all {@code Observables}.
+     * @param deliverySettings the settings for delivering results, or null to deliver them on the threads of the async driver
+     * @return the client
+     * @since 1.6
+     */
+    public static MongoClient create(final com.mongodb.async.client.MongoClient asyncMongoClient,
+                                     final ObservableAdapter observableAdapter, final DeliverySettings deliverySettings) {
+        return new MongoClientImpl(asyncMongoClient, observableAdapter, deliverySettings);
     }
 
     /**
@@ -38,11 +38,13 @@ import com.mongodb.client.model.WriteModel;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 import org.bson.Document;
+import org.bson.RawBsonDocument;
 import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.conversions.Bson;
 import rx.Observable;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The MongoCollection interface.
@@ -117,6 +119,18 @@ public interface MongoCollection<TDocument> {
      */
     <NewTDocument> MongoCollection<NewTDocument> withDocumentClass(Class<NewTDocument> clazz);
 
+    /**
+     * Create a new MongoCollection instance whose documents are {@link RawBsonDocument}s.
+     *
+     * <p>Results are copied from the server reply as they are, without decoding any of their fields, which suits results that are only
+     * passed on. Fields are decoded lazily if they are accessed.</p>
+     *
+     * @return a new MongoCollection instance with {@code RawBsonDocument} as the document class
+     * @see FindObservable#toObservableRawBatches()
+     * @since 1.6
+     */
+    MongoCollection<RawBsonDocument> withRawDocuments();
+
     /**
      * Create a new MongoCollection instance with a different codec registry.
      *
@@ -160,6 +174,107 @@ public interface MongoCollection<TDocument> {
      */
     MongoCollection<TDocument> withObservableAdapter(ObservableAdapter observableAdapter);
 
+    /**
+     * Create a new MongoCollection instance that coalesces the documents inserted by concurrent calls to {@code insertOne} into unordered
+     * {@code insertMany} operations.
+     *
+     * <p>A batch is sent once it holds {@code maxBatchSize} documents or {@code maxBatchBytes} encoded bytes, or {@code maxDelay} after
+     * its first document was added, whichever comes first. Each insert still completes, or fails with a
+     * {@link com.mongodb.MongoWriteException}, individually. As the batch is unordered, the order in which documents are inserted is
+     * not guaranteed. Inserts that set {@link InsertOneOptions#getBypassDocumentValidation()} are not batched.</p>
+     *
+     * @param maxBatchSize  the maximum number of documents in a batch, which must be greater than zero
+     * @param maxBatchBytes the maximum number of encoded bytes in a batch, which must be greater than zero
+     * @param maxDelay      the maximum time to wait for a batch to fill, which must not be negative. Zero sends each document as soon as
+     *                      it is inserted.
+     * @param timeUnit      the time unit of the delay
+     * @return a new MongoCollection instance that batches inserts
+     * @since 1.6
+     */
+    MongoCollection<TDocument> withWriteBatching(int maxBatchSize, int maxBatchBytes, long maxDelay, TimeUnit timeUnit);
+
+    /**
+     * Create a new MongoCollection instance that caches the results of {@code count}, {@code distinct}, {@link FindObservable#first()}
+     * and finds with a non zero limit on the client.
+     *
+     * <p>Results are cached by namespace, read preference, read concern, codec registry, result class and the encoded query options, and
+     * are shared between subscribers, so they should not be modified. Any write through the returned collection, or the collections
+     * derived from it, invalidates the whole cache; writes by other clients are only seen once the cached results expire. Finds that set
+     * modifiers, {@code min}, {@code max}, {@code maxScan}, {@code returnKey}, {@code showRecordId}, {@code snapshot}, {@code partial},
+     * {@code oplogReplay} or a tailable cursor type are not cached.</p>
+     *
+     * @param settings the cache settings
+     * @return a new MongoCollection instance with its own query cache
+     * @since 1.6
+     */
+    MongoCollection<TDocument> withQueryCache(QueryCacheSettings settings);
+
+    /**
+     * Gets the statistics of the query cache of this collection.
+     *
+     * @return the statistics, or null if this collection does not have a query cache
+     * @see #withQueryCache(QueryCacheSettings)
+     * @since 1.6
+     */
+    QueryCacheStatistics getQueryCacheStatistics();
+
+    /**
+     * Create a new MongoCollection instance that hedges its idempotent reads: {@code count}, {@code distinct},
+     * {@link FindObservable#first()} and finds with a non zero limit of at most {@link HedgedReadSettings#getMaxFindLimit()}.
+     *
+     * <p>If a hedged read has not been answered within the configured delay, a duplicate of it is sent and the first successful response
+     * is used. Each attempt selects a server on its own, so this is most useful with a read preference that allows several members of the
+     * replica set, such as {@code secondaryPreferred}. The duplicate is not guaranteed to go to a different server: with two eligible
+     * members it can land on the same slow one about half of the time, and it still counts as a hedge in the statistics. The losing attempt
+     * is not interrupted on the server; its response is ignored.</p>
+     *
+     * @param settings the hedged read settings
+     * @return a new MongoCollection instance with its own hedged read statistics
+     * @since 1.6
+     */
+    MongoCollection<TDocument> withHedgedReads(HedgedReadSettings settings);
+
+    /**
+     * Gets the statistics of the hedged reads of this collection.
+     *
+     * @return the statistics, or null if this collection does not hedge its reads
+     * @see #withHedgedReads(HedgedReadSettings)
+     * @since 1.6
+     */
+    HedgedReadStatistics getHedgedReadStatistics();
+
+    /**
+     * Create a loader of the documents of this collection by the value of a key field. The loads made before the next tick of the
+     * computation scheduler are sent as a single {@code $in} query of at most 1000 keys, and the loaded documents are not memoized.
+     *
+     * @param keyField the name of the key field, for example {@code _id}
+     * @return the document loader
+     * @since 1.6
+     */
+    DocumentLoader<TDocument> loader(String keyField);
+
+    /**
+     * Create a loader of the documents of this collection by the value of a key field.
+     *
+     * @param keyField the name of the key field, for example {@code _id}
+     * @param maxBatchSize the maximum number of distinct keys in a single query
+     * @param maxDelay the maximum time to wait for more keys after the first key of a batch, or 0 to wait for the next tick
+     * @param timeUnit the time unit
+     * @param memoize whether to keep the loaded documents, by key, until they are cleared from the loader
+     * @return the document loader
+     * @since 1.6
+     */
+    DocumentLoader<TDocument> loader(String keyField, int maxBatchSize, long maxDelay, TimeUnit timeUnit, boolean memoize);
+
+    /**
+     * Gets a view of this collection whose single result operations return a {@code Single} or a {@code Completable}, bridged directly
+     * from the driver callback rather than through an {@code Observable}.
+     *
+     * @return the single result view of this collection
+     * @since 1.6
+     */
+    SingleMongoCollection<TDocument> asSingle();
+
     /**
      * Counts the number of documents in the collection.
      *
@@ -245,6 +360,23 @@ public interface MongoCollection<TDocument> {
      */
     <TResult> FindObservable<TResult> find(Bson filter, Class<TResult> clazz);
 
+    /**
+     * Splits the collection into contiguous ranges of the {@code _id} index and creates a find for each range, so that the whole
+     * collection can be read by several cursors in parallel.
+     *
+     * <p>The range boundaries are chosen from a random sample of the {@code _id} values, so each range holds roughly the same number of
+     * documents. Each find is bounded by {@code min} and {@code max} and hinted to use the {@code _id} index. To read the ranges as a
+     * single stream with bounded concurrency, flatten them with
+     * {@code flatMap} and its {@code maxConcurrent} argument.</p>
+     *
+     * @param partitions the number of ranges to split the collection into, which must be greater than zero. Fewer ranges may be emitted
+     *                   if the collection holds too few distinct {@code _id} values.
+     * @return an Observable emitting one find per range, in ascending {@code _id} order
+     * @mongodb.server.release 3.2
+     * @since 1.6
+     */
+    Observable<FindObservable<TDocument>> parallelScan(int partitions);
+
     /**
      * Aggregates documents according to the specified aggregation pipeline.
      *
@@ -265,6 +397,40 @@ public interface MongoCollection<TDocument> {
      */
     <TResult> AggregateObservable<TResult> aggregate(List<? extends Bson> pipeline, Class<TResult> clazz);
 
+    /**
+     * Creates a change stream for this collection.
+     *
+     * @return the change stream observable
+     * @mongodb.driver.manual changeStreams/ Change Streams
+     * @mongodb.server.release 3.6
+     * @since 1.6
+     */
+    ChangeStreamObservable<Document> watch();
+
+    /**
+     * Creates a change stream for this collection.
+     *
+     * @param pipeline the aggregation pipeline to apply to the change stream
+     * @return the change stream observable
+     * @mongodb.driver.manual changeStreams/ Change Streams
+     * @mongodb.server.release 3.6
+     * @since 1.6
+     */
+    ChangeStreamObservable<Document> watch(List<? extends Bson> pipeline);
+
+    /**
+     * Creates a change stream for this collection.
+     *
+     * @param pipeline    the aggregation pipeline to apply to the change stream
+     * @param resultClass the class to decode each change event into
+     * @param <TResult>   the target document type of the change events
+     * @return the change stream observable
+     * @mongodb.driver.manual changeStreams/ Change Streams
+     * @mongodb.server.release 3.6
+     * @since 1.6
+     */
+    <TResult> ChangeStreamObservable<TResult> watch(List<? extends Bson> pipeline, Class<TResult> resultClass);
+
 
     /**
      * Aggregates documents according to the specified map-reduce function.
@@ -305,6 +471,26 @@ public interface MongoCollection<TDocument> {
      */
     Observable<BulkWriteResult> bulkWrite(List<? extends WriteModel<? extends TDocument>> requests, BulkWriteOptions options);
 
+    /**
+     * Executes a stream of inserts, updates, replaces, and deletes.
+     *
+     * <p>The requests are consumed from the Observable only as capacity frees up, and are written in batches cut by count and by encoded
+     * size, so that memory use is bounded by the batches in flight rather than by the number of requests. Ordered writes have a single
+     * batch in flight and stop at the first failed batch. The indexes of upserts and write errors are counted from the start of the
+     * stream rather than from the start of their batch.</p>
+     *
+     * <p>Unordered writes carry on past batches that fail with write errors, such as duplicate keys, and then fail with a
+     * {@link com.mongodb.MongoBulkWriteException} that combines the write errors of every failed batch. Its write result only covers the
+     * failed batches, as the result of every other batch has already been emitted.</p>
+     *
+     * @param requests the writes to execute
+     * @param options  the options to apply to the bulk write operation
+     * @return an Observable with one BulkWriteResult for each batch that was written
+     * @since 1.6
+     */
+    Observable<BulkWriteResult> bulkWrite(Observable<? extends WriteModel<? extends TDocument>> requests,
+                                          StreamingBulkWriteOptions options);
+
     /**
      * Inserts the provided document. If the document is missing an identifier, the driver should generate one.
      *
@@ -259,4 +259,45 @@ public interface MongoDatabase {
      * @mongodb.driver.manual reference/command/create Create Command
      */
     Observable<Success> createView(String viewName, String viewOn, List<? extends Bson> pipeline, CreateViewOptions createViewOptions);
+
+    /**
+     * Creates a change stream for every collection of this database.
+     *
+     * <p>The async driver cannot pin a cursor to the server that opened it, so each {@code getMore} of a database change stream selects a
+     * server on its own. Against a sharded cluster, the client should therefore be connected to a single mongos: with several mongos in
+     * the seed list, a {@code getMore} that reaches a mongos that does not own the cursor fails with CursorNotFound, and the change stream
+     * resumes, opening a new cursor, on almost every batch.</p>
+     *
+     * @return the change stream observable
+     * @mongodb.driver.manual changeStreams/ Change Streams
+     * @mongodb.server.release 3.6
+     * @since 1.6
+     */
+    ChangeStreamObservable<Document> watch();
+
+    /**
+     * Creates a change stream for every collection of this database.
+     *
+     * @param pipeline the aggregation pipeline to apply to the change stream
+     * @return the change stream observable
+     * @see #watch()
+     * @mongodb.driver.manual changeStreams/ Change Streams
+     * @mongodb.server.release 3.6
+     * @since 1.6
+     */
+    ChangeStreamObservable<Document> watch(List<? extends Bson> pipeline);
+
+    /**
+     * Creates a change stream for every collection of this database.
+     *
+     * @param pipeline    the aggregation pipeline to apply to the change stream
+     * @param resultClass the class to decode each change event into
+     * @param <TResult>   the target document type of the change events
+     * @return the change stream observable
+     * @see #watch()
+     * @mongodb.driver.manual changeStreams/ Change Streams
+     * @mongodb.server.release 3.6
+     * @since 1.6
+     */
+    <TResult> ChangeStreamObservable<TResult> watch(List<? extends Bson> pipeline, Class<TResult> resultClass);
 }
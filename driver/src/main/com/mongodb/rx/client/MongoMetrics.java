@@ -0,0 +1,75 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client;
+
+import com.mongodb.annotations.Immutable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * A snapshot of the metrics of the operations of a client, by namespace and operation.
+ *
+ * @see MongoClient#getMetrics()
+ * @since 1.6
+ */
+@Immutable
+public final class MongoMetrics {
+    private final List<OperationMetrics> operations;
+
+    /**
+     * Construct a new instance
+     *
+     * @param operations the metrics of each kind of operation on each namespace
+     */
+    public MongoMetrics(final List<OperationMetrics> operations) {
+        this.operations = Collections.unmodifiableList(new ArrayList<OperationMetrics>(notNull("operations", operations)));
+    }
+
+    /**
+     * @return the metrics of each kind of operation on each namespace that has been started at least once
+     */
+    public List<OperationMetrics> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Gets the metrics of one kind of operation on one namespace.
+     *
+     * @param namespace the namespace, which is the name of the database for operations that are not on a collection
+     * @param operation the name of the operation
+     * @return the metrics, or null if no such operation has been started
+     */
+    public OperationMetrics getOperation(final String namespace, final String operation) {
+        for (OperationMetrics metrics : operations) {
+            if (metrics.getNamespace().equals(namespace) && metrics.getOperation().equals(operation)) {
+                return metrics;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "MongoMetrics{"
+                + "operations=" + operations
+                + '}';
+    }
+}
@@ -20,6 +20,8 @@ import rx.Observable;
 import rx.Subscriber;
 import rx.Subscription;
 
+import java.util.List;
+
 /**
  * Operations that can produce an Observable to iterate over the results with.
  *
@@ -39,6 +41,20 @@ public interface MongoObservable<TResult> {
      */
     Observable<TResult> toObservable();
 
+    /**
+     * Returns an Observable for the operation that emits each batch of results received from the server as a single list.
+     *
+     * <p>Demand is counted in batches rather than in results, so {@code request(1)} requests the next batch. Empty batches are not
+     * emitted. This avoids the per result signalling cost for subscribers that process results in groups.</p>
+     *
+     * <p>As the demand says nothing about the size of a batch, the batch size is left as configured on the underlying iterable, which
+     * is the server default unless the operation reads ahead of the subscriber.</p>
+     *
+     * @return the Observable for the operation
+     * @since 1.6
+     */
+    Observable<List<TResult>> toObservableBatches();
+
     /**
      * A convience method that subscribes to the Observable as provided by {@link #toObservable}.
      *
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client;
+
+import rx.Observable;
+
+/**
+ * An Observable Adapter that is also told which operation produced each Observable.
+ *
+ * <p>This allows adaptions that depend on the operation, for example observing the results of point reads on a different scheduler
+ * than the results of scans. The driver calls {@link #adapt(Observable, OperationContext)} for the Observables returned by the
+ * operations of clients, databases, collections and GridFS buckets, and {@link #adapt(Observable)} for any other Observables, such as
+ * those of GridFS streams.</p>
+ *
+ * @since 1.6
+ */
+public interface OperationAwareObservableAdapter extends ObservableAdapter {
+    /**
+     * Performs any adapations to the underlying observable
+     *
+     * @param observable the Observable to adapt
+     * @param context    the operation that produced the Observable
+     * @param <T> the type of the items emitted by the Observable
+     * @return an adapted Observable
+     */
+    <T> Observable<T> adapt(Observable<T> observable, OperationContext context);
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.annotations.Immutable;
+
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * Describes the operation that produced an Observable.
+ *
+ * @see OperationAwareObservableAdapter
+ * @since 1.6
+ */
+@Immutable
+public final class OperationContext {
+    private final String operation;
+    private final String namespace;
+    private final ReadPreference readPreference;
+    private final Class<?> documentClass;
+
+    /**
+     * Construct a new instance
+     *
+     * @param operation      the name of the operation
+     * @param namespace      the namespace, which is the name of the database for operations that are not on a collection
+     * @param readPreference the read preference of the collection, database, bucket or client that the operation was started from
+     * @param documentClass  the class of the documents that the operation decodes, which may be null
+     */
+    public OperationContext(final String operation, final String namespace, final ReadPreference readPreference,
+                            final Class<?> documentClass) {
+        this.operation = notNull("operation", operation);
+        this.namespace = notNull("namespace", namespace);
+        this.readPreference = notNull("readPreference", readPreference);
+        this.documentClass = documentClass;
+    }
+
+    /**
+     * @return the name of the operation, which is the name of the method that created it, for example {@code find} or {@code insertOne}
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * @return the namespace, which is the name of the database for operations that are not on a collection, and the name of the
+     * database followed by the name of the bucket for GridFS operations
+     */
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * @return the read preference of the collection, database, bucket or client that the operation was started from
+     */
+    public ReadPreference getReadPreference() {
+        return readPreference;
+    }
+
+    /**
+     * @return the class of the documents that the operation decodes, or null if it does not decode documents
+     */
+    public Class<?> getDocumentClass() {
+        return documentClass;
+    }
+
+    @Override
+    public String toString() {
+        return "OperationContext{"
+                + "operation='" + operation + '\''
+                + ", namespace='" + namespace + '\''
+                + ", readPreference=" + readPreference
+                + ", documentClass=" + (documentClass == null ? null : documentClass.getName())
+                + '}';
+    }
+}
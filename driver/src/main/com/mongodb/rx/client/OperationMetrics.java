@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client;
+
+import com.mongodb.annotations.Immutable;
+
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * A snapshot of the metrics of one kind of operation on one namespace, for example the {@code find} operations on a collection.
+ *
+ * <p>An operation starts when its Observable is subscribed to, and finishes when it completes, fails or is unsubscribed from.</p>
+ *
+ * @see MongoMetrics
+ * @since 1.6
+ */
+@Immutable
+public final class OperationMetrics {
+    private final String namespace;
+    private final String operation;
+    private final long inFlightCount;
+    private final long errorCount;
+    private final long resultCount;
+    private final LatencyHistogram timeToFirstResult;
+    private final LatencyHistogram timeToCompletion;
+    private final LatencyHistogram deliveryTime;
+
+    /**
+     * Construct a new instance
+     *
+     * @param namespace         the namespace, which is the name of the database for operations that are not on a collection
+     * @param operation         the name of the operation
+     * @param inFlightCount     the number of operations that have started but not finished
+     * @param errorCount        the number of operations that failed
+     * @param resultCount       the number of results emitted, such as documents
+     * @param timeToFirstResult the time from the start of each operation to its first result
+     * @param timeToCompletion  the time from the start of each operation that completed to its completion
+     * @param deliveryTime      the time the thread that produced each result, error or completion spent delivering it
+     */
+    public OperationMetrics(final String namespace, final String operation, final long inFlightCount, final long errorCount,
+                            final long resultCount, final LatencyHistogram timeToFirstResult, final LatencyHistogram timeToCompletion,
+                            final LatencyHistogram deliveryTime) {
+        this.namespace = notNull("namespace", namespace);
+        this.operation = notNull("operation", operation);
+        this.inFlightCount = inFlightCount;
+        this.errorCount = errorCount;
+        this.resultCount = resultCount;
+        this.timeToFirstResult = notNull("timeToFirstResult", timeToFirstResult);
+        this.timeToCompletion = notNull("timeToCompletion", timeToCompletion);
+        this.deliveryTime = notNull("deliveryTime", deliveryTime);
+    }
+
+    /**
+     * @return the namespace, which is the name of the database for operations that are not on a collection
+     */
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * @return the name of the operation, which is the name of the method that created it
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * @return the number of operations that have started but not finished
+     */
+    public long getInFlightCount() {
+        return inFlightCount;
+    }
+
+    /**
+     * @return the number of operations that failed
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * @return the number of results emitted, such as documents
+     */
+    public long getResultCount() {
+        return resultCount;
+    }
+
+    /**
+     * @return the time from the start of each operation to its first result
+     */
+    public LatencyHistogram getTimeToFirstResult() {
+        return timeToFirstResult;
+    }
+
+    /**
+     * @return the time from the start of each operation that completed to its completion
+     */
+    public LatencyHistogram getTimeToCompletion() {
+        return timeToCompletion;
+    }
+
+    /**
+     * Gets the time the thread that produced each result, error or completion spent delivering it to the subscriber.
+     *
+     * <p>Results are produced on the threads of the async driver, which are usually I/O threads shared by all connections, so this is
+     * how long the subscribers blocked those threads. High values mean results should be delivered on another scheduler, see
+     * {@link DeliverySettings}.</p>
+     *
+     * @return the time spent delivering each result, error or completion
+     */
+    public LatencyHistogram getDeliveryTime() {
+        return deliveryTime;
+    }
+
+    @Override
+    public String toString() {
+        return "OperationMetrics{"
+                + "namespace='" + namespace + '\''
+                + ", operation='" + operation + '\''
+                + ", inFlightCount=" + inFlightCount
+                + ", errorCount=" + errorCount
+                + ", resultCount=" + resultCount
+                + ", timeToFirstResult=" + timeToFirstResult
+                + ", timeToCompletion=" + timeToCompletion
+                + ", deliveryTime=" + deliveryTime
+                + '}';
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client;
+
+import com.mongodb.annotations.Immutable;
+
+import java.util.Collections;
+import java.util.List;
+
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * A page of results from keyset pagination.
+ *
+ * @param <TResult> the type of the documents in the page
+ * @see FindObservable#page(PageToken)
+ * @since 1.6
+ */
+@Immutable
+public final class Page<TResult> {
+    private final List<TResult> documents;
+    private final PageToken nextPageToken;
+
+    /**
+     * Construct a new instance
+     *
+     * @param documents     the documents in the page
+     * @param nextPageToken the token for the next page, or null if this is the last page
+     */
+    public Page(final List<TResult> documents, final PageToken nextPageToken) {
+        this.documents = Collections.unmodifiableList(notNull("documents", documents));
+        this.nextPageToken = nextPageToken;
+    }
+
+    /**
+     * Gets the documents in the page.
+     *
+     * @return the documents
+     */
+    public List<TResult> getDocuments() {
+        return documents;
+    }
+
+    /**
+     * Gets the token for the next page.
+     *
+     * @return the token for the next page, or null if this is the last page
+     */
+    public PageToken getNextPageToken() {
+        return nextPageToken;
+    }
+
+    /**
+     * Returns true if there is a page after this one.
+     *
+     * @return true if there is a next page
+     */
+    public boolean hasNextPage() {
+        return nextPageToken != null;
+    }
+
+    @Override
+    public String toString() {
+        return "Page{"
+                + "documents=" + documents
+                + ", nextPageToken=" + nextPageToken
+                + '}';
+    }
+}
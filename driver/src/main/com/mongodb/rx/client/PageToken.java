@@ -0,0 +1,266 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client;
+
+import com.mongodb.annotations.Immutable;
+import com.mongodb.async.client.MongoClients;
+import org.bson.BSONException;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonValue;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.conversions.Bson;
+import org.bson.io.BasicOutputBuffer;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+import static com.mongodb.assertions.Assertions.isTrueArgument;
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * A continuation token for keyset pagination, identifying a page by the sort key values of the last document of the previous page.
+ *
+ * <p>Tokens should be treated as opaque. They can be passed between processes either by Java serialization or as the string returned by
+ * {@link #encode()}, which is the URL and filename safe Base64 encoding of the token as BSON, without padding.</p>
+ *
+ * @see FindObservable#page(PageToken)
+ * @since 1.6
+ */
+@Immutable
+public final class PageToken implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final BsonDocumentCodec CODEC = new BsonDocumentCodec();
+    private static final char[] BASE64_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+
+    private final BsonDocument sort;
+    private final int pageSize;
+    private final BsonDocument lastSortKeyValues;
+
+    /**
+     * Creates a token for the first page.
+     *
+     * <p>If the sort does not include {@code _id}, it is appended as an ascending tie-breaker so that every document has a unique
+     * position. Every sort key must be an ascending or descending key.</p>
+     *
+     * @param sort     the sort criteria
+     * @param pageSize the number of documents in each page, which must be greater than zero
+     * @return the token for the first page
+     */
+    public static PageToken first(final Bson sort, final int pageSize) {
+        notNull("sort", sort);
+        BsonDocument sortDocument = sort.toBsonDocument(BsonDocument.class, MongoClients.getDefaultCodecRegistry()).clone();
+        checkSortKeys(sortDocument);
+        if (!sortDocument.containsKey("_id")) {
+            sortDocument.append("_id", new BsonInt32(1));
+        }
+        return new PageToken(sortDocument, pageSize, null);
+    }
+
+    /**
+     * Parses a token from the string returned by {@link #encode()}.
+     *
+     * @param encoded the encoded token
+     * @return the token
+     * @throws IllegalArgumentException if the encoded token is not valid Base64 or does not encode a token
+     */
+    public static PageToken parse(final String encoded) {
+        BsonDocument document;
+        BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(decodeBase64(notNull("encoded", encoded))));
+        try {
+            document = CODEC.decode(reader, DecoderContext.builder().build());
+        } catch (BSONException e) {
+            throw new IllegalArgumentException("The encoded token is not a BSON document", e);
+        } finally {
+            reader.close();
+        }
+        isTrueArgument("the encoded token has a sort document", document.isDocument("sort"));
+        isTrueArgument("the encoded token has a page size", document.isInt32("pageSize"));
+        isTrueArgument("the sort key values of the encoded token are a document",
+                !document.containsKey("after") || document.isDocument("after"));
+        checkSortKeys(document.getDocument("sort"));
+        return new PageToken(document.getDocument("sort"), document.getInt32("pageSize").getValue(),
+                document.containsKey("after") ? document.getDocument("after") : null);
+    }
+
+    private static void checkSortKeys(final BsonDocument sort) {
+        for (Map.Entry<String, BsonValue> entry : sort.entrySet()) {
+            isTrueArgument("sort key " + entry.getKey() + " is ascending or descending",
+                    entry.getValue().isNumber() && Math.abs(entry.getValue().asNumber().intValue()) == 1);
+        }
+    }
+
+    private PageToken(final BsonDocument sort, final int pageSize, final BsonDocument lastSortKeyValues) {
+        isTrueArgument("pageSize > 0", pageSize > 0);
+        this.sort = notNull("sort", sort);
+        this.pageSize = pageSize;
+        this.lastSortKeyValues = lastSortKeyValues;
+    }
+
+    /**
+     * Creates the token for the page that follows the document with the given sort key values.
+     *
+     * @param lastSortKeyValues the sort key values of the last document of the current page
+     * @return the token for the next page
+     */
+    public PageToken next(final BsonDocument lastSortKeyValues) {
+        return new PageToken(sort, pageSize, notNull("lastSortKeyValues", lastSortKeyValues).clone());
+    }
+
+    /**
+     * Gets the sort criteria, including the {@code _id} tie-breaker.
+     *
+     * @return the sort criteria
+     */
+    public BsonDocument getSort() {
+        return sort.clone();
+    }
+
+    /**
+     * Gets the number of documents in each page.
+     *
+     * @return the page size
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Gets the sort key values of the last document of the previous page.
+     *
+     * @return the sort key values, or null if this is the token for the first page
+     */
+    public BsonDocument getLastSortKeyValues() {
+        return lastSortKeyValues == null ? null : lastSortKeyValues.clone();
+    }
+
+    /**
+     * Encodes this token as a string that can be parsed with {@link #parse(String)}.
+     *
+     * @return the encoded token
+     */
+    public String encode() {
+        BsonDocument document = new BsonDocument("sort", sort).append("pageSize", new BsonInt32(pageSize));
+        if (lastSortKeyValues != null) {
+            document.append("after", lastSortKeyValues);
+        }
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        BsonBinaryWriter writer = new BsonBinaryWriter(buffer);
+        try {
+            CODEC.encode(writer, document, EncoderContext.builder().build());
+            return encodeBase64(buffer.toByteArray());
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static String encodeBase64(final byte[] bytes) {
+        StringBuilder builder = new StringBuilder((bytes.length * 4 + 2) / 3);
+        for (int i = 0; i < bytes.length; i += 3) {
+            int remaining = Math.min(3, bytes.length - i);
+            int bits = (bytes[i] & 0xff) << 16;
+            if (remaining > 1) {
+                bits |= (bytes[i + 1] & 0xff) << 8;
+            }
+            if (remaining > 2) {
+                bits |= bytes[i + 2] & 0xff;
+            }
+            for (int j = 0; j <= remaining; j++) {
+                builder.append(BASE64_ALPHABET[(bits >> (18 - 6 * j)) & 0x3f]);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static byte[] decodeBase64(final String encoded) {
+        int length = encoded.length();
+        while (length > 0 && encoded.charAt(length - 1) == '=') {
+            length--;
+        }
+        isTrueArgument("the length of the encoded token is valid", length % 4 != 1);
+        byte[] bytes = new byte[length * 3 / 4];
+        int bits = 0;
+        int bitCount = 0;
+        int position = 0;
+        for (int i = 0; i < length; i++) {
+            bits = (bits << 6) | getBase64Value(encoded.charAt(i));
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                bytes[position++] = (byte) (bits >> bitCount);
+            }
+        }
+        return bytes;
+    }
+
+    private static int getBase64Value(final char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        } else if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 26;
+        } else if (c >= '0' && c <= '9') {
+            return c - '0' + 52;
+        } else if (c == '-' || c == '+') {
+            return 62;
+        } else if (c == '_' || c == '/') {
+            return 63;
+        }
+        throw new IllegalArgumentException("The encoded token contains an invalid character: " + c);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        PageToken that = (PageToken) o;
+
+        if (pageSize != that.pageSize) {
+            return false;
+        }
+        if (!sort.equals(that.sort)) {
+            return false;
+        }
+        return lastSortKeyValues != null ? lastSortKeyValues.equals(that.lastSortKeyValues) : that.lastSortKeyValues == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = sort.hashCode();
+        result = 31 * result + pageSize;
+        result = 31 * result + (lastSortKeyValues != null ? lastSortKeyValues.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PageToken{"
+                + "sort=" + sort
+                + ", pageSize=" + pageSize
+                + ", lastSortKeyValues=" + lastSortKeyValues
+                + '}';
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client;
+
+import com.mongodb.annotations.Immutable;
+import com.mongodb.annotations.NotThreadSafe;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.assertions.Assertions.isTrueArgument;
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * Settings for the client side cache of query results.
+ *
+ * @see MongoCollection#withQueryCache(QueryCacheSettings)
+ * @since 1.6
+ */
+@Immutable
+public final class QueryCacheSettings {
+    private final int maxEntries;
+    private final long maxWeight;
+    private final long expireAfterWriteNanos;
+
+    /**
+     * Gets a Builder for creating a new QueryCacheSettings instance.
+     *
+     * @return a new Builder for QueryCacheSettings
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * A builder for QueryCacheSettings.
+     */
+    @NotThreadSafe
+    public static final class Builder {
+        private int maxEntries = 1000;
+        private long maxWeight = 100000;
+        private long expireAfterWriteNanos = TimeUnit.MINUTES.toNanos(1);
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximum number of cached queries. Defaults to 1000.
+         *
+         * @param maxEntries the maximum number of cached queries, which must be greater than zero
+         * @return this
+         */
+        public Builder maxEntries(final int maxEntries) {
+            isTrueArgument("maxEntries > 0", maxEntries > 0);
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Sets the maximum total weight of the cached results, where the weight of a cached query is the number of documents or values it
+         * returned, with a minimum of one. Defaults to 100000.
+         *
+         * @param maxWeight the maximum total weight, which must be greater than zero
+         * @return this
+         */
+        public Builder maxWeight(final long maxWeight) {
+            isTrueArgument("maxWeight > 0", maxWeight > 0);
+            this.maxWeight = maxWeight;
+            return this;
+        }
+
+        /**
+         * Sets how long a result is cached for after it was read from the server. Defaults to one minute.
+         *
+         * @param expireAfterWrite the time to live, which must be greater than zero
+         * @param timeUnit         the time unit
+         * @return this
+         */
+        public Builder expireAfterWrite(final long expireAfterWrite, final TimeUnit timeUnit) {
+            isTrueArgument("expireAfterWrite > 0", expireAfterWrite > 0);
+            this.expireAfterWriteNanos = notNull("timeUnit", timeUnit).toNanos(expireAfterWrite);
+            return this;
+        }
+
+        /**
+         * Build an instance of QueryCacheSettings.
+         *
+         * @return the settings from this builder
+         */
+        public QueryCacheSettings build() {
+            return new QueryCacheSettings(this);
+        }
+    }
+
+    /**
+     * Gets the maximum number of cached queries.
+     *
+     * @return the maximum number of cached queries
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Gets the maximum total weight of the cached results.
+     *
+     * @return the maximum total weight
+     */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Gets how long a result is cached for after it was read from the server.
+     *
+     * @param timeUnit the time unit
+     * @return the time to live
+     */
+    public long getExpireAfterWrite(final TimeUnit timeUnit) {
+        return timeUnit.convert(expireAfterWriteNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private QueryCacheSettings(final Builder builder) {
+        this.maxEntries = builder.maxEntries;
+        this.maxWeight = builder.maxWeight;
+        this.expireAfterWriteNanos = builder.expireAfterWriteNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCacheSettings{"
+                + "maxEntries=" + maxEntries
+                + ", maxWeight=" + maxWeight
+                + ", expireAfterWriteMS=" + TimeUnit.NANOSECONDS.toMillis(expireAfterWriteNanos)
+                + '}';
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client;
+
+import com.mongodb.annotations.Immutable;
+
+/**
+ * A snapshot of the statistics of a query cache.
+ *
+ * @see MongoCollection#getQueryCacheStatistics()
+ * @since 1.6
+ */
+@Immutable
+public final class QueryCacheStatistics {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long invalidationCount;
+    private final int size;
+    private final long weight;
+
+    /**
+     * Construct a new instance
+     *
+     * @param hitCount          the number of reads served from the cache
+     * @param missCount         the number of reads sent to the server
+     * @param evictionCount     the number of entries evicted because of the size or weight bounds, or because they expired
+     * @param invalidationCount the number of times the cache was invalidated by a write
+     * @param size              the number of cached entries
+     * @param weight            the total weight of the cached entries
+     */
+    public QueryCacheStatistics(final long hitCount, final long missCount, final long evictionCount, final long invalidationCount,
+                                final int size, final long weight) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.invalidationCount = invalidationCount;
+        this.size = size;
+        this.weight = weight;
+    }
+
+    /**
+     * @return the number of reads served from the cache
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of reads sent to the server
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the number of entries evicted because of the size or weight bounds, or because they expired
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return the number of times the cache was invalidated by a write
+     */
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    /**
+     * @return the number of cached entries
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the total weight of the cached entries
+     */
+    public long getWeight() {
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCacheStatistics{"
+                + "hitCount=" + hitCount
+                + ", missCount=" + missCount
+                + ", evictionCount=" + evictionCount
+                + ", invalidationCount=" + invalidationCount
+                + ", size=" + size
+                + ", weight=" + weight
+                + '}';
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client;
+
+import org.bson.BsonDocument;
+
+/**
+ * Stores the resume token of a change stream, so that a later subscription can continue where an earlier one stopped.
+ *
+ * <p>Both methods are called from the threads that deliver the change events, so implementations should be quick and thread safe.</p>
+ *
+ * @see ChangeStreamObservable#resumeTokenStore(ResumeTokenStore)
+ * @since 1.6
+ */
+public interface ResumeTokenStore {
+
+    /**
+     * Loads the stored resume token, when a subscription starts.
+     *
+     * @return the resume token, or null to start from the current time
+     */
+    BsonDocument load();
+
+    /**
+     * Saves the resume token of a change event, once the subscriber has processed the event.
+     *
+     * @param resumeToken the resume token
+     */
+    void save(BsonDocument resumeToken);
+}
@@ -0,0 +1,387 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.annotations.ThreadSafe;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.CountOptions;
+import com.mongodb.client.model.DeleteOptions;
+import com.mongodb.client.model.FindOneAndDeleteOptions;
+import com.mongodb.client.model.FindOneAndReplaceOptions;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.InsertOneOptions;
+import com.mongodb.client.model.RenameCollectionOptions;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.conversions.Bson;
+import rx.Completable;
+import rx.Single;
+
+import java.util.List;
+
+/**
+ * A view of a {@link MongoCollection} whose single result operations return a {@code Single} or a {@code Completable}.
+ *
+ * <p>The operations are bridged directly from the driver callback, so they avoid the subscription and producer an {@code Observable}
+ * requires to support backpressure. A {@code Single} or {@code Completable} is cold: the operation is executed each time it is
+ * subscribed to.</p>
+ *
+ * <p>Note: Additions to this interface will not be considered to break binary compatibility.</p>
+ *
+ * @param <TDocument> The type that this collection will encode documents from and decode documents to.
+ * @see MongoCollection#asSingle()
+ * @since 1.6
+ */
+@ThreadSafe
+public interface SingleMongoCollection<TDocument> {
+
+    /**
+     * Gets the namespace of this collection.
+     *
+     * @return the namespace
+     */
+    MongoNamespace getNamespace();
+
+    /**
+     * Gets the {@link MongoCollection} this view was created from.
+     *
+     * @return the MongoCollection
+     */
+    MongoCollection<TDocument> asObservable();
+
+    /**
+     * Counts the number of documents in the collection.
+     *
+     * @return a Single indicating the number of documents
+     */
+    Single<Long> count();
+
+    /**
+     * Counts the number of documents in the collection according to the given options.
+     *
+     * @param filter the query filter
+     * @return a Single indicating the number of documents
+     */
+    Single<Long> count(Bson filter);
+
+    /**
+     * Counts the number of documents in the collection according to the given options.
+     *
+     * @param filter  the query filter
+     * @param options the options describing the count
+     * @return a Single indicating the number of documents
+     */
+    Single<Long> count(Bson filter, CountOptions options);
+
+    /**
+     * Executes a mix of inserts, updates, replaces, and deletes.
+     *
+     * @param requests the writes to execute
+     * @return a Single with the BulkWriteResult
+     */
+    Single<BulkWriteResult> bulkWrite(List<? extends WriteModel<? extends TDocument>> requests);
+
+    /**
+     * Executes a mix of inserts, updates, replaces, and deletes.
+     *
+     * @param requests the writes to execute
+     * @param options  the options to apply to the bulk write operation
+     * @return a Single with the BulkWriteResult
+     */
+    Single<BulkWriteResult> bulkWrite(List<? extends WriteModel<? extends TDocument>> requests, BulkWriteOptions options);
+
+    /**
+     * Inserts the provided document. If the document is missing an identifier, the driver should generate one.
+     *
+     * @param document the document to insert
+     * @return a Completable indicating when the operation has completed or with either a com.mongodb.DuplicateKeyException or
+     * com.mongodb.MongoException
+     */
+    Completable insertOne(TDocument document);
+
+    /**
+     * Inserts the provided document. If the document is missing an identifier, the driver should generate one.
+     *
+     * @param document the document to insert
+     * @param options  the options to apply to the operation
+     * @return a Completable indicating when the operation has completed or with either a com.mongodb.DuplicateKeyException or
+     * com.mongodb.MongoException
+     */
+    Completable insertOne(TDocument document, InsertOneOptions options);
+
+    /**
+     * Inserts a batch of documents.
+     *
+     * @param documents the documents to insert
+     * @return a Completable indicating when the operation has completed or with either a com.mongodb.DuplicateKeyException or
+     * com.mongodb.MongoException
+     */
+    Completable insertMany(List<? extends TDocument> documents);
+
+    /**
+     * Inserts a batch of documents.
+     *
+     * @param documents the documents to insert
+     * @param options   the options to apply to the operation
+     * @return a Completable indicating when the operation has completed or with either a com.mongodb.DuplicateKeyException or
+     * com.mongodb.MongoException
+     */
+    Completable insertMany(List<? extends TDocument> documents, InsertManyOptions options);
+
+    /**
+     * Removes at most one document from the collection that matches the given filter.  If no documents match, the collection is not
+     * modified.
+     *
+     * @param filter the query filter to apply the the delete operation
+     * @return a Single with the DeleteResult or with an com.mongodb.MongoException
+     */
+    Single<DeleteResult> deleteOne(Bson filter);
+
+    /**
+     * Removes at most one document from the collection that matches the given filter.  If no documents match, the collection is not
+     * modified.
+     *
+     * @param filter  the query filter to apply the the delete operation
+     * @param options the options to apply to the delete operation
+     * @return a Single with the DeleteResult or with an com.mongodb.MongoException
+     */
+    Single<DeleteResult> deleteOne(Bson filter, DeleteOptions options);
+
+    /**
+     * Removes all documents from the collection that match the given query filter.  If no documents match, the collection is not modified.
+     *
+     * @param filter the query filter to apply the the delete operation
+     * @return a Single with the DeleteResult or with an com.mongodb.MongoException
+     */
+    Single<DeleteResult> deleteMany(Bson filter);
+
+    /**
+     * Removes all documents from the collection that match the given query filter.  If no documents match, the collection is not modified.
+     *
+     * @param filter  the query filter to apply the the delete operation
+     * @param options the options to apply to the delete operation
+     * @return a Single with the DeleteResult or with an com.mongodb.MongoException
+     */
+    Single<DeleteResult> deleteMany(Bson filter, DeleteOptions options);
+
+    /**
+     * Replace a document in the collection according to the specified arguments.
+     *
+     * @param filter      the query filter to apply the the replace operation
+     * @param replacement the replacement document
+     * @return a Single with the UpdateResult
+     * @mongodb.driver.manual tutorial/modify-documents/#replace-the-document Replace
+     */
+    Single<UpdateResult> replaceOne(Bson filter, TDocument replacement);
+
+    /**
+     * Replace a document in the collection according to the specified arguments.
+     *
+     * @param filter      the query filter to apply the the replace operation
+     * @param replacement the replacement document
+     * @param options     the options to apply to the replace operation
+     * @return a Single with the UpdateResult
+     * @mongodb.driver.manual tutorial/modify-documents/#replace-the-document Replace
+     */
+    Single<UpdateResult> replaceOne(Bson filter, TDocument replacement, UpdateOptions options);
+
+    /**
+     * Update a single document in the collection according to the specified arguments.
+     *
+     * @param filter a document describing the query filter, which may not be null.
+     * @param update a document describing the update, which may not be null. The update to apply must include only update operators.
+     * @return a Single with the UpdateResult
+     * @mongodb.driver.manual tutorial/modify-documents/ Updates
+     * @mongodb.driver.manual reference/operator/update/ Update Operators
+     */
+    Single<UpdateResult> updateOne(Bson filter, Bson update);
+
+    /**
+     * Update a single document in the collection according to the specified arguments.
+     *
+     * @param filter  a document describing the query filter, which may not be null.
+     * @param update  a document describing the update, which may not be null. The update to apply must include only update operators.
+     * @param options the options to apply to the update operation
+     * @return a Single with the UpdateResult
+     * @mongodb.driver.manual tutorial/modify-documents/ Updates
+     * @mongodb.driver.manual reference/operator/update/ Update Operators
+     */
+    Single<UpdateResult> updateOne(Bson filter, Bson update, UpdateOptions options);
+
+    /**
+     * Update all documents in the collection according to the specified arguments.
+     *
+     * @param filter a document describing the query filter, which may not be null.
+     * @param update a document describing the update, which may not be null. The update to apply must include only update operators.
+     * @return a Single with the UpdateResult
+     * @mongodb.driver.manual tutorial/modify-documents/ Updates
+     * @mongodb.driver.manual reference/operator/update/ Update Operators
+     */
+    Single<UpdateResult> updateMany(Bson filter, Bson update);
+
+    /**
+     * Update all documents in the collection according to the specified arguments.
+     *
+     * @param filter  a document describing the query filter, which may not be null.
+     * @param update  a document describing the update, which may not be null. The update to apply must include only update operators.
+     * @param options the options to apply to the update operation
+     * @return a Single with the UpdateResult
+     * @mongodb.driver.manual tutorial/modify-documents/ Updates
+     * @mongodb.driver.manual reference/operator/update/ Update Operators
+     */
+    Single<UpdateResult> updateMany(Bson filter, Bson update, UpdateOptions options);
+
+    /**
+     * Atomically find a document and remove it.
+     *
+     * @param filter the query filter to find the document with
+     * @return a Single with the document that was removed, or with null if no documents matched the query filter
+     */
+    Single<TDocument> findOneAndDelete(Bson filter);
+
+    /**
+     * Atomically find a document and remove it.
+     *
+     * @param filter  the query filter to find the document with
+     * @param options the options to apply to the operation
+     * @return a Single with the document that was removed, or with null if no documents matched the query filter
+     */
+    Single<TDocument> findOneAndDelete(Bson filter, FindOneAndDeleteOptions options);
+
+    /**
+     * Atomically find a document and replace it.
+     *
+     * @param filter      the query filter to apply the the replace operation
+     * @param replacement the replacement document
+     * @return a Single with the document that was replaced, depending on the value of the {@code returnOriginal} property this will
+     * either be the document as it was before the update or as it is after the update, or with null if no documents matched the
+     * query filter
+     */
+    Single<TDocument> findOneAndReplace(Bson filter, TDocument replacement);
+
+    /**
+     * Atomically find a document and replace it.
+     *
+     * @param filter      the query filter to apply the the replace operation
+     * @param replacement the replacement document
+     * @param options     the options to apply to the operation
+     * @return a Single with the document that was replaced, depending on the value of the {@code returnOriginal} property this will
+     * either be the document as it was before the update or as it is after the update, or with null if no documents matched the
+     * query filter
+     */
+    Single<TDocument> findOneAndReplace(Bson filter, TDocument replacement, FindOneAndReplaceOptions options);
+
+    /**
+     * Atomically find a document and update it.
+     *
+     * @param filter a document describing the query filter, which may not be null.
+     * @param update a document describing the update, which may not be null. The update to apply must include only update operators.
+     * @return a Single with the document that was updated before the update was applied, or with null if no documents matched the
+     * query filter
+     */
+    Single<TDocument> findOneAndUpdate(Bson filter, Bson update);
+
+    /**
+     * Atomically find a document and update it.
+     *
+     * @param filter  a document describing the query filter, which may not be null.
+     * @param update  a document describing the update, which may not be null. The update to apply must include only update operators.
+     * @param options the options to apply to the operation
+     * @return a Single with the document that was updated, depending on the value of the {@code returnOriginal} property this will
+     * either be the document as it was before the update or as it is after the update, or with null if no documents matched the
+     * query filter
+     */
+    Single<TDocument> findOneAndUpdate(Bson filter, Bson update, FindOneAndUpdateOptions options);
+
+    /**
+     * Drops this collection from the Database.
+     *
+     * @return a Completable indicating when the operation has completed
+     * @mongodb.driver.manual reference/command/drop/ Drop Collection
+     */
+    Completable drop();
+
+    /**
+     * Creates an index.
+     *
+     * @param key an object describing the index key(s), which may not be null.
+     * @return a Single with the name of the index
+     * @mongodb.driver.manual reference/method/db.collection.ensureIndex Ensure Index
+     */
+    Single<String> createIndex(Bson key);
+
+    /**
+     * Creates an index.
+     *
+     * @param key     an object describing the index key(s), which may not be null.
+     * @param options the options for the index
+     * @return a Single with the name of the index
+     * @mongodb.driver.manual reference/method/db.collection.ensureIndex Ensure Index
+     */
+    Single<String> createIndex(Bson key, IndexOptions options);
+
+    /**
+     * Drops the given index.
+     *
+     * @param indexName the name of the index to remove
+     * @return a Completable indicating when the operation has completed
+     * @mongodb.driver.manual reference/command/dropIndexes/ Drop Indexes
+     */
+    Completable dropIndex(String indexName);
+
+    /**
+     * Drops the index given the keys used to create it.
+     *
+     * @param keys the keys of the index to remove
+     * @return a Completable indicating when the operation has completed
+     * @mongodb.driver.manual reference/command/dropIndexes/ Drop indexes
+     */
+    Completable dropIndex(Bson keys);
+
+    /**
+     * Drop all the indexes on this collection, except for the default on _id.
+     *
+     * @return a Completable indicating when the operation has completed
+     * @mongodb.driver.manual reference/command/dropIndexes/ Drop Indexes
+     */
+    Completable dropIndexes();
+
+    /**
+     * Rename the collection with oldCollectionName to the newCollectionName.
+     *
+     * @param newCollectionNamespace the namespace the collection will be renamed to
+     * @return a Completable indicating when the operation has completed
+     * @mongodb.driver.manual reference/commands/renameCollection Rename collection
+     */
+    Completable renameCollection(MongoNamespace newCollectionNamespace);
+
+    /**
+     * Rename the collection with oldCollectionName to the newCollectionName.
+     *
+     * @param newCollectionNamespace the name the collection will be renamed to
+     * @param options                the options for renaming a collection
+     * @return a Completable indicating when the operation has completed
+     * @mongodb.driver.manual reference/commands/renameCollection Rename collection
+     */
+    Completable renameCollection(MongoNamespace newCollectionNamespace, RenameCollectionOptions options);
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client;
+
+import com.mongodb.annotations.Immutable;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * An event for a subscriber that took longer than the slow delivery threshold to handle a result, error or completion on the thread
+ * that produced it.
+ *
+ * @see DeliverySettings.Builder#slowDeliveryThreshold(long, TimeUnit)
+ * @since 1.6
+ */
+@Immutable
+public final class SlowDeliveryEvent {
+    private final String namespace;
+    private final String operation;
+    private final String signal;
+    private final long durationNanos;
+    private final String threadName;
+    private final StackTraceElement[] stackTrace;
+
+    /**
+     * Construct a new instance
+     *
+     * @param namespace     the namespace of the operation
+     * @param operation     the name of the operation
+     * @param signal        the subscriber method, which is {@code onNext}, {@code onError} or {@code onCompleted}
+     * @param durationNanos how long the subscriber had spent in the method, in nanoseconds
+     * @param threadName    the name of the thread that the method was called on
+     * @param stackTrace    the stack trace of that thread while it was in the method, which is empty if the method returned before it
+     *                      could be captured
+     */
+    public SlowDeliveryEvent(final String namespace, final String operation, final String signal, final long durationNanos,
+                             final String threadName, final StackTraceElement[] stackTrace) {
+        this.namespace = notNull("namespace", namespace);
+        this.operation = notNull("operation", operation);
+        this.signal = notNull("signal", signal);
+        this.durationNanos = durationNanos;
+        this.threadName = notNull("threadName", threadName);
+        this.stackTrace = notNull("stackTrace", stackTrace).clone();
+    }
+
+    /**
+     * @return the namespace of the operation
+     */
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * @return the name of the operation
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * @return the subscriber method, which is {@code onNext}, {@code onError} or {@code onCompleted}
+     */
+    public String getSignal() {
+        return signal;
+    }
+
+    /**
+     * Gets how long the subscriber had spent in the method when the event was created. If the method had not returned yet, it may take
+     * longer in total.
+     *
+     * @param timeUnit the time unit
+     * @return the duration
+     */
+    public long getDuration(final TimeUnit timeUnit) {
+        return timeUnit.convert(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the name of the thread that the method was called on
+     */
+    public String getThreadName() {
+        return threadName;
+    }
+
+    /**
+     * @return the stack trace of the thread while it was in the method, which is empty if the method returned before it could be captured
+     */
+    public StackTraceElement[] getStackTrace() {
+        return stackTrace.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "SlowDeliveryEvent{"
+                + "namespace='" + namespace + '\''
+                + ", operation='" + operation + '\''
+                + ", signal='" + signal + '\''
+                + ", durationMS=" + TimeUnit.NANOSECONDS.toMillis(durationNanos)
+                + ", threadName='" + threadName + '\''
+                + '}';
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client;
+
+/**
+ * A listener for subscribers that block the threads of the driver.
+ *
+ * @see DeliverySettings.Builder#slowDeliveryListener(SlowDeliveryListener)
+ * @since 1.6
+ */
+public interface SlowDeliveryListener {
+    /**
+     * Called when a subscriber has spent longer than the slow delivery threshold handling a result, error or completion, at most once
+     * for each call to the subscriber.
+     *
+     * <p>This may be called on a watchdog thread while the subscriber is still blocking, or on the blocked thread once it returns, so it
+     * should not block itself.</p>
+     *
+     * @param event the event
+     */
+    void slowDelivery(SlowDeliveryEvent event);
+}
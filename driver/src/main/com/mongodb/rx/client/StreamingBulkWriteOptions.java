@@ -0,0 +1,161 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client;
+
+import static com.mongodb.assertions.Assertions.isTrueArgument;
+
+/**
+ * The options to apply to a bulk write whose requests are streamed from an {@code Observable}.
+ *
+ * <p>The requests are cut into batches by count and by encoded size, and each batch is written as a separate bulk write.</p>
+ *
+ * @see MongoCollection#bulkWrite(rx.Observable, StreamingBulkWriteOptions)
+ * @since 1.6
+ */
+public final class StreamingBulkWriteOptions {
+    private static final int MAX_MESSAGE_SIZE = 48 * 1024 * 1024;
+
+    private boolean ordered = true;
+    private Boolean bypassDocumentValidation;
+    private int maxBatchSize = 1000;
+    private int maxBatchBytes = 16 * 1024 * 1024;
+    private int maxBatchesInFlight = 1;
+
+    /**
+     * If true, then when a write fails, return without performing the remaining writes and only write one batch at a time. If false,
+     * then when a write fails, continue with the remaining writes in that batch, and write up to {@link #getMaxBatchesInFlight()}
+     * batches concurrently. Defaults to true.
+     *
+     * @return true if the writes are ordered
+     */
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    /**
+     * If true, then when a write fails, return without performing the remaining writes and only write one batch at a time. If false,
+     * then when a write fails, continue with the remaining writes in that batch, and write up to {@link #getMaxBatchesInFlight()}
+     * batches concurrently. Defaults to true.
+     *
+     * @param ordered true if the writes should be ordered
+     * @return this
+     */
+    public StreamingBulkWriteOptions ordered(final boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
+
+    /**
+     * Gets the the bypass document level validation flag
+     *
+     * @return the bypass document level validation flag
+     * @mongodb.server.release 3.2
+     */
+    public Boolean getBypassDocumentValidation() {
+        return bypassDocumentValidation;
+    }
+
+    /**
+     * Sets the bypass document level validation flag.
+     *
+     * @param bypassDocumentValidation If true, allows the write to opt-out of document level validation.
+     * @return this
+     * @mongodb.server.release 3.2
+     */
+    public StreamingBulkWriteOptions bypassDocumentValidation(final Boolean bypassDocumentValidation) {
+        this.bypassDocumentValidation = bypassDocumentValidation;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of requests in a batch. Defaults to 1000.
+     *
+     * @return the maximum number of requests in a batch
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of requests in a batch.
+     *
+     * @param maxBatchSize the maximum number of requests in a batch, which must be greater than zero
+     * @return this
+     */
+    public StreamingBulkWriteOptions maxBatchSize(final int maxBatchSize) {
+        isTrueArgument("maxBatchSize > 0", maxBatchSize > 0);
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+
+    /**
+     * Gets the maximum encoded size of the documents in a batch. Defaults to 16MB.
+     *
+     * @return the maximum encoded size of a batch in bytes
+     */
+    public int getMaxBatchBytes() {
+        return maxBatchBytes;
+    }
+
+    /**
+     * Sets the maximum encoded size of the documents in a batch. A single request larger than this size is written in a batch of its
+     * own.
+     *
+     * @param maxBatchBytes the maximum encoded size of a batch in bytes, which must be greater than zero and no more than the 48MB
+     *                      maximum message size
+     * @return this
+     */
+    public StreamingBulkWriteOptions maxBatchBytes(final int maxBatchBytes) {
+        isTrueArgument("maxBatchBytes > 0", maxBatchBytes > 0);
+        isTrueArgument("maxBatchBytes <= " + MAX_MESSAGE_SIZE, maxBatchBytes <= MAX_MESSAGE_SIZE);
+        this.maxBatchBytes = maxBatchBytes;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of batches written concurrently when the writes are unordered. Defaults to 1.
+     *
+     * @return the maximum number of batches in flight
+     */
+    public int getMaxBatchesInFlight() {
+        return maxBatchesInFlight;
+    }
+
+    /**
+     * Sets the maximum number of batches written concurrently when the writes are unordered. Ordered writes always have a single batch
+     * in flight.
+     *
+     * @param maxBatchesInFlight the maximum number of batches in flight, which must be greater than zero
+     * @return this
+     */
+    public StreamingBulkWriteOptions maxBatchesInFlight(final int maxBatchesInFlight) {
+        isTrueArgument("maxBatchesInFlight > 0", maxBatchesInFlight > 0);
+        this.maxBatchesInFlight = maxBatchesInFlight;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "StreamingBulkWriteOptions{"
+                + "ordered=" + ordered
+                + ", bypassDocumentValidation=" + bypassDocumentValidation
+                + ", maxBatchSize=" + maxBatchSize
+                + ", maxBatchBytes=" + maxBatchBytes
+                + ", maxBatchesInFlight=" + maxBatchesInFlight
+                + '}';
+    }
+}
@@ -29,6 +29,8 @@ import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 import rx.Observable;
 
+import java.nio.ByteBuffer;
+
 /**
  * Represents a GridFS Bucket
  *
@@ -115,6 +117,44 @@ public interface GridFSBucket {
      */
     GridFSBucket withReadConcern(ReadConcern readConcern);
 
+    /**
+     * Create a new GridFSBucket instance that caches the data of the chunks it reads, up to {@code maxBytes} bytes in total.
+     *
+     * <p>Chunks are cached by the id of their file and their index, and evicted in least recently used order. Downloads through the
+     * returned bucket, and through the instances derived from it with a different read preference, read concern or write concern,
+     * take the chunks they can from the cache. Deleting or renaming a file through those buckets invalidates its chunks, and dropping the
+     * bucket invalidates every chunk. Changes made through other buckets or clients are not seen until the chunks are evicted.</p>
+     *
+     * <p>The files collection document is still read from the server for every download.</p>
+     *
+     * @param maxBytes the maximum number of bytes of chunk data to cache, which must be greater than zero
+     * @return a new GridFSBucket instance with its own chunk cache
+     * @see #getChunkCacheStatistics()
+     * @since 1.6
+     */
+    GridFSBucket withChunkCache(long maxBytes);
+
+    /**
+     * Create a new GridFSBucket instance that caches the data of the chunks it reads, up to {@code maxBytes} bytes in total, optionally
+     * in direct buffers outside of the Java heap.
+     *
+     * @param maxBytes      the maximum number of bytes of chunk data to cache, which must be greater than zero
+     * @param directBuffers whether to copy the cached data into direct buffers
+     * @return a new GridFSBucket instance with its own chunk cache
+     * @see #withChunkCache(long)
+     * @since 1.6
+     */
+    GridFSBucket withChunkCache(long maxBytes, boolean directBuffers);
+
+    /**
+     * Gets the statistics of the chunk cache of this bucket.
+     *
+     * @return the statistics, or null if this bucket does not have a chunk cache
+     * @see #withChunkCache(long)
+     * @since 1.6
+     */
+    GridFSChunkCacheStatistics getChunkCacheStatistics();
+
     /**
      * Opens a AsyncOutputStream that the application can write the contents of the file to.
      * <p>
@@ -231,6 +271,96 @@ public interface GridFSBucket {
      */
     Observable<Success> uploadFromStream(BsonValue id, String filename, AsyncInputStream source, GridFSUploadOptions options);
 
+    /**
+     * Uploads the contents of the given {@code AsyncInputStream} to a GridFS bucket, keeping several inserts of chunks in flight.
+     * <p>
+     * Reads the contents of the user file from the {@code source} and inserts it in batches of chunks into the chunks collection, while
+     * the next chunks are read. After all the chunks have been acknowledged, it creates a files collection document for
+     * {@code filename} in the files collection. If the upload fails, the chunks that were already inserted are deleted.
+     * </p>
+     *
+     * @param filename        the filename for the stream
+     * @param source          the Stream providing the file data
+     * @param options         the GridFSUploadOptions
+     * @param parallelOptions the parallel upload options
+     * @return an observable with a single element, the ObjectId of the uploaded file.
+     * @since 1.6
+     */
+    Observable<ObjectId> uploadFromStream(String filename, AsyncInputStream source, GridFSUploadOptions options,
+                                          GridFSParallelUploadOptions parallelOptions);
+
+    /**
+     * Uploads the contents of the given {@code AsyncInputStream} to a GridFS bucket, keeping several inserts of chunks in flight.
+     *
+     * @param id              the custom id value of the file
+     * @param filename        the filename for the stream
+     * @param source          the Stream providing the file data
+     * @param options         the GridFSUploadOptions
+     * @param parallelOptions the parallel upload options
+     * @return an observable with a single element, representing when the successful upload of the source.
+     * @see #uploadFromStream(String, AsyncInputStream, GridFSUploadOptions, GridFSParallelUploadOptions)
+     * @since 1.6
+     */
+    Observable<Success> uploadFromStream(BsonValue id, String filename, AsyncInputStream source, GridFSUploadOptions options,
+                                         GridFSParallelUploadOptions parallelOptions);
+
+    /**
+     * Uploads the data emitted by the given {@code Observable} to a GridFS bucket.
+     * <p>
+     * Coalesces the emitted buffers, which may be of any size, into chunks of the bucket's chunk size and inserts them into the chunks
+     * collection in batches, as described by {@link GridFSParallelUploadOptions}. The source is only asked for more data while there is
+     * room for more inserts in flight. After all the chunks have been acknowledged, it creates a files collection document for
+     * {@code filename} in the files collection.
+     * </p>
+     * <p>
+     * A buffer that wraps the whole of an array of exactly the chunk size, and starts a chunk, is inserted without being copied, so its
+     * contents must not be changed once it has been emitted.
+     * </p>
+     *
+     * @param filename the filename for the stream
+     * @param source   the Observable providing the file data
+     * @return an observable with a single element, the ObjectId of the uploaded file.
+     * @since 1.6
+     */
+    Observable<ObjectId> uploadFromObservable(String filename, Observable<ByteBuffer> source);
+
+    /**
+     * Uploads the data emitted by the given {@code Observable} to a GridFS bucket.
+     *
+     * @param filename the filename for the stream
+     * @param source   the Observable providing the file data
+     * @param options  the GridFSUploadOptions
+     * @return an observable with a single element, the ObjectId of the uploaded file.
+     * @see #uploadFromObservable(String, Observable)
+     * @since 1.6
+     */
+    Observable<ObjectId> uploadFromObservable(String filename, Observable<ByteBuffer> source, GridFSUploadOptions options);
+
+    /**
+     * Uploads the data emitted by the given {@code Observable} to a GridFS bucket.
+     *
+     * @param id       the custom id value of the file
+     * @param filename the filename for the stream
+     * @param source   the Observable providing the file data
+     * @return an observable with a single element, representing when the successful upload of the source.
+     * @see #uploadFromObservable(String, Observable)
+     * @since 1.6
+     */
+    Observable<Success> uploadFromObservable(BsonValue id, String filename, Observable<ByteBuffer> source);
+
+    /**
+     * Uploads the data emitted by the given {@code Observable} to a GridFS bucket.
+     *
+     * @param id       the custom id value of the file
+     * @param filename the filename for the stream
+     * @param source   the Observable providing the file data
+     * @param options  the GridFSUploadOptions
+     * @return an observable with a single element, representing when the successful upload of the source.
+     * @see #uploadFromObservable(String, Observable)
+     * @since 1.6
+     */
+    Observable<Success> uploadFromObservable(BsonValue id, String filename, Observable<ByteBuffer> source, GridFSUploadOptions options);
+
     /**
      * Opens a AsyncInputStream from which the application can read the contents of the stored file specified by {@code id}.
      *
@@ -267,6 +397,108 @@ public interface GridFSBucket {
      */
     Observable<Long> downloadToStream(BsonValue id, AsyncOutputStream destination);
 
+    /**
+     * Downloads the contents of the stored file specified by {@code id} and writes the contents to the {@code destination}
+     * AsyncOutputStream, reading ranges of chunks concurrently.
+     *
+     * <p>The chunks are written to the destination in order, so the download is only faster than
+     * {@link #downloadToStream(ObjectId, AsyncOutputStream)} when the destination can keep up with the server.</p>
+     *
+     * @param id          the ObjectId of the file to be written to the destination stream
+     * @param destination the destination stream
+     * @param options     the parallel download options
+     * @return an observable with a single element, representing the amount of data written
+     * @since 1.6
+     */
+    Observable<Long> downloadToStream(ObjectId id, AsyncOutputStream destination, GridFSParallelDownloadOptions options);
+
+    /**
+     * Downloads the contents of the stored file specified by {@code id} and writes the contents to the {@code destination}
+     * AsyncOutputStream, reading ranges of chunks concurrently.
+     *
+     * @param id          the custom id of the file, to be written to the destination stream
+     * @param destination the destination stream
+     * @param options     the parallel download options
+     * @return an observable with a single element, representing the amount of data written
+     * @see #downloadToStream(ObjectId, AsyncOutputStream, GridFSParallelDownloadOptions)
+     * @since 1.6
+     */
+    Observable<Long> downloadToStream(BsonValue id, AsyncOutputStream destination, GridFSParallelDownloadOptions options);
+
+    /**
+     * Downloads the bytes {@code from} (inclusive) to {@code to} (exclusive) of the stored file specified by {@code id} and writes them
+     * to the {@code destination} AsyncOutputStream.
+     *
+     * <p>Only the chunks that hold the range are read, so the cost of the download depends on the length of the range rather than the
+     * length of the file. A range that ends after the end of the file is cut short at the end of the file.</p>
+     *
+     * @param id          the ObjectId of the file to be written to the destination stream
+     * @param from        the position of the first byte to download
+     * @param to          the position after the last byte to download
+     * @param destination the destination stream
+     * @return an observable with a single element, representing the amount of data written
+     * @since 1.6
+     */
+    Observable<Long> downloadRange(ObjectId id, long from, long to, AsyncOutputStream destination);
+
+    /**
+     * Downloads the bytes {@code from} (inclusive) to {@code to} (exclusive) of the stored file specified by {@code id} and writes them
+     * to the {@code destination} AsyncOutputStream.
+     *
+     * @param id          the custom id of the file, to be written to the destination stream
+     * @param from        the position of the first byte to download
+     * @param to          the position after the last byte to download
+     * @param destination the destination stream
+     * @return an observable with a single element, representing the amount of data written
+     * @see #downloadRange(ObjectId, long, long, AsyncOutputStream)
+     * @since 1.6
+     */
+    Observable<Long> downloadRange(BsonValue id, long from, long to, AsyncOutputStream destination);
+
+    /**
+     * Downloads the contents of the stored file specified by {@code id}, emitting the data of each chunk in order.
+     *
+     * <p>The chunks are emitted as they are requested, and read from the server in batches as described by
+     * {@link GridFSObservableDownloadOptions}, so a slow subscriber bounds the data held in memory.</p>
+     *
+     * @param id the ObjectId of the file
+     * @return an observable of the data of each chunk of the file
+     * @since 1.6
+     */
+    Observable<ByteBuffer> downloadAsObservable(ObjectId id);
+
+    /**
+     * Downloads the contents of the stored file specified by {@code id}, emitting the data of each chunk in order.
+     *
+     * @param id the custom id of the file
+     * @return an observable of the data of each chunk of the file
+     * @see #downloadAsObservable(ObjectId)
+     * @since 1.6
+     */
+    Observable<ByteBuffer> downloadAsObservable(BsonValue id);
+
+    /**
+     * Downloads the contents of the stored file specified by {@code id}, emitting the data of each chunk in order.
+     *
+     * @param id      the ObjectId of the file
+     * @param options the download options
+     * @return an observable of the data of each chunk of the file
+     * @see #downloadAsObservable(ObjectId)
+     * @since 1.6
+     */
+    Observable<ByteBuffer> downloadAsObservable(ObjectId id, GridFSObservableDownloadOptions options);
+
+    /**
+     * Downloads the contents of the stored file specified by {@code id}, emitting the data of each chunk in order.
+     *
+     * @param id      the custom id of the file
+     * @param options the download options
+     * @return an observable of the data of each chunk of the file
+     * @see #downloadAsObservable(ObjectId)
+     * @since 1.6
+     */
+    Observable<ByteBuffer> downloadAsObservable(BsonValue id, GridFSObservableDownloadOptions options);
+
     /**
      * Opens a Stream from which the application can read the contents of the latest version of the stored file specified by the
      * {@code filename}.
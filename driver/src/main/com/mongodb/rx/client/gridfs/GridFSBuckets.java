@@ -42,8 +42,8 @@ public final class GridFSBuckets {
     public static GridFSBucket create(final MongoDatabase database) {
         notNull("database", database);
         if (database instanceof MongoDatabaseImpl) {
-            return new GridFSBucketImpl(com.mongodb.async.client.gridfs.GridFSBuckets.create(((MongoDatabaseImpl) database).getWrapped()),
-                    database.getObservableAdapter());
+            com.mongodb.async.client.MongoDatabase wrapped = ((MongoDatabaseImpl) database).getWrapped();
+            return new GridFSBucketImpl(com.mongodb.async.client.gridfs.GridFSBuckets.create(wrapped), (MongoDatabaseImpl) database);
         } else {
             throw new IllegalArgumentException("GridFS requires the concrete MongoDatabaseImpl implementation.");
         }
@@ -62,8 +62,9 @@ public final class GridFSBuckets {
         notNull("database", database);
         notNull("bucketName", bucketName);
         if (database instanceof MongoDatabaseImpl) {
-            return new GridFSBucketImpl(com.mongodb.async.client.gridfs.GridFSBuckets.create(((MongoDatabaseImpl) database).getWrapped(),
-                    bucketName), database.getObservableAdapter());
+            com.mongodb.async.client.MongoDatabase wrapped = ((MongoDatabaseImpl) database).getWrapped();
+            return new GridFSBucketImpl(com.mongodb.async.client.gridfs.GridFSBuckets.create(wrapped, bucketName),
+                    (MongoDatabaseImpl) database);
         } else {
             throw new IllegalArgumentException("GridFS requires the concrete MongoDatabaseImpl implementation.");
         }
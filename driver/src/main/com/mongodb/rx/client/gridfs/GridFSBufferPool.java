@@ -0,0 +1,48 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.gridfs;
+
+import com.mongodb.annotations.ThreadSafe;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A pool of the buffers that the data of GridFS chunks is copied into before it is emitted.
+ *
+ * <p>A subscriber that is given pooled buffers is responsible for releasing each of them once it has consumed its data.</p>
+ *
+ * @see GridFSObservableDownloadOptions#bufferPool(GridFSBufferPool)
+ * @since 1.6
+ */
+@ThreadSafe
+public interface GridFSBufferPool {
+
+    /**
+     * Gets a buffer from the pool.
+     *
+     * @param size the number of bytes the buffer must hold
+     * @return a buffer with its position at zero and at least {@code size} bytes remaining
+     */
+    ByteBuffer acquire(int size);
+
+    /**
+     * Returns a buffer to the pool.
+     *
+     * @param buffer a buffer acquired from this pool
+     */
+    void release(ByteBuffer buffer);
+}
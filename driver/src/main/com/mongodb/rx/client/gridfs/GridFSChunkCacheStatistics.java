@@ -0,0 +1,117 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.gridfs;
+
+import com.mongodb.annotations.Immutable;
+
+/**
+ * A snapshot of the statistics of a GridFS chunk cache.
+ *
+ * @see GridFSBucket#getChunkCacheStatistics()
+ * @since 1.6
+ */
+@Immutable
+public final class GridFSChunkCacheStatistics {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long invalidationCount;
+    private final int size;
+    private final long bytes;
+
+    /**
+     * Construct a new instance
+     *
+     * @param hitCount          the number of chunks served from the cache
+     * @param missCount         the number of chunks read from the server
+     * @param evictionCount     the number of chunks evicted because of the size bound
+     * @param invalidationCount the number of times the cache was invalidated by a delete, a rename or a drop
+     * @param size              the number of cached chunks
+     * @param bytes             the total number of bytes of the cached chunks
+     */
+    public GridFSChunkCacheStatistics(final long hitCount, final long missCount, final long evictionCount, final long invalidationCount,
+                                      final int size, final long bytes) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.invalidationCount = invalidationCount;
+        this.size = size;
+        this.bytes = bytes;
+    }
+
+    /**
+     * @return the number of chunks served from the cache
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of chunks read from the server
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the fraction of chunks served from the cache, or 0 if no chunk has been read yet
+     */
+    public double getHitRatio() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * @return the number of chunks evicted because of the size bound
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return the number of times the cache was invalidated by a delete, a rename or a drop
+     */
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    /**
+     * @return the number of cached chunks
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the total number of bytes of the cached chunks
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "GridFSChunkCacheStatistics{"
+                + "hitCount=" + hitCount
+                + ", missCount=" + missCount
+                + ", evictionCount=" + evictionCount
+                + ", invalidationCount=" + invalidationCount
+                + ", size=" + size
+                + ", bytes=" + bytes
+                + '}';
+    }
+}
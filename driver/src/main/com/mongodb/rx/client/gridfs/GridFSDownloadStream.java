@@ -46,4 +46,18 @@ public interface GridFSDownloadStream extends AsyncInputStream {
      * @mongodb.driver.manual reference/method/cursor.batchSize/#cursor.batchSize Batch Size
      */
     GridFSDownloadStream batchSize(int batchSize);
+
+    /**
+     * Sets the position in the file from which the next read starts.
+     *
+     * <p>Once the stream has been positioned, reads query only the chunks from the one holding the position onwards, and the first of
+     * them is trimmed to the position. Seeking past the end of the file is allowed, and the next read then signals the end of the stream.
+     * Must not be called while a read is in progress, and requires the stream to be opened from a bucket created by
+     * {@link GridFSBuckets}.</p>
+     *
+     * @param position the position in bytes from the start of the file, which must not be negative
+     * @return this
+     * @since 1.6
+     */
+    GridFSDownloadStream seek(long position);
 }
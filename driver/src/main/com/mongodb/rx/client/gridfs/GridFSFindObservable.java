@@ -111,4 +111,18 @@ public interface GridFSFindObservable extends MongoObservable<GridFSFile> {
      * @mongodb.server.release 3.4
      */
     GridFSFindObservable collation(Collation collation);
+
+    /**
+     * Sizes each batch requested from the server from the outstanding demand of the subscriber.
+     *
+     * <p>By default the size of each batch is the number of results requested by the subscriber. When set, the size of each batch is
+     * the outstanding demand less any results already buffered, bounded by the given minimum and maximum. Small requests then no
+     * longer fetch more results than needed and unbounded requests no longer ask the server for an unbounded batch.</p>
+     *
+     * @param minBatchSize the minimum batch size, which must be greater than zero
+     * @param maxBatchSize the maximum batch size, which must not be less than {@code minBatchSize}
+     * @return this
+     * @since 1.6
+     */
+    GridFSFindObservable batchSizeFromDemand(int minBatchSize, int maxBatchSize);
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.gridfs;
+
+import static com.mongodb.assertions.Assertions.isTrueArgument;
+
+/**
+ * The options for a download that emits the data of each chunk.
+ *
+ * <p>The chunks are read {@code batchSize} at a time. The first batch is read on subscription, and each following batch once the
+ * subscriber has requested every chunk of the previous one, so at most one batch of chunks is held in memory.</p>
+ *
+ * @see GridFSBucket#downloadAsObservable(org.bson.BsonValue, GridFSObservableDownloadOptions)
+ * @since 1.6
+ */
+public final class GridFSObservableDownloadOptions {
+    private int batchSize = 16;
+    private GridFSBufferPool bufferPool;
+
+    /**
+     * Gets the number of chunks read by each query. Defaults to 16.
+     *
+     * @return the batch size in chunks
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the number of chunks read by each query.
+     *
+     * @param batchSize the batch size in chunks, which must be greater than zero
+     * @return this
+     */
+    public GridFSObservableDownloadOptions batchSize(final int batchSize) {
+        isTrueArgument("batchSize > 0", batchSize > 0);
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Gets the pool of the buffers that the data of each chunk is copied into, or null if the buffers holding the data that was read
+     * from the server are emitted as they are. Defaults to null.
+     *
+     * @return the buffer pool, which may be null
+     */
+    public GridFSBufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * Sets the pool of the buffers that the data of each chunk is copied into. A buffer is only acquired when its chunk is emitted, and
+     * the subscriber must release it.
+     *
+     * @param bufferPool the buffer pool, which may be null
+     * @return this
+     */
+    public GridFSObservableDownloadOptions bufferPool(final GridFSBufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "GridFSObservableDownloadOptions{"
+                + "batchSize=" + batchSize
+                + ", bufferPool=" + bufferPool
+                + '}';
+    }
+}
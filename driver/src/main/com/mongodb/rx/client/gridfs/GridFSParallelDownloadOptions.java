@@ -0,0 +1,84 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.gridfs;
+
+import static com.mongodb.assertions.Assertions.isTrueArgument;
+
+/**
+ * The options for a download that reads ranges of chunks concurrently.
+ *
+ * <p>The chunks of the file are split into ranges of {@code windowSize / parallelism} chunks. Up to {@code parallelism} ranges are read
+ * at the same time, and the chunks are written to the destination in order, so the chunks held in memory are bounded by the window size
+ * plus the range that is being written.</p>
+ *
+ * @see GridFSBucket#downloadToStream(org.bson.BsonValue, AsyncOutputStream, GridFSParallelDownloadOptions)
+ * @since 1.6
+ */
+public final class GridFSParallelDownloadOptions {
+    private int parallelism = 4;
+    private int windowSize = 16;
+
+    /**
+     * Gets the maximum number of ranges of chunks that are read at the same time. Defaults to 4.
+     *
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the maximum number of ranges of chunks that are read at the same time.
+     *
+     * @param parallelism the parallelism, which must be greater than zero
+     * @return this
+     */
+    public GridFSParallelDownloadOptions parallelism(final int parallelism) {
+        isTrueArgument("parallelism > 0", parallelism > 0);
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of chunks that are read but not yet written to the destination. Defaults to 16.
+     *
+     * @return the window size in chunks
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Sets the maximum number of chunks that are read but not yet written to the destination.
+     *
+     * @param windowSize the window size in chunks, which must be greater than zero
+     * @return this
+     */
+    public GridFSParallelDownloadOptions windowSize(final int windowSize) {
+        isTrueArgument("windowSize > 0", windowSize > 0);
+        this.windowSize = windowSize;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "GridFSParallelDownloadOptions{"
+                + "parallelism=" + parallelism
+                + ", windowSize=" + windowSize
+                + '}';
+    }
+}
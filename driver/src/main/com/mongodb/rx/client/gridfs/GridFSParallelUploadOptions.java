@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.gridfs;
+
+import static com.mongodb.assertions.Assertions.isTrueArgument;
+
+/**
+ * The options for an upload that keeps several inserts of chunks in flight.
+ *
+ * <p>The chunks read from the source are inserted in batches of {@code chunksPerBatch} chunks, with up to {@code maxBatchesInFlight}
+ * batches being inserted at the same time. The source is not read while the window is full, so at most
+ * {@code chunksPerBatch * (maxBatchesInFlight + 1)} chunks are held in memory.</p>
+ *
+ * @see GridFSBucket#uploadFromStream(String, AsyncInputStream, com.mongodb.client.gridfs.model.GridFSUploadOptions,
+ * GridFSParallelUploadOptions)
+ * @since 1.6
+ */
+public final class GridFSParallelUploadOptions {
+    private int chunksPerBatch = 4;
+    private int maxBatchesInFlight = 4;
+
+    /**
+     * Gets the number of chunks inserted by each {@code insertMany}. Defaults to 4.
+     *
+     * @return the number of chunks per batch
+     */
+    public int getChunksPerBatch() {
+        return chunksPerBatch;
+    }
+
+    /**
+     * Sets the number of chunks inserted by each {@code insertMany}.
+     *
+     * @param chunksPerBatch the number of chunks per batch, which must be greater than zero
+     * @return this
+     */
+    public GridFSParallelUploadOptions chunksPerBatch(final int chunksPerBatch) {
+        isTrueArgument("chunksPerBatch > 0", chunksPerBatch > 0);
+        this.chunksPerBatch = chunksPerBatch;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of batches of chunks that are being inserted at the same time. Defaults to 4.
+     *
+     * @return the maximum number of batches in flight
+     */
+    public int getMaxBatchesInFlight() {
+        return maxBatchesInFlight;
+    }
+
+    /**
+     * Sets the maximum number of batches of chunks that are being inserted at the same time.
+     *
+     * @param maxBatchesInFlight the maximum number of batches in flight, which must be greater than zero
+     * @return this
+     */
+    public GridFSParallelUploadOptions maxBatchesInFlight(final int maxBatchesInFlight) {
+        isTrueArgument("maxBatchesInFlight > 0", maxBatchesInFlight > 0);
+        this.maxBatchesInFlight = maxBatchesInFlight;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "GridFSParallelUploadOptions{"
+                + "chunksPerBatch=" + chunksPerBatch
+                + ", maxBatchesInFlight=" + maxBatchesInFlight
+                + '}';
+    }
+}
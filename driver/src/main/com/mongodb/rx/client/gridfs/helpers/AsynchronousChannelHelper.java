@@ -0,0 +1,207 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.gridfs.helpers;
+
+import com.mongodb.rx.client.ObservableAdapter;
+import com.mongodb.rx.client.gridfs.AsyncInputStream;
+import com.mongodb.rx.client.gridfs.AsyncOutputStream;
+import com.mongodb.rx.client.internal.FileChannelAsyncStreams;
+import com.mongodb.rx.client.internal.ObservableHelper;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * A helper class to convert {@link AsynchronousFileChannel} instances and files into {@link AsyncInputStream} or
+ * {@link AsyncOutputStream} instances.
+ *
+ * <p>Requires Java 7 or later.</p>
+ *
+ * @since 1.6
+ */
+public final class AsynchronousChannelHelper {
+
+    private static final ObservableHelper.NoopObservableAdapter NOOP_OBSERVABLE_ADAPTER = new ObservableHelper.NoopObservableAdapter();
+
+    /**
+     * Converts a {@link AsynchronousFileChannel} into a {@link AsyncInputStream}
+     *
+     * <p>The channel is read from the start of the file with positional reads straight into the buffer passed to
+     * {@link AsyncInputStream#read(ByteBuffer)}, so no thread is blocked while waiting for the data. Closing the stream closes the
+     * channel.</p>
+     *
+     * @param channel the data source
+     * @return the AsyncInputStream
+     * @since 1.6
+     */
+    public static AsyncInputStream channelToInputStream(final AsynchronousFileChannel channel) {
+        return channelToInputStream(channel, NOOP_OBSERVABLE_ADAPTER);
+    }
+
+    /**
+     * Converts a {@link AsynchronousFileChannel} into a {@link AsyncInputStream}
+     *
+     * <p>The channel is read from the start of the file with positional reads straight into the buffer passed to
+     * {@link AsyncInputStream#read(ByteBuffer)}, so no thread is blocked while waiting for the data. Closing the stream closes the
+     * channel.</p>
+     *
+     * @param channel the data source
+     * @param observableAdapter the ObservableAdapter
+     * @return the AsyncInputStream
+     * @since 1.6
+     */
+    public static AsyncInputStream channelToInputStream(final AsynchronousFileChannel channel, final ObservableAdapter observableAdapter) {
+        notNull("channel", channel);
+        notNull("observableAdapter", observableAdapter);
+        return FileChannelAsyncStreams.channelToAsyncInputStream(channel, observableAdapter);
+    }
+
+    /**
+     * Converts a file into a {@link AsyncInputStream}
+     *
+     * <p>The file is opened as an {@link AsynchronousFileChannel} on the first read and closed when the stream is closed.</p>
+     *
+     * @param path the path of the file
+     * @return the AsyncInputStream
+     * @since 1.6
+     */
+    public static AsyncInputStream pathToInputStream(final Path path) {
+        return pathToInputStream(path, NOOP_OBSERVABLE_ADAPTER);
+    }
+
+    /**
+     * Converts a file into a {@link AsyncInputStream}
+     *
+     * <p>The file is opened as an {@link AsynchronousFileChannel} on the first read and closed when the stream is closed.</p>
+     *
+     * @param path the path of the file
+     * @param observableAdapter the ObservableAdapter
+     * @return the AsyncInputStream
+     * @since 1.6
+     */
+    public static AsyncInputStream pathToInputStream(final Path path, final ObservableAdapter observableAdapter) {
+        notNull("path", path);
+        notNull("observableAdapter", observableAdapter);
+        return FileChannelAsyncStreams.pathToAsyncInputStream(path, observableAdapter);
+    }
+
+    /**
+     * Converts a file into a {@link AsyncInputStream} by memory mapping it
+     *
+     * <p>Reads copy straight from the mapped file into the buffer passed to {@link AsyncInputStream#read(ByteBuffer)}. This suits files
+     * that are likely to be in the page cache already, as a read of a page that is not in memory blocks the calling thread until the
+     * page has been loaded. The file is opened on the first read and mapped in regions of at most 256MB.</p>
+     *
+     * @param path the path of the file
+     * @return the AsyncInputStream
+     * @since 1.6
+     */
+    public static AsyncInputStream pathToMemoryMappedInputStream(final Path path) {
+        return pathToMemoryMappedInputStream(path, NOOP_OBSERVABLE_ADAPTER);
+    }
+
+    /**
+     * Converts a file into a {@link AsyncInputStream} by memory mapping it
+     *
+     * <p>Reads copy straight from the mapped file into the buffer passed to {@link AsyncInputStream#read(ByteBuffer)}. This suits files
+     * that are likely to be in the page cache already, as a read of a page that is not in memory blocks the calling thread until the
+     * page has been loaded. The file is opened on the first read and mapped in regions of at most 256MB.</p>
+     *
+     * @param path the path of the file
+     * @param observableAdapter the ObservableAdapter
+     * @return the AsyncInputStream
+     * @since 1.6
+     */
+    public static AsyncInputStream pathToMemoryMappedInputStream(final Path path, final ObservableAdapter observableAdapter) {
+        notNull("path", path);
+        notNull("observableAdapter", observableAdapter);
+        return FileChannelAsyncStreams.pathToMemoryMappedAsyncInputStream(path, observableAdapter);
+    }
+
+    /**
+     * Converts a {@link AsynchronousFileChannel} into a {@link AsyncOutputStream}
+     *
+     * <p>The channel is written from the start of the file with positional writes straight from the buffer passed to
+     * {@link AsyncOutputStream#write(ByteBuffer)}. Closing the stream closes the channel.</p>
+     *
+     * @param channel the data destination
+     * @return the AsyncOutputStream
+     * @since 1.6
+     */
+    public static AsyncOutputStream channelToOutputStream(final AsynchronousFileChannel channel) {
+        return channelToOutputStream(channel, NOOP_OBSERVABLE_ADAPTER);
+    }
+
+    /**
+     * Converts a {@link AsynchronousFileChannel} into a {@link AsyncOutputStream}
+     *
+     * <p>The channel is written from the start of the file with positional writes straight from the buffer passed to
+     * {@link AsyncOutputStream#write(ByteBuffer)}. Closing the stream closes the channel.</p>
+     *
+     * @param channel the data destination
+     * @param observableAdapter the ObservableAdapter
+     * @return the AsyncOutputStream
+     * @since 1.6
+     */
+    public static AsyncOutputStream channelToOutputStream(final AsynchronousFileChannel channel,
+                                                          final ObservableAdapter observableAdapter) {
+        notNull("channel", channel);
+        notNull("observableAdapter", observableAdapter);
+        return FileChannelAsyncStreams.channelToAsyncOutputStream(channel, observableAdapter);
+    }
+
+    /**
+     * Converts a file into a {@link AsyncOutputStream}
+     *
+     * <p>The file is opened as an {@link AsynchronousFileChannel} on the first write and closed when the stream is closed. If no options
+     * are given, the file is created if it does not exist and truncated if it does.</p>
+     *
+     * @param path the path of the file
+     * @param options the options specifying how the file is opened
+     * @return the AsyncOutputStream
+     * @since 1.6
+     */
+    public static AsyncOutputStream pathToOutputStream(final Path path, final OpenOption... options) {
+        return pathToOutputStream(path, NOOP_OBSERVABLE_ADAPTER, options);
+    }
+
+    /**
+     * Converts a file into a {@link AsyncOutputStream}
+     *
+     * <p>The file is opened as an {@link AsynchronousFileChannel} on the first write and closed when the stream is closed. If no options
+     * are given, the file is created if it does not exist and truncated if it does.</p>
+     *
+     * @param path the path of the file
+     * @param observableAdapter the ObservableAdapter
+     * @param options the options specifying how the file is opened
+     * @return the AsyncOutputStream
+     * @since 1.6
+     */
+    public static AsyncOutputStream pathToOutputStream(final Path path, final ObservableAdapter observableAdapter,
+                                                       final OpenOption... options) {
+        notNull("path", path);
+        notNull("observableAdapter", observableAdapter);
+        return FileChannelAsyncStreams.pathToAsyncOutputStream(path, observableAdapter, options);
+    }
+
+    private AsynchronousChannelHelper() {
+    }
+}
@@ -27,6 +27,7 @@ import rx.Observable;
 import rx.Subscriber;
 import rx.Subscription;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static com.mongodb.assertions.Assertions.notNull;
@@ -37,10 +38,18 @@ class AggregateObservableImpl<TResult> implements AggregateObservable<TResult> {
 
     private final com.mongodb.async.client.AggregateIterable<TResult> wrapped;
     private final ObservableAdapter observableAdapter;
+    private final TrackedOperation trackedOperation;
+    private BatchCursorSettings batchCursorSettings = BatchCursorSettings.DEFAULT;
 
     AggregateObservableImpl(final com.mongodb.async.client.AggregateIterable<TResult> wrapped, final ObservableAdapter observableAdapter) {
+        this(wrapped, observableAdapter, null);
+    }
+
+    AggregateObservableImpl(final com.mongodb.async.client.AggregateIterable<TResult> wrapped, final ObservableAdapter observableAdapter,
+                            final TrackedOperation trackedOperation) {
         this.wrapped = notNull("wrapped", wrapped);
         this.observableAdapter = notNull("observableAdapter", observableAdapter);
+        this.trackedOperation = trackedOperation;
     }
 
 
@@ -75,7 +84,7 @@ class AggregateObservableImpl<TResult> implements AggregateObservable<TResult> {
             public void apply(final SingleResultCallback<Success> callback) {
                 wrapped.toCollection(voidToSuccessCallback(callback));
             }
-        }), observableAdapter);
+        }), observableAdapter, trackedOperation);
     }
 
     @Override
@@ -84,9 +93,27 @@ class AggregateObservableImpl<TResult> implements AggregateObservable<TResult> {
         return this;
     }
 
+    @Override
+    public AggregateObservable<TResult> batchSizeFromDemand(final int minBatchSize, final int maxBatchSize) {
+        batchCursorSettings = batchCursorSettings.demandDriven(minBatchSize, maxBatchSize);
+        return this;
+    }
+
+    @Override
+    public AggregateObservable<TResult> prefetch(final int lowWatermark, final int highWatermark) {
+        batchCursorSettings = batchCursorSettings.prefetch(lowWatermark, highWatermark);
+        return this;
+    }
+
     @Override
     public Observable<TResult> toObservable() {
-        return RxObservables.create(Observables.observe(wrapped), observableAdapter);
+        return RxObservables.create(BatchCursorObservable.observe(wrapped, batchCursorSettings), observableAdapter, trackedOperation);
+    }
+
+    @Override
+    public Observable<List<TResult>> toObservableBatches() {
+        return RxObservables.create(BatchCursorObservable.observeBatches(wrapped, batchCursorSettings), observableAdapter,
+                trackedOperation);
     }
 
     @Override
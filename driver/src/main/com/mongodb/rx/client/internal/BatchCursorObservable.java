@@ -0,0 +1,419 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.async.AsyncBatchCursor;
+import com.mongodb.async.SingleResultCallback;
+import com.mongodb.async.client.MongoIterable;
+import com.mongodb.async.client.Observable;
+import com.mongodb.async.client.Observables;
+import com.mongodb.async.client.Observer;
+import com.mongodb.async.client.Subscription;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * An Observable over a {@code MongoIterable} that drives the underlying batch cursor directly, so that the size of each batch
+ * requested from the server can be derived from the outstanding demand and the next batch can be requested ahead of the demand.
+ *
+ * <p>Results are emitted either one document at a time or, via {@link #observeBatches}, one list per batch received from the server
+ * in which case the demand is counted in batches.</p>
+ *
+ * @param <TResult> the result type
+ */
+final class BatchCursorObservable<TResult> implements Observable<TResult> {
+
+    private final MongoIterable<TResult> mongoIterable;
+    private final BatchCursorSettings settings;
+
+    /**
+     * Creates the Observable for the iterable, only using a {@code BatchCursorObservable} if the settings require it.
+     *
+     * @param mongoIterable the iterable
+     * @param settings      the batch cursor settings
+     * @param <TResult>     the result type
+     * @return the Observable
+     */
+    static <TResult> Observable<TResult> observe(final MongoIterable<TResult> mongoIterable, final BatchCursorSettings settings) {
+        if (!settings.isDefault()) {
+            return new BatchCursorObservable<TResult>(mongoIterable, settings);
+        }
+        return Observables.observe(mongoIterable);
+    }
+
+    /**
+     * Creates an Observable that emits each batch received from the server as a single list.
+     *
+     * @param mongoIterable the iterable
+     * @param settings      the batch cursor settings
+     * @param <TResult>     the result type
+     * @return the Observable
+     */
+    static <TResult> Observable<List<TResult>> observeBatches(final MongoIterable<TResult> mongoIterable,
+                                                             final BatchCursorSettings settings) {
+        notNull("mongoIterable", mongoIterable);
+        notNull("settings", settings);
+        return new Observable<List<TResult>>() {
+            @Override
+            public void subscribe(final Observer<? super List<TResult>> observer) {
+                new BatchSubscription<TResult>(mongoIterable, settings, observer);
+            }
+        };
+    }
+
+    BatchCursorObservable(final MongoIterable<TResult> mongoIterable, final BatchCursorSettings settings) {
+        this.mongoIterable = notNull("mongoIterable", mongoIterable);
+        this.settings = notNull("settings", settings);
+    }
+
+    @Override
+    public void subscribe(final Observer<? super TResult> observer) {
+        new DocumentSubscription<TResult>(mongoIterable, settings, observer);
+    }
+
+    private static final class DocumentSubscription<TResult> extends BatchCursorSubscription<TResult, TResult> {
+
+        DocumentSubscription(final MongoIterable<TResult> mongoIterable, final BatchCursorSettings settings,
+                             final Observer<? super TResult> observer) {
+            super(mongoIterable, settings, observer);
+        }
+
+        @Override
+        void enqueue(final List<TResult> batch) {
+            getResultsQueue().addAll(batch);
+        }
+
+        @Override
+        int getDocumentCount(final TResult item) {
+            return 1;
+        }
+
+        @Override
+        boolean isBatchSized() {
+            return true;
+        }
+    }
+
+    private static final class BatchSubscription<TResult> extends BatchCursorSubscription<TResult, List<TResult>> {
+
+        BatchSubscription(final MongoIterable<TResult> mongoIterable, final BatchCursorSettings settings,
+                          final Observer<? super List<TResult>> observer) {
+            super(mongoIterable, settings, observer);
+        }
+
+        @Override
+        void enqueue(final List<TResult> batch) {
+            if (!batch.isEmpty()) {
+                getResultsQueue().add(batch);
+            }
+        }
+
+        @Override
+        int getDocumentCount(final List<TResult> item) {
+            return item.size();
+        }
+
+        /**
+         * As the demand is counted in batches it says nothing about their size, so the batch size configured on the iterable is only
+         * overridden to read ahead.
+         */
+        @Override
+        boolean isBatchSized() {
+            return getSettings().isPrefetching();
+        }
+    }
+
+    /**
+     * @param <TResult> the type of the documents returned by the cursor
+     * @param <T>       the type of the items emitted to the observer
+     */
+    private abstract static class BatchCursorSubscription<TResult, T> implements Subscription {
+        private final MongoIterable<TResult> mongoIterable;
+        private final BatchCursorSettings settings;
+        private final Observer<? super T> observer;
+        private final ConcurrentLinkedQueue<T> resultsQueue = new ConcurrentLinkedQueue<T>();
+        private final AtomicInteger buffered = new AtomicInteger();
+
+        /* protected by `this` */
+        private long requested;
+        private boolean requestedData;
+        private boolean isProcessing;
+        private boolean isReading;
+        private boolean completed;
+        private boolean isTerminated;
+        private boolean isUnsubscribed;
+        private boolean isCursorClosed;
+        /* protected by `this` */
+
+        private volatile AsyncBatchCursor<TResult> batchCursor;
+
+        BatchCursorSubscription(final MongoIterable<TResult> mongoIterable, final BatchCursorSettings settings,
+                                final Observer<? super T> observer) {
+            this.mongoIterable = mongoIterable;
+            this.settings = settings;
+            this.observer = notNull("observer", observer);
+            observer.onSubscribe(this);
+        }
+
+        /**
+         * Adds a batch received from the server to the results queue.
+         *
+         * @param batch the batch
+         */
+        abstract void enqueue(List<TResult> batch);
+
+        /**
+         * @param item an item from the results queue
+         * @return the number of documents the item holds
+         */
+        abstract int getDocumentCount(T item);
+
+        /**
+         * @return true if the batch size of each server request comes from the settings, false to keep the batch size configured on the
+         * iterable
+         */
+        abstract boolean isBatchSized();
+
+        ConcurrentLinkedQueue<T> getResultsQueue() {
+            return resultsQueue;
+        }
+
+        BatchCursorSettings getSettings() {
+            return settings;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n < 1) {
+                throw new IllegalArgumentException("Number requested must be > 0: " + n);
+            }
+
+            boolean requestInitialData = false;
+            synchronized (this) {
+                if (requested + n < 1) {
+                    requested = Long.MAX_VALUE;
+                } else {
+                    requested += n;
+                }
+                if (!requestedData) {
+                    requestedData = true;
+                    requestInitialData = true;
+                }
+            }
+
+            if (requestInitialData) {
+                requestInitialData();
+            } else {
+                processResultsQueue();
+            }
+        }
+
+        @Override
+        public void unsubscribe() {
+            boolean unsubscribe = false;
+            synchronized (this) {
+                if (!isUnsubscribed) {
+                    unsubscribe = true;
+                    isUnsubscribed = true;
+                    isTerminated = true;
+                }
+            }
+            if (unsubscribe) {
+                closeCursor();
+            }
+        }
+
+        @Override
+        public synchronized boolean isUnsubscribed() {
+            return isUnsubscribed;
+        }
+
+        private void requestInitialData() {
+            synchronized (this) {
+                isReading = true;
+            }
+            if (isBatchSized()) {
+                mongoIterable.batchSize(nextBatchSize());
+            }
+            mongoIterable.batchCursor(new SingleResultCallback<AsyncBatchCursor<TResult>>() {
+                @Override
+                public void onResult(final AsyncBatchCursor<TResult> result, final Throwable t) {
+                    if (t != null) {
+                        onError(t);
+                    } else {
+                        batchCursor = result;
+                        boolean terminated;
+                        synchronized (BatchCursorSubscription.this) {
+                            isReading = false;
+                            terminated = isTerminated;
+                        }
+                        if (terminated) {
+                            closeCursor();
+                        } else {
+                            processResultsQueue();
+                        }
+                    }
+                }
+            });
+        }
+
+        private void requestMoreData() {
+            AsyncBatchCursor<TResult> cursor = batchCursor;
+            synchronized (this) {
+                if (isReading || isTerminated || completed || cursor == null) {
+                    return;
+                }
+                isReading = true;
+            }
+            if (isBatchSized()) {
+                cursor.setBatchSize(nextBatchSize());
+            }
+            cursor.next(new SingleResultCallback<List<TResult>>() {
+                @Override
+                public void onResult(final List<TResult> result, final Throwable t) {
+                    if (result != null) {
+                        enqueue(result);
+                        buffered.addAndGet(result.size());
+                    }
+                    synchronized (BatchCursorSubscription.this) {
+                        isReading = false;
+                        if (t == null && result == null) {
+                            completed = true;
+                        }
+                    }
+                    if (t != null) {
+                        onError(t);
+                    } else {
+                        processResultsQueue();
+                    }
+                }
+            });
+        }
+
+        private int nextBatchSize() {
+            long outstanding;
+            synchronized (this) {
+                outstanding = requested;
+            }
+            return settings.getBatchSize(outstanding, buffered.get());
+        }
+
+        private void processResultsQueue() {
+            boolean mustProcess = false;
+            synchronized (this) {
+                if (!isProcessing && !isTerminated) {
+                    isProcessing = true;
+                    mustProcess = true;
+                }
+            }
+
+            if (mustProcess) {
+                boolean requestMore = false;
+                boolean complete = false;
+
+                long processedCount = 0;
+                boolean continueProcessing = true;
+                while (continueProcessing) {
+                    long localWanted;
+                    synchronized (this) {
+                        requested -= processedCount;
+                        if (resultsQueue.isEmpty()) {
+                            complete = completed;
+                            requestMore = !complete && (requested > 0 || settings.isPrefetching());
+                            isProcessing = false;
+                            break;
+                        } else if (requested == 0) {
+                            requestMore = !completed && settings.shouldPrefetch(buffered.get());
+                            isProcessing = false;
+                            break;
+                        }
+                        localWanted = requested;
+                    }
+                    processedCount = 0;
+
+                    while (localWanted > 0) {
+                        T item = resultsQueue.poll();
+                        if (item == null) {
+                            break;
+                        }
+                        if (settings.shouldPrefetch(buffered.addAndGet(-getDocumentCount(item)))) {
+                            requestMoreData();
+                        }
+                        onNext(item);
+                        localWanted -= 1;
+                        processedCount += 1;
+                    }
+                }
+
+                if (complete) {
+                    onComplete();
+                } else if (requestMore) {
+                    requestMoreData();
+                }
+            }
+        }
+
+        private void onNext(final T next) {
+            boolean terminated;
+            synchronized (this) {
+                terminated = isTerminated;
+            }
+            if (!terminated) {
+                observer.onNext(next);
+            }
+        }
+
+        private void onError(final Throwable t) {
+            if (terminalAction()) {
+                closeCursor();
+                observer.onError(t);
+            }
+        }
+
+        private void onComplete() {
+            if (terminalAction()) {
+                closeCursor();
+                observer.onComplete();
+            }
+        }
+
+        private boolean terminalAction() {
+            synchronized (this) {
+                if (!isTerminated) {
+                    isTerminated = true;
+                    return true;
+                }
+                return false;
+            }
+        }
+
+        private void closeCursor() {
+            AsyncBatchCursor<TResult> cursor = batchCursor;
+            synchronized (this) {
+                if (cursor == null || isCursorClosed) {
+                    return;
+                }
+                isCursorClosed = true;
+            }
+            cursor.close();
+        }
+    }
+}
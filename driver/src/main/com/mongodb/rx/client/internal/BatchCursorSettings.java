@@ -0,0 +1,120 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import static com.mongodb.assertions.Assertions.isTrueArgument;
+
+/**
+ * Controls how a {@link BatchCursorObservable} sizes the batches it requests from the server and when it requests them.
+ */
+final class BatchCursorSettings {
+
+    static final BatchCursorSettings DEFAULT = new BatchCursorSettings(0, 0, -1, 0);
+
+    /**
+     * The smallest batch size ever requested, as a batch size of one closes the cursor after the first batch on servers that are queried
+     * with OP_QUERY.
+     */
+    private static final int MIN_REQUESTED_BATCH_SIZE = 2;
+
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final int lowWatermark;
+    private final int highWatermark;
+
+    private BatchCursorSettings(final int minBatchSize, final int maxBatchSize, final int lowWatermark, final int highWatermark) {
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+    }
+
+    /**
+     * Returns settings that size every batch from the outstanding demand, bounded by the given minimum and maximum.
+     *
+     * @param minBatchSize the smallest batch size to request, which must be greater than zero
+     * @param maxBatchSize the largest batch size to request, which must not be less than {@code minBatchSize}
+     * @return the settings
+     */
+    BatchCursorSettings demandDriven(final int minBatchSize, final int maxBatchSize) {
+        isTrueArgument("minBatchSize > 0", minBatchSize > 0);
+        isTrueArgument("maxBatchSize >= minBatchSize", maxBatchSize >= minBatchSize);
+        return new BatchCursorSettings(minBatchSize, maxBatchSize, lowWatermark, highWatermark);
+    }
+
+    /**
+     * Returns settings that read ahead of the demand, requesting the next batch whenever the number of buffered results falls to the
+     * low watermark and sizing it to refill the buffer up to the high watermark.
+     *
+     * @param lowWatermark  the number of buffered results at or below which the next batch is requested, which must not be negative
+     * @param highWatermark the maximum number of results to buffer, which must be greater than {@code lowWatermark}
+     * @return the settings
+     */
+    BatchCursorSettings prefetch(final int lowWatermark, final int highWatermark) {
+        isTrueArgument("lowWatermark >= 0", lowWatermark >= 0);
+        isTrueArgument("highWatermark > lowWatermark", highWatermark > lowWatermark);
+        return new BatchCursorSettings(minBatchSize, maxBatchSize, lowWatermark, highWatermark);
+    }
+
+    boolean isDefault() {
+        return !isDemandDriven() && !isPrefetching();
+    }
+
+    boolean isDemandDriven() {
+        return minBatchSize > 0;
+    }
+
+    boolean isPrefetching() {
+        return highWatermark > 0;
+    }
+
+    /**
+     * @param buffered the number of results already received but not yet emitted
+     * @return true if the next batch should be requested regardless of the outstanding demand
+     */
+    boolean shouldPrefetch(final int buffered) {
+        return isPrefetching() && buffered <= lowWatermark;
+    }
+
+    int getMinBatchSize() {
+        return minBatchSize;
+    }
+
+    int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Gets the batch size to request given the outstanding demand and the number of results already buffered.
+     *
+     * @param requested the outstanding demand
+     * @param buffered  the number of results already received but not yet emitted
+     * @return the batch size for the next server request, which is never less than two
+     */
+    int getBatchSize(final long requested, final int buffered) {
+        if (isPrefetching()) {
+            return Math.max(MIN_REQUESTED_BATCH_SIZE, highWatermark - buffered);
+        }
+        long wanted = requested - buffered;
+        if (wanted < minBatchSize) {
+            wanted = minBatchSize;
+        } else if (wanted > maxBatchSize) {
+            wanted = maxBatchSize;
+        }
+        return (int) Math.max(MIN_REQUESTED_BATCH_SIZE, wanted);
+    }
+}
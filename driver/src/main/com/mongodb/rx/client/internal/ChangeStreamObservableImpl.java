@@ -0,0 +1,528 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.MongoClientException;
+import com.mongodb.MongoCursorNotFoundException;
+import com.mongodb.MongoNodeIsRecoveringException;
+import com.mongodb.MongoNotPrimaryException;
+import com.mongodb.MongoServerException;
+import com.mongodb.MongoSocketException;
+import com.mongodb.async.AsyncBatchCursor;
+import com.mongodb.async.SingleResultCallback;
+import com.mongodb.async.client.AggregateIterable;
+import com.mongodb.async.client.MongoCollection;
+import com.mongodb.async.client.MongoDatabase;
+import com.mongodb.client.model.Collation;
+import com.mongodb.rx.client.ChangeStreamObservable;
+import com.mongodb.rx.client.FullDocument;
+import com.mongodb.rx.client.ObservableAdapter;
+import com.mongodb.rx.client.ResumeTokenStore;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.conversions.Bson;
+import rx.Observable;
+import rx.Producer;
+import rx.Subscriber;
+import rx.Subscription;
+import rx.functions.Action0;
+import rx.subscriptions.Subscriptions;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.mongodb.assertions.Assertions.isTrueArgument;
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * A change stream over a {@code $changeStream} aggregation.
+ *
+ * <p>The resume token of every emitted change event is remembered, and the aggregation is restarted after it once when the cursor fails
+ * with a resumable error. Batches are only fetched while the subscriber has outstanding demand.</p>
+ *
+ * @param <TResult> the result type
+ */
+class ChangeStreamObservableImpl<TResult> implements ChangeStreamObservable<TResult> {
+    private static final Set<Integer> RESUMABLE_ERROR_CODES = new HashSet<Integer>(Arrays.asList(
+            43,     // CursorNotFound
+            91,     // ShutdownInProgress
+            189,    // PrimarySteppedDown
+            10107,  // NotMaster
+            11600,  // InterruptedAtShutdown
+            11602,  // InterruptedDueToReplStateChange
+            13435,  // NotMasterNoSlaveOk
+            13436   // NotMasterOrSecondary
+    ));
+
+    private final CursorOpener cursorOpener;
+    private final List<? extends Bson> pipeline;
+    private final Class<TResult> resultClass;
+    private final CodecRegistry codecRegistry;
+    private final ObservableAdapter observableAdapter;
+    private FullDocument fullDocument = FullDocument.DEFAULT;
+    private BsonDocument resumeAfter;
+    private ResumeTokenStore resumeTokenStore;
+    private int batchSize;
+    private Collation collation;
+
+    /**
+     * Opens a cursor over the results of a change stream pipeline.
+     */
+    interface CursorOpener {
+        void open(List<BsonDocument> pipeline, int batchSize, Collation collation,
+                  SingleResultCallback<AsyncBatchCursor<BsonDocument>> callback);
+    }
+
+    ChangeStreamObservableImpl(final CursorOpener cursorOpener, final List<? extends Bson> pipeline, final Class<TResult> resultClass,
+                               final CodecRegistry codecRegistry, final ObservableAdapter observableAdapter) {
+        this.cursorOpener = notNull("cursorOpener", cursorOpener);
+        this.pipeline = notNull("pipeline", pipeline);
+        this.resultClass = notNull("resultClass", resultClass);
+        this.codecRegistry = notNull("codecRegistry", codecRegistry);
+        this.observableAdapter = notNull("observableAdapter", observableAdapter);
+    }
+
+    static CursorOpener collectionCursorOpener(final MongoCollection<?> collection) {
+        notNull("collection", collection);
+        return new CursorOpener() {
+            @Override
+            public void open(final List<BsonDocument> pipeline, final int batchSize, final Collation collation,
+                             final SingleResultCallback<AsyncBatchCursor<BsonDocument>> callback) {
+                AggregateIterable<BsonDocument> aggregate = collection.aggregate(pipeline, BsonDocument.class).collation(collation);
+                if (batchSize > 0) {
+                    aggregate.batchSize(batchSize);
+                }
+                aggregate.batchCursor(callback);
+            }
+        };
+    }
+
+    static CursorOpener databaseCursorOpener(final MongoDatabase database) {
+        notNull("database", database);
+        return new CursorOpener() {
+            @Override
+            public void open(final List<BsonDocument> pipeline, final int batchSize, final Collation collation,
+                             final SingleResultCallback<AsyncBatchCursor<BsonDocument>> callback) {
+                BsonDocument cursor = new BsonDocument();
+                if (batchSize > 0) {
+                    cursor.append("batchSize", new BsonInt32(batchSize));
+                }
+                BsonDocument command = new BsonDocument("aggregate", new BsonInt32(1))
+                        .append("pipeline", new BsonArray(pipeline))
+                        .append("cursor", cursor);
+                if (collation != null) {
+                    command.append("collation", collation.asDocument());
+                }
+                if (!database.getReadConcern().isServerDefault()) {
+                    command.append("readConcern", database.getReadConcern().asDocument());
+                }
+                CommandBatchCursor.open(database, command, batchSize, callback);
+            }
+        };
+    }
+
+    @Override
+    public ChangeStreamObservable<TResult> fullDocument(final FullDocument fullDocument) {
+        this.fullDocument = notNull("fullDocument", fullDocument);
+        return this;
+    }
+
+    @Override
+    public ChangeStreamObservable<TResult> resumeAfter(final BsonDocument resumeToken) {
+        this.resumeAfter = resumeToken;
+        return this;
+    }
+
+    @Override
+    public ChangeStreamObservable<TResult> resumeTokenStore(final ResumeTokenStore resumeTokenStore) {
+        this.resumeTokenStore = resumeTokenStore;
+        return this;
+    }
+
+    @Override
+    public ChangeStreamObservable<TResult> batchSize(final int batchSize) {
+        isTrueArgument("batchSize >= 0", batchSize >= 0);
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    @Override
+    public ChangeStreamObservable<TResult> collation(final Collation collation) {
+        this.collation = collation;
+        return this;
+    }
+
+    @Override
+    public Observable<TResult> toObservable() {
+        Observable<TResult> observable = create(false);
+        return observableAdapter.adapt(observable);
+    }
+
+    @Override
+    public Observable<List<TResult>> toObservableBatches() {
+        Observable<List<TResult>> observable = create(true);
+        return observableAdapter.adapt(observable);
+    }
+
+    @Override
+    public Subscription subscribe(final Subscriber<? super TResult> subscriber) {
+        return toObservable().subscribe(subscriber);
+    }
+
+    static boolean isResumable(final Throwable t) {
+        if (t instanceof MongoSocketException || t instanceof MongoNotPrimaryException || t instanceof MongoNodeIsRecoveringException
+                || t instanceof MongoCursorNotFoundException) {
+            return true;
+        }
+        return t instanceof MongoServerException && RESUMABLE_ERROR_CODES.contains(((MongoServerException) t).getCode());
+    }
+
+    @SuppressWarnings("deprecation")
+    private <T> Observable<T> create(final boolean batches) {
+        final List<BsonDocument> stages = new ArrayList<BsonDocument>(pipeline.size());
+        for (Bson stage : pipeline) {
+            stages.add(stage.toBsonDocument(BsonDocument.class, codecRegistry));
+        }
+        final FullDocument localFullDocument = fullDocument;
+        final BsonDocument localResumeAfter = resumeAfter;
+        final ResumeTokenStore localResumeTokenStore = resumeTokenStore;
+        final int localBatchSize = batchSize;
+        final Collation localCollation = collation;
+        return Observable.create(new Observable.OnSubscribe<T>() {
+            @Override
+            public void call(final Subscriber<? super T> subscriber) {
+                BsonDocument resumeToken = localResumeAfter;
+                if (resumeToken == null && localResumeTokenStore != null) {
+                    try {
+                        resumeToken = localResumeTokenStore.load();
+                    } catch (Throwable t) {
+                        subscriber.onError(t);
+                        return;
+                    }
+                }
+                ChangeStreamProducer<T> producer = new ChangeStreamProducer<T>(subscriber, batches, stages, localFullDocument,
+                        resumeToken, localResumeTokenStore, localBatchSize, localCollation);
+                subscriber.add(Subscriptions.create(producer));
+                subscriber.setProducer(producer);
+            }
+        });
+    }
+
+    private final class ChangeStreamProducer<T> implements Producer, Action0 {
+        private final Subscriber<? super T> subscriber;
+        private final boolean batches;
+        private final List<BsonDocument> stages;
+        private final FullDocument fullDocument;
+        private final ResumeTokenStore resumeTokenStore;
+        private final int batchSize;
+        private final Collation collation;
+        private final Codec<TResult> codec;
+
+        /* protected by `this` */
+        private final ArrayDeque<BsonDocument> buffer = new ArrayDeque<BsonDocument>();
+        private BsonDocument resumeToken;
+        private AsyncBatchCursor<BsonDocument> cursor;
+        private long requested;
+        private boolean fetching;
+        private boolean resumeAttempted;
+        private boolean done;
+        private Throwable error;
+        private boolean terminated;
+        private boolean emitting;
+        private boolean missed;
+        /* protected by `this` */
+
+        ChangeStreamProducer(final Subscriber<? super T> subscriber, final boolean batches, final List<BsonDocument> stages,
+                             final FullDocument fullDocument, final BsonDocument resumeToken, final ResumeTokenStore resumeTokenStore,
+                             final int batchSize, final Collation collation) {
+            this.subscriber = subscriber;
+            this.batches = batches;
+            this.stages = stages;
+            this.fullDocument = fullDocument;
+            this.resumeToken = resumeToken;
+            this.resumeTokenStore = resumeTokenStore;
+            this.batchSize = batchSize;
+            this.collation = collation;
+            this.codec = codecRegistry.get(resultClass);
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n < 0) {
+                throw new IllegalArgumentException("Number requested must be >= 0: " + n);
+            } else if (n == 0) {
+                return;
+            }
+            synchronized (this) {
+                requested = requested + n < 0 ? Long.MAX_VALUE : requested + n;
+            }
+            drain();
+        }
+
+        @Override
+        public void call() {
+            AsyncBatchCursor<BsonDocument> localCursor;
+            synchronized (this) {
+                terminated = true;
+                buffer.clear();
+                localCursor = cursor;
+                cursor = null;
+            }
+            if (localCursor != null) {
+                localCursor.close();
+            }
+        }
+
+        private void drain() {
+            synchronized (this) {
+                if (emitting) {
+                    missed = true;
+                    return;
+                }
+                emitting = true;
+            }
+
+            while (true) {
+                List<BsonDocument> documents = null;
+                Throwable failure = null;
+                boolean complete = false;
+                boolean fetch = false;
+                synchronized (this) {
+                    if (terminated) {
+                        emitting = false;
+                        return;
+                    } else if (requested > 0 && !buffer.isEmpty()) {
+                        documents = new ArrayList<BsonDocument>(batches ? buffer.size() : 1);
+                        if (batches) {
+                            documents.addAll(buffer);
+                            buffer.clear();
+                        } else {
+                            documents.add(buffer.poll());
+                        }
+                        if (requested != Long.MAX_VALUE) {
+                            requested--;
+                        }
+                    } else if (error != null) {
+                        terminated = true;
+                        failure = error;
+                    } else if (done) {
+                        terminated = true;
+                        complete = true;
+                    } else if (requested > 0 && !fetching) {
+                        fetching = true;
+                        fetch = true;
+                    } else if (!missed) {
+                        emitting = false;
+                        return;
+                    } else {
+                        missed = false;
+                        continue;
+                    }
+                }
+
+                if (failure != null) {
+                    closeCursor();
+                    subscriber.onError(failure);
+                    return;
+                } else if (complete) {
+                    closeCursor();
+                    subscriber.onCompleted();
+                    return;
+                } else if (fetch) {
+                    fetch();
+                } else if (!emit(documents)) {
+                    return;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean emit(final List<BsonDocument> documents) {
+            T value;
+            BsonDocument lastResumeToken;
+            try {
+                List<TResult> results = new ArrayList<TResult>(documents.size());
+                for (BsonDocument document : documents) {
+                    results.add(decode(document));
+                }
+                lastResumeToken = getResumeToken(documents.get(documents.size() - 1));
+                value = batches ? (T) results : (T) results.get(0);
+            } catch (Throwable t) {
+                synchronized (this) {
+                    terminated = true;
+                }
+                closeCursor();
+                subscriber.onError(t);
+                return false;
+            }
+
+            subscriber.onNext(value);
+
+            synchronized (this) {
+                resumeToken = lastResumeToken;
+            }
+            if (resumeTokenStore != null) {
+                try {
+                    resumeTokenStore.save(lastResumeToken);
+                } catch (Throwable t) {
+                    synchronized (this) {
+                        terminated = true;
+                    }
+                    closeCursor();
+                    subscriber.onError(t);
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void fetch() {
+            AsyncBatchCursor<BsonDocument> localCursor;
+            BsonDocument localResumeToken;
+            synchronized (this) {
+                localCursor = cursor;
+                localResumeToken = resumeToken;
+            }
+            if (localCursor != null) {
+                localCursor.next(new NextCallback(localCursor));
+                return;
+            }
+            try {
+                cursorOpener.open(createPipeline(localResumeToken), batchSize, collation,
+                        new SingleResultCallback<AsyncBatchCursor<BsonDocument>>() {
+                            @Override
+                            public void onResult(final AsyncBatchCursor<BsonDocument> result, final Throwable t) {
+                                if (t != null) {
+                                    onFetchError(null, t);
+                                    return;
+                                }
+                                boolean wasTerminated;
+                                synchronized (ChangeStreamProducer.this) {
+                                    wasTerminated = terminated;
+                                    if (!wasTerminated) {
+                                        cursor = result;
+                                        resumeAttempted = false;
+                                    }
+                                }
+                                if (wasTerminated) {
+                                    result.close();
+                                } else {
+                                    result.next(new NextCallback(result));
+                                }
+                            }
+                        });
+            } catch (Throwable t) {
+                onFetchError(null, t);
+            }
+        }
+
+        private void onFetchError(final AsyncBatchCursor<BsonDocument> failedCursor, final Throwable t) {
+            boolean resume = false;
+            synchronized (this) {
+                if (failedCursor != null && cursor == failedCursor) {
+                    cursor = null;
+                }
+                if (!terminated && !resumeAttempted && isResumable(t)) {
+                    resumeAttempted = true;
+                    resume = true;
+                } else {
+                    fetching = false;
+                    error = t;
+                }
+            }
+            if (failedCursor != null) {
+                failedCursor.close();
+            }
+            if (resume) {
+                fetch();
+            } else {
+                drain();
+            }
+        }
+
+        private List<BsonDocument> createPipeline(final BsonDocument localResumeToken) {
+            BsonDocument changeStream = new BsonDocument("fullDocument", new BsonString(fullDocument.getValue()));
+            if (localResumeToken != null) {
+                changeStream.append("resumeAfter", localResumeToken);
+            }
+            List<BsonDocument> changeStreamPipeline = new ArrayList<BsonDocument>(stages.size() + 1);
+            changeStreamPipeline.add(new BsonDocument("$changeStream", changeStream));
+            changeStreamPipeline.addAll(stages);
+            return changeStreamPipeline;
+        }
+
+        private TResult decode(final BsonDocument document) {
+            if (resultClass.isInstance(document)) {
+                return resultClass.cast(document);
+            }
+            return codec.decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+        }
+
+        private BsonDocument getResumeToken(final BsonDocument document) {
+            if (!document.isDocument("_id")) {
+                throw new MongoClientException("Cannot provide resume functionality when the resume token is missing.");
+            }
+            return document.getDocument("_id");
+        }
+
+        private void closeCursor() {
+            AsyncBatchCursor<BsonDocument> localCursor;
+            synchronized (this) {
+                localCursor = cursor;
+                cursor = null;
+            }
+            if (localCursor != null) {
+                localCursor.close();
+            }
+        }
+
+        private final class NextCallback implements SingleResultCallback<List<BsonDocument>> {
+            private final AsyncBatchCursor<BsonDocument> batchCursor;
+
+            NextCallback(final AsyncBatchCursor<BsonDocument> batchCursor) {
+                this.batchCursor = batchCursor;
+            }
+
+            @Override
+            public void onResult(final List<BsonDocument> results, final Throwable t) {
+                if (t != null) {
+                    onFetchError(batchCursor, t);
+                    return;
+                }
+                synchronized (ChangeStreamProducer.this) {
+                    fetching = false;
+                    if (results == null) {
+                        done = true;
+                    } else {
+                        buffer.addAll(results);
+                    }
+                }
+                drain();
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.async.client.MongoCollection;
+
+/**
+ * The optional features of a collection, each of which is null when it is not enabled. They are carried over to the collections derived
+ * from it, so that for example a collection with another read preference shares the query cache and the metrics of the original.
+ *
+ * @param <TDocument> the document type of the collection
+ */
+final class CollectionFeatures<TDocument> {
+    private final WriteBatcher<TDocument> writeBatcher;
+    private final QueryCache queryCache;
+    private final HedgedReads hedgedReads;
+    private final MetricsRegistry metrics;
+
+    /**
+     * @param <TDocument> the document type of the collection
+     * @return the features of a collection that has none enabled
+     */
+    static <TDocument> CollectionFeatures<TDocument> none() {
+        return new CollectionFeatures<TDocument>(null, null, null, null);
+    }
+
+    private CollectionFeatures(final WriteBatcher<TDocument> writeBatcher, final QueryCache queryCache, final HedgedReads hedgedReads,
+                               final MetricsRegistry metrics) {
+        this.writeBatcher = writeBatcher;
+        this.queryCache = queryCache;
+        this.hedgedReads = hedgedReads;
+        this.metrics = metrics;
+    }
+
+    WriteBatcher<TDocument> getWriteBatcher() {
+        return writeBatcher;
+    }
+
+    QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    HedgedReads getHedgedReads() {
+        return hedgedReads;
+    }
+
+    MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    CollectionFeatures<TDocument> withWriteBatcher(final WriteBatcher<TDocument> writeBatcher) {
+        return new CollectionFeatures<TDocument>(writeBatcher, queryCache, hedgedReads, metrics);
+    }
+
+    CollectionFeatures<TDocument> withQueryCache(final QueryCache queryCache) {
+        return new CollectionFeatures<TDocument>(writeBatcher, queryCache, hedgedReads, metrics);
+    }
+
+    CollectionFeatures<TDocument> withHedgedReads(final HedgedReads hedgedReads) {
+        return new CollectionFeatures<TDocument>(writeBatcher, queryCache, hedgedReads, metrics);
+    }
+
+    CollectionFeatures<TDocument> withMetrics(final MetricsRegistry metrics) {
+        return new CollectionFeatures<TDocument>(writeBatcher, queryCache, hedgedReads, metrics);
+    }
+
+    /**
+     * Gets the features for a collection derived from this one, whose write batcher, if any, writes to the derived collection.
+     *
+     * @param collection the derived collection
+     * @param <T>        the document type of the derived collection
+     * @return the features of the derived collection
+     */
+    <T> CollectionFeatures<T> withCollection(final MongoCollection<T> collection) {
+        return new CollectionFeatures<T>(writeBatcher == null ? null : writeBatcher.withCollection(collection), queryCache, hedgedReads,
+                metrics);
+    }
+
+    /**
+     * @param collection the collection whose queries are cached
+     * @return the scope of the query cache for the collection, or null if there is no query cache
+     */
+    QueryCache.Scope queryCacheScope(final MongoCollection<?> collection) {
+        return queryCache == null ? null : queryCache.scope(collection);
+    }
+}
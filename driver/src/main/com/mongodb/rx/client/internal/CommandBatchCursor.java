@@ -0,0 +1,211 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.MongoException;
+import com.mongodb.MongoNamespace;
+import com.mongodb.ReadPreference;
+import com.mongodb.async.AsyncBatchCursor;
+import com.mongodb.async.SingleResultCallback;
+import com.mongodb.async.client.MongoDatabase;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * A batch cursor over the results of a command that returns a cursor, such as a database level {@code aggregate}, iterated with
+ * {@code getMore} commands run against the primary.
+ *
+ * <p>Each command selects a server on its own, as the async driver has no way to pin them to the server that opened the cursor. This is
+ * only reliable when a single server is eligible, which rules out several mongos in the seed list of a sharded cluster.</p>
+ */
+final class CommandBatchCursor implements AsyncBatchCursor<BsonDocument> {
+    private final MongoDatabase database;
+    private final String collectionName;
+
+    /* protected by `this` */
+    private List<BsonDocument> firstBatch;
+    private long cursorId;
+    private int batchSize;
+    private boolean closed;
+    /* protected by `this` */
+
+    /**
+     * Runs the command and passes a cursor over its results to the callback.
+     *
+     * @param database  the database to run the command against
+     * @param command   the command
+     * @param batchSize the batch size of the {@code getMore} commands, or zero for the server default
+     * @param callback  the callback
+     */
+    static void open(final MongoDatabase database, final BsonDocument command, final int batchSize,
+                     final SingleResultCallback<AsyncBatchCursor<BsonDocument>> callback) {
+        database.runCommand(command, ReadPreference.primary(), BsonDocument.class, new SingleResultCallback<BsonDocument>() {
+            @Override
+            public void onResult(final BsonDocument result, final Throwable t) {
+                if (t != null) {
+                    callback.onResult(null, t);
+                    return;
+                }
+                CommandBatchCursor cursor;
+                try {
+                    BsonDocument cursorDocument = result.getDocument("cursor");
+                    cursor = new CommandBatchCursor(database, new MongoNamespace(cursorDocument.getString("ns").getValue()),
+                            cursorDocument.getNumber("id").longValue(), toList(cursorDocument.getArray("firstBatch")), batchSize);
+                } catch (Throwable e) {
+                    callback.onResult(null, e);
+                    return;
+                }
+                callback.onResult(cursor, null);
+            }
+        });
+    }
+
+    private CommandBatchCursor(final MongoDatabase database, final MongoNamespace namespace, final long cursorId,
+                               final List<BsonDocument> firstBatch, final int batchSize) {
+        this.database = notNull("database", database);
+        this.collectionName = namespace.getCollectionName();
+        this.cursorId = cursorId;
+        this.firstBatch = firstBatch;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void next(final SingleResultCallback<List<BsonDocument>> callback) {
+        List<BsonDocument> results = null;
+        long localCursorId;
+        boolean wasClosed;
+        synchronized (this) {
+            wasClosed = closed;
+            if (firstBatch != null && !firstBatch.isEmpty()) {
+                results = firstBatch;
+            }
+            firstBatch = null;
+            localCursorId = cursorId;
+        }
+        if (wasClosed) {
+            callback.onResult(null, new MongoException("next() called after the cursor was closed."));
+        } else if (results != null) {
+            callback.onResult(results, null);
+        } else if (localCursorId == 0) {
+            callback.onResult(null, null);
+        } else {
+            getMore(localCursorId, callback);
+        }
+    }
+
+    private void getMore(final long localCursorId, final SingleResultCallback<List<BsonDocument>> callback) {
+        BsonDocument command = new BsonDocument("getMore", new BsonInt64(localCursorId))
+                .append("collection", new BsonString(collectionName));
+        synchronized (this) {
+            if (batchSize > 0) {
+                command.append("batchSize", new BsonInt32(batchSize));
+            }
+        }
+        database.runCommand(command, ReadPreference.primary(), BsonDocument.class, new SingleResultCallback<BsonDocument>() {
+            @Override
+            public void onResult(final BsonDocument result, final Throwable t) {
+                if (t != null) {
+                    callback.onResult(null, t);
+                    return;
+                }
+                List<BsonDocument> results;
+                long nextCursorId;
+                try {
+                    BsonDocument cursorDocument = result.getDocument("cursor");
+                    results = toList(cursorDocument.getArray("nextBatch"));
+                    nextCursorId = cursorDocument.getNumber("id").longValue();
+                } catch (Throwable e) {
+                    callback.onResult(null, e);
+                    return;
+                }
+                boolean wasClosed;
+                synchronized (CommandBatchCursor.this) {
+                    cursorId = nextCursorId;
+                    wasClosed = closed;
+                }
+                if (wasClosed) {
+                    callback.onResult(null, new MongoException("The cursor was closed while a getMore was in progress."));
+                } else if (results.isEmpty() && nextCursorId != 0) {
+                    getMore(nextCursorId, callback);
+                } else {
+                    callback.onResult(results.isEmpty() ? null : results, null);
+                }
+            }
+        });
+    }
+
+    @Override
+    public synchronized void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public synchronized int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        long localCursorId;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            firstBatch = null;
+            localCursorId = cursorId;
+        }
+        killCursor(localCursorId);
+    }
+
+    private void killCursor(final long localCursorId) {
+        if (localCursorId == 0) {
+            return;
+        }
+        BsonDocument command = new BsonDocument("killCursors", new BsonString(collectionName))
+                .append("cursors", new BsonArray(Collections.<BsonValue>singletonList(new BsonInt64(localCursorId))));
+        database.runCommand(command, ReadPreference.primary(), BsonDocument.class, new SingleResultCallback<BsonDocument>() {
+            @Override
+            public void onResult(final BsonDocument result, final Throwable t) {
+                // ignore, the server times out cursors that could not be killed
+            }
+        });
+    }
+
+    private static List<BsonDocument> toList(final BsonArray array) {
+        List<BsonDocument> documents = new ArrayList<BsonDocument>(array.size());
+        for (BsonValue value : array) {
+            documents.add(value.asDocument());
+        }
+        return documents;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.rx.client.DeliverySettings;
+import com.mongodb.rx.client.ObservableAdapter;
+import com.mongodb.rx.client.OperationAwareObservableAdapter;
+import com.mongodb.rx.client.OperationContext;
+import rx.Observable;
+
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * Moves the delivery of results to the scheduler of the delivery settings, before applying the adapter that it wraps.
+ *
+ * <p>{@code observeOn} drains each subscription's buffer in a single task on the scheduler, requests at most the batch size from the
+ * driver ahead of the subscriber, and delays errors until the buffered results have been delivered, so the order of each subscription
+ * is preserved.</p>
+ */
+final class DeliveryObservableAdapter implements OperationAwareObservableAdapter {
+    private final DeliverySettings deliverySettings;
+    private final ObservableAdapter wrapped;
+
+    DeliveryObservableAdapter(final DeliverySettings deliverySettings, final ObservableAdapter wrapped) {
+        this.deliverySettings = notNull("deliverySettings", deliverySettings);
+        this.wrapped = notNull("wrapped", wrapped);
+    }
+
+    @Override
+    public <T> Observable<T> adapt(final Observable<T> observable) {
+        return wrapped.adapt(offload(observable));
+    }
+
+    @Override
+    public <T> Observable<T> adapt(final Observable<T> observable, final OperationContext context) {
+        if (wrapped instanceof OperationAwareObservableAdapter) {
+            return ((OperationAwareObservableAdapter) wrapped).adapt(offload(observable), context);
+        }
+        return adapt(observable);
+    }
+
+    private <T> Observable<T> offload(final Observable<T> observable) {
+        return observable.observeOn(deliverySettings.getScheduler(), true, deliverySettings.getBatchSize());
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.rx.client.SlowDeliveryEvent;
+import com.mongodb.rx.client.SlowDeliveryListener;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.assertions.Assertions.isTrueArgument;
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * Reports subscribers that spend longer than a threshold handling a result, error or completion on the thread that produced it.
+ *
+ * <p>Each thread has one preallocated {@code Delivery}, which records the delivery in progress. A watchdog thread samples them every half
+ * threshold and reports those that have run for longer than the threshold with the stack trace of their thread, so that it shows where
+ * the subscriber is blocked. A delivery that finishes over the threshold before it is sampled is reported by its own thread, without a
+ * stack trace. Each delivery is reported at most once.</p>
+ */
+final class DeliveryWatchdog {
+    private static final StackTraceElement[] NO_STACK_TRACE = new StackTraceElement[0];
+
+    private final long thresholdNanos;
+    private final SlowDeliveryListener listener;
+    private final ThreadLocal<Delivery> deliveries = new ThreadLocal<Delivery>();
+    private final Queue<Delivery> allDeliveries = new ConcurrentLinkedQueue<Delivery>();
+    private final ScheduledExecutorService executor;
+
+    DeliveryWatchdog(final long thresholdNanos, final SlowDeliveryListener listener) {
+        isTrueArgument("thresholdNanos > 0", thresholdNanos > 0);
+        this.thresholdNanos = thresholdNanos;
+        this.listener = notNull("listener", listener);
+        this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                Thread thread = new Thread(runnable, "mongo-rx-delivery-watchdog");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        long periodNanos = Math.max(thresholdNanos / 2, TimeUnit.MILLISECONDS.toNanos(1));
+        executor.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                sample();
+            }
+        }, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Starts a delivery on the current thread, which must be followed by {@link #finish(long)} on the same thread.
+     */
+    long start(final OperationRecorder recorder, final String signal) {
+        Delivery delivery = deliveries.get();
+        if (delivery == null) {
+            delivery = new Delivery(Thread.currentThread());
+            deliveries.set(delivery);
+            allDeliveries.add(delivery);
+        }
+        return delivery.start(recorder, signal);
+    }
+
+    void finish(final long durationNanos) {
+        Delivery delivery = deliveries.get();
+        long sequence = delivery.finish();
+        if (sequence != 0 && durationNanos > thresholdNanos && delivery.markReported(sequence)) {
+            report(delivery.recorder, delivery.signal, durationNanos, Thread.currentThread().getName(), NO_STACK_TRACE);
+        }
+    }
+
+    void close() {
+        executor.shutdownNow();
+    }
+
+    private void sample() {
+        long nowNanos = System.nanoTime();
+        Iterator<Delivery> iterator = allDeliveries.iterator();
+        while (iterator.hasNext()) {
+            Delivery delivery = iterator.next();
+            Thread thread = delivery.thread.get();
+            if (thread == null) {
+                iterator.remove();
+                continue;
+            }
+            long sequence = delivery.sequence;
+            long durationNanos = nowNanos - delivery.startNanos;
+            OperationRecorder recorder = delivery.recorder;
+            String signal = delivery.signal;
+            if (sequence % 2 == 0 || durationNanos <= thresholdNanos) {
+                continue;
+            }
+            StackTraceElement[] stackTrace = thread.getStackTrace();
+            if (delivery.sequence == sequence && delivery.markReported(sequence)) {
+                report(recorder, signal, durationNanos, thread.getName(), stackTrace);
+            }
+        }
+    }
+
+    private void report(final OperationRecorder recorder, final String signal, final long durationNanos, final String threadName,
+                        final StackTraceElement[] stackTrace) {
+        try {
+            listener.slowDelivery(new SlowDeliveryEvent(recorder.getNamespace(), recorder.getOperation(), signal, durationNanos,
+                    threadName, stackTrace));
+        } catch (RuntimeException e) {
+            // ignore failures of the listener, so that they don't fail the delivery or stop the watchdog
+        }
+    }
+
+    /**
+     * The delivery in progress on one thread. The sequence is odd while a delivery is in progress, and the other fields are written before
+     * it is incremented to odd, so a sampler that reads the same odd sequence before and after reading them has read a consistent delivery.
+     */
+    private static final class Delivery {
+        private final WeakReference<Thread> thread;
+        private int depth;
+        private volatile long sequence;
+        private volatile long startNanos;
+        private volatile OperationRecorder recorder;
+        private volatile String signal;
+
+        /* protected by `this` */
+        private long reportedSequence;
+        /* end protected by `this` */
+
+        Delivery(final Thread thread) {
+            this.thread = new WeakReference<Thread>(thread);
+        }
+
+        long start(final OperationRecorder recorder, final String signal) {
+            long nowNanos = System.nanoTime();
+            if (depth++ == 0) {
+                this.recorder = recorder;
+                this.signal = signal;
+                this.startNanos = nowNanos;
+                sequence++;
+            }
+            return nowNanos;
+        }
+
+        /**
+         * Returns the sequence of the delivery if this finishes the outermost delivery on the thread, and 0 otherwise.
+         */
+        long finish() {
+            if (--depth == 0) {
+                long finished = sequence;
+                sequence++;
+                return finished;
+            }
+            return 0;
+        }
+
+        synchronized boolean markReported(final long sequence) {
+            if (reportedSequence == sequence) {
+                return false;
+            }
+            reportedSequence = sequence;
+            return true;
+        }
+    }
+}
@@ -16,33 +16,70 @@
 
 package com.mongodb.rx.client.internal;
 
+import com.mongodb.Block;
+import com.mongodb.async.SingleResultCallback;
 import com.mongodb.async.client.Observables;
 import com.mongodb.client.model.Collation;
 import com.mongodb.rx.client.DistinctObservable;
 import com.mongodb.rx.client.ObservableAdapter;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
 import org.bson.conversions.Bson;
 import rx.Observable;
 import rx.Subscriber;
 import rx.Subscription;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static com.mongodb.assertions.Assertions.notNull;
+import static com.mongodb.rx.client.internal.HedgedReads.hedged;
 
 
 class DistinctObservableImpl<TResult> implements DistinctObservable<TResult> {
 
     private final com.mongodb.async.client.DistinctIterable<TResult> wrapped;
     private final ObservableAdapter observableAdapter;
+    private final String fieldName;
+    private final Class<TResult> resultClass;
+    private final QueryCache.Scope queryCacheScope;
+    private final HedgedReads hedgedReads;
+    private final TrackedOperation trackedOperation;
+    private Bson filter;
+    private Collation collation;
 
     DistinctObservableImpl(final com.mongodb.async.client.DistinctIterable<TResult> wrapped, final ObservableAdapter observableAdapter) {
+        this(wrapped, observableAdapter, null, null, null);
+    }
+
+    DistinctObservableImpl(final com.mongodb.async.client.DistinctIterable<TResult> wrapped, final ObservableAdapter observableAdapter,
+                           final String fieldName, final Class<TResult> resultClass, final QueryCache.Scope queryCacheScope) {
+        this(wrapped, observableAdapter, fieldName, resultClass, queryCacheScope, null);
+    }
+
+    DistinctObservableImpl(final com.mongodb.async.client.DistinctIterable<TResult> wrapped, final ObservableAdapter observableAdapter,
+                           final String fieldName, final Class<TResult> resultClass, final QueryCache.Scope queryCacheScope,
+                           final HedgedReads hedgedReads) {
+        this(wrapped, observableAdapter, fieldName, resultClass, queryCacheScope, hedgedReads, null);
+    }
+
+    DistinctObservableImpl(final com.mongodb.async.client.DistinctIterable<TResult> wrapped, final ObservableAdapter observableAdapter,
+                           final String fieldName, final Class<TResult> resultClass, final QueryCache.Scope queryCacheScope,
+                           final HedgedReads hedgedReads, final TrackedOperation trackedOperation) {
         this.wrapped = notNull("wrapped", wrapped);
         this.observableAdapter = notNull("observableAdapter", observableAdapter);
+        this.fieldName = fieldName;
+        this.resultClass = resultClass;
+        this.queryCacheScope = queryCacheScope;
+        this.hedgedReads = hedgedReads;
+        this.trackedOperation = trackedOperation;
     }
 
     @Override
     public DistinctObservable<TResult> filter(final Bson filter) {
         wrapped.filter(filter);
+        this.filter = filter;
         return this;
     }
 
@@ -55,16 +92,47 @@ class DistinctObservableImpl<TResult> implements DistinctObservable<TResult> {
     @Override
     public DistinctObservable<TResult> collation(final Collation collation) {
         wrapped.collation(collation);
+        this.collation = collation;
         return this;
     }
 
     @Override
     public Observable<TResult> toObservable() {
-        return RxObservables.create(Observables.observe(wrapped), observableAdapter);
+        if (queryCacheScope != null || hedgedReads != null) {
+            Block<SingleResultCallback<List<TResult>>> into = new Block<SingleResultCallback<List<TResult>>>() {
+                @Override
+                public void apply(final SingleResultCallback<List<TResult>> callback) {
+                    wrapped.into(new ArrayList<TResult>(), callback);
+                }
+            };
+            final Block<SingleResultCallback<List<TResult>>> operation = hedged(hedgedReads, into);
+            if (queryCacheScope == null) {
+                return RxObservables.create(Observables.observeAndFlatten(operation), observableAdapter, trackedOperation);
+            }
+            return RxObservables.create(Observables.observeAndFlatten(new Block<SingleResultCallback<List<TResult>>>() {
+                @Override
+                public void apply(final SingleResultCallback<List<TResult>> callback) {
+                    queryCacheScope.get(resultClass, getCacheQuery(), operation, callback);
+                }
+            }), observableAdapter, trackedOperation);
+        }
+        return RxObservables.create(Observables.observe(wrapped), observableAdapter, trackedOperation);
+    }
+
+    @Override
+    public Observable<List<TResult>> toObservableBatches() {
+        return RxObservables.create(BatchCursorObservable.observeBatches(wrapped, BatchCursorSettings.DEFAULT), observableAdapter,
+                trackedOperation);
     }
 
     @Override
     public Subscription subscribe(final Subscriber<? super TResult> subscriber) {
         return toObservable().subscribe(subscriber);
     }
+
+    private BsonDocument getCacheQuery() {
+        return new BsonDocument("distinct", new BsonString(fieldName))
+                .append("filter", queryCacheScope.toBsonValue(filter))
+                .append("collation", queryCacheScope.toBsonValue(collation));
+    }
 }
@@ -0,0 +1,385 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.Block;
+import com.mongodb.MongoClientException;
+import com.mongodb.async.SingleResultCallback;
+import com.mongodb.async.client.MongoCollection;
+import com.mongodb.async.client.Observables;
+import com.mongodb.rx.client.DocumentLoader;
+import com.mongodb.rx.client.ObservableAdapter;
+import org.bson.BsonArray;
+import org.bson.BsonDecimal128;
+import org.bson.BsonDocument;
+import org.bson.BsonDouble;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonNull;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.types.Decimal128;
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Action0;
+import rx.schedulers.Schedulers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.assertions.Assertions.isTrueArgument;
+import static com.mongodb.assertions.Assertions.notNull;
+import static java.lang.String.format;
+
+/**
+ * Collapses the loads of documents by key made within a window into a single {@code find({keyField: {$in: [...]}})}.
+ *
+ * <p>A batch is sent as soon as it holds {@code maxBatchSize} distinct keys, or {@code maxDelay} after its first key was added. Results
+ * are read as raw documents, so that the key field can be read without decoding the rest of the document, and are then decoded into
+ * the document class of the collection.</p>
+ *
+ * <p>Numeric keys are normalized, both when they are loaded and when the results are matched, so that a key matches stored numbers of
+ * any numeric type with the same value, as {@code $in} does.</p>
+ *
+ * @param <TDocument> the document type
+ */
+final class DocumentLoaderImpl<TDocument> implements DocumentLoader<TDocument> {
+    private final MongoCollection<TDocument> wrapped;
+    private final MongoCollection<RawBsonDocument> rawCollection;
+    private final ObservableAdapter observableAdapter;
+    private final String keyField;
+    private final int maxBatchSize;
+    private final long maxDelay;
+    private final TimeUnit timeUnit;
+    private final Map<BsonValue, List<TDocument>> memo;
+    private final Scheduler scheduler;
+
+    /* protected by `this` */
+    private Map<BsonValue, List<SingleResultCallback<List<TDocument>>>> pending =
+            new LinkedHashMap<BsonValue, List<SingleResultCallback<List<TDocument>>>>();
+    private final Map<BsonValue, List<SingleResultCallback<List<TDocument>>>> inFlight =
+            new HashMap<BsonValue, List<SingleResultCallback<List<TDocument>>>>();
+    /* protected by `this` */
+
+    DocumentLoaderImpl(final MongoCollection<TDocument> wrapped, final ObservableAdapter observableAdapter, final String keyField,
+                       final int maxBatchSize, final long maxDelay, final TimeUnit timeUnit, final boolean memoize) {
+        this(wrapped, observableAdapter, keyField, maxBatchSize, maxDelay, timeUnit, memoize, Schedulers.computation());
+    }
+
+    DocumentLoaderImpl(final MongoCollection<TDocument> wrapped, final ObservableAdapter observableAdapter, final String keyField,
+                       final int maxBatchSize, final long maxDelay, final TimeUnit timeUnit, final boolean memoize,
+                       final Scheduler scheduler) {
+        isTrueArgument("maxBatchSize > 0", maxBatchSize > 0);
+        isTrueArgument("maxDelay >= 0", maxDelay >= 0);
+        this.wrapped = notNull("wrapped", wrapped);
+        this.rawCollection = wrapped.withDocumentClass(RawBsonDocument.class);
+        this.observableAdapter = notNull("observableAdapter", observableAdapter);
+        this.keyField = notNull("keyField", keyField);
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay = maxDelay;
+        this.timeUnit = notNull("timeUnit", timeUnit);
+        this.memo = memoize ? new ConcurrentHashMap<BsonValue, List<TDocument>>() : null;
+        this.scheduler = notNull("scheduler", scheduler);
+    }
+
+    @Override
+    public Observable<TDocument> load(final Object key) {
+        final BsonValue keyValue = normalize(toBsonValue(key));
+        return RxObservables.create(Observables.observeAndFlatten(new Block<SingleResultCallback<List<TDocument>>>() {
+            @Override
+            public void apply(final SingleResultCallback<List<TDocument>> callback) {
+                load(keyValue, callback);
+            }
+        }), observableAdapter);
+    }
+
+    @Override
+    public void clear(final Object key) {
+        if (memo != null) {
+            memo.remove(normalize(toBsonValue(key)));
+        }
+    }
+
+    @Override
+    public void clearAll() {
+        if (memo != null) {
+            memo.clear();
+        }
+    }
+
+    private void load(final BsonValue key, final SingleResultCallback<List<TDocument>> callback) {
+        List<TDocument> memoized = memo == null ? null : memo.get(key);
+        if (memoized != null) {
+            callback.onResult(memoized, null);
+            return;
+        }
+
+        Map<BsonValue, List<SingleResultCallback<List<TDocument>>>> batch = null;
+        Map<BsonValue, List<SingleResultCallback<List<TDocument>>>> batchToSchedule = null;
+        synchronized (this) {
+            List<SingleResultCallback<List<TDocument>>> callbacks = inFlight.get(key);
+            if (callbacks == null) {
+                callbacks = pending.get(key);
+            }
+            if (callbacks != null) {
+                callbacks.add(callback);
+                return;
+            }
+            callbacks = new ArrayList<SingleResultCallback<List<TDocument>>>();
+            callbacks.add(callback);
+            pending.put(key, callbacks);
+            if (pending.size() >= maxBatchSize) {
+                batch = takePending();
+            } else if (pending.size() == 1) {
+                batchToSchedule = pending;
+            }
+        }
+
+        if (batch != null) {
+            find(batch);
+        } else if (batchToSchedule != null) {
+            scheduleFlush(batchToSchedule);
+        }
+    }
+
+    private void scheduleFlush(final Map<BsonValue, List<SingleResultCallback<List<TDocument>>>> scheduledBatch) {
+        final Scheduler.Worker worker = scheduler.createWorker();
+        worker.schedule(new Action0() {
+            @Override
+            public void call() {
+                worker.unsubscribe();
+                Map<BsonValue, List<SingleResultCallback<List<TDocument>>>> batch = null;
+                synchronized (DocumentLoaderImpl.this) {
+                    if (pending == scheduledBatch) {
+                        batch = takePending();
+                    }
+                }
+                if (batch != null) {
+                    find(batch);
+                }
+            }
+        }, maxDelay, timeUnit);
+    }
+
+    private Map<BsonValue, List<SingleResultCallback<List<TDocument>>>> takePending() {
+        Map<BsonValue, List<SingleResultCallback<List<TDocument>>>> batch = pending;
+        pending = new LinkedHashMap<BsonValue, List<SingleResultCallback<List<TDocument>>>>();
+        inFlight.putAll(batch);
+        return batch;
+    }
+
+    private void find(final Map<BsonValue, List<SingleResultCallback<List<TDocument>>>> batch) {
+        BsonDocument filter = new BsonDocument(keyField, new BsonDocument("$in", new BsonArray(new ArrayList<BsonValue>(batch.keySet()))));
+        try {
+            rawCollection.find(filter).into(new ArrayList<RawBsonDocument>(), new SingleResultCallback<List<RawBsonDocument>>() {
+                @Override
+                public void onResult(final List<RawBsonDocument> result, final Throwable t) {
+                    if (t != null) {
+                        complete(batch, null, t);
+                        return;
+                    }
+                    Map<BsonValue, List<TDocument>> results;
+                    try {
+                        results = match(batch, result);
+                    } catch (Throwable e) {
+                        complete(batch, null, e);
+                        return;
+                    }
+                    complete(batch, results, null);
+                }
+            });
+        } catch (Throwable t) {
+            complete(batch, null, t);
+        }
+    }
+
+    private Map<BsonValue, List<TDocument>> match(final Map<BsonValue, List<SingleResultCallback<List<TDocument>>>> batch,
+                                                  final List<RawBsonDocument> documents) {
+        Codec<TDocument> codec = wrapped.getCodecRegistry().get(wrapped.getDocumentClass());
+        Map<BsonValue, List<TDocument>> results = new HashMap<BsonValue, List<TDocument>>();
+        for (RawBsonDocument rawDocument : documents) {
+            List<BsonValue> keys = new ArrayList<BsonValue>();
+            collectValues(rawDocument, keyField.split("\\."), 0, keys);
+            TDocument document = null;
+            for (BsonValue keyValue : keys) {
+                BsonValue key = normalize(keyValue);
+                if (!batch.containsKey(key)) {
+                    continue;
+                }
+                if (document == null) {
+                    document = rawDocument.decode(codec);
+                }
+                List<TDocument> keyResults = results.get(key);
+                if (keyResults == null) {
+                    keyResults = new ArrayList<TDocument>();
+                    results.put(key, keyResults);
+                }
+                if (keyResults.isEmpty() || keyResults.get(keyResults.size() - 1) != document) {
+                    keyResults.add(document);
+                }
+            }
+            if (document == null) {
+                throw new MongoClientException(format("The document with %s %s matches none of the keys that were loaded.", keyField,
+                        keys));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Normalizes a numeric value to the narrowest of Int32, Int64, double and Decimal128 that represents it exactly, so that numbers that
+     * are equal on the server are equal keys. Any other value is returned as it is.
+     */
+    static BsonValue normalize(final BsonValue value) {
+        switch (value.getBsonType()) {
+            case INT64:
+                return normalize(value.asInt64().getValue());
+            case DOUBLE:
+                return normalize(value.asDouble().getValue());
+            case DECIMAL128:
+                return normalize(value.asDecimal128().getValue());
+            default:
+                return value;
+        }
+    }
+
+    private static BsonValue normalize(final double value) {
+        if (value == Math.rint(value) && value >= Long.MIN_VALUE && value < Long.MAX_VALUE) {
+            return normalize((long) value);
+        }
+        return new BsonDouble(value);
+    }
+
+    private static BsonValue normalize(final long value) {
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            return new BsonInt32((int) value);
+        }
+        return new BsonInt64(value);
+    }
+
+    private static BsonValue normalize(final Decimal128 value) {
+        if (value.isNaN()) {
+            return new BsonDouble(Double.NaN);
+        } else if (value.isInfinite()) {
+            return new BsonDouble(value.isNegative() ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+        }
+        BigDecimal bigDecimal;
+        try {
+            bigDecimal = value.bigDecimalValue();
+        } catch (ArithmeticException e) {
+            return new BsonInt32(0);
+        }
+        try {
+            return normalize(bigDecimal.longValueExact());
+        } catch (ArithmeticException e) {
+            double doubleValue = bigDecimal.doubleValue();
+            if (!Double.isInfinite(doubleValue) && new BigDecimal(doubleValue).compareTo(bigDecimal) == 0) {
+                return new BsonDouble(doubleValue);
+            }
+            return new BsonDecimal128(new Decimal128(bigDecimal.stripTrailingZeros()));
+        }
+    }
+
+    private void complete(final Map<BsonValue, List<SingleResultCallback<List<TDocument>>>> batch,
+                          final Map<BsonValue, List<TDocument>> results, final Throwable t) {
+        Map<BsonValue, List<SingleResultCallback<List<TDocument>>>> callbacks =
+                new HashMap<BsonValue, List<SingleResultCallback<List<TDocument>>>>(batch.size());
+        synchronized (this) {
+            for (BsonValue key : batch.keySet()) {
+                callbacks.put(key, inFlight.remove(key));
+            }
+        }
+        for (Map.Entry<BsonValue, List<SingleResultCallback<List<TDocument>>>> entry : callbacks.entrySet()) {
+            List<TDocument> keyResults = null;
+            if (t == null) {
+                keyResults = results.get(entry.getKey());
+                if (keyResults == null) {
+                    keyResults = Collections.emptyList();
+                }
+                if (memo != null) {
+                    memo.put(entry.getKey(), keyResults);
+                }
+            }
+            for (SingleResultCallback<List<TDocument>> callback : entry.getValue()) {
+                callback.onResult(keyResults, t);
+            }
+        }
+    }
+
+    private BsonValue toBsonValue(final Object key) {
+        if (key instanceof BsonValue) {
+            return (BsonValue) key;
+        }
+        return new Document("key", key).toBsonDocument(BsonDocument.class, wrapped.getCodecRegistry()).get("key");
+    }
+
+    /**
+     * Collects the values that the server compares with the keys for the given path, which are the value at the end of the path and, if
+     * it is an array, each of its elements. An array on the path is followed both by position, for a numeric part, and into each of the
+     * documents it holds. A path that does not resolve is compared as null.
+     */
+    private static void collectValues(final BsonValue value, final String[] path, final int depth, final List<BsonValue> values) {
+        if (depth == path.length) {
+            values.add(value);
+            if (value.isArray()) {
+                values.addAll(value.asArray().getValues());
+            }
+        } else if (value.isDocument()) {
+            BsonValue child = value.asDocument().get(path[depth]);
+            if (child == null) {
+                values.add(BsonNull.VALUE);
+            } else {
+                collectValues(child, path, depth + 1, values);
+            }
+        } else if (value.isArray()) {
+            List<BsonValue> elements = value.asArray().getValues();
+            int position = getPosition(path[depth]);
+            if (position >= 0 && position < elements.size()) {
+                collectValues(elements.get(position), path, depth + 1, values);
+            }
+            for (BsonValue element : elements) {
+                if (element.isDocument()) {
+                    collectValues(element, path, depth, values);
+                }
+            }
+        } else {
+            values.add(BsonNull.VALUE);
+        }
+    }
+
+    private static int getPosition(final String part) {
+        for (int i = 0; i < part.length(); i++) {
+            if (!Character.isDigit(part.charAt(i))) {
+                return -1;
+            }
+        }
+        try {
+            return Integer.parseInt(part);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
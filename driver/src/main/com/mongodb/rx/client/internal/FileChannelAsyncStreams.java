@@ -0,0 +1,319 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.MongoGridFSException;
+import com.mongodb.async.SingleResultCallback;
+import com.mongodb.rx.client.ObservableAdapter;
+import com.mongodb.rx.client.gridfs.AsyncInputStream;
+import com.mongodb.rx.client.gridfs.AsyncOutputStream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.mongodb.assertions.Assertions.notNull;
+import static com.mongodb.rx.client.internal.GridFSAsyncStreamHelper.toAsyncInputStream;
+import static com.mongodb.rx.client.internal.GridFSAsyncStreamHelper.toAsyncOutputStream;
+
+/**
+ * Internal helper that creates AsyncInputStreams and AsyncOutputStreams backed by files.
+ *
+ * <p>Reads and writes are positional, so the streams keep their own position rather than relying on the position of the channel.
+ * Streams created from a {@link Path} open the file on the first read or write, and close it when the stream is closed.</p>
+ *
+ * <p>This should not be considered a part of the public API.</p>
+ */
+public final class FileChannelAsyncStreams {
+    private static final long MAX_MAPPED_REGION_SIZE = 256 * 1024 * 1024;
+
+    /**
+     * Creates an AsyncInputStream that reads the channel from the start.
+     *
+     * <p>This should not be considered a part of the public API.</p>
+     * @param channel the channel
+     * @param observableAdapter the ObservableAdapter
+     * @return the AsyncInputStream
+     */
+    public static AsyncInputStream channelToAsyncInputStream(final AsynchronousFileChannel channel,
+                                                             final ObservableAdapter observableAdapter) {
+        notNull("channel", channel);
+        return toAsyncInputStream(new FileChannelInputStream(new FileChannelOpener() {
+            @Override
+            public AsynchronousFileChannel open() {
+                return channel;
+            }
+        }), observableAdapter);
+    }
+
+    /**
+     * Creates an AsyncInputStream that reads the file from the start.
+     *
+     * <p>This should not be considered a part of the public API.</p>
+     * @param path the path of the file
+     * @param observableAdapter the ObservableAdapter
+     * @return the AsyncInputStream
+     */
+    public static AsyncInputStream pathToAsyncInputStream(final Path path, final ObservableAdapter observableAdapter) {
+        notNull("path", path);
+        return toAsyncInputStream(new FileChannelInputStream(new FileChannelOpener() {
+            @Override
+            public AsynchronousFileChannel open() throws IOException {
+                return AsynchronousFileChannel.open(path, StandardOpenOption.READ);
+            }
+        }), observableAdapter);
+    }
+
+    /**
+     * Creates an AsyncInputStream that reads the file from the start by memory mapping it.
+     *
+     * <p>This should not be considered a part of the public API.</p>
+     * @param path the path of the file
+     * @param observableAdapter the ObservableAdapter
+     * @return the AsyncInputStream
+     */
+    public static AsyncInputStream pathToMemoryMappedAsyncInputStream(final Path path, final ObservableAdapter observableAdapter) {
+        notNull("path", path);
+        return toAsyncInputStream(new MemoryMappedInputStream(path), observableAdapter);
+    }
+
+    /**
+     * Creates an AsyncOutputStream that writes to the channel from the start.
+     *
+     * <p>This should not be considered a part of the public API.</p>
+     * @param channel the channel
+     * @param observableAdapter the ObservableAdapter
+     * @return the AsyncOutputStream
+     */
+    public static AsyncOutputStream channelToAsyncOutputStream(final AsynchronousFileChannel channel,
+                                                               final ObservableAdapter observableAdapter) {
+        notNull("channel", channel);
+        return toAsyncOutputStream(new FileChannelOutputStream(new FileChannelOpener() {
+            @Override
+            public AsynchronousFileChannel open() {
+                return channel;
+            }
+        }), observableAdapter);
+    }
+
+    /**
+     * Creates an AsyncOutputStream that writes to the file from the start.
+     *
+     * <p>This should not be considered a part of the public API.</p>
+     * @param path the path of the file
+     * @param observableAdapter the ObservableAdapter
+     * @param options the options used to open the file, or none to create the file or truncate an existing one
+     * @return the AsyncOutputStream
+     */
+    public static AsyncOutputStream pathToAsyncOutputStream(final Path path, final ObservableAdapter observableAdapter,
+                                                            final OpenOption... options) {
+        notNull("path", path);
+        notNull("options", options);
+        return toAsyncOutputStream(new FileChannelOutputStream(new FileChannelOpener() {
+            @Override
+            public AsynchronousFileChannel open() throws IOException {
+                if (options.length == 0) {
+                    return AsynchronousFileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                            StandardOpenOption.TRUNCATE_EXISTING);
+                }
+                return AsynchronousFileChannel.open(path, options);
+            }
+        }), observableAdapter);
+    }
+
+    private interface FileChannelOpener {
+        AsynchronousFileChannel open() throws IOException;
+    }
+
+    private abstract static class FileChannelStream {
+        private final FileChannelOpener opener;
+
+        /* protected by `this` */
+        private AsynchronousFileChannel channel;
+        private boolean closed;
+        /* protected by `this` */
+
+        private volatile long position;
+
+        FileChannelStream(final FileChannelOpener opener) {
+            this.opener = opener;
+        }
+
+        synchronized AsynchronousFileChannel getChannel() throws IOException {
+            if (closed) {
+                throw new IOException("The stream has been closed");
+            }
+            if (channel == null) {
+                channel = opener.open();
+            }
+            return channel;
+        }
+
+        CompletionHandler<Integer, Object> advance(final String errorMessage, final SingleResultCallback<Integer> callback) {
+            return new CompletionHandler<Integer, Object>() {
+                @Override
+                public void completed(final Integer result, final Object attachment) {
+                    if (result > 0) {
+                        position += result;
+                    }
+                    callback.onResult(result, null);
+                }
+
+                @Override
+                public void failed(final Throwable t, final Object attachment) {
+                    callback.onResult(null, new MongoGridFSException(errorMessage, t));
+                }
+            };
+        }
+
+        long getPosition() {
+            return position;
+        }
+
+        public void close(final SingleResultCallback<Void> callback) {
+            AsynchronousFileChannel channelToClose;
+            synchronized (this) {
+                closed = true;
+                channelToClose = channel;
+                channel = null;
+            }
+            try {
+                if (channelToClose != null) {
+                    channelToClose.close();
+                }
+            } catch (IOException e) {
+                callback.onResult(null, new MongoGridFSException("Error closing file", e));
+                return;
+            }
+            callback.onResult(null, null);
+        }
+    }
+
+    private static final class FileChannelInputStream extends FileChannelStream
+            implements com.mongodb.async.client.gridfs.AsyncInputStream {
+
+        FileChannelInputStream(final FileChannelOpener opener) {
+            super(opener);
+        }
+
+        @Override
+        public void read(final ByteBuffer dst, final SingleResultCallback<Integer> callback) {
+            try {
+                getChannel().read(dst, getPosition(), null, advance("Error reading from file", callback));
+            } catch (Exception e) {
+                callback.onResult(null, new MongoGridFSException("Error reading from file", e));
+            }
+        }
+    }
+
+    private static final class FileChannelOutputStream extends FileChannelStream
+            implements com.mongodb.async.client.gridfs.AsyncOutputStream {
+
+        FileChannelOutputStream(final FileChannelOpener opener) {
+            super(opener);
+        }
+
+        @Override
+        public void write(final ByteBuffer src, final SingleResultCallback<Integer> callback) {
+            try {
+                getChannel().write(src, getPosition(), null, advance("Error writing to file", callback));
+            } catch (Exception e) {
+                callback.onResult(null, new MongoGridFSException("Error writing to file", e));
+            }
+        }
+    }
+
+    private static final class MemoryMappedInputStream implements com.mongodb.async.client.gridfs.AsyncInputStream {
+        private final Path path;
+
+        /* protected by `this` */
+        private FileChannel channel;
+        private MappedByteBuffer region;
+        private long size;
+        private long position;
+        private boolean closed;
+        /* protected by `this` */
+
+        MemoryMappedInputStream(final Path path) {
+            this.path = path;
+        }
+
+        @Override
+        public void read(final ByteBuffer dst, final SingleResultCallback<Integer> callback) {
+            int read;
+            try {
+                read = copyTo(dst);
+            } catch (Exception e) {
+                callback.onResult(null, new MongoGridFSException("Error reading from file", e));
+                return;
+            }
+            callback.onResult(read, null);
+        }
+
+        private synchronized int copyTo(final ByteBuffer dst) throws IOException {
+            if (closed) {
+                throw new IOException("The stream has been closed");
+            }
+            if (channel == null) {
+                channel = FileChannel.open(path, StandardOpenOption.READ);
+                size = channel.size();
+            }
+            if (position >= size) {
+                return -1;
+            }
+            if (region == null || !region.hasRemaining()) {
+                region = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(size - position, MAX_MAPPED_REGION_SIZE));
+            }
+            int read = Math.min(dst.remaining(), region.remaining());
+            ByteBuffer slice = region.duplicate();
+            slice.limit(slice.position() + read);
+            dst.put(slice);
+            region.position(region.position() + read);
+            position += read;
+            return read;
+        }
+
+        @Override
+        public void close(final SingleResultCallback<Void> callback) {
+            FileChannel channelToClose;
+            synchronized (this) {
+                closed = true;
+                channelToClose = channel;
+                channel = null;
+                region = null;
+            }
+            try {
+                if (channelToClose != null) {
+                    channelToClose.close();
+                }
+            } catch (IOException e) {
+                callback.onResult(null, new MongoGridFSException("Error closing file", e));
+                return;
+            }
+            callback.onResult(null, null);
+        }
+    }
+
+    private FileChannelAsyncStreams() {
+    }
+}
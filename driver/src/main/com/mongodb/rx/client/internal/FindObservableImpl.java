@@ -21,16 +21,36 @@ import com.mongodb.CursorType;
 import com.mongodb.async.SingleResultCallback;
 import com.mongodb.async.client.Observables;
 import com.mongodb.client.model.Collation;
+import com.mongodb.client.model.FindOptions;
 import com.mongodb.rx.client.FindObservable;
 import com.mongodb.rx.client.ObservableAdapter;
+import com.mongodb.rx.client.Page;
+import com.mongodb.rx.client.PageToken;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.conversions.Bson;
+import org.bson.io.BasicOutputBuffer;
 import rx.Observable;
 import rx.Subscriber;
 import rx.Subscription;
+import rx.functions.Func0;
+import rx.functions.Func1;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import static com.mongodb.assertions.Assertions.isTrue;
 import static com.mongodb.assertions.Assertions.notNull;
+import static com.mongodb.rx.client.internal.HedgedReads.hedged;
+import static com.mongodb.rx.client.internal.HedgedReads.isHedgedFind;
+import static com.mongodb.rx.client.internal.QueryCache.singletonListCallback;
 
 
 @SuppressWarnings("deprecation")
@@ -38,155 +58,356 @@ class FindObservableImpl<TResult> implements FindObservable<TResult> {
 
     private final com.mongodb.async.client.FindIterable<TResult> wrapped;
     private final ObservableAdapter observableAdapter;
+    private final com.mongodb.async.client.MongoCollection<?> collection;
+    private final Class<TResult> resultClass;
+    private final CodecRegistry codecRegistry;
+    private final QueryCache.Scope queryCacheScope;
+    private final HedgedReads hedgedReads;
+    private final TrackedOperation trackedOperation;
+    private final FindOptions findOptions = new FindOptions();
+    private BatchCursorSettings batchCursorSettings = BatchCursorSettings.DEFAULT;
+    private Bson filter;
+    private boolean cacheable = true;
 
     FindObservableImpl(final com.mongodb.async.client.FindIterable<TResult> wrapped, final ObservableAdapter observableAdapter) {
+        this(wrapped, observableAdapter, null, null, null, CollectionFeatures.none(), null);
+    }
+
+    /**
+     * @param wrapped           the find
+     * @param observableAdapter the observable adapter
+     * @param collection        the collection that is queried, or null if it is not known, in which case the find can neither be paged
+     *                          nor cached
+     * @param filter            the filter of the find
+     * @param resultClass       the result class of the find, or null if it is not known
+     * @param features          the features of the collection
+     * @param trackedOperation  the operation to record the metrics of, or null
+     */
+    FindObservableImpl(final com.mongodb.async.client.FindIterable<TResult> wrapped, final ObservableAdapter observableAdapter,
+                       final com.mongodb.async.client.MongoCollection<?> collection, final Bson filter, final Class<TResult> resultClass,
+                       final CollectionFeatures<?> features, final TrackedOperation trackedOperation) {
         this.wrapped = notNull("wrapped", wrapped);
         this.observableAdapter = notNull("observableAdapter", observableAdapter);
+        this.collection = collection;
+        this.filter = filter;
+        this.resultClass = resultClass;
+        notNull("features", features);
+        this.codecRegistry = collection == null ? null : collection.getCodecRegistry();
+        this.queryCacheScope = collection == null ? null : features.queryCacheScope(collection);
+        this.hedgedReads = features.getHedgedReads();
+        this.trackedOperation = trackedOperation;
     }
 
     @Override
     public Observable<TResult> first() {
-        return RxObservables.create(Observables.observe(new Block<SingleResultCallback<TResult>>() {
+        final Block<SingleResultCallback<TResult>> operation = hedged(hedgedReads, new Block<SingleResultCallback<TResult>>() {
             @Override
             public void apply(final SingleResultCallback<TResult> callback) {
                 wrapped.first(callback);
             }
-        }), observableAdapter);
+        });
+        if (isCached()) {
+            return RxObservables.create(Observables.observeAndFlatten(new Block<SingleResultCallback<List<TResult>>>() {
+                @Override
+                public void apply(final SingleResultCallback<List<TResult>> callback) {
+                    queryCacheScope.get(resultClass, getCacheQuery("first"), new Block<SingleResultCallback<List<TResult>>>() {
+                        @Override
+                        public void apply(final SingleResultCallback<List<TResult>> loadCallback) {
+                            operation.apply(singletonListCallback(loadCallback));
+                        }
+                    }, callback);
+                }
+            }), observableAdapter, trackedOperation);
+        }
+        return RxObservables.create(Observables.observe(operation), observableAdapter, trackedOperation);
     }
 
     @Override
     public FindObservable<TResult> filter(final Bson filter) {
         wrapped.filter(filter);
+        this.filter = filter;
         return this;
     }
 
     @Override
     public FindObservable<TResult> limit(final int limit) {
         wrapped.limit(limit);
+        findOptions.limit(limit);
         return this;
     }
 
     @Override
     public FindObservable<TResult> skip(final int skip) {
         wrapped.skip(skip);
+        findOptions.skip(skip);
         return this;
     }
 
     @Override
     public FindObservable<TResult> maxTime(final long maxTime, final TimeUnit timeUnit) {
         wrapped.maxTime(maxTime, timeUnit);
+        findOptions.maxTime(maxTime, timeUnit);
         return this;
     }
 
     @Override
     public FindObservable<TResult> maxAwaitTime(final long maxAwaitTime, final TimeUnit timeUnit) {
         wrapped.maxAwaitTime(maxAwaitTime, timeUnit);
+        findOptions.maxAwaitTime(maxAwaitTime, timeUnit);
         return this;
     }
 
     @Override
     public FindObservable<TResult> modifiers(final Bson modifiers) {
         wrapped.modifiers(modifiers);
+        findOptions.modifiers(modifiers);
+        cacheable = false;
         return this;
     }
 
     @Override
     public FindObservable<TResult> projection(final Bson projection) {
         wrapped.projection(projection);
+        findOptions.projection(projection);
         return this;
     }
 
     @Override
     public FindObservable<TResult> sort(final Bson sort) {
         wrapped.sort(sort);
+        findOptions.sort(sort);
         return this;
     }
 
     @Override
     public FindObservable<TResult> noCursorTimeout(final boolean noCursorTimeout) {
         wrapped.noCursorTimeout(noCursorTimeout);
+        findOptions.noCursorTimeout(noCursorTimeout);
         return this;
     }
 
     @Override
     public FindObservable<TResult> oplogReplay(final boolean oplogReplay) {
         wrapped.oplogReplay(oplogReplay);
+        findOptions.oplogReplay(oplogReplay);
+        cacheable = false;
         return this;
     }
 
     @Override
     public FindObservable<TResult> partial(final boolean partial) {
         wrapped.partial(partial);
+        findOptions.partial(partial);
+        cacheable = false;
         return this;
     }
 
     @Override
     public FindObservable<TResult> cursorType(final CursorType cursorType) {
         wrapped.cursorType(cursorType);
+        findOptions.cursorType(cursorType);
+        cacheable = false;
         return this;
     }
 
     @Override
     public FindObservable<TResult> collation(final Collation collation) {
         wrapped.collation(collation);
+        findOptions.collation(collation);
         return this;
     }
 
     @Override
     public FindObservable<TResult> comment(final String comment) {
         wrapped.comment(comment);
+        findOptions.comment(comment);
         return this;
     }
 
     @Override
     public FindObservable<TResult> hint(final Bson hint) {
         wrapped.hint(hint);
+        findOptions.hint(hint);
         return this;
     }
 
     @Override
     public FindObservable<TResult> max(final Bson max) {
         wrapped.max(max);
+        findOptions.max(max);
+        cacheable = false;
         return this;
     }
 
     @Override
     public FindObservable<TResult> min(final Bson min) {
         wrapped.min(min);
+        findOptions.min(min);
+        cacheable = false;
         return this;
     }
 
     @Override
     public FindObservable<TResult> maxScan(final long maxScan) {
         wrapped.maxScan(maxScan);
+        findOptions.maxScan(maxScan);
+        cacheable = false;
         return this;
     }
 
     @Override
     public FindObservable<TResult> returnKey(final boolean returnKey) {
         wrapped.returnKey(returnKey);
+        findOptions.returnKey(returnKey);
+        cacheable = false;
         return this;
     }
 
     @Override
     public FindObservable<TResult> showRecordId(final boolean showRecordId) {
         wrapped.showRecordId(showRecordId);
+        findOptions.showRecordId(showRecordId);
+        cacheable = false;
         return this;
     }
 
     @Override
     public FindObservable<TResult> snapshot(final boolean snapshot) {
         wrapped.snapshot(snapshot);
+        findOptions.snapshot(snapshot);
+        cacheable = false;
+        return this;
+    }
+
+    @Override
+    public FindObservable<TResult> batchSizeFromDemand(final int minBatchSize, final int maxBatchSize) {
+        batchCursorSettings = batchCursorSettings.demandDriven(minBatchSize, maxBatchSize);
+        return this;
+    }
+
+    @Override
+    public FindObservable<TResult> prefetch(final int lowWatermark, final int highWatermark) {
+        batchCursorSettings = batchCursorSettings.prefetch(lowWatermark, highWatermark);
         return this;
     }
 
     @Override
     public Observable<TResult> toObservable() {
-        return RxObservables.create(Observables.observe(wrapped), observableAdapter);
+        boolean hedgedFind = isHedgedFind(hedgedReads, findOptions.getLimit());
+        if ((isCached() && findOptions.getLimit() != 0) || hedgedFind) {
+            Block<SingleResultCallback<List<TResult>>> into = new Block<SingleResultCallback<List<TResult>>>() {
+                @Override
+                public void apply(final SingleResultCallback<List<TResult>> callback) {
+                    wrapped.into(new ArrayList<TResult>(), callback);
+                }
+            };
+            final Block<SingleResultCallback<List<TResult>>> operation = hedgedFind ? hedgedReads.hedge(into) : into;
+            if (!isCached()) {
+                return RxObservables.create(Observables.observeAndFlatten(operation), observableAdapter, trackedOperation);
+            }
+            return RxObservables.create(Observables.observeAndFlatten(new Block<SingleResultCallback<List<TResult>>>() {
+                @Override
+                public void apply(final SingleResultCallback<List<TResult>> callback) {
+                    queryCacheScope.get(resultClass, getCacheQuery("find"), operation, callback);
+                }
+            }), observableAdapter, trackedOperation);
+        }
+        return RxObservables.create(BatchCursorObservable.observe(wrapped, batchCursorSettings), observableAdapter, trackedOperation);
+    }
+
+    @Override
+    public Observable<List<TResult>> toObservableBatches() {
+        return RxObservables.create(BatchCursorObservable.observeBatches(wrapped, batchCursorSettings), observableAdapter,
+                trackedOperation);
+    }
+
+    @Override
+    public Observable<ByteBuffer> toObservableRawBatches() {
+        Observable<List<TResult>> batches = RxObservables.create(BatchCursorObservable.observeBatches(wrapped, batchCursorSettings),
+                new ObservableHelper.NoopObservableAdapter(), trackedOperation);
+        return TrackedOperation.adaptWithoutRecording(batches.map(new Func1<List<TResult>, ByteBuffer>() {
+            @Override
+            public ByteBuffer call(final List<TResult> batch) {
+                return concatenate(batch);
+            }
+        }), observableAdapter, trackedOperation);
     }
 
     @Override
     public Subscription subscribe(final Subscriber<? super TResult> subscriber) {
         return toObservable().subscribe(subscriber);
     }
+
+    @Override
+    public Observable<Page<TResult>> page(final PageToken pageToken) {
+        notNull("pageToken", pageToken);
+        checkPageable();
+        return RxObservables.create(Observables.observe(new Block<SingleResultCallback<Page<TResult>>>() {
+            @Override
+            public void apply(final SingleResultCallback<Page<TResult>> callback) {
+                createPager().fetch(pageToken, callback);
+            }
+        }), observableAdapter, trackedOperation);
+    }
+
+    @Override
+    public Observable<Page<TResult>> pages(final Bson sort, final int pageSize) {
+        final PageToken firstPageToken = PageToken.first(sort, pageSize);
+        checkPageable();
+        return TrackedOperation.adapt(Observable.defer(new Func0<Observable<Page<TResult>>>() {
+            @Override
+            public Observable<Page<TResult>> call() {
+                return createPager().pages(firstPageToken);
+            }
+        }), observableAdapter, trackedOperation);
+    }
+
+    private void checkPageable() {
+        isTrue("the collection and result class are known", collection != null && resultClass != null);
+    }
+
+    private KeysetPager<TResult> createPager() {
+        // the copy constructor of FindOptions leaves out the collation
+        FindOptions pageOptions = new FindOptions(findOptions).collation(findOptions.getCollation());
+        return new KeysetPager<TResult>(collection, filter, pageOptions, resultClass);
+    }
+
+    private boolean isCached() {
+        return queryCacheScope != null && cacheable;
+    }
+
+    private BsonDocument getCacheQuery(final String operation) {
+        return new BsonDocument(operation, queryCacheScope.toBsonValue(filter))
+                .append("projection", queryCacheScope.toBsonValue(findOptions.getProjection()))
+                .append("sort", queryCacheScope.toBsonValue(findOptions.getSort()))
+                .append("limit", new BsonInt32(findOptions.getLimit()))
+                .append("skip", new BsonInt32(findOptions.getSkip()))
+                .append("collation", queryCacheScope.toBsonValue(findOptions.getCollation()));
+    }
+
+    private ByteBuffer concatenate(final List<TResult> batch) {
+        int size = 0;
+        for (TResult result : batch) {
+            if (!(result instanceof RawBsonDocument)) {
+                return encode(batch);
+            }
+            size += ((RawBsonDocument) result).getByteBuffer().remaining();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (TResult result : batch) {
+            buffer.put(((RawBsonDocument) result).getByteBuffer().asNIO());
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private ByteBuffer encode(final List<TResult> batch) {
+        isTrue("the result class and codec registry are known", resultClass != null && codecRegistry != null);
+        Codec<TResult> codec = codecRegistry.get(resultClass);
+        BasicOutputBuffer outputBuffer = new BasicOutputBuffer();
+        for (TResult result : batch) {
+            codec.encode(new BsonBinaryWriter(outputBuffer), result, EncoderContext.builder().build());
+        }
+        return ByteBuffer.wrap(outputBuffer.toByteArray());
+    }
 }
@@ -23,24 +23,38 @@ import com.mongodb.WriteConcern;
 import com.mongodb.async.SingleResultCallback;
 import com.mongodb.async.client.Observables;
 import com.mongodb.client.gridfs.model.GridFSDownloadOptions;
+import com.mongodb.client.gridfs.model.GridFSFile;
 import com.mongodb.client.gridfs.model.GridFSUploadOptions;
 import com.mongodb.rx.client.ObservableAdapter;
 import com.mongodb.rx.client.Success;
 import com.mongodb.rx.client.gridfs.AsyncInputStream;
 import com.mongodb.rx.client.gridfs.AsyncOutputStream;
 import com.mongodb.rx.client.gridfs.GridFSBucket;
+import com.mongodb.rx.client.gridfs.GridFSChunkCacheStatistics;
 import com.mongodb.rx.client.gridfs.GridFSDownloadStream;
 import com.mongodb.rx.client.gridfs.GridFSFindObservable;
+import com.mongodb.rx.client.gridfs.GridFSObservableDownloadOptions;
+import com.mongodb.rx.client.gridfs.GridFSParallelDownloadOptions;
+import com.mongodb.rx.client.gridfs.GridFSParallelUploadOptions;
 import com.mongodb.rx.client.gridfs.GridFSUploadStream;
+import org.bson.BsonObjectId;
 import org.bson.BsonValue;
 import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 import rx.Observable;
+import rx.functions.Func1;
 
+import java.nio.ByteBuffer;
+
+import static com.mongodb.assertions.Assertions.isTrue;
+import static com.mongodb.assertions.Assertions.isTrueArgument;
 import static com.mongodb.assertions.Assertions.notNull;
+import static com.mongodb.rx.client.internal.GridFSChunkCache.invalidating;
 import static com.mongodb.rx.client.internal.GridFSAsyncStreamHelper.toCallbackAsyncInputStream;
 import static com.mongodb.rx.client.internal.GridFSAsyncStreamHelper.toCallbackAsyncOutputStream;
 import static com.mongodb.rx.client.internal.ObservableHelper.voidToSuccessCallback;
+import static com.mongodb.rx.client.internal.TrackedOperation.adapt;
+import static com.mongodb.rx.client.internal.TrackedOperation.isTracked;
 
 /**
  * The internal GridFSBucket implementation.
@@ -48,9 +62,12 @@ import static com.mongodb.rx.client.internal.ObservableHelper.voidToSuccessCallb
  * <p>This should not be considered a part of the public API.</p>
  */
 public final class GridFSBucketImpl implements GridFSBucket {
+    private static final GridFSParallelDownloadOptions SEQUENTIAL = new GridFSParallelDownloadOptions().parallelism(1);
 
     private final com.mongodb.async.client.gridfs.GridFSBucket wrapped;
     private final ObservableAdapter observableAdapter;
+    private final GridFSChunkStore chunkStore;
+    private final MetricsRegistry metrics;
 
     /**
      * The GridFSBucket constructor
@@ -60,8 +77,47 @@ public final class GridFSBucketImpl implements GridFSBucket {
      * @param observableAdapter the ObservableAdapter
      */
     public GridFSBucketImpl(final com.mongodb.async.client.gridfs.GridFSBucket wrapped, final ObservableAdapter observableAdapter) {
+        this(wrapped, (GridFSChunkStore) null, observableAdapter);
+    }
+
+    /**
+     * The GridFSBucket constructor
+     *
+     * <p>This should not be considered a part of the public API.</p>
+     * @param wrapped the GridFSBucket
+     * @param database the database of the GridFSBucket, used by the transfers that read or write chunks directly
+     * @param observableAdapter the ObservableAdapter
+     * @since 1.6
+     */
+    public GridFSBucketImpl(final com.mongodb.async.client.gridfs.GridFSBucket wrapped,
+                            final com.mongodb.async.client.MongoDatabase database, final ObservableAdapter observableAdapter) {
+        this(wrapped, new GridFSChunkStore(notNull("database", database), wrapped.getBucketName()), observableAdapter);
+    }
+
+    /**
+     * The GridFSBucket constructor
+     *
+     * <p>This should not be considered a part of the public API.</p>
+     * @param wrapped the GridFSBucket
+     * @param database the database of the GridFSBucket, whose ObservableAdapter and client metrics the GridFSBucket uses
+     * @since 1.6
+     */
+    public GridFSBucketImpl(final com.mongodb.async.client.gridfs.GridFSBucket wrapped, final MongoDatabaseImpl database) {
+        this(wrapped, new GridFSChunkStore(notNull("database", database).getWrapped(), wrapped.getBucketName()),
+                database.getObservableAdapter(), database.getMetrics());
+    }
+
+    GridFSBucketImpl(final com.mongodb.async.client.gridfs.GridFSBucket wrapped, final GridFSChunkStore chunkStore,
+                     final ObservableAdapter observableAdapter) {
+        this(wrapped, chunkStore, observableAdapter, null);
+    }
+
+    GridFSBucketImpl(final com.mongodb.async.client.gridfs.GridFSBucket wrapped, final GridFSChunkStore chunkStore,
+                     final ObservableAdapter observableAdapter, final MetricsRegistry metrics) {
         this.wrapped = notNull("GridFSBucket", wrapped);
+        this.chunkStore = chunkStore;
         this.observableAdapter = notNull("observableAdapter", observableAdapter);
+        this.metrics = metrics;
     }
 
     @Override
@@ -96,22 +152,42 @@ public final class GridFSBucketImpl implements GridFSBucket {
 
     @Override
     public GridFSBucket withChunkSizeBytes(final int chunkSizeBytes) {
-        return new GridFSBucketImpl(wrapped.withChunkSizeBytes(chunkSizeBytes), observableAdapter);
+        return new GridFSBucketImpl(wrapped.withChunkSizeBytes(chunkSizeBytes), chunkStore, observableAdapter, metrics);
     }
 
     @Override
     public GridFSBucket withReadPreference(final ReadPreference readPreference) {
-        return new GridFSBucketImpl(wrapped.withReadPreference(readPreference), observableAdapter);
+        return new GridFSBucketImpl(wrapped.withReadPreference(readPreference),
+                chunkStore == null ? null : chunkStore.withReadPreference(readPreference), observableAdapter, metrics);
     }
 
     @Override
     public GridFSBucket withWriteConcern(final WriteConcern writeConcern) {
-        return new GridFSBucketImpl(wrapped.withWriteConcern(writeConcern), observableAdapter);
+        return new GridFSBucketImpl(wrapped.withWriteConcern(writeConcern),
+                chunkStore == null ? null : chunkStore.withWriteConcern(writeConcern), observableAdapter, metrics);
     }
 
     @Override
     public GridFSBucket withReadConcern(final ReadConcern readConcern) {
-        return new GridFSBucketImpl(wrapped.withReadConcern(readConcern), observableAdapter);
+        return new GridFSBucketImpl(wrapped.withReadConcern(readConcern),
+                chunkStore == null ? null : chunkStore.withReadConcern(readConcern), observableAdapter, metrics);
+    }
+
+    @Override
+    public GridFSBucket withChunkCache(final long maxBytes) {
+        return withChunkCache(maxBytes, false);
+    }
+
+    @Override
+    public GridFSBucket withChunkCache(final long maxBytes, final boolean directBuffers) {
+        return new GridFSBucketImpl(wrapped, getChunkStore().withChunkCache(new GridFSChunkCache(maxBytes, directBuffers)),
+                observableAdapter, metrics);
+    }
+
+    @Override
+    public GridFSChunkCacheStatistics getChunkCacheStatistics() {
+        GridFSChunkCache chunkCache = getChunkCache();
+        return chunkCache == null ? null : chunkCache.getStatistics();
     }
 
     @Override
@@ -141,7 +217,7 @@ public final class GridFSBucketImpl implements GridFSBucket {
             public void apply(final SingleResultCallback<ObjectId> callback) {
                 wrapped.uploadFromStream(filename, toCallbackAsyncInputStream(source), callback);
             }
-        }), observableAdapter);
+        }), observableAdapter, track("uploadFromStream"));
     }
 
     @Override
@@ -151,7 +227,7 @@ public final class GridFSBucketImpl implements GridFSBucket {
             public void apply(final SingleResultCallback<ObjectId> callback) {
                 wrapped.uploadFromStream(filename, toCallbackAsyncInputStream(source), options, callback);
             }
-        }), observableAdapter);
+        }), observableAdapter, track("uploadFromStream"));
     }
 
     @Override
@@ -161,7 +237,7 @@ public final class GridFSBucketImpl implements GridFSBucket {
             public void apply(final SingleResultCallback<Success> callback) {
                 wrapped.uploadFromStream(id, filename, toCallbackAsyncInputStream(source), voidToSuccessCallback(callback));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("uploadFromStream"));
     }
 
     @Override
@@ -172,78 +248,206 @@ public final class GridFSBucketImpl implements GridFSBucket {
             public void apply(final SingleResultCallback<Success> callback) {
                 wrapped.uploadFromStream(id, filename, toCallbackAsyncInputStream(source), options, voidToSuccessCallback(callback));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("uploadFromStream"));
+    }
+
+    @Override
+    public Observable<ObjectId> uploadFromStream(final String filename, final AsyncInputStream source, final GridFSUploadOptions options,
+                                                final GridFSParallelUploadOptions parallelOptions) {
+        final ObjectId id = new ObjectId();
+        return uploadFromStream(new BsonObjectId(id), filename, source, options, parallelOptions).map(new Func1<Success, ObjectId>() {
+            @Override
+            public ObjectId call(final Success success) {
+                return id;
+            }
+        });
+    }
+
+    @Override
+    public Observable<Success> uploadFromStream(final BsonValue id, final String filename, final AsyncInputStream source,
+                                               final GridFSUploadOptions options, final GridFSParallelUploadOptions parallelOptions) {
+        notNull("id", id);
+        notNull("filename", filename);
+        notNull("source", source);
+        notNull("options", options);
+        notNull("parallelOptions", parallelOptions);
+        int chunkSize = options.getChunkSizeBytes() == null ? wrapped.getChunkSizeBytes() : options.getChunkSizeBytes();
+        return adapt(GridFSUploads.upload(getChunkStore(), id, filename, chunkSize, options.getMetadata(),
+                GridFSUploads.readChunks(source, chunkSize), parallelOptions), observableAdapter, track("uploadFromStream"));
+    }
+
+    @Override
+    public Observable<ObjectId> uploadFromObservable(final String filename, final Observable<ByteBuffer> source) {
+        return uploadFromObservable(filename, source, new GridFSUploadOptions());
+    }
+
+    @Override
+    public Observable<ObjectId> uploadFromObservable(final String filename, final Observable<ByteBuffer> source,
+                                                     final GridFSUploadOptions options) {
+        final ObjectId id = new ObjectId();
+        return uploadFromObservable(new BsonObjectId(id), filename, source, options).map(new Func1<Success, ObjectId>() {
+            @Override
+            public ObjectId call(final Success success) {
+                return id;
+            }
+        });
+    }
+
+    @Override
+    public Observable<Success> uploadFromObservable(final BsonValue id, final String filename, final Observable<ByteBuffer> source) {
+        return uploadFromObservable(id, filename, source, new GridFSUploadOptions());
+    }
+
+    @Override
+    public Observable<Success> uploadFromObservable(final BsonValue id, final String filename, final Observable<ByteBuffer> source,
+                                                    final GridFSUploadOptions options) {
+        notNull("id", id);
+        notNull("filename", filename);
+        notNull("source", source);
+        notNull("options", options);
+        int chunkSize = options.getChunkSizeBytes() == null ? wrapped.getChunkSizeBytes() : options.getChunkSizeBytes();
+        return adapt(GridFSUploads.upload(getChunkStore(), id, filename, chunkSize, options.getMetadata(),
+                GridFSUploads.coalesceChunks(source, chunkSize), new GridFSParallelUploadOptions()), observableAdapter,
+                track("uploadFromObservable"));
     }
 
     @Override
     public GridFSDownloadStream openDownloadStream(final ObjectId id) {
-        return new GridFSDownloadStreamImpl(wrapped.openDownloadStream(id), observableAdapter);
+        return new GridFSDownloadStreamImpl(wrapped.openDownloadStream(id), chunkStore, observableAdapter);
     }
 
     @Override
     public Observable<Long> downloadToStream(final ObjectId id, final AsyncOutputStream destination) {
+        if (getChunkCache() != null) {
+            return adapt(GridFSDownloads.downloadToStream(chunkStore, new BsonObjectId(id), destination, SEQUENTIAL), observableAdapter,
+                    track("downloadToStream"));
+        }
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<Long>>() {
             @Override
             public void apply(final SingleResultCallback<Long> callback) {
                 wrapped.downloadToStream(id, toCallbackAsyncOutputStream(destination), callback);
             }
-        }), observableAdapter);
+        }), observableAdapter, track("downloadToStream"));
     }
 
     @Override
     public GridFSDownloadStream openDownloadStream(final BsonValue id) {
-        return new GridFSDownloadStreamImpl(wrapped.openDownloadStream(id), observableAdapter);
+        return new GridFSDownloadStreamImpl(wrapped.openDownloadStream(id), chunkStore, observableAdapter);
     }
 
     @Override
     public Observable<Long> downloadToStream(final BsonValue id, final AsyncOutputStream destination) {
+        if (getChunkCache() != null) {
+            return adapt(GridFSDownloads.downloadToStream(chunkStore, id, destination, SEQUENTIAL), observableAdapter,
+                    track("downloadToStream"));
+        }
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<Long>>() {
             @Override
             public void apply(final SingleResultCallback<Long> callback) {
                 wrapped.downloadToStream(id, toCallbackAsyncOutputStream(destination), callback);
             }
-        }), observableAdapter);
+        }), observableAdapter, track("downloadToStream"));
+    }
+
+    @Override
+    public Observable<Long> downloadToStream(final ObjectId id, final AsyncOutputStream destination,
+                                            final GridFSParallelDownloadOptions options) {
+        return downloadToStream(new BsonObjectId(id), destination, options);
+    }
+
+    @Override
+    public Observable<Long> downloadToStream(final BsonValue id, final AsyncOutputStream destination,
+                                            final GridFSParallelDownloadOptions options) {
+        notNull("destination", destination);
+        notNull("options", options);
+        return adapt(GridFSDownloads.downloadToStream(getChunkStore(), id, destination, options), observableAdapter,
+                track("downloadToStream"));
+    }
+
+    @Override
+    public Observable<Long> downloadRange(final ObjectId id, final long from, final long to, final AsyncOutputStream destination) {
+        return downloadRange(new BsonObjectId(id), from, to, destination);
+    }
+
+    @Override
+    public Observable<Long> downloadRange(final BsonValue id, final long from, final long to, final AsyncOutputStream destination) {
+        isTrueArgument("from >= 0", from >= 0);
+        isTrueArgument("to >= from", to >= from);
+        notNull("destination", destination);
+        return adapt(GridFSDownloads.downloadRange(getChunkStore(), id, from, to, destination, SEQUENTIAL), observableAdapter,
+                track("downloadRange"));
+    }
+
+    @Override
+    public Observable<ByteBuffer> downloadAsObservable(final ObjectId id) {
+        return downloadAsObservable(new BsonObjectId(id));
+    }
+
+    @Override
+    public Observable<ByteBuffer> downloadAsObservable(final BsonValue id) {
+        return downloadAsObservable(id, new GridFSObservableDownloadOptions());
+    }
+
+    @Override
+    public Observable<ByteBuffer> downloadAsObservable(final ObjectId id, final GridFSObservableDownloadOptions options) {
+        return downloadAsObservable(new BsonObjectId(id), options);
+    }
+
+    @Override
+    public Observable<ByteBuffer> downloadAsObservable(final BsonValue id, final GridFSObservableDownloadOptions options) {
+        notNull("options", options);
+        return adapt(GridFSDownloads.downloadAsObservable(getChunkStore(), id, options), observableAdapter,
+                track("downloadAsObservable"));
     }
 
     @Override
     public GridFSDownloadStream openDownloadStream(final String filename) {
-        return new GridFSDownloadStreamImpl(wrapped.openDownloadStream(filename), observableAdapter);
+        return new GridFSDownloadStreamImpl(wrapped.openDownloadStream(filename), chunkStore, observableAdapter);
     }
 
     @Override
     public GridFSDownloadStream openDownloadStream(final String filename, final GridFSDownloadOptions options) {
-        return new GridFSDownloadStreamImpl(wrapped.openDownloadStream(filename, options), observableAdapter);
+        return new GridFSDownloadStreamImpl(wrapped.openDownloadStream(filename, options), chunkStore, observableAdapter);
     }
 
     @Override
     public Observable<Long> downloadToStream(final String filename, final AsyncOutputStream destination) {
+        if (getChunkCache() != null) {
+            return adapt(GridFSDownloads.downloadToStream(chunkStore, findFile(wrapped.openDownloadStream(filename)), destination,
+                    SEQUENTIAL), observableAdapter, track("downloadToStream"));
+        }
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<Long>>() {
             @Override
             public void apply(final SingleResultCallback<Long> callback) {
                 wrapped.downloadToStream(filename, toCallbackAsyncOutputStream(destination), callback);
             }
-        }), observableAdapter);
+        }), observableAdapter, track("downloadToStream"));
     }
 
     @Override
     public Observable<Long> downloadToStream(final String filename, final AsyncOutputStream destination,
                                             final GridFSDownloadOptions options) {
+        if (getChunkCache() != null) {
+            return adapt(GridFSDownloads.downloadToStream(chunkStore, findFile(wrapped.openDownloadStream(filename, options)),
+                    destination, SEQUENTIAL), observableAdapter, track("downloadToStream"));
+        }
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<Long>>() {
             @Override
             public void apply(final SingleResultCallback<Long> callback) {
                 wrapped.downloadToStream(filename, toCallbackAsyncOutputStream(destination), options, callback);
             }
-        }), observableAdapter);
+        }), observableAdapter, track("downloadToStream"));
     }
 
     @Override
     public GridFSFindObservable find() {
-        return new GridFSFindObservableImpl(wrapped.find(), observableAdapter);
+        return new GridFSFindObservableImpl(wrapped.find(), observableAdapter, track("find", GridFSFile.class));
     }
 
     @Override
     public GridFSFindObservable find(final Bson filter) {
-        return new GridFSFindObservableImpl(wrapped.find(filter), observableAdapter);
+        return new GridFSFindObservableImpl(wrapped.find(filter), observableAdapter,
+                track("find", GridFSFile.class));
     }
 
     @Override
@@ -251,9 +455,9 @@ public final class GridFSBucketImpl implements GridFSBucket {
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<Success>>() {
             @Override
             public void apply(final SingleResultCallback<Success> callback) {
-                wrapped.delete(id, voidToSuccessCallback(callback));
+                wrapped.delete(id, invalidating(getChunkCache(), new BsonObjectId(id), voidToSuccessCallback(callback)));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("delete"));
     }
 
     @Override
@@ -261,9 +465,9 @@ public final class GridFSBucketImpl implements GridFSBucket {
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<Success>>() {
             @Override
             public void apply(final SingleResultCallback<Success> callback) {
-                wrapped.delete(id, voidToSuccessCallback(callback));
+                wrapped.delete(id, invalidating(getChunkCache(), id, voidToSuccessCallback(callback)));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("delete"));
     }
 
     @Override
@@ -271,9 +475,9 @@ public final class GridFSBucketImpl implements GridFSBucket {
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<Success>>() {
             @Override
             public void apply(final SingleResultCallback<Success> callback) {
-                wrapped.rename(id, newFilename, voidToSuccessCallback(callback));
+                wrapped.rename(id, newFilename, invalidating(getChunkCache(), new BsonObjectId(id), voidToSuccessCallback(callback)));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("rename"));
     }
 
     @Override
@@ -281,9 +485,39 @@ public final class GridFSBucketImpl implements GridFSBucket {
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<Success>>() {
             @Override
             public void apply(final SingleResultCallback<Success> callback) {
-                wrapped.rename(id, newFilename, voidToSuccessCallback(callback));
+                wrapped.rename(id, newFilename, invalidating(getChunkCache(), id, voidToSuccessCallback(callback)));
+            }
+        }), observableAdapter, track("rename"));
+    }
+
+    private TrackedOperation track(final String operation) {
+        return track(operation, null);
+    }
+
+    private TrackedOperation track(final String operation, final Class<?> documentClass) {
+        if (!isTracked(metrics, observableAdapter) || chunkStore == null) {
+            return null;
+        }
+        return TrackedOperation.create(metrics, operation, chunkStore.getFilesCollection().getNamespace().getDatabaseName() + "."
+                + getBucketName(), getReadPreference(), documentClass);
+    }
+
+    private GridFSChunkStore getChunkStore() {
+        isTrue("the GridFSBucket was created by GridFSBuckets", chunkStore != null);
+        return chunkStore;
+    }
+
+    private GridFSChunkCache getChunkCache() {
+        return chunkStore == null ? null : chunkStore.getChunkCache();
+    }
+
+    private static Observable<GridFSFile> findFile(final com.mongodb.async.client.gridfs.GridFSDownloadStream downloadStream) {
+        return RxObservables.create(Observables.observe(new Block<SingleResultCallback<GridFSFile>>() {
+            @Override
+            public void apply(final SingleResultCallback<GridFSFile> callback) {
+                downloadStream.getGridFSFile(callback);
             }
-        }), observableAdapter);
+        }), new ObservableHelper.NoopObservableAdapter());
     }
 
     @Override
@@ -291,9 +525,9 @@ public final class GridFSBucketImpl implements GridFSBucket {
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<Success>>() {
             @Override
             public void apply(final SingleResultCallback<Success> callback) {
-                wrapped.drop(voidToSuccessCallback(callback));
+                wrapped.drop(invalidating(getChunkCache(), null, voidToSuccessCallback(callback)));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("drop"));
     }
 
 }
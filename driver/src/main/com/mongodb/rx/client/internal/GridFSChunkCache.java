@@ -0,0 +1,211 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.async.SingleResultCallback;
+import com.mongodb.rx.client.gridfs.GridFSChunkCacheStatistics;
+import org.bson.BsonValue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.mongodb.assertions.Assertions.isTrueArgument;
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * A client side cache of the data of GridFS chunks, keyed by the id of the file and the index of the chunk, and bounded by the total
+ * number of bytes cached.
+ *
+ * <p>Chunks are evicted in least recently used order. A cache belongs to a single bucket, so deleting or renaming a file through that
+ * bucket invalidates its chunks, and dropping the bucket invalidates every chunk. Chunks read by a query that was in flight while the
+ * cache was invalidated are not cached.</p>
+ */
+final class GridFSChunkCache {
+    private final long maxBytes;
+    private final boolean directBuffers;
+
+    /* protected by `this` */
+    private final LinkedHashMap<Key, ByteBuffer> chunks = new LinkedHashMap<Key, ByteBuffer>(16, 0.75f, true);
+    private long bytes;
+    private long generation;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long invalidationCount;
+    /* protected by `this` */
+
+    GridFSChunkCache(final long maxBytes, final boolean directBuffers) {
+        isTrueArgument("maxBytes > 0", maxBytes > 0);
+        this.maxBytes = maxBytes;
+        this.directBuffers = directBuffers;
+    }
+
+    /**
+     * Gets the data of the chunks {@code from} (inclusive) to {@code to} (exclusive) of the file, stopping at the first chunk that is not
+     * cached. That chunk and the chunks after it count as misses, as the caller reads them from the server.
+     *
+     * @param filesId the id of the file
+     * @param from    the index of the first chunk
+     * @param to      the index after the last chunk
+     * @return buffers over the data of the cached chunks that the caller may move the position and limit of
+     */
+    synchronized List<ByteBuffer> get(final BsonValue filesId, final int from, final int to) {
+        List<ByteBuffer> cached = new ArrayList<ByteBuffer>(to - from);
+        for (int n = from; n < to; n++) {
+            ByteBuffer data = chunks.get(new Key(filesId, n));
+            if (data == null) {
+                break;
+            }
+            cached.add(data.duplicate());
+        }
+        hitCount += cached.size();
+        missCount += to - from - cached.size();
+        return cached;
+    }
+
+    /**
+     * Gets the generation of the cache, to pass to {@link #put} once the chunks read by a query are available.
+     *
+     * @return the generation
+     */
+    synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Caches the data of the chunk, unless the cache was invalidated since the query that read it was sent.
+     *
+     * @param filesId        the id of the file
+     * @param n              the index of the chunk
+     * @param data           the data, which is neither modified nor kept by the cache
+     * @param loadGeneration the generation of the cache when the query was sent
+     */
+    void put(final BsonValue filesId, final int n, final ByteBuffer data, final long loadGeneration) {
+        int length = data.remaining();
+        if (length > maxBytes) {
+            return;
+        }
+        ByteBuffer copy = directBuffers ? ByteBuffer.allocateDirect(length) : ByteBuffer.allocate(length);
+        copy.put(data.duplicate()).flip();
+        synchronized (this) {
+            if (loadGeneration != generation) {
+                return;
+            }
+            remove(new Key(filesId, n));
+            chunks.put(new Key(filesId, n), copy);
+            bytes += length;
+
+            Iterator<ByteBuffer> iterator = chunks.values().iterator();
+            while (bytes > maxBytes && iterator.hasNext()) {
+                bytes -= iterator.next().capacity();
+                iterator.remove();
+                evictionCount++;
+            }
+        }
+    }
+
+    /**
+     * Discards the chunks of the file, and the chunks of every query that is in flight.
+     *
+     * @param filesId the id of the file, or null to discard every chunk
+     */
+    synchronized void invalidate(final BsonValue filesId) {
+        generation++;
+        invalidationCount++;
+        if (filesId == null) {
+            chunks.clear();
+            bytes = 0;
+            return;
+        }
+        Iterator<Map.Entry<Key, ByteBuffer>> iterator = chunks.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, ByteBuffer> entry = iterator.next();
+            if (entry.getKey().filesId.equals(filesId)) {
+                bytes -= entry.getValue().capacity();
+                iterator.remove();
+            }
+        }
+    }
+
+    synchronized GridFSChunkCacheStatistics getStatistics() {
+        return new GridFSChunkCacheStatistics(hitCount, missCount, evictionCount, invalidationCount, chunks.size(), bytes);
+    }
+
+    /**
+     * Wraps the callback of an operation that changes a file so that its chunks are invalidated both when the operation is sent and
+     * when it completes.
+     *
+     * @param chunkCache the cache, which may be null
+     * @param filesId    the id of the file, or null to invalidate every chunk
+     * @param callback   the callback of the operation
+     * @param <T>        the result type
+     * @return the callback to pass to the operation
+     */
+    static <T> SingleResultCallback<T> invalidating(final GridFSChunkCache chunkCache, final BsonValue filesId,
+                                                    final SingleResultCallback<T> callback) {
+        if (chunkCache == null) {
+            return callback;
+        }
+        chunkCache.invalidate(filesId);
+        return new SingleResultCallback<T>() {
+            @Override
+            public void onResult(final T result, final Throwable t) {
+                chunkCache.invalidate(filesId);
+                callback.onResult(result, t);
+            }
+        };
+    }
+
+    private void remove(final Key key) {
+        ByteBuffer removed = chunks.remove(key);
+        if (removed != null) {
+            bytes -= removed.capacity();
+        }
+    }
+
+    private static final class Key {
+        private final BsonValue filesId;
+        private final int n;
+
+        Key(final BsonValue filesId, final int n) {
+            this.filesId = notNull("filesId", filesId);
+            this.n = n;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            Key that = (Key) o;
+            return n == that.n && filesId.equals(that.filesId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * filesId.hashCode() + n;
+        }
+    }
+}
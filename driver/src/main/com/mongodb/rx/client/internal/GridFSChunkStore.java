@@ -0,0 +1,307 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.Block;
+import com.mongodb.MongoGridFSException;
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import com.mongodb.async.SingleResultCallback;
+import com.mongodb.async.client.MongoClients;
+import com.mongodb.async.client.MongoCollection;
+import com.mongodb.async.client.MongoDatabase;
+import com.mongodb.async.client.Observables;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.rx.client.Success;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonValue;
+import rx.Observable;
+import rx.functions.Action0;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.mongodb.assertions.Assertions.notNull;
+import static java.lang.String.format;
+import static org.bson.codecs.configuration.CodecRegistries.fromRegistries;
+
+/**
+ * Reads the files and chunks collections of a GridFS bucket directly, for the transfers that the wrapped bucket can only do one chunk
+ * at a time.
+ *
+ * <p>The collections are set up in the same way as by the wrapped bucket, and chunks are validated in the same way: each chunk must have
+ * the expected index, and every chunk but the last must be exactly {@code chunkSize} bytes long. Before the first upload, the indexes
+ * are created in the same way as by the upload streams of the wrapped bucket.</p>
+ */
+final class GridFSChunkStore {
+    private static final BsonDocument SORT_BY_N = new BsonDocument("n", new BsonInt32(1));
+    private static final BsonDocument FILES_INDEX = new BsonDocument("filename", new BsonInt32(1)).append("uploadDate", new BsonInt32(1));
+    private static final BsonDocument CHUNKS_INDEX = new BsonDocument("files_id", new BsonInt32(1)).append("n", new BsonInt32(1));
+
+    private final MongoCollection<GridFSFile> filesCollection;
+    private final MongoCollection<BsonDocument> chunksCollection;
+    private final GridFSChunkCache chunkCache;
+    private final AtomicBoolean checkedIndexes;
+
+    GridFSChunkStore(final MongoDatabase database, final String bucketName) {
+        this(database.getCollection(bucketName + ".files", GridFSFile.class)
+                        .withCodecRegistry(fromRegistries(database.getCodecRegistry(), MongoClients.getDefaultCodecRegistry())),
+                database.getCollection(bucketName + ".chunks", BsonDocument.class)
+                        .withCodecRegistry(MongoClients.getDefaultCodecRegistry()));
+    }
+
+    GridFSChunkStore(final MongoCollection<GridFSFile> filesCollection, final MongoCollection<BsonDocument> chunksCollection) {
+        this(filesCollection, chunksCollection, null);
+    }
+
+    GridFSChunkStore(final MongoCollection<GridFSFile> filesCollection, final MongoCollection<BsonDocument> chunksCollection,
+                     final GridFSChunkCache chunkCache) {
+        this(filesCollection, chunksCollection, chunkCache, new AtomicBoolean());
+    }
+
+    private GridFSChunkStore(final MongoCollection<GridFSFile> filesCollection, final MongoCollection<BsonDocument> chunksCollection,
+                             final GridFSChunkCache chunkCache, final AtomicBoolean checkedIndexes) {
+        this.filesCollection = notNull("filesCollection", filesCollection);
+        this.chunksCollection = notNull("chunksCollection", chunksCollection);
+        this.chunkCache = chunkCache;
+        this.checkedIndexes = checkedIndexes;
+    }
+
+    GridFSChunkStore withReadPreference(final ReadPreference readPreference) {
+        return new GridFSChunkStore(filesCollection.withReadPreference(readPreference),
+                chunksCollection.withReadPreference(readPreference), chunkCache, checkedIndexes);
+    }
+
+    GridFSChunkStore withWriteConcern(final WriteConcern writeConcern) {
+        return new GridFSChunkStore(filesCollection.withWriteConcern(writeConcern), chunksCollection.withWriteConcern(writeConcern),
+                chunkCache, checkedIndexes);
+    }
+
+    GridFSChunkStore withReadConcern(final ReadConcern readConcern) {
+        return new GridFSChunkStore(filesCollection.withReadConcern(readConcern), chunksCollection.withReadConcern(readConcern),
+                chunkCache, checkedIndexes);
+    }
+
+    GridFSChunkStore withChunkCache(final GridFSChunkCache chunkCache) {
+        return new GridFSChunkStore(filesCollection, chunksCollection, chunkCache, checkedIndexes);
+    }
+
+    MongoCollection<GridFSFile> getFilesCollection() {
+        return filesCollection;
+    }
+
+    MongoCollection<BsonDocument> getChunksCollection() {
+        return chunksCollection;
+    }
+
+    /**
+     * Gets the chunk cache, or null if the chunks are always read from the server.
+     */
+    GridFSChunkCache getChunkCache() {
+        return chunkCache;
+    }
+
+    /**
+     * Creates the indexes of the bucket if they do not exist, unless they have already been checked for this bucket, completing without
+     * emitting any results.
+     *
+     * <p>As with the upload streams of the wrapped bucket, the indexes are only checked while the files collection is empty, and the
+     * chunks index is unique, so that duplicate chunks are rejected.</p>
+     */
+    Observable<Success> createIndexes() {
+        return Observable.defer(new Func0<Observable<Success>>() {
+            @Override
+            public Observable<Success> call() {
+                if (checkedIndexes.get()) {
+                    return Observable.<Success>empty();
+                }
+                final MongoCollection<BsonDocument> primaryFilesCollection = filesCollection.withDocumentClass(BsonDocument.class)
+                        .withReadPreference(ReadPreference.primary());
+                return RxObservables.create(Observables.observe(new Block<SingleResultCallback<BsonDocument>>() {
+                    @Override
+                    public void apply(final SingleResultCallback<BsonDocument> callback) {
+                        primaryFilesCollection.find().projection(new BsonDocument("_id", new BsonInt32(1))).first(callback);
+                    }
+                }), new ObservableHelper.NoopObservableAdapter())
+                        .isEmpty()
+                        .concatMap(new Func1<Boolean, Observable<Success>>() {
+                            @Override
+                            public Observable<Success> call(final Boolean empty) {
+                                if (!empty) {
+                                    return Observable.<Success>empty();
+                                }
+                                return createIndex(primaryFilesCollection, FILES_INDEX, new IndexOptions())
+                                        .concatWith(createIndex(chunksCollection.withReadPreference(ReadPreference.primary()),
+                                                CHUNKS_INDEX, new IndexOptions().unique(true)));
+                            }
+                        })
+                        .doOnCompleted(new Action0() {
+                            @Override
+                            public void call() {
+                                checkedIndexes.set(true);
+                            }
+                        });
+            }
+        });
+    }
+
+    private static Observable<Success> createIndex(final MongoCollection<BsonDocument> collection, final BsonDocument keys,
+                                                   final IndexOptions indexOptions) {
+        return RxObservables.create(Observables.observe(new Block<SingleResultCallback<List<BsonDocument>>>() {
+            @Override
+            public void apply(final SingleResultCallback<List<BsonDocument>> callback) {
+                collection.listIndexes(BsonDocument.class).into(new ArrayList<BsonDocument>(), callback);
+            }
+        }), new ObservableHelper.NoopObservableAdapter())
+                .concatMap(new Func1<List<BsonDocument>, Observable<Success>>() {
+                    @Override
+                    public Observable<Success> call(final List<BsonDocument> indexes) {
+                        if (hasIndex(indexes, keys)) {
+                            return Observable.<Success>empty();
+                        }
+                        return RxObservables.create(Observables.observe(new Block<SingleResultCallback<String>>() {
+                            @Override
+                            public void apply(final SingleResultCallback<String> callback) {
+                                collection.createIndex(keys, indexOptions, callback);
+                            }
+                        }), new ObservableHelper.NoopObservableAdapter()).ignoreElements().cast(Success.class);
+                    }
+                });
+    }
+
+    private static boolean hasIndex(final List<BsonDocument> indexes, final BsonDocument keys) {
+        for (BsonDocument index : indexes) {
+            BsonValue indexKeys = index.get("key");
+            if (indexKeys != null && indexKeys.isDocument() && hasKeys(indexKeys.asDocument(), keys)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasKeys(final BsonDocument indexKeys, final BsonDocument keys) {
+        if (!new ArrayList<String>(indexKeys.keySet()).equals(new ArrayList<String>(keys.keySet()))) {
+            return false;
+        }
+        for (Map.Entry<String, BsonValue> entry : indexKeys.entrySet()) {
+            if (!entry.getValue().isNumber() || entry.getValue().asNumber().intValue() != keys.getInt32(entry.getKey()).getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the files collection document with the given id, or fails with a {@code MongoGridFSException} if there is none.
+     */
+    Observable<GridFSFile> findFile(final BsonValue id) {
+        return RxObservables.create(Observables.observe(filesCollection.find(new BsonDocument("_id", id)).limit(-1)),
+                new ObservableHelper.NoopObservableAdapter())
+                .switchIfEmpty(Observable.<GridFSFile>error(new MongoGridFSException(format("No file found with the id: %s", id))));
+    }
+
+    /**
+     * Reads the data of the chunks {@code from} (inclusive) to {@code to} (exclusive) of the file, in order.
+     *
+     * <p>If there is a chunk cache, the chunks are taken from it up to the first one that is not cached, and only the rest are read from
+     * the server and added to the cache.</p>
+     */
+    Observable<List<ByteBuffer>> findChunks(final GridFSFile file, final int from, final int to) {
+        if (chunkCache == null) {
+            return queryChunks(file, from, to);
+        }
+        return Observable.defer(new Func0<Observable<List<ByteBuffer>>>() {
+            @Override
+            public Observable<List<ByteBuffer>> call() {
+                final List<ByteBuffer> cached = chunkCache.get(file.getId(), from, to);
+                if (cached.size() == to - from) {
+                    return Observable.just(cached);
+                }
+                final int queryFrom = from + cached.size();
+                final long generation = chunkCache.getGeneration();
+                return queryChunks(file, queryFrom, to).map(new Func1<List<ByteBuffer>, List<ByteBuffer>>() {
+                    @Override
+                    public List<ByteBuffer> call(final List<ByteBuffer> chunks) {
+                        for (int i = 0; i < chunks.size(); i++) {
+                            chunkCache.put(file.getId(), queryFrom + i, chunks.get(i), generation);
+                        }
+                        cached.addAll(chunks);
+                        return cached;
+                    }
+                });
+            }
+        });
+    }
+
+    private Observable<List<ByteBuffer>> queryChunks(final GridFSFile file, final int from, final int to) {
+        BsonDocument filter = new BsonDocument("files_id", file.getId())
+                .append("n", new BsonDocument("$gte", new BsonInt32(from)).append("$lt", new BsonInt32(to)));
+        return RxObservables.create(Observables.observe(chunksCollection.find(filter).sort(SORT_BY_N).batchSize(to - from)),
+                new ObservableHelper.NoopObservableAdapter())
+                .toList()
+                .map(new Func1<List<BsonDocument>, List<ByteBuffer>>() {
+                    @Override
+                    public List<ByteBuffer> call(final List<BsonDocument> chunks) {
+                        if (chunks.size() != to - from) {
+                            throw new MongoGridFSException(format("Could not find file chunk for file_id: %s at chunk index %s.",
+                                    file.getId(), from + chunks.size()));
+                        }
+                        List<ByteBuffer> data = new ArrayList<ByteBuffer>(chunks.size());
+                        for (int i = 0; i < chunks.size(); i++) {
+                            data.add(getChunkData(file, chunks.get(i), from + i));
+                        }
+                        return data;
+                    }
+                });
+    }
+
+    static int getNumberOfChunks(final GridFSFile file) {
+        return (int) Math.ceil((double) file.getLength() / file.getChunkSize());
+    }
+
+    static int getChunkLength(final GridFSFile file, final int n) {
+        return (int) Math.min(file.getChunkSize(), file.getLength() - (long) n * file.getChunkSize());
+    }
+
+    private static ByteBuffer getChunkData(final GridFSFile file, final BsonDocument chunk, final int expectedN) {
+        BsonValue n = chunk.get("n");
+        if (n == null || !n.isNumber() || n.asNumber().intValue() != expectedN) {
+            throw new MongoGridFSException(format("Could not find file chunk for file_id: %s at chunk index %s.", file.getId(),
+                    expectedN));
+        }
+        BsonValue data = chunk.get("data");
+        if (data == null || !data.isBinary()) {
+            throw new MongoGridFSException(format("Unexpected data format for the chunk for file_id: %s at chunk index %s.",
+                    file.getId(), expectedN));
+        }
+        byte[] bytes = data.asBinary().getData();
+        int expectedLength = getChunkLength(file, expectedN);
+        if (bytes.length != expectedLength) {
+            throw new MongoGridFSException(format("Chunk size data length is not the expected size. The size was %s for file_id: %s "
+                    + "chunk index %s it should be %s bytes.", bytes.length, file.getId(), expectedN, expectedLength));
+        }
+        return ByteBuffer.wrap(bytes);
+    }
+}
@@ -24,40 +24,81 @@ import com.mongodb.rx.client.ObservableAdapter;
 import com.mongodb.rx.client.Success;
 import com.mongodb.rx.client.gridfs.GridFSDownloadStream;
 import rx.Observable;
+import rx.functions.Action1;
+import rx.functions.Func0;
+import rx.functions.Func1;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
 
+import static com.mongodb.assertions.Assertions.isTrue;
+import static com.mongodb.assertions.Assertions.isTrueArgument;
 import static com.mongodb.assertions.Assertions.notNull;
+import static com.mongodb.rx.client.internal.GridFSChunkStore.getNumberOfChunks;
 import static com.mongodb.rx.client.internal.ObservableHelper.voidToSuccessCallback;
 
 final class GridFSDownloadStreamImpl implements GridFSDownloadStream {
+    private static final int DEFAULT_CHUNKS_PER_QUERY = 4;
+
     private final com.mongodb.async.client.gridfs.GridFSDownloadStream wrapped;
+    private final GridFSChunkStore chunkStore;
     private final ObservableAdapter observableAdapter;
 
+    /* protected by `this` */
+    private int batchSize;
+    private boolean seeking;
+    private long position;
+    private GridFSFile file;
+    private final Deque<ByteBuffer> chunks = new ArrayDeque<ByteBuffer>();
+    /* protected by `this` */
+
     GridFSDownloadStreamImpl(final com.mongodb.async.client.gridfs.GridFSDownloadStream wrapped,
                              final ObservableAdapter observableAdapter) {
+        this(wrapped, null, observableAdapter);
+    }
+
+    GridFSDownloadStreamImpl(final com.mongodb.async.client.gridfs.GridFSDownloadStream wrapped, final GridFSChunkStore chunkStore,
+                             final ObservableAdapter observableAdapter) {
         this.wrapped = notNull("GridFSDownloadStream", wrapped);
+        this.chunkStore = chunkStore;
         this.observableAdapter = notNull("observableAdapter", observableAdapter);
+        // reads go through the chunk store from the start when it caches chunks
+        this.seeking = chunkStore != null && chunkStore.getChunkCache() != null;
     }
 
     @Override
     public Observable<GridFSFile> getGridFSFile() {
-        return RxObservables.create(Observables.observe(new Block<SingleResultCallback<GridFSFile>>() {
-            @Override
-            public void apply(final SingleResultCallback<GridFSFile> callback) {
-                wrapped.getGridFSFile(callback);
-            }
-        }), observableAdapter);
+        return observableAdapter.adapt(findFile());
     }
 
     @Override
     public GridFSDownloadStream batchSize(final int batchSize) {
         wrapped.batchSize(batchSize);
+        synchronized (this) {
+            this.batchSize = batchSize;
+        }
+        return this;
+    }
+
+    @Override
+    public synchronized GridFSDownloadStream seek(final long position) {
+        isTrueArgument("position >= 0", position >= 0);
+        isTrue("the GridFSBucket was created by GridFSBuckets", chunkStore != null);
+        this.seeking = true;
+        this.position = position;
+        chunks.clear();
         return this;
     }
 
     @Override
     public Observable<Integer> read(final ByteBuffer dst) {
+        synchronized (this) {
+            if (seeking) {
+                return observableAdapter.adapt(readFromPosition(dst));
+            }
+        }
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<Integer>>() {
             @Override
             public void apply(final SingleResultCallback<Integer> callback) {
@@ -75,4 +116,84 @@ final class GridFSDownloadStreamImpl implements GridFSDownloadStream {
             }
         }), observableAdapter);
     }
+
+    private Observable<GridFSFile> findFile() {
+        synchronized (this) {
+            if (file != null) {
+                return Observable.just(file);
+            }
+        }
+        return RxObservables.create(Observables.observe(new Block<SingleResultCallback<GridFSFile>>() {
+            @Override
+            public void apply(final SingleResultCallback<GridFSFile> callback) {
+                wrapped.getGridFSFile(callback);
+            }
+        }), new ObservableHelper.NoopObservableAdapter()).doOnNext(new Action1<GridFSFile>() {
+            @Override
+            public void call(final GridFSFile gridFSFile) {
+                synchronized (GridFSDownloadStreamImpl.this) {
+                    file = gridFSFile;
+                }
+            }
+        });
+    }
+
+    /**
+     * Reads from the chunks buffered since the last seek, querying the chunks from the one holding the current position onwards once
+     * they have all been read.
+     */
+    private Observable<Integer> readFromPosition(final ByteBuffer dst) {
+        return Observable.defer(new Func0<Observable<Integer>>() {
+            @Override
+            public Observable<Integer> call() {
+                return findFile().concatMap(new Func1<GridFSFile, Observable<Integer>>() {
+                    @Override
+                    public Observable<Integer> call(final GridFSFile file) {
+                        final int from;
+                        final int to;
+                        synchronized (GridFSDownloadStreamImpl.this) {
+                            if (!chunks.isEmpty() || !dst.hasRemaining()) {
+                                return Observable.just(copyTo(dst));
+                            } else if (position >= file.getLength()) {
+                                return Observable.just(-1);
+                            }
+                            from = (int) (position / file.getChunkSize());
+                            to = Math.min(from + (batchSize > 0 ? batchSize : DEFAULT_CHUNKS_PER_QUERY), getNumberOfChunks(file));
+                        }
+                        return chunkStore.findChunks(file, from, to).map(new Func1<List<ByteBuffer>, Integer>() {
+                            @Override
+                            public Integer call(final List<ByteBuffer> data) {
+                                synchronized (GridFSDownloadStreamImpl.this) {
+                                    for (int i = 0; i < data.size(); i++) {
+                                        GridFSDownloads.trim(data.get(i), (long) (from + i) * file.getChunkSize(), position,
+                                                file.getLength());
+                                        chunks.add(data.get(i));
+                                    }
+                                    return copyTo(dst);
+                                }
+                            }
+                        });
+                    }
+                });
+            }
+        });
+    }
+
+    private int copyTo(final ByteBuffer dst) {
+        int copied = 0;
+        while (dst.hasRemaining() && !chunks.isEmpty()) {
+            ByteBuffer chunk = chunks.peek();
+            int length = Math.min(dst.remaining(), chunk.remaining());
+            ByteBuffer slice = chunk.duplicate();
+            slice.limit(slice.position() + length);
+            dst.put(slice);
+            chunk.position(chunk.position() + length);
+            if (!chunk.hasRemaining()) {
+                chunks.poll();
+            }
+            copied += length;
+        }
+        position += copied;
+        return copied;
+    }
 }
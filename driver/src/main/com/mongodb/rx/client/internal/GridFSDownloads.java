@@ -0,0 +1,191 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.rx.client.gridfs.AsyncOutputStream;
+import com.mongodb.rx.client.gridfs.GridFSBufferPool;
+import com.mongodb.rx.client.gridfs.GridFSObservableDownloadOptions;
+import com.mongodb.rx.client.gridfs.GridFSParallelDownloadOptions;
+import org.bson.BsonValue;
+import rx.Observable;
+import rx.functions.Func1;
+import rx.functions.Func2;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static com.mongodb.rx.client.internal.GridFSChunkStore.getNumberOfChunks;
+
+/**
+ * Downloads GridFS files by reading the chunks collection directly.
+ */
+final class GridFSDownloads {
+
+    /**
+     * Reads ranges of chunks concurrently and writes them to the destination in order. Ranges are subscribed to eagerly, up to the
+     * configured parallelism, and buffered until the ranges before them have been written.
+     */
+    static Observable<Long> downloadToStream(final GridFSChunkStore chunkStore, final BsonValue id, final AsyncOutputStream destination,
+                                             final GridFSParallelDownloadOptions options) {
+        return downloadToStream(chunkStore, chunkStore.findFile(id), destination, options);
+    }
+
+    /**
+     * Downloads the file emitted by {@code file} in the same way as {@link #downloadToStream(GridFSChunkStore, BsonValue,
+     * AsyncOutputStream, GridFSParallelDownloadOptions)}, for files that are not found by their id.
+     */
+    static Observable<Long> downloadToStream(final GridFSChunkStore chunkStore, final Observable<GridFSFile> file,
+                                             final AsyncOutputStream destination, final GridFSParallelDownloadOptions options) {
+        return download(chunkStore, file, 0, Long.MAX_VALUE, destination, options);
+    }
+
+    /**
+     * Writes the bytes {@code from} (inclusive) to {@code to} (exclusive) of the file to the destination, in the same way as
+     * {@link #downloadToStream}. Only the chunks that hold the range are read, and the first and last of them are trimmed to it.
+     */
+    static Observable<Long> downloadRange(final GridFSChunkStore chunkStore, final BsonValue id, final long from, final long to,
+                                          final AsyncOutputStream destination, final GridFSParallelDownloadOptions options) {
+        return download(chunkStore, chunkStore.findFile(id), from, to, destination, options);
+    }
+
+    private static Observable<Long> download(final GridFSChunkStore chunkStore, final Observable<GridFSFile> fileObservable,
+                                             final long from, final long to, final AsyncOutputStream destination,
+                                             final GridFSParallelDownloadOptions options) {
+        final int rangeSize = Math.max(1, options.getWindowSize() / options.getParallelism());
+        return fileObservable.concatMap(new Func1<GridFSFile, Observable<Long>>() {
+            @Override
+            public Observable<Long> call(final GridFSFile file) {
+                final long end = Math.min(to, file.getLength());
+                if (from >= end) {
+                    return Observable.just(0L);
+                }
+                final int firstChunk = (int) (from / file.getChunkSize());
+                final int lastChunk = (int) ((end - 1) / file.getChunkSize()) + 1;
+                int numberOfRanges = (lastChunk - firstChunk + rangeSize - 1) / rangeSize;
+                return Observable.range(0, numberOfRanges)
+                        .concatMapEager(new Func1<Integer, Observable<List<ByteBuffer>>>() {
+                            @Override
+                            public Observable<List<ByteBuffer>> call(final Integer range) {
+                                final int rangeFrom = firstChunk + range * rangeSize;
+                                return chunkStore.findChunks(file, rangeFrom, Math.min(rangeFrom + rangeSize, lastChunk))
+                                        .map(new Func1<List<ByteBuffer>, List<ByteBuffer>>() {
+                                            @Override
+                                            public List<ByteBuffer> call(final List<ByteBuffer> chunks) {
+                                                for (int i = 0; i < chunks.size(); i++) {
+                                                    trim(chunks.get(i), (long) (rangeFrom + i) * file.getChunkSize(), from, end);
+                                                }
+                                                return chunks;
+                                            }
+                                        });
+                            }
+                        }, options.getParallelism(), options.getParallelism())
+                        .concatMap(new Func1<List<ByteBuffer>, Observable<Long>>() {
+                            @Override
+                            public Observable<Long> call(final List<ByteBuffer> chunks) {
+                                return Observable.from(chunks).concatMap(new Func1<ByteBuffer, Observable<Long>>() {
+                                    @Override
+                                    public Observable<Long> call(final ByteBuffer chunk) {
+                                        return writeFully(destination, chunk);
+                                    }
+                                });
+                            }
+                        })
+                        .reduce(0L, new Func2<Long, Long, Long>() {
+                            @Override
+                            public Long call(final Long total, final Long written) {
+                                return total + written;
+                            }
+                        });
+            }
+        });
+    }
+
+    /**
+     * Emits the data of each chunk of the file in order, reading the chunks in batches. The first batch is read on subscription and each
+     * following batch once every chunk of the previous one has been requested. If there is a buffer pool, the data of a chunk is only
+     * copied into a pooled buffer when it is emitted.
+     */
+    static Observable<ByteBuffer> downloadAsObservable(final GridFSChunkStore chunkStore, final BsonValue id,
+                                                       final GridFSObservableDownloadOptions options) {
+        final int batchSize = options.getBatchSize();
+        final GridFSBufferPool bufferPool = options.getBufferPool();
+        Observable<ByteBuffer> chunks = chunkStore.findFile(id).concatMap(new Func1<GridFSFile, Observable<ByteBuffer>>() {
+            @Override
+            public Observable<ByteBuffer> call(final GridFSFile file) {
+                final int numberOfChunks = getNumberOfChunks(file);
+                return Observable.range(0, (numberOfChunks + batchSize - 1) / batchSize)
+                        .concatMap(new Func1<Integer, Observable<ByteBuffer>>() {
+                            @Override
+                            public Observable<ByteBuffer> call(final Integer batch) {
+                                int from = batch * batchSize;
+                                return chunkStore.findChunks(file, from, Math.min(from + batchSize, numberOfChunks))
+                                        .concatMap(new Func1<List<ByteBuffer>, Observable<ByteBuffer>>() {
+                                            @Override
+                                            public Observable<ByteBuffer> call(final List<ByteBuffer> data) {
+                                                return Observable.from(data);
+                                            }
+                                        });
+                            }
+                        });
+            }
+        });
+        if (bufferPool == null) {
+            return chunks;
+        }
+        return chunks.map(new Func1<ByteBuffer, ByteBuffer>() {
+            @Override
+            public ByteBuffer call(final ByteBuffer data) {
+                ByteBuffer buffer = bufferPool.acquire(data.remaining());
+                buffer.put(data).flip();
+                return buffer;
+            }
+        });
+    }
+
+    /**
+     * Trims the data of the chunk that starts at {@code chunkStart} to the bytes {@code from} (inclusive) to {@code to} (exclusive) of
+     * the file.
+     */
+    static void trim(final ByteBuffer chunk, final long chunkStart, final long from, final long to) {
+        chunk.limit((int) Math.min(chunk.limit(), to - chunkStart));
+        chunk.position((int) Math.max(0, from - chunkStart));
+    }
+
+    /**
+     * Writes the remaining bytes of the buffer to the destination, calling {@code write} again for as long as it writes only part of it.
+     */
+    static Observable<Long> writeFully(final AsyncOutputStream destination, final ByteBuffer buffer) {
+        return destination.write(buffer).concatMap(new Func1<Integer, Observable<Long>>() {
+            @Override
+            public Observable<Long> call(final Integer written) {
+                if (!buffer.hasRemaining()) {
+                    return Observable.just((long) written);
+                }
+                return writeFully(destination, buffer).map(new Func1<Long, Long>() {
+                    @Override
+                    public Long call(final Long remaining) {
+                        return written + remaining;
+                    }
+                });
+            }
+        });
+    }
+
+    private GridFSDownloads() {
+    }
+}
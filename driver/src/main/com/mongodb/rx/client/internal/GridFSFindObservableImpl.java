@@ -28,6 +28,7 @@ import rx.Observable;
 import rx.Subscriber;
 import rx.Subscription;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static com.mongodb.assertions.Assertions.notNull;
@@ -35,11 +36,19 @@ import static com.mongodb.assertions.Assertions.notNull;
 final class GridFSFindObservableImpl implements GridFSFindObservable {
     private final com.mongodb.async.client.gridfs.GridFSFindIterable wrapped;
     private final ObservableAdapter observableAdapter;
+    private final TrackedOperation trackedOperation;
+    private BatchCursorSettings batchCursorSettings = BatchCursorSettings.DEFAULT;
 
     GridFSFindObservableImpl(final com.mongodb.async.client.gridfs.GridFSFindIterable wrapped,
                              final ObservableAdapter observableAdapter) {
+        this(wrapped, observableAdapter, null);
+    }
+
+    GridFSFindObservableImpl(final com.mongodb.async.client.gridfs.GridFSFindIterable wrapped, final ObservableAdapter observableAdapter,
+                             final TrackedOperation trackedOperation) {
         this.wrapped = notNull("GridFSFindIterable", wrapped);
         this.observableAdapter = notNull("observableAdapter", observableAdapter);
+        this.trackedOperation = trackedOperation;
     }
 
     @Override
@@ -49,7 +58,7 @@ final class GridFSFindObservableImpl implements GridFSFindObservable {
             public void apply(final SingleResultCallback<GridFSFile> callback) {
                 wrapped.first(callback);
             }
-        }), observableAdapter);
+        }), observableAdapter, trackedOperation);
     }
 
     @Override
@@ -94,9 +103,21 @@ final class GridFSFindObservableImpl implements GridFSFindObservable {
         return this;
     }
 
+    @Override
+    public GridFSFindObservable batchSizeFromDemand(final int minBatchSize, final int maxBatchSize) {
+        batchCursorSettings = batchCursorSettings.demandDriven(minBatchSize, maxBatchSize);
+        return this;
+    }
+
     @Override
     public Observable<GridFSFile> toObservable() {
-        return RxObservables.create(Observables.observe(wrapped), observableAdapter);
+        return RxObservables.create(BatchCursorObservable.observe(wrapped, batchCursorSettings), observableAdapter, trackedOperation);
+    }
+
+    @Override
+    public Observable<List<GridFSFile>> toObservableBatches() {
+        return RxObservables.create(BatchCursorObservable.observeBatches(wrapped, batchCursorSettings), observableAdapter,
+                trackedOperation);
     }
 
     @Override
@@ -0,0 +1,344 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.Block;
+import com.mongodb.MongoGridFSException;
+import com.mongodb.async.SingleResultCallback;
+import com.mongodb.async.client.Observables;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.rx.client.Success;
+import com.mongodb.rx.client.gridfs.AsyncInputStream;
+import com.mongodb.rx.client.gridfs.GridFSParallelUploadOptions;
+import org.bson.BsonBinary;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonValue;
+import org.bson.Document;
+import rx.Observable;
+import rx.Subscriber;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static com.mongodb.internal.HexUtils.toHex;
+import static com.mongodb.rx.client.internal.ObservableHelper.voidToSuccessCallback;
+
+/**
+ * Uploads GridFS files by writing the chunks collection directly, with several inserts of chunks in flight.
+ *
+ * <p>The indexes of the bucket are created first if needed, as the wrapped bucket would. The files collection document is only inserted
+ * once every chunk has been acknowledged. If the upload fails, no more chunks are inserted and, once every insert already sent has
+ * completed, the chunks that were inserted are deleted before the error is passed on.</p>
+ */
+final class GridFSUploads {
+
+    /**
+     * Uploads the chunks emitted by {@code chunks}, each of which must be {@code chunkSize} bytes long except for the last one.
+     */
+    static Observable<Success> upload(final GridFSChunkStore chunkStore, final BsonValue id, final String filename, final int chunkSize,
+                                      final Document metadata, final Observable<byte[]> chunks,
+                                      final GridFSParallelUploadOptions options) {
+        return Observable.defer(new Func0<Observable<Success>>() {
+            @Override
+            public Observable<Success> call() {
+                final Upload upload = new Upload(id);
+                Observable<Success> chunkInserts = chunks.map(new Func1<byte[], BsonDocument>() {
+                    @Override
+                    public BsonDocument call(final byte[] data) {
+                        return upload.toChunk(data);
+                    }
+                })
+                .buffer(options.getChunksPerBatch())
+                .flatMap(new Func1<List<BsonDocument>, Observable<Success>>() {
+                    @Override
+                    public Observable<Success> call(final List<BsonDocument> batch) {
+                        return insertChunks(chunkStore, upload, batch);
+                    }
+                }, options.getMaxBatchesInFlight());
+                return chunkStore.createIndexes()
+                .concatWith(chunkInserts)
+                .ignoreElements()
+                .concatWith(Observable.defer(new Func0<Observable<Success>>() {
+                    @Override
+                    public Observable<Success> call() {
+                        return insertFile(chunkStore, new GridFSFile(id, filename, upload.length, chunkSize, new Date(),
+                                toHex(upload.md5.digest()), metadata));
+                    }
+                }))
+                .onErrorResumeNext(new Func1<Throwable, Observable<Success>>() {
+                    @Override
+                    public Observable<Success> call(final Throwable t) {
+                        return upload.whenInsertsCompleted()
+                                .concatWith(deleteChunks(chunkStore, id).ignoreElements().cast(Success.class))
+                                .onErrorResumeNext(Observable.<Success>empty())
+                                .concatWith(Observable.<Success>error(t));
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Reads the source into chunks of {@code chunkSize} bytes, reading the next chunk only when it is requested.
+     */
+    static Observable<byte[]> readChunks(final AsyncInputStream source, final int chunkSize) {
+        return Observable.defer(new Func0<Observable<byte[]>>() {
+            @Override
+            public Observable<byte[]> call() {
+                final boolean[] endOfStream = new boolean[1];
+                return Observable.defer(new Func0<Observable<byte[]>>() {
+                    @Override
+                    public Observable<byte[]> call() {
+                        if (endOfStream[0]) {
+                            return Observable.just(new byte[0]);
+                        }
+                        final ByteBuffer buffer = ByteBuffer.allocate(chunkSize);
+                        return readFully(source, buffer).map(new Func1<Boolean, byte[]>() {
+                            @Override
+                            public byte[] call(final Boolean hasMore) {
+                                endOfStream[0] = !hasMore;
+                                return Arrays.copyOf(buffer.array(), buffer.position());
+                            }
+                        });
+                    }
+                }).repeat().takeWhile(new Func1<byte[], Boolean>() {
+                    @Override
+                    public Boolean call(final byte[] chunk) {
+                        return chunk.length > 0;
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Coalesces fragments of any size into chunks of {@code chunkSize} bytes, of which only the last may be shorter. A fragment that wraps
+     * the whole of an array of exactly {@code chunkSize} bytes, and starts a chunk, becomes that chunk without being copied. The fragments
+     * are concatenated with {@code concatMap}, which only prefetches two of them, so the source is asked for the next fragment once the
+     * chunks completed by an earlier one have been requested.
+     */
+    static Observable<byte[]> coalesceChunks(final Observable<ByteBuffer> fragments, final int chunkSize) {
+        return Observable.defer(new Func0<Observable<byte[]>>() {
+            @Override
+            public Observable<byte[]> call() {
+                final ChunkCoalescer coalescer = new ChunkCoalescer(chunkSize);
+                return fragments.concatMap(new Func1<ByteBuffer, Observable<byte[]>>() {
+                    @Override
+                    public Observable<byte[]> call(final ByteBuffer fragment) {
+                        return Observable.from(coalescer.add(fragment));
+                    }
+                }).concatWith(Observable.defer(new Func0<Observable<byte[]>>() {
+                    @Override
+                    public Observable<byte[]> call() {
+                        return Observable.from(coalescer.finish());
+                    }
+                }));
+            }
+        });
+    }
+
+    /**
+     * Reads from the source until the buffer is full or the end of the stream is reached, emitting whether there may be more data.
+     */
+    private static Observable<Boolean> readFully(final AsyncInputStream source, final ByteBuffer buffer) {
+        return source.read(buffer).concatMap(new Func1<Integer, Observable<Boolean>>() {
+            @Override
+            public Observable<Boolean> call(final Integer read) {
+                if (read < 0) {
+                    return Observable.just(false);
+                } else if (!buffer.hasRemaining()) {
+                    return Observable.just(true);
+                }
+                return readFully(source, buffer);
+            }
+        });
+    }
+
+    /**
+     * Inserts the chunks, counting the insert as in flight until the server replies even if the Observable is unsubscribed first.
+     */
+    private static Observable<Success> insertChunks(final GridFSChunkStore chunkStore, final Upload upload,
+                                                    final List<BsonDocument> chunks) {
+        return RxObservables.create(Observables.observe(new Block<SingleResultCallback<Success>>() {
+            @Override
+            public void apply(final SingleResultCallback<Success> callback) {
+                final SingleResultCallback<Void> successCallback = voidToSuccessCallback(callback);
+                upload.insertStarted();
+                try {
+                    chunkStore.getChunksCollection().insertMany(chunks, new SingleResultCallback<Void>() {
+                        @Override
+                        public void onResult(final Void result, final Throwable t) {
+                            upload.insertCompleted();
+                            successCallback.onResult(result, t);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    upload.insertCompleted();
+                    throw e;
+                }
+            }
+        }), new ObservableHelper.NoopObservableAdapter());
+    }
+
+    private static Observable<Success> insertFile(final GridFSChunkStore chunkStore, final GridFSFile file) {
+        return RxObservables.create(Observables.observe(new Block<SingleResultCallback<Success>>() {
+            @Override
+            public void apply(final SingleResultCallback<Success> callback) {
+                chunkStore.getFilesCollection().insertOne(file, voidToSuccessCallback(callback));
+            }
+        }), new ObservableHelper.NoopObservableAdapter());
+    }
+
+    private static Observable<DeleteResult> deleteChunks(final GridFSChunkStore chunkStore, final BsonValue id) {
+        return RxObservables.create(Observables.observe(new Block<SingleResultCallback<DeleteResult>>() {
+            @Override
+            public void apply(final SingleResultCallback<DeleteResult> callback) {
+                chunkStore.getChunksCollection().deleteMany(new BsonDocument("files_id", id), callback);
+            }
+        }), new ObservableHelper.NoopObservableAdapter());
+    }
+
+    private static final class ChunkCoalescer {
+        private final int chunkSize;
+        private byte[] pending;
+        private int pendingLength;
+
+        ChunkCoalescer(final int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        List<byte[]> add(final ByteBuffer fragment) {
+            List<byte[]> chunks = new ArrayList<byte[]>();
+            ByteBuffer data = fragment.duplicate();
+            if (pending == null && isWholeChunkArray(data)) {
+                chunks.add(data.array());
+                return chunks;
+            }
+            while (data.hasRemaining()) {
+                if (pending == null) {
+                    pending = new byte[chunkSize];
+                }
+                int length = Math.min(data.remaining(), chunkSize - pendingLength);
+                data.get(pending, pendingLength, length);
+                pendingLength += length;
+                if (pendingLength == chunkSize) {
+                    chunks.add(pending);
+                    pending = null;
+                    pendingLength = 0;
+                }
+            }
+            return chunks;
+        }
+
+        List<byte[]> finish() {
+            if (pending == null) {
+                return Collections.emptyList();
+            }
+            return Collections.singletonList(Arrays.copyOf(pending, pendingLength));
+        }
+
+        private boolean isWholeChunkArray(final ByteBuffer data) {
+            return data.hasArray() && data.arrayOffset() == 0 && data.position() == 0 && data.remaining() == chunkSize
+                    && data.array().length == chunkSize;
+        }
+    }
+
+    private static final class Upload {
+        private final BsonValue id;
+        private final MessageDigest md5;
+        private int n;
+        private long length;
+        private final List<Runnable> insertsCompletedCallbacks = new ArrayList<Runnable>();
+
+        /* protected by `this` */
+        private int insertsInFlight;
+        /* protected by `this` */
+
+        Upload(final BsonValue id) {
+            this.id = id;
+            try {
+                this.md5 = MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                throw new MongoGridFSException("No MD5 message digest available, cannot upload file", e);
+            }
+        }
+
+        BsonDocument toChunk(final byte[] data) {
+            md5.update(data);
+            length += data.length;
+            return new BsonDocument("files_id", id).append("n", new BsonInt32(n++)).append("data", new BsonBinary(data));
+        }
+
+        synchronized void insertStarted() {
+            insertsInFlight++;
+        }
+
+        void insertCompleted() {
+            List<Runnable> callbacks = null;
+            synchronized (this) {
+                insertsInFlight--;
+                if (insertsInFlight == 0 && !insertsCompletedCallbacks.isEmpty()) {
+                    callbacks = new ArrayList<Runnable>(insertsCompletedCallbacks);
+                    insertsCompletedCallbacks.clear();
+                }
+            }
+            if (callbacks != null) {
+                for (Runnable callback : callbacks) {
+                    callback.run();
+                }
+            }
+        }
+
+        /**
+         * Completes, without emitting, once no insert of chunks is in flight.
+         */
+        @SuppressWarnings("deprecation")
+        Observable<Success> whenInsertsCompleted() {
+            return Observable.create(new Observable.OnSubscribe<Success>() {
+                @Override
+                public void call(final Subscriber<? super Success> subscriber) {
+                    Runnable callback = new Runnable() {
+                        @Override
+                        public void run() {
+                            subscriber.onCompleted();
+                        }
+                    };
+                    synchronized (Upload.this) {
+                        if (insertsInFlight > 0) {
+                            insertsCompletedCallbacks.add(callback);
+                            return;
+                        }
+                    }
+                    callback.run();
+                }
+            });
+        }
+    }
+
+    private GridFSUploads() {
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.Block;
+import com.mongodb.async.SingleResultCallback;
+import com.mongodb.rx.client.HedgedReadSettings;
+import com.mongodb.rx.client.HedgedReadStatistics;
+import rx.Scheduler;
+import rx.functions.Action0;
+import rx.schedulers.Schedulers;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * Sends a duplicate of a read that has not been answered within a delay, and completes with whichever response arrives first.
+ *
+ * <p>The delay is either fixed, or the configured percentile of the latencies of the last {@value #MAX_SAMPLES} reads. Each attempt goes
+ * through server selection on its own, so with a read preference that allows several servers the duplicate is often, but not always,
+ * sent to another member of the replica set; the async driver does not report which server answered, so the statistics count every
+ * duplicate. A failed attempt only fails the read once no other attempt is outstanding. The losing attempt cannot be cancelled on the
+ * server, so its response is ignored.</p>
+ *
+ * <p>Latencies are measured with {@link System#nanoTime()}, as the clock of a scheduler need only be precise to the millisecond; the
+ * scheduler only times the duplicate reads.</p>
+ */
+final class HedgedReads {
+    private static final int MAX_SAMPLES = 1024;
+    private static final int SAMPLES_PER_UPDATE = 16;
+
+    private final long delayNanos;
+    private final double percentile;
+    private final int minSamples;
+    private final int maxFindLimit;
+    private final Scheduler scheduler;
+    private final AtomicLong readCount = new AtomicLong();
+    private final AtomicLong hedgeCount = new AtomicLong();
+    private final AtomicLong hedgeWinCount = new AtomicLong();
+
+    /* protected by `this` */
+    private final long[] samples = new long[MAX_SAMPLES];
+    private long sampleCount;
+    private long percentileDelayNanos = -1;
+    /* protected by `this` */
+
+    HedgedReads(final HedgedReadSettings settings) {
+        this(settings, Schedulers.computation());
+    }
+
+    HedgedReads(final HedgedReadSettings settings, final Scheduler scheduler) {
+        notNull("settings", settings);
+        this.delayNanos = settings.getDelay(TimeUnit.NANOSECONDS);
+        this.percentile = settings.getPercentile();
+        this.minSamples = Math.min(settings.getMinSamples(), MAX_SAMPLES);
+        this.maxFindLimit = settings.getMaxFindLimit();
+        this.scheduler = notNull("scheduler", scheduler);
+    }
+
+    static <T> Block<SingleResultCallback<T>> hedged(final HedgedReads hedgedReads, final Block<SingleResultCallback<T>> operation) {
+        return hedgedReads == null ? operation : hedgedReads.hedge(operation);
+    }
+
+    /**
+     * Returns whether a find with the given limit is hedged, which is only the case for a non zero limit no larger than the maximum, as a
+     * hedged find is read into memory.
+     */
+    static boolean isHedgedFind(final HedgedReads hedgedReads, final int limit) {
+        return hedgedReads != null && limit != 0 && limit >= -hedgedReads.maxFindLimit && limit <= hedgedReads.maxFindLimit;
+    }
+
+    <T> Block<SingleResultCallback<T>> hedge(final Block<SingleResultCallback<T>> operation) {
+        notNull("operation", operation);
+        return new Block<SingleResultCallback<T>>() {
+            @Override
+            public void apply(final SingleResultCallback<T> callback) {
+                new HedgedRead<T>(operation, callback).start();
+            }
+        };
+    }
+
+    HedgedReadStatistics getStatistics() {
+        return new HedgedReadStatistics(readCount.get(), hedgeCount.get(), hedgeWinCount.get(), getDelayNanos());
+    }
+
+    private synchronized long getDelayNanos() {
+        return percentileDelayNanos < 0 ? delayNanos : percentileDelayNanos;
+    }
+
+    private synchronized void recordLatency(final long latencyNanos) {
+        samples[(int) (sampleCount % MAX_SAMPLES)] = latencyNanos;
+        sampleCount++;
+        if (percentile > 0 && sampleCount >= minSamples && (sampleCount - minSamples) % SAMPLES_PER_UPDATE == 0) {
+            long[] sorted = Arrays.copyOf(samples, (int) Math.min(sampleCount, MAX_SAMPLES));
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            percentileDelayNanos = sorted[Math.max(index, 0)];
+        }
+    }
+
+    private final class HedgedRead<T> implements Action0 {
+        private final Block<SingleResultCallback<T>> operation;
+        private final SingleResultCallback<T> callback;
+        private final Scheduler.Worker worker = scheduler.createWorker();
+        private final long startNanos = System.nanoTime();
+
+        /* protected by `this` */
+        private int outstanding;
+        private boolean completed;
+        /* protected by `this` */
+
+        HedgedRead(final Block<SingleResultCallback<T>> operation, final SingleResultCallback<T> callback) {
+            this.operation = operation;
+            this.callback = callback;
+        }
+
+        void start() {
+            readCount.incrementAndGet();
+            synchronized (this) {
+                outstanding++;
+            }
+            worker.schedule(this, getDelayNanos(), TimeUnit.NANOSECONDS);
+            execute(false);
+        }
+
+        @Override
+        public void call() {
+            synchronized (this) {
+                if (completed) {
+                    return;
+                }
+                outstanding++;
+            }
+            hedgeCount.incrementAndGet();
+            execute(true);
+        }
+
+        private void execute(final boolean hedge) {
+            try {
+                operation.apply(new SingleResultCallback<T>() {
+                    @Override
+                    public void onResult(final T result, final Throwable t) {
+                        complete(hedge, result, t);
+                    }
+                });
+            } catch (Throwable t) {
+                complete(hedge, null, t);
+            }
+        }
+
+        private void complete(final boolean hedge, final T result, final Throwable t) {
+            synchronized (this) {
+                outstanding--;
+                if (completed || (t != null && outstanding > 0)) {
+                    return;
+                }
+                completed = true;
+            }
+            worker.unsubscribe();
+            if (t == null) {
+                recordLatency(System.nanoTime() - startNanos);
+                if (hedge) {
+                    hedgeWinCount.incrementAndGet();
+                }
+            }
+            callback.onResult(result, t);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.async.SingleResultCallback;
+import com.mongodb.async.client.FindIterable;
+import com.mongodb.async.client.MongoCollection;
+import com.mongodb.client.model.FindOptions;
+import com.mongodb.rx.client.Page;
+import com.mongodb.rx.client.PageToken;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentWriter;
+import org.bson.BsonNull;
+import org.bson.BsonType;
+import org.bson.BsonValue;
+import org.bson.codecs.Codec;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.conversions.Bson;
+import rx.Observable;
+import rx.Producer;
+import rx.Subscriber;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.mongodb.assertions.Assertions.notNull;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Fetches pages of a find by seeking past the sort key values of the last document of the previous page, rather than by skipping.
+ *
+ * <p>Each page is one query with a range filter over the sort keys, so the cost of a page does not depend on how deep it is. One more
+ * document than the page size is requested, so that the last page is known without an extra round trip. Every page is fetched by a find
+ * of its own, created from the collection with the options of the paged find, so that paging never changes the find it was started
+ * from.</p>
+ *
+ * @param <TResult> the result type
+ */
+final class KeysetPager<TResult> {
+    private final MongoCollection<?> collection;
+    private final Bson filter;
+    private final FindOptions findOptions;
+    private final Class<TResult> resultClass;
+    private final CodecRegistry codecRegistry;
+
+    /**
+     * @param collection  the collection to find the pages in
+     * @param filter      the filter of the paged find, or null
+     * @param findOptions the options of the paged find, of which the sort, limit, skip and batch size are replaced by each page
+     * @param resultClass the result class
+     */
+    KeysetPager(final MongoCollection<?> collection, final Bson filter, final FindOptions findOptions, final Class<TResult> resultClass) {
+        this.collection = notNull("collection", collection);
+        this.filter = filter;
+        this.findOptions = notNull("findOptions", findOptions);
+        this.resultClass = notNull("resultClass", resultClass);
+        this.codecRegistry = notNull("codecRegistry", collection.getCodecRegistry());
+    }
+
+    /**
+     * Fetches the page identified by the token.
+     *
+     * @param pageToken the page token
+     * @param callback  the callback passed the page
+     */
+    void fetch(final PageToken pageToken, final SingleResultCallback<Page<TResult>> callback) {
+        final int pageSize = pageToken.getPageSize();
+        SingleResultCallback<List<TResult>> intoCallback = new SingleResultCallback<List<TResult>>() {
+            @Override
+            public void onResult(final List<TResult> result, final Throwable t) {
+                if (t != null) {
+                    callback.onResult(null, t);
+                    return;
+                }
+                Page<TResult> page;
+                try {
+                    if (result.size() > pageSize) {
+                        List<TResult> documents = result.subList(0, pageSize);
+                        page = new Page<TResult>(documents,
+                                pageToken.next(getSortKeyValues(documents.get(pageSize - 1), pageToken.getSort())));
+                    } else {
+                        page = new Page<TResult>(result, null);
+                    }
+                } catch (Throwable e) {
+                    callback.onResult(null, e);
+                    return;
+                }
+                callback.onResult(page, null);
+            }
+        };
+
+        FindIterable<TResult> find = collection.find(getPageFilter(pageToken), resultClass);
+        copyOptions(find);
+        find.sort(pageToken.getSort());
+        find.limit(pageSize + 1);
+        find.into(new ArrayList<TResult>(pageSize + 1), intoCallback);
+    }
+
+    /**
+     * Creates an Observable that emits every page from the token onwards, only fetching a page once it has been requested.
+     *
+     * @param firstPageToken the token of the first page to emit
+     * @return the Observable
+     */
+    @SuppressWarnings("deprecation")
+    Observable<Page<TResult>> pages(final PageToken firstPageToken) {
+        return Observable.create(new Observable.OnSubscribe<Page<TResult>>() {
+            @Override
+            public void call(final Subscriber<? super Page<TResult>> subscriber) {
+                subscriber.setProducer(new PagesProducer(subscriber, firstPageToken));
+            }
+        });
+    }
+
+    @SuppressWarnings("deprecation")
+    private void copyOptions(final FindIterable<TResult> find) {
+        find.maxTime(findOptions.getMaxTime(MILLISECONDS), MILLISECONDS);
+        find.maxAwaitTime(findOptions.getMaxAwaitTime(MILLISECONDS), MILLISECONDS);
+        find.modifiers(findOptions.getModifiers());
+        find.projection(findOptions.getProjection());
+        find.noCursorTimeout(findOptions.isNoCursorTimeout());
+        find.oplogReplay(findOptions.isOplogReplay());
+        find.partial(findOptions.isPartial());
+        find.cursorType(findOptions.getCursorType());
+        find.collation(findOptions.getCollation());
+        find.comment(findOptions.getComment());
+        find.hint(findOptions.getHint());
+        find.max(findOptions.getMax());
+        find.min(findOptions.getMin());
+        find.maxScan(findOptions.getMaxScan());
+        find.returnKey(findOptions.isReturnKey());
+        find.showRecordId(findOptions.isShowRecordId());
+        find.snapshot(findOptions.isSnapshot());
+    }
+
+    private BsonDocument getPageFilter(final PageToken pageToken) {
+        BsonDocument baseFilter = filter == null ? new BsonDocument() : filter.toBsonDocument(BsonDocument.class, codecRegistry);
+        if (pageToken.getLastSortKeyValues() == null) {
+            return baseFilter;
+        }
+        BsonDocument rangeFilter = getRangeFilter(pageToken.getSort(), pageToken.getLastSortKeyValues());
+        if (baseFilter.isEmpty()) {
+            return rangeFilter;
+        }
+        return new BsonDocument("$and", new BsonArray(asList(baseFilter, rangeFilter)));
+    }
+
+    /**
+     * Builds the filter for the documents that sort after the given values, for a sort over keys k1..kn:
+     * {@code {$or: [{k1: {$gt: v1}}, {k1: v1, k2: {$gt: v2}}, ...]}}, with {@code $lt} for descending keys.
+     *
+     * <p>Null and missing values sort before every other value, but {@code $gt} and {@code $lt} only match values of the same type, so
+     * they are matched explicitly: after a null value in ascending order come the values that are not null, and after any other value in
+     * descending order come the null values.</p>
+     *
+     * @param sort              the sort
+     * @param lastSortKeyValues the sort key values to seek past
+     * @return the filter
+     */
+    static BsonDocument getRangeFilter(final BsonDocument sort, final BsonDocument lastSortKeyValues) {
+        BsonArray clauses = new BsonArray();
+        BsonDocument previousKeys = new BsonDocument();
+        for (Map.Entry<String, BsonValue> entry : sort.entrySet()) {
+            String key = entry.getKey();
+            BsonValue value = getValue(lastSortKeyValues, key);
+            boolean ascending = entry.getValue().asNumber().intValue() > 0;
+            if (isNull(value)) {
+                if (ascending) {
+                    clauses.add(previousKeys.clone().append(key, new BsonDocument("$ne", BsonNull.VALUE)));
+                }
+            } else {
+                clauses.add(previousKeys.clone().append(key, new BsonDocument(ascending ? "$gt" : "$lt", value)));
+                if (!ascending) {
+                    clauses.add(previousKeys.clone().append(key, new BsonDocument("$eq", BsonNull.VALUE)));
+                }
+            }
+            previousKeys.append(key, new BsonDocument("$eq", isNull(value) ? BsonNull.VALUE : value));
+        }
+        return new BsonDocument("$or", clauses);
+    }
+
+    private static boolean isNull(final BsonValue value) {
+        return value.isNull() || value.getBsonType() == BsonType.UNDEFINED;
+    }
+
+    private BsonDocument getSortKeyValues(final TResult document, final BsonDocument sort) {
+        BsonDocument bsonDocument;
+        if (document instanceof BsonDocument) {
+            bsonDocument = (BsonDocument) document;
+        } else {
+            bsonDocument = new BsonDocument();
+            Codec<TResult> codec = codecRegistry.get(resultClass);
+            codec.encode(new BsonDocumentWriter(bsonDocument), document, EncoderContext.builder().build());
+        }
+        BsonDocument sortKeyValues = new BsonDocument();
+        for (String key : sort.keySet()) {
+            sortKeyValues.append(key, getValue(bsonDocument, key));
+        }
+        return sortKeyValues;
+    }
+
+    private static BsonValue getValue(final BsonDocument document, final String key) {
+        if (document.containsKey(key)) {
+            return document.get(key);
+        }
+        BsonValue value = document;
+        for (String part : key.split("\\.")) {
+            if (!value.isDocument() || !value.asDocument().containsKey(part)) {
+                return BsonNull.VALUE;
+            }
+            value = value.asDocument().get(part);
+        }
+        return value;
+    }
+
+    private final class PagesProducer implements Producer, SingleResultCallback<Page<TResult>> {
+        private final Subscriber<? super Page<TResult>> subscriber;
+
+        /* protected by `this` */
+        private long requested;
+        private boolean fetching;
+        private PageToken nextPageToken;
+        /* protected by `this` */
+
+        PagesProducer(final Subscriber<? super Page<TResult>> subscriber, final PageToken firstPageToken) {
+            this.subscriber = subscriber;
+            this.nextPageToken = firstPageToken;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n < 0) {
+                throw new IllegalArgumentException("Number requested must be >= 0: " + n);
+            }
+            synchronized (this) {
+                requested = requested + n < 0 ? Long.MAX_VALUE : requested + n;
+            }
+            fetchNextPage();
+        }
+
+        @Override
+        public void onResult(final Page<TResult> page, final Throwable t) {
+            if (t != null) {
+                subscriber.onError(t);
+                return;
+            }
+            synchronized (this) {
+                fetching = false;
+                nextPageToken = page.getNextPageToken();
+                if (requested != Long.MAX_VALUE) {
+                    requested--;
+                }
+            }
+            if (subscriber.isUnsubscribed()) {
+                return;
+            }
+            subscriber.onNext(page);
+            if (!page.hasNextPage()) {
+                subscriber.onCompleted();
+            } else {
+                fetchNextPage();
+            }
+        }
+
+        private void fetchNextPage() {
+            PageToken pageToken;
+            synchronized (this) {
+                if (fetching || requested == 0 || nextPageToken == null) {
+                    return;
+                }
+                fetching = true;
+                pageToken = nextPageToken;
+            }
+            if (subscriber.isUnsubscribed()) {
+                return;
+            }
+            try {
+                fetch(pageToken, this);
+            } catch (Throwable t) {
+                subscriber.onError(t);
+            }
+        }
+    }
+}
@@ -16,7 +16,6 @@
 
 package com.mongodb.rx.client.internal;
 
-import com.mongodb.async.client.Observables;
 import com.mongodb.rx.client.ListCollectionsObservable;
 import com.mongodb.rx.client.ObservableAdapter;
 import org.bson.conversions.Bson;
@@ -24,6 +23,7 @@ import rx.Observable;
 import rx.Subscriber;
 import rx.Subscription;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static com.mongodb.assertions.Assertions.notNull;
@@ -32,11 +32,19 @@ final class ListCollectionsObservableImpl<TResult> implements ListCollectionsObs
 
     private final com.mongodb.async.client.ListCollectionsIterable<TResult> wrapped;
     private final ObservableAdapter observableAdapter;
+    private final TrackedOperation trackedOperation;
+    private BatchCursorSettings batchCursorSettings = BatchCursorSettings.DEFAULT;
 
     ListCollectionsObservableImpl(final com.mongodb.async.client.ListCollectionsIterable<TResult> wrapped,
                                   final ObservableAdapter observableAdapter) {
+        this(wrapped, observableAdapter, null);
+    }
+
+    ListCollectionsObservableImpl(final com.mongodb.async.client.ListCollectionsIterable<TResult> wrapped,
+                                  final ObservableAdapter observableAdapter, final TrackedOperation trackedOperation) {
         this.wrapped = notNull("wrapped", wrapped);
         this.observableAdapter = notNull("observableAdapter", observableAdapter);
+        this.trackedOperation = trackedOperation;
     }
 
     @Override
@@ -53,9 +61,21 @@ final class ListCollectionsObservableImpl<TResult> implements ListCollectionsObs
         return this;
     }
 
+    @Override
+    public ListCollectionsObservable<TResult> batchSizeFromDemand(final int minBatchSize, final int maxBatchSize) {
+        batchCursorSettings = batchCursorSettings.demandDriven(minBatchSize, maxBatchSize);
+        return this;
+    }
+
     @Override
     public Observable<TResult> toObservable() {
-        return RxObservables.create(Observables.observe(wrapped), observableAdapter);
+        return RxObservables.create(BatchCursorObservable.observe(wrapped, batchCursorSettings), observableAdapter, trackedOperation);
+    }
+
+    @Override
+    public Observable<List<TResult>> toObservableBatches() {
+        return RxObservables.create(BatchCursorObservable.observeBatches(wrapped, batchCursorSettings), observableAdapter,
+                trackedOperation);
     }
 
     @Override
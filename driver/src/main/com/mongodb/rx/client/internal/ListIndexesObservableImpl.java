@@ -23,6 +23,7 @@ import rx.Observable;
 import rx.Subscriber;
 import rx.Subscription;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static com.mongodb.assertions.Assertions.notNull;
@@ -31,11 +32,18 @@ final class ListIndexesObservableImpl<TResult> implements ListIndexesObservable<
 
     private final com.mongodb.async.client.ListIndexesIterable<TResult> wrapped;
     private final ObservableAdapter observableAdapter;
+    private final TrackedOperation trackedOperation;
 
     ListIndexesObservableImpl(final com.mongodb.async.client.ListIndexesIterable<TResult> wrapped,
                               final ObservableAdapter observableAdapter) {
+        this(wrapped, observableAdapter, null);
+    }
+
+    ListIndexesObservableImpl(final com.mongodb.async.client.ListIndexesIterable<TResult> wrapped,
+                              final ObservableAdapter observableAdapter, final TrackedOperation trackedOperation) {
         this.wrapped = notNull("wrapped", wrapped);
         this.observableAdapter = notNull("observableAdapter", observableAdapter);
+        this.trackedOperation = trackedOperation;
     }
 
     @Override
@@ -47,7 +55,13 @@ final class ListIndexesObservableImpl<TResult> implements ListIndexesObservable<
 
     @Override
     public Observable<TResult> toObservable() {
-        return RxObservables.create(Observables.observe(wrapped), observableAdapter);
+        return RxObservables.create(Observables.observe(wrapped), observableAdapter, trackedOperation);
+    }
+
+    @Override
+    public Observable<List<TResult>> toObservableBatches() {
+        return RxObservables.create(BatchCursorObservable.observeBatches(wrapped, BatchCursorSettings.DEFAULT), observableAdapter,
+                trackedOperation);
     }
 
     @Override
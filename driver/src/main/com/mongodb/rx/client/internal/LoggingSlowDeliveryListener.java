@@ -0,0 +1,53 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.diagnostics.logging.Logger;
+import com.mongodb.diagnostics.logging.Loggers;
+import com.mongodb.rx.client.SlowDeliveryEvent;
+import com.mongodb.rx.client.SlowDeliveryListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The default SlowDeliveryListener, which logs a warning for each event.
+ *
+ * <p>This should not be considered a part of the public API.</p>
+ */
+public final class LoggingSlowDeliveryListener implements SlowDeliveryListener {
+    private static final Logger LOGGER = Loggers.getLogger("rx.delivery");
+
+    @Override
+    public void slowDelivery(final SlowDeliveryEvent event) {
+        if (!LOGGER.isWarnEnabled()) {
+            return;
+        }
+        StringBuilder message = new StringBuilder()
+                .append("Subscriber blocked thread ").append(event.getThreadName())
+                .append(" for ").append(event.getDuration(TimeUnit.MILLISECONDS)).append(" ms in ").append(event.getSignal())
+                .append(" of ").append(event.getOperation()).append(" on ").append(event.getNamespace());
+        for (StackTraceElement element : event.getStackTrace()) {
+            message.append("\n\tat ").append(element);
+        }
+        LOGGER.warn(message.toString());
+    }
+
+    @Override
+    public String toString() {
+        return "LoggingSlowDeliveryListener{}";
+    }
+}
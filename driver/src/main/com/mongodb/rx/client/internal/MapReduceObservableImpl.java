@@ -29,6 +29,7 @@ import rx.Observable;
 import rx.Subscriber;
 import rx.Subscription;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static com.mongodb.assertions.Assertions.notNull;
@@ -38,10 +39,17 @@ class MapReduceObservableImpl<TResult> implements MapReduceObservable<TResult> {
 
     private final com.mongodb.async.client.MapReduceIterable<TResult> wrapped;
     private final ObservableAdapter observableAdapter;
+    private final TrackedOperation trackedOperation;
 
     MapReduceObservableImpl(final com.mongodb.async.client.MapReduceIterable<TResult> wrapped, final ObservableAdapter observableAdapter) {
+        this(wrapped, observableAdapter, null);
+    }
+
+    MapReduceObservableImpl(final com.mongodb.async.client.MapReduceIterable<TResult> wrapped, final ObservableAdapter observableAdapter,
+                            final TrackedOperation trackedOperation) {
         this.wrapped = notNull("wrapped", wrapped);
         this.observableAdapter = notNull("observableAdapter", observableAdapter);
+        this.trackedOperation = trackedOperation;
     }
 
     @Override
@@ -135,7 +143,7 @@ class MapReduceObservableImpl<TResult> implements MapReduceObservable<TResult> {
             public void apply(final SingleResultCallback<Success> callback) {
                 wrapped.toCollection(voidToSuccessCallback(callback));
             }
-        }), observableAdapter);
+        }), observableAdapter, trackedOperation);
     }
 
     @Override
@@ -146,7 +154,13 @@ class MapReduceObservableImpl<TResult> implements MapReduceObservable<TResult> {
 
     @Override
     public Observable<TResult> toObservable() {
-        return RxObservables.create(Observables.observe(wrapped), observableAdapter);
+        return RxObservables.create(Observables.observe(wrapped), observableAdapter, trackedOperation);
+    }
+
+    @Override
+    public Observable<List<TResult>> toObservableBatches() {
+        return RxObservables.create(BatchCursorObservable.observeBatches(wrapped, BatchCursorSettings.DEFAULT), observableAdapter,
+                trackedOperation);
     }
 
     @Override
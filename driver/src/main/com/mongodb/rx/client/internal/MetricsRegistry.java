@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.rx.client.MongoMetrics;
+import com.mongodb.rx.client.OperationMetrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * The metrics of the operations of a client, keyed by namespace and operation.
+ */
+final class MetricsRegistry {
+    private final ConcurrentMap<Key, OperationRecorder> recorders = new ConcurrentHashMap<Key, OperationRecorder>();
+    private final DeliveryWatchdog watchdog;
+
+    MetricsRegistry() {
+        this(null);
+    }
+
+    MetricsRegistry(final DeliveryWatchdog watchdog) {
+        this.watchdog = watchdog;
+    }
+
+    OperationRecorder recorder(final String namespace, final String operation) {
+        Key key = new Key(namespace, operation);
+        OperationRecorder recorder = recorders.get(key);
+        if (recorder == null) {
+            OperationRecorder newRecorder = new OperationRecorder(namespace, operation, watchdog);
+            recorder = recorders.putIfAbsent(key, newRecorder);
+            if (recorder == null) {
+                recorder = newRecorder;
+            }
+        }
+        return recorder;
+    }
+
+    MongoMetrics getMetrics() {
+        List<OperationMetrics> operations = new ArrayList<OperationMetrics>(recorders.size());
+        for (OperationRecorder recorder : recorders.values()) {
+            operations.add(recorder.getMetrics());
+        }
+        Collections.sort(operations, new Comparator<OperationMetrics>() {
+            @Override
+            public int compare(final OperationMetrics first, final OperationMetrics second) {
+                int byNamespace = first.getNamespace().compareTo(second.getNamespace());
+                return byNamespace != 0 ? byNamespace : first.getOperation().compareTo(second.getOperation());
+            }
+        });
+        return new MongoMetrics(operations);
+    }
+
+    void close() {
+        if (watchdog != null) {
+            watchdog.close();
+        }
+    }
+
+    private static final class Key {
+        private final String namespace;
+        private final String operation;
+
+        Key(final String namespace, final String operation) {
+            this.namespace = notNull("namespace", namespace);
+            this.operation = notNull("operation", operation);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            Key that = (Key) o;
+            return namespace.equals(that.namespace) && operation.equals(that.operation);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * namespace.hashCode() + operation.hashCode();
+        }
+    }
+}
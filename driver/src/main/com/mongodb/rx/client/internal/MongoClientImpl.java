@@ -18,13 +18,17 @@ package com.mongodb.rx.client.internal;
 
 import com.mongodb.async.client.MongoClientSettings;
 import com.mongodb.async.client.Observables;
+import com.mongodb.rx.client.DeliverySettings;
 import com.mongodb.rx.client.ListDatabasesObservable;
 import com.mongodb.rx.client.MongoClient;
 import com.mongodb.rx.client.MongoDatabase;
+import com.mongodb.rx.client.MongoMetrics;
 import com.mongodb.rx.client.ObservableAdapter;
 import org.bson.Document;
 import rx.Observable;
 
+import java.util.concurrent.TimeUnit;
+
 import static com.mongodb.assertions.Assertions.notNull;
 
 /**
@@ -35,6 +39,7 @@ import static com.mongodb.assertions.Assertions.notNull;
 public class MongoClientImpl implements MongoClient {
     private final com.mongodb.async.client.MongoClient wrapped;
     private final ObservableAdapter observableAdapter;
+    private final MetricsRegistry metrics;
 
     /**
      * The internal MongoClientImpl constructor.
@@ -44,17 +49,40 @@ public class MongoClientImpl implements MongoClient {
      * @param observableAdapter  the ObservableAdapter
      */
     public MongoClientImpl(final com.mongodb.async.client.MongoClient wrapped, final ObservableAdapter observableAdapter) {
+        this(wrapped, observableAdapter, null);
+    }
+
+    /**
+     * The internal MongoClientImpl constructor.
+     *
+     * <p>This should not be considered a part of the public API.</p>
+     * @param wrapped the underlying MongoClient
+     * @param observableAdapter  the ObservableAdapter
+     * @param deliverySettings the settings for delivering results on a scheduler, which may be null
+     */
+    public MongoClientImpl(final com.mongodb.async.client.MongoClient wrapped, final ObservableAdapter observableAdapter,
+                           final DeliverySettings deliverySettings) {
         this.wrapped = notNull("wrapped", wrapped);
-        this.observableAdapter = notNull("observableAdapter", observableAdapter);
+        notNull("observableAdapter", observableAdapter);
+        if (deliverySettings == null) {
+            this.observableAdapter = observableAdapter;
+            this.metrics = new MetricsRegistry();
+        } else {
+            this.observableAdapter = new DeliveryObservableAdapter(deliverySettings, observableAdapter);
+            long slowDeliveryThresholdNanos = deliverySettings.getSlowDeliveryThreshold(TimeUnit.NANOSECONDS);
+            this.metrics = new MetricsRegistry(slowDeliveryThresholdNanos == 0 ? null
+                    : new DeliveryWatchdog(slowDeliveryThresholdNanos, deliverySettings.getSlowDeliveryListener()));
+        }
     }
 
     @Override
     public MongoDatabase getDatabase(final String name) {
-        return new MongoDatabaseImpl(wrapped.getDatabase(name), observableAdapter);
+        return new MongoDatabaseImpl(wrapped.getDatabase(name), observableAdapter, metrics);
     }
 
     @Override
     public void close() {
+        metrics.close();
         wrapped.close();
     }
 
@@ -65,7 +93,8 @@ public class MongoClientImpl implements MongoClient {
 
     @Override
     public Observable<String> listDatabaseNames() {
-        return RxObservables.create(Observables.observe(wrapped.listDatabaseNames()), observableAdapter);
+        return RxObservables.create(Observables.observe(wrapped.listDatabaseNames()), observableAdapter,
+                track("listDatabaseNames", null));
     }
 
     @Override
@@ -75,6 +104,15 @@ public class MongoClientImpl implements MongoClient {
 
     @Override
     public <TResult> ListDatabasesObservable<TResult> listDatabases(final Class<TResult> clazz) {
-        return new ListDatabasesObservableImpl<TResult>(wrapped.listDatabases(clazz), observableAdapter);
+        return new ListDatabasesObservableImpl<TResult>(wrapped.listDatabases(clazz), observableAdapter, track("listDatabases", clazz));
+    }
+
+    @Override
+    public MongoMetrics getMetrics() {
+        return metrics.getMetrics();
+    }
+
+    private TrackedOperation track(final String operation, final Class<?> documentClass) {
+        return TrackedOperation.create(metrics, operation, "admin", wrapped.getSettings().getReadPreference(), documentClass);
     }
 }
@@ -40,32 +40,60 @@ import com.mongodb.client.model.WriteModel;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 import com.mongodb.rx.client.AggregateObservable;
+import com.mongodb.rx.client.ChangeStreamObservable;
 import com.mongodb.rx.client.DistinctObservable;
+import com.mongodb.rx.client.DocumentLoader;
 import com.mongodb.rx.client.FindObservable;
+import com.mongodb.rx.client.HedgedReadSettings;
+import com.mongodb.rx.client.HedgedReadStatistics;
 import com.mongodb.rx.client.ListIndexesObservable;
 import com.mongodb.rx.client.MapReduceObservable;
 import com.mongodb.rx.client.MongoCollection;
 import com.mongodb.rx.client.ObservableAdapter;
+import com.mongodb.rx.client.QueryCacheSettings;
+import com.mongodb.rx.client.QueryCacheStatistics;
+import com.mongodb.rx.client.SingleMongoCollection;
+import com.mongodb.rx.client.StreamingBulkWriteOptions;
 import com.mongodb.rx.client.Success;
 import org.bson.BsonDocument;
+import org.bson.BsonInt64;
 import org.bson.Document;
+import org.bson.RawBsonDocument;
 import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.conversions.Bson;
+import rx.Notification;
 import rx.Observable;
+import rx.functions.Action0;
+import rx.functions.Action1;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import static com.mongodb.assertions.Assertions.isTrueArgument;
 import static com.mongodb.assertions.Assertions.notNull;
+import static com.mongodb.rx.client.internal.HedgedReads.hedged;
 import static com.mongodb.rx.client.internal.ObservableHelper.voidToSuccessCallback;
+import static com.mongodb.rx.client.internal.QueryCache.invalidating;
+import static com.mongodb.rx.client.internal.QueryCache.singletonListCallback;
+import static com.mongodb.rx.client.internal.TrackedOperation.adapt;
+import static com.mongodb.rx.client.internal.TrackedOperation.isTracked;
 
 class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
 
     private final com.mongodb.async.client.MongoCollection<TDocument> wrapped;
     private final ObservableAdapter observableAdapter;
+    private final CollectionFeatures<TDocument> features;
 
     MongoCollectionImpl(final com.mongodb.async.client.MongoCollection<TDocument> wrapped, final ObservableAdapter observableAdapter) {
+        this(wrapped, observableAdapter, CollectionFeatures.<TDocument>none());
+    }
+
+    MongoCollectionImpl(final com.mongodb.async.client.MongoCollection<TDocument> wrapped, final ObservableAdapter observableAdapter,
+                        final CollectionFeatures<TDocument> features) {
         this.wrapped = notNull("wrapped", wrapped);
         this.observableAdapter = notNull("observableAdapter", observableAdapter);
+        this.features = notNull("features", features);
     }
 
     @Override
@@ -105,32 +133,97 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
 
     @Override
     public <NewTDocument> MongoCollection<NewTDocument> withDocumentClass(final Class<NewTDocument> clazz) {
-        return new MongoCollectionImpl<NewTDocument>(wrapped.withDocumentClass(clazz), observableAdapter);
+        com.mongodb.async.client.MongoCollection<NewTDocument> collection = wrapped.withDocumentClass(clazz);
+        return new MongoCollectionImpl<NewTDocument>(collection, observableAdapter, features.withCollection(collection));
+    }
+
+    @Override
+    public MongoCollection<RawBsonDocument> withRawDocuments() {
+        return withDocumentClass(RawBsonDocument.class);
     }
 
     @Override
     public MongoCollection<TDocument> withCodecRegistry(final CodecRegistry codecRegistry) {
-        return new MongoCollectionImpl<TDocument>(wrapped.withCodecRegistry(codecRegistry), observableAdapter);
+        com.mongodb.async.client.MongoCollection<TDocument> collection = wrapped.withCodecRegistry(codecRegistry);
+        return new MongoCollectionImpl<TDocument>(collection, observableAdapter, features.withCollection(collection));
     }
 
     @Override
     public MongoCollection<TDocument> withReadPreference(final ReadPreference readPreference) {
-        return new MongoCollectionImpl<TDocument>(wrapped.withReadPreference(readPreference), observableAdapter);
+        com.mongodb.async.client.MongoCollection<TDocument> collection = wrapped.withReadPreference(readPreference);
+        return new MongoCollectionImpl<TDocument>(collection, observableAdapter, features.withCollection(collection));
     }
 
     @Override
     public MongoCollection<TDocument> withWriteConcern(final WriteConcern writeConcern) {
-        return new MongoCollectionImpl<TDocument>(wrapped.withWriteConcern(writeConcern), observableAdapter);
+        com.mongodb.async.client.MongoCollection<TDocument> collection = wrapped.withWriteConcern(writeConcern);
+        return new MongoCollectionImpl<TDocument>(collection, observableAdapter, features.withCollection(collection));
     }
 
     @Override
     public MongoCollection<TDocument> withReadConcern(final ReadConcern readConcern) {
-        return new MongoCollectionImpl<TDocument>(wrapped.withReadConcern(readConcern), observableAdapter);
+        com.mongodb.async.client.MongoCollection<TDocument> collection = wrapped.withReadConcern(readConcern);
+        return new MongoCollectionImpl<TDocument>(collection, observableAdapter, features.withCollection(collection));
     }
 
     @Override
     public MongoCollection<TDocument> withObservableAdapter(final ObservableAdapter observableAdapter) {
-        return new MongoCollectionImpl<TDocument>(wrapped, observableAdapter);
+        return new MongoCollectionImpl<TDocument>(wrapped, observableAdapter, features);
+    }
+
+    @Override
+    public MongoCollection<TDocument> withWriteBatching(final int maxBatchSize, final int maxBatchBytes, final long maxDelay,
+                                                        final TimeUnit timeUnit) {
+        return new MongoCollectionImpl<TDocument>(wrapped, observableAdapter,
+                features.withWriteBatcher(new WriteBatcher<TDocument>(wrapped, maxBatchSize, maxBatchBytes, maxDelay, timeUnit)));
+    }
+
+    @Override
+    public MongoCollection<TDocument> withQueryCache(final QueryCacheSettings settings) {
+        return new MongoCollectionImpl<TDocument>(wrapped, observableAdapter, features.withQueryCache(new QueryCache(settings)));
+    }
+
+    @Override
+    public QueryCacheStatistics getQueryCacheStatistics() {
+        return features.getQueryCache() == null ? null : features.getQueryCache().getStatistics();
+    }
+
+    @Override
+    public MongoCollection<TDocument> withHedgedReads(final HedgedReadSettings settings) {
+        return new MongoCollectionImpl<TDocument>(wrapped, observableAdapter, features.withHedgedReads(new HedgedReads(settings)));
+    }
+
+    @Override
+    public HedgedReadStatistics getHedgedReadStatistics() {
+        return features.getHedgedReads() == null ? null : features.getHedgedReads().getStatistics();
+    }
+
+    @Override
+    public DocumentLoader<TDocument> loader(final String keyField) {
+        return loader(keyField, 1000, 0, TimeUnit.MILLISECONDS, false);
+    }
+
+    @Override
+    public DocumentLoader<TDocument> loader(final String keyField, final int maxBatchSize, final long maxDelay, final TimeUnit timeUnit,
+                                            final boolean memoize) {
+        return new DocumentLoaderImpl<TDocument>(wrapped, observableAdapter, keyField, maxBatchSize, maxDelay, timeUnit, memoize);
+    }
+
+    @Override
+    public SingleMongoCollection<TDocument> asSingle() {
+        return new SingleMongoCollectionImpl<TDocument>(this, wrapped, observableAdapter, features);
+    }
+
+    private TrackedOperation track(final String operation) {
+        return isTracked(features.getMetrics(), observableAdapter) ? track(operation, getDocumentClass()) : null;
+    }
+
+    private TrackedOperation track(final String operation, final Class<?> documentClass) {
+        if (!isTracked(features.getMetrics(), observableAdapter)) {
+            return null;
+        }
+        return TrackedOperation.create(features.getMetrics(), operation, getNamespace().getFullName(), wrapped.getReadPreference(),
+                documentClass);
     }
 
     @Override
@@ -145,12 +238,31 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
 
     @Override
     public Observable<Long> count(final Bson filter, final CountOptions options) {
-        return RxObservables.create(Observables.observe(new Block<SingleResultCallback<Long>>() {
+        final Block<SingleResultCallback<Long>> operation = hedged(features.getHedgedReads(), new Block<SingleResultCallback<Long>>() {
             @Override
             public void apply(final SingleResultCallback<Long> callback) {
                 wrapped.count(filter, options, callback);
             }
-        }), observableAdapter);
+        });
+        final QueryCache.Scope scope = features.queryCacheScope(wrapped);
+        if (scope != null) {
+            return RxObservables.create(Observables.observeAndFlatten(new Block<SingleResultCallback<List<Long>>>() {
+                @Override
+                public void apply(final SingleResultCallback<List<Long>> callback) {
+                    BsonDocument query = new BsonDocument("count", scope.toBsonValue(filter))
+                            .append("limit", new BsonInt64(options.getLimit()))
+                            .append("skip", new BsonInt64(options.getSkip()))
+                            .append("collation", scope.toBsonValue(options.getCollation()));
+                    scope.get(Long.class, query, new Block<SingleResultCallback<List<Long>>>() {
+                        @Override
+                        public void apply(final SingleResultCallback<List<Long>> loadCallback) {
+                            operation.apply(singletonListCallback(loadCallback));
+                        }
+                    }, callback);
+                }
+            }), observableAdapter, track("count"));
+        }
+        return RxObservables.create(Observables.observe(operation), observableAdapter, track("count"));
     }
 
     @Override
@@ -160,7 +272,8 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
 
     @Override
     public <TResult> DistinctObservable<TResult> distinct(final String fieldName, final Bson filter, final Class<TResult> resultClass) {
-        return new DistinctObservableImpl<TResult>(wrapped.distinct(fieldName, resultClass), observableAdapter).filter(filter);
+        return new DistinctObservableImpl<TResult>(wrapped.distinct(fieldName, resultClass), observableAdapter, fieldName, resultClass,
+                features.queryCacheScope(wrapped), features.getHedgedReads(), track("distinct", resultClass)).filter(filter);
     }
 
     @Override
@@ -180,7 +293,14 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
 
     @Override
     public <TResult> FindObservable<TResult> find(final Bson filter, final Class<TResult> clazz) {
-        return new FindObservableImpl<TResult>(wrapped.find(filter, clazz), observableAdapter);
+        return new FindObservableImpl<TResult>(wrapped.find(filter, clazz), observableAdapter, wrapped, filter, clazz, features,
+                track("find", clazz));
+    }
+
+    @Override
+    public Observable<FindObservable<TDocument>> parallelScan(final int partitions) {
+        isTrueArgument("partitions > 0", partitions > 0);
+        return adapt(ParallelScan.partition(this, wrapped, partitions), observableAdapter, track("parallelScan"));
     }
 
     @Override
@@ -190,7 +310,23 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
 
     @Override
     public <TResult> AggregateObservable<TResult> aggregate(final List<? extends Bson> pipeline, final Class<TResult> clazz) {
-        return new AggregateObservableImpl<TResult>(wrapped.aggregate(pipeline, clazz), observableAdapter);
+        return new AggregateObservableImpl<TResult>(wrapped.aggregate(pipeline, clazz), observableAdapter, track("aggregate", clazz));
+    }
+
+    @Override
+    public ChangeStreamObservable<Document> watch() {
+        return watch(Collections.<Bson>emptyList());
+    }
+
+    @Override
+    public ChangeStreamObservable<Document> watch(final List<? extends Bson> pipeline) {
+        return watch(pipeline, Document.class);
+    }
+
+    @Override
+    public <TResult> ChangeStreamObservable<TResult> watch(final List<? extends Bson> pipeline, final Class<TResult> resultClass) {
+        return new ChangeStreamObservableImpl<TResult>(ChangeStreamObservableImpl.collectionCursorOpener(wrapped), pipeline, resultClass,
+                wrapped.getCodecRegistry(), observableAdapter);
     }
 
     @Override
@@ -201,7 +337,8 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
     @Override
     public <TResult> MapReduceObservable<TResult> mapReduce(final String mapFunction, final String reduceFunction,
                                                            final Class<TResult> clazz) {
-        return new MapReduceObservableImpl<TResult>(wrapped.mapReduce(mapFunction, reduceFunction, clazz), observableAdapter);
+        return new MapReduceObservableImpl<TResult>(wrapped.mapReduce(mapFunction, reduceFunction, clazz), observableAdapter,
+                track("mapReduce", clazz));
     }
 
     @Override
@@ -215,9 +352,31 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<BulkWriteResult>>() {
             @Override
             public void apply(final SingleResultCallback<BulkWriteResult> callback) {
-                wrapped.bulkWrite(requests, options, callback);
+                wrapped.bulkWrite(requests, options, invalidating(features.getQueryCache(), callback));
+            }
+        }), observableAdapter, track("bulkWrite"));
+    }
+
+    @Override
+    public Observable<BulkWriteResult> bulkWrite(final Observable<? extends WriteModel<? extends TDocument>> requests,
+                                                final StreamingBulkWriteOptions options) {
+        Observable<BulkWriteResult> results = StreamingBulkWrite.bulkWrite(wrapped, requests, options, observableAdapter);
+        final QueryCache queryCache = features.getQueryCache();
+        if (queryCache == null) {
+            return results;
+        }
+        Action0 invalidate = new Action0() {
+            @Override
+            public void call() {
+                queryCache.invalidate();
+            }
+        };
+        return results.doOnSubscribe(invalidate).doOnEach(new Action1<Notification<? super BulkWriteResult>>() {
+            @Override
+            public void call(final Notification<? super BulkWriteResult> notification) {
+                queryCache.invalidate();
             }
-        }), observableAdapter);
+        });
     }
 
     @Override
@@ -225,9 +384,13 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<Success>>() {
             @Override
             public void apply(final SingleResultCallback<Success> callback) {
-                wrapped.insertOne(document, voidToSuccessCallback(callback));
+                if (features.getWriteBatcher() != null) {
+                    features.getWriteBatcher().insert(document, invalidating(features.getQueryCache(), voidToSuccessCallback(callback)));
+                } else {
+                    wrapped.insertOne(document, invalidating(features.getQueryCache(), voidToSuccessCallback(callback)));
+                }
             }
-        }), observableAdapter);
+        }), observableAdapter, track("insertOne"));
     }
 
     @Override
@@ -235,9 +398,13 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<Success>>() {
             @Override
             public void apply(final SingleResultCallback<Success> callback) {
-                wrapped.insertOne(document, options, voidToSuccessCallback(callback));
+                if (features.getWriteBatcher() != null && options.getBypassDocumentValidation() == null) {
+                    features.getWriteBatcher().insert(document, invalidating(features.getQueryCache(), voidToSuccessCallback(callback)));
+                } else {
+                    wrapped.insertOne(document, options, invalidating(features.getQueryCache(), voidToSuccessCallback(callback)));
+                }
             }
-        }), observableAdapter);
+        }), observableAdapter, track("insertOne"));
     }
 
     @Override
@@ -250,9 +417,9 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<Success>>() {
             @Override
             public void apply(final SingleResultCallback<Success> callback) {
-                wrapped.insertMany(documents, options, voidToSuccessCallback(callback));
+                wrapped.insertMany(documents, options, invalidating(features.getQueryCache(), voidToSuccessCallback(callback)));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("insertMany"));
     }
 
     @Override
@@ -260,9 +427,9 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<DeleteResult>>() {
             @Override
             public void apply(final SingleResultCallback<DeleteResult> callback) {
-                wrapped.deleteOne(filter, callback);
+                wrapped.deleteOne(filter, invalidating(features.getQueryCache(), callback));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("deleteOne"));
     }
 
     @Override
@@ -270,9 +437,9 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<DeleteResult>>() {
             @Override
             public void apply(final SingleResultCallback<DeleteResult> callback) {
-                wrapped.deleteOne(filter, options, callback);
+                wrapped.deleteOne(filter, options, invalidating(features.getQueryCache(), callback));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("deleteOne"));
     }
 
     @Override
@@ -280,9 +447,9 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<DeleteResult>>() {
             @Override
             public void apply(final SingleResultCallback<DeleteResult> callback) {
-                wrapped.deleteMany(filter, callback);
+                wrapped.deleteMany(filter, invalidating(features.getQueryCache(), callback));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("deleteMany"));
     }
 
     @Override
@@ -290,9 +457,9 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<DeleteResult>>() {
             @Override
             public void apply(final SingleResultCallback<DeleteResult> callback) {
-                wrapped.deleteMany(filter, options, callback);
+                wrapped.deleteMany(filter, options, invalidating(features.getQueryCache(), callback));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("deleteMany"));
     }
 
     @Override
@@ -305,9 +472,9 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<UpdateResult>>() {
             @Override
             public void apply(final SingleResultCallback<UpdateResult> callback) {
-                wrapped.replaceOne(filter, replacement, options, callback);
+                wrapped.replaceOne(filter, replacement, options, invalidating(features.getQueryCache(), callback));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("replaceOne"));
     }
 
     @Override
@@ -320,9 +487,9 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<UpdateResult>>() {
             @Override
             public void apply(final SingleResultCallback<UpdateResult> callback) {
-                wrapped.updateOne(filter, update, options, callback);
+                wrapped.updateOne(filter, update, options, invalidating(features.getQueryCache(), callback));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("updateOne"));
     }
 
     @Override
@@ -335,9 +502,9 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<UpdateResult>>() {
             @Override
             public void apply(final SingleResultCallback<UpdateResult> callback) {
-                wrapped.updateMany(filter, update, options, callback);
+                wrapped.updateMany(filter, update, options, invalidating(features.getQueryCache(), callback));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("updateMany"));
     }
 
     @Override
@@ -350,9 +517,9 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<TDocument>>() {
             @Override
             public void apply(final SingleResultCallback<TDocument> callback) {
-                wrapped.findOneAndDelete(filter, options, callback);
+                wrapped.findOneAndDelete(filter, options, invalidating(features.getQueryCache(), callback));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("findOneAndDelete"));
     }
 
     @Override
@@ -365,9 +532,9 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<TDocument>>() {
             @Override
             public void apply(final SingleResultCallback<TDocument> callback) {
-                wrapped.findOneAndReplace(filter, replacement, options, callback);
+                wrapped.findOneAndReplace(filter, replacement, options, invalidating(features.getQueryCache(), callback));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("findOneAndReplace"));
     }
 
     @Override
@@ -380,9 +547,9 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<TDocument>>() {
             @Override
             public void apply(final SingleResultCallback<TDocument> callback) {
-                wrapped.findOneAndUpdate(filter, update, options, callback);
+                wrapped.findOneAndUpdate(filter, update, options, invalidating(features.getQueryCache(), callback));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("findOneAndUpdate"));
     }
 
     @Override
@@ -390,9 +557,9 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<Success>>() {
             @Override
             public void apply(final SingleResultCallback<Success> callback) {
-                wrapped.drop(voidToSuccessCallback(callback));
+                wrapped.drop(invalidating(features.getQueryCache(), voidToSuccessCallback(callback)));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("drop"));
     }
 
     @Override
@@ -407,7 +574,7 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
             public void apply(final SingleResultCallback<String> callback) {
                 wrapped.createIndex(key, options, callback);
             }
-        }), observableAdapter);
+        }), observableAdapter, track("createIndex"));
     }
 
     @Override
@@ -417,7 +584,7 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
             public void apply(final SingleResultCallback<List<String>> callback) {
                 wrapped.createIndexes(indexes, callback);
             }
-        }), observableAdapter);
+        }), observableAdapter, track("createIndexes"));
     }
 
     @Override
@@ -427,7 +594,7 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
 
     @Override
     public <TResult> ListIndexesObservable<TResult> listIndexes(final Class<TResult> clazz) {
-        return new ListIndexesObservableImpl<TResult>(wrapped.listIndexes(clazz), observableAdapter);
+        return new ListIndexesObservableImpl<TResult>(wrapped.listIndexes(clazz), observableAdapter, track("listIndexes", clazz));
     }
 
     @Override
@@ -437,7 +604,7 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
             public void apply(final SingleResultCallback<Success> callback) {
                 wrapped.dropIndex(indexName, voidToSuccessCallback(callback));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("dropIndex"));
     }
 
     @Override
@@ -447,7 +614,7 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
             public void apply(final SingleResultCallback<Success> callback) {
                 wrapped.dropIndex(keys, voidToSuccessCallback(callback));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("dropIndex"));
     }
 
     @Override
@@ -465,9 +632,10 @@ class MongoCollectionImpl<TDocument> implements MongoCollection<TDocument> {
         return RxObservables.create(Observables.observe(new Block<SingleResultCallback<Success>>() {
             @Override
             public void apply(final SingleResultCallback<Success> callback) {
-                wrapped.renameCollection(newCollectionNamespace, options, voidToSuccessCallback(callback));
+                wrapped.renameCollection(newCollectionNamespace, options,
+                        invalidating(features.getQueryCache(), voidToSuccessCallback(callback)));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("renameCollection"));
     }
 
 }
@@ -24,6 +24,7 @@ import com.mongodb.async.SingleResultCallback;
 import com.mongodb.async.client.Observables;
 import com.mongodb.client.model.CreateCollectionOptions;
 import com.mongodb.client.model.CreateViewOptions;
+import com.mongodb.rx.client.ChangeStreamObservable;
 import com.mongodb.rx.client.ListCollectionsObservable;
 import com.mongodb.rx.client.MongoCollection;
 import com.mongodb.rx.client.MongoDatabase;
@@ -34,10 +35,12 @@ import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.conversions.Bson;
 import rx.Observable;
 
+import java.util.Collections;
 import java.util.List;
 
 import static com.mongodb.assertions.Assertions.notNull;
 import static com.mongodb.rx.client.internal.ObservableHelper.voidToSuccessCallback;
+import static com.mongodb.rx.client.internal.TrackedOperation.isTracked;
 
 /**
  * The internal MongoDatabase implementation.
@@ -48,10 +51,17 @@ public final class MongoDatabaseImpl implements MongoDatabase {
 
     private final com.mongodb.async.client.MongoDatabase wrapped;
     private final ObservableAdapter observableAdapter;
+    private final MetricsRegistry metrics;
 
     MongoDatabaseImpl(final com.mongodb.async.client.MongoDatabase wrapped, final ObservableAdapter observableAdapter) {
+        this(wrapped, observableAdapter, null);
+    }
+
+    MongoDatabaseImpl(final com.mongodb.async.client.MongoDatabase wrapped, final ObservableAdapter observableAdapter,
+                      final MetricsRegistry metrics) {
         this.wrapped = notNull("wrapped", wrapped);
         this.observableAdapter = notNull("observableAdapter", observableAdapter);
+        this.metrics = metrics;
     }
 
     @Override
@@ -86,27 +96,27 @@ public final class MongoDatabaseImpl implements MongoDatabase {
 
     @Override
     public MongoDatabase withObservableAdapter(final ObservableAdapter observableAdapter) {
-        return new MongoDatabaseImpl(wrapped, observableAdapter);
+        return new MongoDatabaseImpl(wrapped, observableAdapter, metrics);
     }
 
     @Override
     public MongoDatabase withCodecRegistry(final CodecRegistry codecRegistry) {
-        return new MongoDatabaseImpl(wrapped.withCodecRegistry(codecRegistry), observableAdapter);
+        return new MongoDatabaseImpl(wrapped.withCodecRegistry(codecRegistry), observableAdapter, metrics);
     }
 
     @Override
     public MongoDatabase withReadPreference(final ReadPreference readPreference) {
-        return new MongoDatabaseImpl(wrapped.withReadPreference(readPreference), observableAdapter);
+        return new MongoDatabaseImpl(wrapped.withReadPreference(readPreference), observableAdapter, metrics);
     }
 
     @Override
     public MongoDatabase withWriteConcern(final WriteConcern writeConcern) {
-        return new MongoDatabaseImpl(wrapped.withWriteConcern(writeConcern), observableAdapter);
+        return new MongoDatabaseImpl(wrapped.withWriteConcern(writeConcern), observableAdapter, metrics);
     }
 
     @Override
     public MongoDatabase withReadConcern(final ReadConcern readConcern) {
-        return new MongoDatabaseImpl(wrapped.withReadConcern(readConcern), observableAdapter);
+        return new MongoDatabaseImpl(wrapped.withReadConcern(readConcern), observableAdapter, metrics);
     }
 
     @Override
@@ -116,7 +126,8 @@ public final class MongoDatabaseImpl implements MongoDatabase {
 
     @Override
     public <TDocument> MongoCollection<TDocument> getCollection(final String collectionName, final Class<TDocument> clazz) {
-        return new MongoCollectionImpl<TDocument>(wrapped.getCollection(collectionName, clazz), observableAdapter);
+        return new MongoCollectionImpl<TDocument>(wrapped.getCollection(collectionName, clazz), observableAdapter,
+                CollectionFeatures.<TDocument>none().withMetrics(metrics));
     }
 
     @Override
@@ -136,7 +147,7 @@ public final class MongoDatabaseImpl implements MongoDatabase {
             public void apply(final SingleResultCallback<TResult> callback) {
                 wrapped.runCommand(command, clazz, callback);
             }
-        }), observableAdapter);
+        }), observableAdapter, track("runCommand"));
     }
 
     @Override
@@ -147,7 +158,7 @@ public final class MongoDatabaseImpl implements MongoDatabase {
             public void apply(final SingleResultCallback<TResult> callback) {
                 wrapped.runCommand(command, readPreference, clazz, callback);
             }
-        }), observableAdapter);
+        }), observableAdapter, track("runCommand"));
     }
 
     @Override
@@ -157,12 +168,12 @@ public final class MongoDatabaseImpl implements MongoDatabase {
             public void apply(final SingleResultCallback<Success> callback) {
                 wrapped.drop(voidToSuccessCallback(callback));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("drop"));
     }
 
     @Override
     public Observable<String> listCollectionNames() {
-        return RxObservables.create(Observables.observe(wrapped.listCollectionNames()), observableAdapter);
+        return RxObservables.create(Observables.observe(wrapped.listCollectionNames()), observableAdapter, track("listCollectionNames"));
     }
 
     @Override
@@ -172,7 +183,7 @@ public final class MongoDatabaseImpl implements MongoDatabase {
 
     @Override
     public <C> ListCollectionsObservable<C> listCollections(final Class<C> clazz) {
-        return new ListCollectionsObservableImpl<C>(wrapped.listCollections(clazz), observableAdapter);
+        return new ListCollectionsObservableImpl<C>(wrapped.listCollections(clazz), observableAdapter, track("listCollections", clazz));
     }
 
     @Override
@@ -187,7 +198,7 @@ public final class MongoDatabaseImpl implements MongoDatabase {
             public void apply(final SingleResultCallback<Success> callback) {
                 wrapped.createCollection(collectionName, options, voidToSuccessCallback(callback));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("createCollection"));
     }
 
     @Override
@@ -197,7 +208,7 @@ public final class MongoDatabaseImpl implements MongoDatabase {
             public void apply(final SingleResultCallback<Success> callback) {
                 wrapped.createView(viewName, viewOn, pipeline, voidToSuccessCallback(callback));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("createView"));
     }
 
     @Override
@@ -208,7 +219,38 @@ public final class MongoDatabaseImpl implements MongoDatabase {
             public void apply(final SingleResultCallback<Success> callback) {
                 wrapped.createView(viewName, viewOn, pipeline, createViewOptions, voidToSuccessCallback(callback));
             }
-        }), observableAdapter);
+        }), observableAdapter, track("createView"));
+    }
+
+    @Override
+    public ChangeStreamObservable<Document> watch() {
+        return watch(Collections.<Bson>emptyList());
+    }
+
+    @Override
+    public ChangeStreamObservable<Document> watch(final List<? extends Bson> pipeline) {
+        return watch(pipeline, Document.class);
+    }
+
+    @Override
+    public <TResult> ChangeStreamObservable<TResult> watch(final List<? extends Bson> pipeline, final Class<TResult> resultClass) {
+        return new ChangeStreamObservableImpl<TResult>(ChangeStreamObservableImpl.databaseCursorOpener(wrapped), pipeline, resultClass,
+                wrapped.getCodecRegistry(), observableAdapter);
+    }
+
+    MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    private TrackedOperation track(final String operation) {
+        return track(operation, null);
+    }
+
+    private TrackedOperation track(final String operation, final Class<?> documentClass) {
+        if (!isTracked(metrics, observableAdapter)) {
+            return null;
+        }
+        return TrackedOperation.create(metrics, operation, getName(), wrapped.getReadPreference(), documentClass);
     }
 
     /**
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.Block;
+import com.mongodb.async.SingleResultCallback;
+import com.mongodb.rx.client.OperationMetrics;
+import rx.Observable;
+import rx.Subscriber;
+import rx.functions.Action0;
+import rx.subscriptions.Subscriptions;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * Records the metrics of one kind of operation on one namespace.
+ *
+ * <p>The recording methods accept a null recorder, in which case the operation is returned unchanged.</p>
+ */
+final class OperationRecorder {
+    private static final String ON_NEXT = "onNext";
+    private static final String ON_ERROR = "onError";
+    private static final String ON_COMPLETED = "onCompleted";
+
+    private final String namespace;
+    private final String operation;
+    private final AtomicLong inFlightCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicLong resultCount = new AtomicLong();
+    private final LatencyRecorder timeToFirstResult = new LatencyRecorder();
+    private final LatencyRecorder timeToCompletion = new LatencyRecorder();
+    private final LatencyRecorder deliveryTime = new LatencyRecorder();
+    private final DeliveryWatchdog watchdog;
+
+    OperationRecorder(final String namespace, final String operation) {
+        this(namespace, operation, null);
+    }
+
+    OperationRecorder(final String namespace, final String operation, final DeliveryWatchdog watchdog) {
+        this.namespace = notNull("namespace", namespace);
+        this.operation = notNull("operation", operation);
+        this.watchdog = watchdog;
+    }
+
+    String getNamespace() {
+        return namespace;
+    }
+
+    String getOperation() {
+        return operation;
+    }
+
+    OperationMetrics getMetrics() {
+        return new OperationMetrics(namespace, operation, inFlightCount.get(), errorCount.get(), resultCount.get(),
+                timeToFirstResult.getHistogram(), timeToCompletion.getHistogram(), deliveryTime.getHistogram());
+    }
+
+    /**
+     * Records each subscription to the Observable as an operation, which finishes when the Observable terminates or the subscriber
+     * unsubscribes.
+     */
+    static <T> Observable<T> record(final OperationRecorder recorder, final Observable<T> observable) {
+        if (recorder == null) {
+            return observable;
+        }
+        return observable.lift(new Observable.Operator<T, T>() {
+            @Override
+            public Subscriber<? super T> call(final Subscriber<? super T> subscriber) {
+                return new RecordingSubscriber<T>(recorder, subscriber);
+            }
+        });
+    }
+
+    /**
+     * Records each application of the single result operation as an operation, which finishes when its callback is called.
+     */
+    static <T> Block<SingleResultCallback<T>> record(final OperationRecorder recorder, final Block<SingleResultCallback<T>> operation) {
+        if (recorder == null) {
+            return operation;
+        }
+        return new Block<SingleResultCallback<T>>() {
+            @Override
+            public void apply(final SingleResultCallback<T> callback) {
+                final long startNanos = recorder.start();
+                final AtomicBoolean finished = new AtomicBoolean();
+                try {
+                    operation.apply(new SingleResultCallback<T>() {
+                        @Override
+                        public void onResult(final T result, final Throwable t) {
+                            if (!finished.getAndSet(true)) {
+                                if (t == null) {
+                                    recorder.onResult(startNanos, true);
+                                }
+                                recorder.finish(startNanos, t);
+                            }
+                            long deliveryStartNanos = recorder.startDelivery(t == null ? ON_COMPLETED : ON_ERROR);
+                            try {
+                                callback.onResult(result, t);
+                            } finally {
+                                recorder.delivered(deliveryStartNanos);
+                            }
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    if (!finished.getAndSet(true)) {
+                        recorder.finish(startNanos, e);
+                    }
+                    throw e;
+                }
+            }
+        };
+    }
+
+    private long start() {
+        inFlightCount.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    private void onResult(final long startNanos, final boolean first) {
+        if (first) {
+            timeToFirstResult.record(System.nanoTime() - startNanos);
+        }
+        resultCount.incrementAndGet();
+    }
+
+    private void finish(final long startNanos, final Throwable t) {
+        inFlightCount.decrementAndGet();
+        if (t != null) {
+            errorCount.incrementAndGet();
+        } else {
+            timeToCompletion.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    private long startDelivery(final String signal) {
+        return watchdog == null ? System.nanoTime() : watchdog.start(this, signal);
+    }
+
+    private void delivered(final long deliveryStartNanos) {
+        long durationNanos = System.nanoTime() - deliveryStartNanos;
+        deliveryTime.record(durationNanos);
+        if (watchdog != null) {
+            watchdog.finish(durationNanos);
+        }
+    }
+
+    private void cancel() {
+        inFlightCount.decrementAndGet();
+    }
+
+    private static final class RecordingSubscriber<T> extends Subscriber<T> {
+        private final OperationRecorder recorder;
+        private final Subscriber<? super T> subscriber;
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private final long startNanos;
+        private boolean hasResult;
+
+        RecordingSubscriber(final OperationRecorder recorder, final Subscriber<? super T> subscriber) {
+            super(subscriber);
+            this.recorder = recorder;
+            this.subscriber = subscriber;
+            this.startNanos = recorder.start();
+            subscriber.add(Subscriptions.create(new Action0() {
+                @Override
+                public void call() {
+                    if (!finished.getAndSet(true)) {
+                        RecordingSubscriber.this.recorder.cancel();
+                    }
+                }
+            }));
+        }
+
+        @Override
+        public void onNext(final T result) {
+            recorder.onResult(startNanos, !hasResult);
+            hasResult = true;
+            long deliveryStartNanos = recorder.startDelivery(ON_NEXT);
+            try {
+                subscriber.onNext(result);
+            } finally {
+                recorder.delivered(deliveryStartNanos);
+            }
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            if (!finished.getAndSet(true)) {
+                recorder.finish(startNanos, t);
+            }
+            long deliveryStartNanos = recorder.startDelivery(ON_ERROR);
+            try {
+                subscriber.onError(t);
+            } finally {
+                recorder.delivered(deliveryStartNanos);
+            }
+        }
+
+        @Override
+        public void onCompleted() {
+            if (!finished.getAndSet(true)) {
+                recorder.finish(startNanos, null);
+            }
+            long deliveryStartNanos = recorder.startDelivery(ON_COMPLETED);
+            try {
+                subscriber.onCompleted();
+            } finally {
+                recorder.delivered(deliveryStartNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.async.client.Observables;
+import com.mongodb.rx.client.FindObservable;
+import com.mongodb.rx.client.MongoCollection;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonValue;
+import org.bson.conversions.Bson;
+import rx.Observable;
+import rx.functions.Func1;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.mongodb.client.model.Aggregates.project;
+import static com.mongodb.client.model.Aggregates.sample;
+import static com.mongodb.client.model.Aggregates.sort;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Sorts.ascending;
+import static java.util.Arrays.asList;
+
+/**
+ * Splits a collection into contiguous ranges of the {@code _id} index, so that each range can be read by its own cursor.
+ *
+ * <p>The boundaries are taken from a sorted random sample of the {@code _id} values, so the ranges hold roughly the same number of
+ * documents.</p>
+ */
+final class ParallelScan {
+    static final int SAMPLES_PER_PARTITION = 10;
+    private static final BsonDocument ID_INDEX = new BsonDocument("_id", new BsonInt32(1));
+
+    static <TDocument> Observable<FindObservable<TDocument>> partition(final MongoCollection<TDocument> mongoCollection,
+                                                                      final com.mongodb.async.client.MongoCollection<TDocument> wrapped,
+                                                                      final int partitions) {
+        if (partitions == 1) {
+            return Observable.just(mongoCollection.find());
+        }
+        List<Bson> pipeline = asList(sample(partitions * SAMPLES_PER_PARTITION), project(include("_id")), sort(ascending("_id")));
+        return RxObservables.create(Observables.observe(wrapped.withDocumentClass(BsonDocument.class).aggregate(pipeline)),
+                new ObservableHelper.NoopObservableAdapter())
+                .toList()
+                .concatMap(new Func1<List<BsonDocument>, Observable<FindObservable<TDocument>>>() {
+                    @Override
+                    public Observable<FindObservable<TDocument>> call(final List<BsonDocument> sampledIds) {
+                        return Observable.from(getRanges(mongoCollection, getBoundaries(sampledIds, partitions)));
+                    }
+                });
+    }
+
+    /**
+     * Picks evenly spaced boundaries from the sorted sample, skipping duplicates.
+     *
+     * @param sampledIds the sampled documents, sorted by _id
+     * @param partitions the number of partitions
+     * @return at most {@code partitions - 1} ascending boundaries
+     */
+    static List<BsonValue> getBoundaries(final List<BsonDocument> sampledIds, final int partitions) {
+        List<BsonValue> boundaries = new ArrayList<BsonValue>();
+        for (int i = 1; i < partitions; i++) {
+            int index = (int) ((long) i * sampledIds.size() / partitions);
+            if (index >= sampledIds.size()) {
+                break;
+            }
+            BsonValue boundary = sampledIds.get(index).get("_id");
+            if (boundaries.isEmpty() || !boundaries.get(boundaries.size() - 1).equals(boundary)) {
+                boundaries.add(boundary);
+            }
+        }
+        return boundaries;
+    }
+
+    private static <TDocument> List<FindObservable<TDocument>> getRanges(final MongoCollection<TDocument> mongoCollection,
+                                                                        final List<BsonValue> boundaries) {
+        List<FindObservable<TDocument>> ranges = new ArrayList<FindObservable<TDocument>>(boundaries.size() + 1);
+        BsonValue lower = null;
+        for (int i = 0; i <= boundaries.size(); i++) {
+            BsonValue upper = i < boundaries.size() ? boundaries.get(i) : null;
+            FindObservable<TDocument> range = mongoCollection.find().hint(ID_INDEX);
+            if (lower != null) {
+                range = range.min(new BsonDocument("_id", lower));
+            }
+            if (upper != null) {
+                range = range.max(new BsonDocument("_id", upper));
+            }
+            ranges.add(range);
+            lower = upper;
+        }
+        return ranges;
+    }
+
+    private ParallelScan() {
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.Block;
+import com.mongodb.MongoNamespace;
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
+import com.mongodb.async.SingleResultCallback;
+import com.mongodb.async.client.MongoCollection;
+import com.mongodb.client.model.Collation;
+import com.mongodb.rx.client.QueryCacheSettings;
+import com.mongodb.rx.client.QueryCacheStatistics;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonDocument;
+import org.bson.BsonNull;
+import org.bson.BsonValue;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.conversions.Bson;
+import org.bson.io.BasicOutputBuffer;
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * A client side cache of query results, bounded by the number of entries and by their total weight, with entries expiring a fixed time
+ * after they were read from the server.
+ *
+ * <p>Entries are evicted in least recently used order. A cache belongs to a single collection, so any write through that collection
+ * invalidates every entry. Results read by a query that was in flight while a write happened are not cached.</p>
+ */
+final class QueryCache {
+    private static final BsonDocumentCodec CODEC = new BsonDocumentCodec();
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final long expireAfterWriteMillis;
+    private final Scheduler scheduler;
+
+    /* protected by `this` */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+    private long weight;
+    private long generation;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long invalidationCount;
+    /* protected by `this` */
+
+    QueryCache(final QueryCacheSettings settings) {
+        this(settings, Schedulers.immediate());
+    }
+
+    QueryCache(final QueryCacheSettings settings, final Scheduler scheduler) {
+        notNull("settings", settings);
+        this.maxEntries = settings.getMaxEntries();
+        this.maxWeight = settings.getMaxWeight();
+        this.expireAfterWriteMillis = settings.getExpireAfterWrite(TimeUnit.MILLISECONDS);
+        this.scheduler = notNull("scheduler", scheduler);
+    }
+
+    /**
+     * Creates a view of this cache for queries through the given collection.
+     *
+     * @param collection the collection
+     * @return the scope
+     */
+    Scope scope(final MongoCollection<?> collection) {
+        return new Scope(collection);
+    }
+
+    /**
+     * Passes the cached results for the key to the callback, or loads, caches and passes them if there are none.
+     *
+     * @param key      the key
+     * @param loader   the block that reads the results from the server
+     * @param callback the callback
+     * @param <T>      the result type
+     */
+    <T> void get(final Key key, final Block<SingleResultCallback<List<T>>> loader, final SingleResultCallback<List<T>> callback) {
+        final long loadGeneration;
+        List<T> cached = null;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt <= scheduler.now()) {
+                remove(key);
+                evictionCount++;
+                entry = null;
+            }
+            if (entry != null) {
+                hitCount++;
+                cached = entry.getResults();
+            } else {
+                missCount++;
+            }
+            loadGeneration = generation;
+        }
+        if (cached != null) {
+            callback.onResult(cached, null);
+            return;
+        }
+        loader.apply(new SingleResultCallback<List<T>>() {
+            @Override
+            public void onResult(final List<T> result, final Throwable t) {
+                if (t == null) {
+                    put(key, result, loadGeneration);
+                }
+                callback.onResult(result, t);
+            }
+        });
+    }
+
+    /**
+     * Discards every cached result, including those of queries that are in flight.
+     */
+    synchronized void invalidate() {
+        generation++;
+        invalidationCount++;
+        entries.clear();
+        weight = 0;
+    }
+
+    synchronized QueryCacheStatistics getStatistics() {
+        return new QueryCacheStatistics(hitCount, missCount, evictionCount, invalidationCount, entries.size(), weight);
+    }
+
+    /**
+     * Wraps the callback of a write so that the cache is invalidated both when the write is sent and when it completes.
+     *
+     * @param queryCache the cache, which may be null
+     * @param callback   the callback of the write
+     * @param <T>        the result type
+     * @return the callback to pass to the write
+     */
+    static <T> SingleResultCallback<T> invalidating(final QueryCache queryCache, final SingleResultCallback<T> callback) {
+        if (queryCache == null) {
+            return callback;
+        }
+        queryCache.invalidate();
+        return new SingleResultCallback<T>() {
+            @Override
+            public void onResult(final T result, final Throwable t) {
+                queryCache.invalidate();
+                callback.onResult(result, t);
+            }
+        };
+    }
+
+    /**
+     * Adapts a callback of a list of results to an operation with a single, possibly null, result.
+     *
+     * @param callback the callback of the list of results
+     * @param <T>      the result type
+     * @return the callback of the single result
+     */
+    static <T> SingleResultCallback<T> singletonListCallback(final SingleResultCallback<List<T>> callback) {
+        return new SingleResultCallback<T>() {
+            @Override
+            public void onResult(final T result, final Throwable t) {
+                if (t != null) {
+                    callback.onResult(null, t);
+                } else {
+                    callback.onResult(result == null ? Collections.<T>emptyList() : Collections.singletonList(result), null);
+                }
+            }
+        };
+    }
+
+    private synchronized void put(final Key key, final List<?> results, final long loadGeneration) {
+        long entryWeight = Math.max(1, results.size());
+        if (loadGeneration != generation || entryWeight > maxWeight) {
+            return;
+        }
+        remove(key);
+        entries.put(key, new Entry(results, entryWeight, scheduler.now() + expireAfterWriteMillis));
+        weight += entryWeight;
+
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || weight > maxWeight) && iterator.hasNext()) {
+            weight -= iterator.next().getValue().weight;
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    private void remove(final Key key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.weight;
+        }
+    }
+
+    /**
+     * A view of the cache that builds keys for the queries of one collection, with its read preference, read concern and codec registry.
+     */
+    final class Scope {
+        private final MongoNamespace namespace;
+        private final ReadPreference readPreference;
+        private final ReadConcern readConcern;
+        private final CodecRegistry codecRegistry;
+
+        private Scope(final MongoCollection<?> collection) {
+            this.namespace = collection.getNamespace();
+            this.readPreference = collection.getReadPreference();
+            this.readConcern = collection.getReadConcern();
+            this.codecRegistry = collection.getCodecRegistry();
+        }
+
+        /**
+         * Passes the cached results of the query to the callback, or loads, caches and passes them if there are none.
+         *
+         * @param resultClass the class the results are decoded to
+         * @param query       a document describing every option of the query that affects its results
+         * @param loader      the block that reads the results from the server
+         * @param callback    the callback
+         * @param <T>         the result type
+         */
+        <T> void get(final Class<?> resultClass, final BsonDocument query, final Block<SingleResultCallback<List<T>>> loader,
+                     final SingleResultCallback<List<T>> callback) {
+            QueryCache.this.get(new Key(namespace, readPreference, readConcern, codecRegistry, resultClass, encode(query)), loader,
+                    callback);
+        }
+
+        BsonValue toBsonValue(final Bson bson) {
+            return bson == null ? BsonNull.VALUE : bson.toBsonDocument(BsonDocument.class, codecRegistry);
+        }
+
+        BsonValue toBsonValue(final Collation collation) {
+            return collation == null ? BsonNull.VALUE : collation.asDocument();
+        }
+
+        private byte[] encode(final BsonDocument query) {
+            BasicOutputBuffer buffer = new BasicOutputBuffer();
+            BsonBinaryWriter writer = new BsonBinaryWriter(buffer);
+            try {
+                CODEC.encode(writer, query, EncoderContext.builder().build());
+                return buffer.toByteArray();
+            } finally {
+                writer.close();
+            }
+        }
+    }
+
+    static final class Key {
+        private final MongoNamespace namespace;
+        private final ReadPreference readPreference;
+        private final ReadConcern readConcern;
+        private final CodecRegistry codecRegistry;
+        private final Class<?> resultClass;
+        private final byte[] query;
+        private final int hashCode;
+
+        Key(final MongoNamespace namespace, final ReadPreference readPreference, final ReadConcern readConcern,
+            final CodecRegistry codecRegistry, final Class<?> resultClass, final byte[] query) {
+            this.namespace = notNull("namespace", namespace);
+            this.readPreference = notNull("readPreference", readPreference);
+            this.readConcern = notNull("readConcern", readConcern);
+            this.codecRegistry = notNull("codecRegistry", codecRegistry);
+            this.resultClass = notNull("resultClass", resultClass);
+            this.query = notNull("query", query);
+            int result = namespace.hashCode();
+            result = 31 * result + readPreference.hashCode();
+            result = 31 * result + readConcern.hashCode();
+            result = 31 * result + codecRegistry.hashCode();
+            result = 31 * result + resultClass.hashCode();
+            result = 31 * result + Arrays.hashCode(query);
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            Key that = (Key) o;
+
+            return hashCode == that.hashCode
+                    && namespace.equals(that.namespace)
+                    && readPreference.equals(that.readPreference)
+                    && readConcern.equals(that.readConcern)
+                    && codecRegistry.equals(that.codecRegistry)
+                    && resultClass.equals(that.resultClass)
+                    && Arrays.equals(query, that.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class Entry {
+        private final List<?> results;
+        private final long weight;
+        private final long expiresAt;
+
+        Entry(final List<?> results, final long weight, final long expiresAt) {
+            this.results = Collections.unmodifiableList(results);
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> List<T> getResults() {
+            return (List<T>) results;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.async.client.MongoCollection;
+import com.mongodb.client.model.DeleteManyModel;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonDocument;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.Codec;
+import org.bson.codecs.CollectibleCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.conversions.Bson;
+import org.bson.io.BasicOutputBuffer;
+
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * Encodes documents and write models up front, so that their size is known before they are sent and they are only encoded once.
+ */
+final class RawWriteModels {
+    private static final EncoderContext COLLECTIBLE_ENCODER_CONTEXT = EncoderContext.builder().isEncodingCollectibleDocument(true).build();
+    private static final EncoderContext ENCODER_CONTEXT = EncoderContext.builder().build();
+    private static final BsonDocumentCodec BSON_DOCUMENT_CODEC = new BsonDocumentCodec();
+
+    /**
+     * Encodes a document to be inserted into the collection, generating an _id if the document is missing one and the codec supports it.
+     *
+     * @param collection the collection
+     * @param document   the document
+     * @param <T>        the document type
+     * @return the encoded document
+     */
+    @SuppressWarnings("unchecked")
+    static <T> RawBsonDocument encodeDocument(final MongoCollection<T> collection, final T document) {
+        notNull("document", document);
+        Codec<T> codec = collection.getCodecRegistry().get(collection.getDocumentClass());
+        T documentToEncode = document;
+        if (codec instanceof CollectibleCodec) {
+            documentToEncode = ((CollectibleCodec<T>) codec).generateIdIfAbsentFromDocument(document);
+        }
+        return encode(documentToEncode, codec, COLLECTIBLE_ENCODER_CONTEXT);
+    }
+
+    /**
+     * Encodes a write model for the collection into an equivalent write model over {@code RawBsonDocument}.
+     *
+     * @param collection the collection
+     * @param writeModel the write model
+     * @param <T>        the document type
+     * @return the encoded write model
+     */
+    @SuppressWarnings("unchecked")
+    static <T> WriteModel<RawBsonDocument> encodeWriteModel(final MongoCollection<T> collection,
+                                                            final WriteModel<? extends T> writeModel) {
+        notNull("writeModel", writeModel);
+        if (writeModel instanceof InsertOneModel) {
+            return new InsertOneModel<RawBsonDocument>(encodeDocument(collection, ((InsertOneModel<T>) writeModel).getDocument()));
+        } else if (writeModel instanceof ReplaceOneModel) {
+            ReplaceOneModel<T> replaceOneModel = (ReplaceOneModel<T>) writeModel;
+            return new ReplaceOneModel<RawBsonDocument>(encodeBson(collection, replaceOneModel.getFilter()),
+                    encode(notNull("replacement", replaceOneModel.getReplacement()),
+                            collection.getCodecRegistry().get(collection.getDocumentClass()), ENCODER_CONTEXT),
+                    replaceOneModel.getOptions());
+        } else if (writeModel instanceof UpdateOneModel) {
+            UpdateOneModel<T> updateOneModel = (UpdateOneModel<T>) writeModel;
+            return new UpdateOneModel<RawBsonDocument>(encodeBson(collection, updateOneModel.getFilter()),
+                    encodeBson(collection, updateOneModel.getUpdate()), updateOneModel.getOptions());
+        } else if (writeModel instanceof UpdateManyModel) {
+            UpdateManyModel<T> updateManyModel = (UpdateManyModel<T>) writeModel;
+            return new UpdateManyModel<RawBsonDocument>(encodeBson(collection, updateManyModel.getFilter()),
+                    encodeBson(collection, updateManyModel.getUpdate()), updateManyModel.getOptions());
+        } else if (writeModel instanceof DeleteOneModel) {
+            DeleteOneModel<T> deleteOneModel = (DeleteOneModel<T>) writeModel;
+            return new DeleteOneModel<RawBsonDocument>(encodeBson(collection, deleteOneModel.getFilter()), deleteOneModel.getOptions());
+        } else if (writeModel instanceof DeleteManyModel) {
+            DeleteManyModel<T> deleteManyModel = (DeleteManyModel<T>) writeModel;
+            return new DeleteManyModel<RawBsonDocument>(encodeBson(collection, deleteManyModel.getFilter()), deleteManyModel.getOptions());
+        }
+        throw new UnsupportedOperationException("WriteModel of type " + writeModel.getClass() + " is not supported");
+    }
+
+    /**
+     * Gets the encoded size of a write model over {@code RawBsonDocument}.
+     *
+     * @param writeModel the write model
+     * @return the size in bytes
+     */
+    static int getEncodedSize(final WriteModel<RawBsonDocument> writeModel) {
+        if (writeModel instanceof InsertOneModel) {
+            return size(((InsertOneModel<RawBsonDocument>) writeModel).getDocument());
+        } else if (writeModel instanceof ReplaceOneModel) {
+            ReplaceOneModel<RawBsonDocument> replaceOneModel = (ReplaceOneModel<RawBsonDocument>) writeModel;
+            return size(replaceOneModel.getFilter()) + size(replaceOneModel.getReplacement());
+        } else if (writeModel instanceof UpdateOneModel) {
+            UpdateOneModel<RawBsonDocument> updateOneModel = (UpdateOneModel<RawBsonDocument>) writeModel;
+            return size(updateOneModel.getFilter()) + size(updateOneModel.getUpdate());
+        } else if (writeModel instanceof UpdateManyModel) {
+            UpdateManyModel<RawBsonDocument> updateManyModel = (UpdateManyModel<RawBsonDocument>) writeModel;
+            return size(updateManyModel.getFilter()) + size(updateManyModel.getUpdate());
+        } else if (writeModel instanceof DeleteOneModel) {
+            return size(((DeleteOneModel<RawBsonDocument>) writeModel).getFilter());
+        } else {
+            return size(((DeleteManyModel<RawBsonDocument>) writeModel).getFilter());
+        }
+    }
+
+    private static int size(final Bson bson) {
+        return ((RawBsonDocument) bson).getByteBuffer().remaining();
+    }
+
+    private static RawBsonDocument encodeBson(final MongoCollection<?> collection, final Bson bson) {
+        notNull("bson", bson);
+        if (bson instanceof RawBsonDocument) {
+            return (RawBsonDocument) bson;
+        }
+        BsonDocument document = bson.toBsonDocument(collection.getDocumentClass(), collection.getCodecRegistry());
+        return encode(document, BSON_DOCUMENT_CODEC, ENCODER_CONTEXT);
+    }
+
+    private static <T> RawBsonDocument encode(final T document, final Codec<T> codec, final EncoderContext encoderContext) {
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        BsonBinaryWriter writer = new BsonBinaryWriter(buffer);
+        try {
+            codec.encode(writer, document, encoderContext);
+            return new RawBsonDocument(buffer.toByteArray());
+        } finally {
+            writer.close();
+        }
+    }
+
+    private RawWriteModels() {
+    }
+}
@@ -27,14 +27,26 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 final class RxObservables {
 
-    @SuppressWarnings("deprecation")
     static <TResult> rx.Observable<TResult> create(final Observable<TResult> observable, final ObservableAdapter observableAdapter) {
-        return observableAdapter.adapt(rx.Observable.create(new rx.Observable.OnSubscribe<TResult>() {
+        return observableAdapter.adapt(toRxObservable(observable));
+    }
+
+    /**
+     * Creates the Observable, recording each subscription to it and describing it to the adapter if the tracked operation is not null.
+     */
+    static <TResult> rx.Observable<TResult> create(final Observable<TResult> observable, final ObservableAdapter observableAdapter,
+                                                   final TrackedOperation trackedOperation) {
+        return TrackedOperation.adapt(toRxObservable(observable), observableAdapter, trackedOperation);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static <TResult> rx.Observable<TResult> toRxObservable(final Observable<TResult> observable) {
+        return rx.Observable.create(new rx.Observable.OnSubscribe<TResult>() {
             @Override
             public void call(final Subscriber<? super TResult> subscriber) {
                 new ObservableToProducer<TResult>(observable, subscriber);
             }
-        }));
+        });
     }
 
     static final class ObservableToProducer<TResult> implements Producer {
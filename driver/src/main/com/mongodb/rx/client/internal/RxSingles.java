@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.Block;
+import com.mongodb.async.SingleResultCallback;
+import com.mongodb.rx.client.ObservableAdapter;
+import rx.Completable;
+import rx.CompletableSubscriber;
+import rx.Single;
+import rx.SingleSubscriber;
+import rx.subscriptions.BooleanSubscription;
+
+import static com.mongodb.rx.client.internal.TrackedOperation.adaptWithoutRecording;
+
+/**
+ * Bridges single result callbacks directly to {@code Single} and {@code Completable}, without the subscription and producer that an
+ * {@code Observable} requires.
+ */
+final class RxSingles {
+
+    static <TResult> Single<TResult> create(final Block<SingleResultCallback<TResult>> operation,
+                                            final ObservableAdapter observableAdapter) {
+        return create(operation, observableAdapter, null);
+    }
+
+    /**
+     * Creates the Single, recording each subscription to it and describing it to the adapter if the tracked operation is not null.
+     */
+    static <TResult> Single<TResult> create(final Block<SingleResultCallback<TResult>> block, final ObservableAdapter observableAdapter,
+                                            final TrackedOperation trackedOperation) {
+        final Block<SingleResultCallback<TResult>> operation = record(trackedOperation, block);
+        Single<TResult> single = Single.create(new Single.OnSubscribe<TResult>() {
+            @Override
+            public void call(final SingleSubscriber<? super TResult> subscriber) {
+                try {
+                    operation.apply(new SingleResultCallback<TResult>() {
+                        @Override
+                        public void onResult(final TResult result, final Throwable t) {
+                            if (subscriber.isUnsubscribed()) {
+                                return;
+                            }
+                            if (t != null) {
+                                subscriber.onError(t);
+                            } else {
+                                subscriber.onSuccess(result);
+                            }
+                        }
+                    });
+                } catch (Throwable t) {
+                    subscriber.onError(t);
+                }
+            }
+        });
+        if (observableAdapter instanceof ObservableHelper.NoopObservableAdapter) {
+            return single;
+        }
+        return adaptWithoutRecording(single.toObservable(), observableAdapter, trackedOperation).toSingle();
+    }
+
+    static Completable createCompletable(final Block<SingleResultCallback<Void>> operation, final ObservableAdapter observableAdapter) {
+        return createCompletable(operation, observableAdapter, null);
+    }
+
+    /**
+     * Creates the Completable, recording each subscription to it and describing it to the adapter if the tracked operation is not null.
+     */
+    static Completable createCompletable(final Block<SingleResultCallback<Void>> block, final ObservableAdapter observableAdapter,
+                                         final TrackedOperation trackedOperation) {
+        final Block<SingleResultCallback<Void>> operation = record(trackedOperation, block);
+        Completable completable = Completable.create(new Completable.OnSubscribe() {
+            @Override
+            public void call(final CompletableSubscriber subscriber) {
+                final BooleanSubscription subscription = new BooleanSubscription();
+                subscriber.onSubscribe(subscription);
+                try {
+                    operation.apply(new SingleResultCallback<Void>() {
+                        @Override
+                        public void onResult(final Void result, final Throwable t) {
+                            if (subscription.isUnsubscribed()) {
+                                return;
+                            }
+                            if (t != null) {
+                                subscriber.onError(t);
+                            } else {
+                                subscriber.onCompleted();
+                            }
+                        }
+                    });
+                } catch (Throwable t) {
+                    subscriber.onError(t);
+                }
+            }
+        });
+        if (observableAdapter instanceof ObservableHelper.NoopObservableAdapter) {
+            return completable;
+        }
+        return Completable.fromObservable(adaptWithoutRecording(completable.toObservable(), observableAdapter, trackedOperation));
+    }
+
+    private static <TResult> Block<SingleResultCallback<TResult>> record(final TrackedOperation trackedOperation,
+                                                                         final Block<SingleResultCallback<TResult>> operation) {
+        return trackedOperation == null ? operation : OperationRecorder.record(trackedOperation.getRecorder(), operation);
+    }
+
+    private RxSingles() {
+    }
+}
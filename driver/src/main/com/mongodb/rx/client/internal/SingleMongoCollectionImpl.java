@@ -0,0 +1,362 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.Block;
+import com.mongodb.MongoNamespace;
+import com.mongodb.async.SingleResultCallback;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.CountOptions;
+import com.mongodb.client.model.DeleteOptions;
+import com.mongodb.client.model.FindOneAndDeleteOptions;
+import com.mongodb.client.model.FindOneAndReplaceOptions;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.InsertOneOptions;
+import com.mongodb.client.model.RenameCollectionOptions;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.mongodb.rx.client.MongoCollection;
+import com.mongodb.rx.client.ObservableAdapter;
+import com.mongodb.rx.client.SingleMongoCollection;
+import org.bson.BsonDocument;
+import org.bson.conversions.Bson;
+import rx.Completable;
+import rx.Single;
+
+import java.util.List;
+
+import static com.mongodb.assertions.Assertions.notNull;
+import static com.mongodb.rx.client.internal.QueryCache.invalidating;
+import static com.mongodb.rx.client.internal.TrackedOperation.isTracked;
+
+class SingleMongoCollectionImpl<TDocument> implements SingleMongoCollection<TDocument> {
+
+    private final MongoCollection<TDocument> mongoCollection;
+    private final com.mongodb.async.client.MongoCollection<TDocument> wrapped;
+    private final ObservableAdapter observableAdapter;
+    private final CollectionFeatures<TDocument> features;
+
+    SingleMongoCollectionImpl(final MongoCollection<TDocument> mongoCollection,
+                              final com.mongodb.async.client.MongoCollection<TDocument> wrapped,
+                              final ObservableAdapter observableAdapter, final CollectionFeatures<TDocument> features) {
+        this.mongoCollection = notNull("mongoCollection", mongoCollection);
+        this.wrapped = notNull("wrapped", wrapped);
+        this.observableAdapter = notNull("observableAdapter", observableAdapter);
+        this.features = notNull("features", features);
+    }
+
+    @Override
+    public MongoNamespace getNamespace() {
+        return wrapped.getNamespace();
+    }
+
+    @Override
+    public MongoCollection<TDocument> asObservable() {
+        return mongoCollection;
+    }
+
+    @Override
+    public Single<Long> count() {
+        return count(new BsonDocument(), new CountOptions());
+    }
+
+    @Override
+    public Single<Long> count(final Bson filter) {
+        return count(filter, new CountOptions());
+    }
+
+    @Override
+    public Single<Long> count(final Bson filter, final CountOptions options) {
+        if (features.getQueryCache() != null || features.getHedgedReads() != null) {
+            return mongoCollection.count(filter, options).toSingle();
+        }
+        return RxSingles.create(new Block<SingleResultCallback<Long>>() {
+            @Override
+            public void apply(final SingleResultCallback<Long> callback) {
+                wrapped.count(filter, options, callback);
+            }
+        }, observableAdapter, track("count"));
+    }
+
+    @Override
+    public Single<BulkWriteResult> bulkWrite(final List<? extends WriteModel<? extends TDocument>> requests) {
+        return bulkWrite(requests, new BulkWriteOptions());
+    }
+
+    @Override
+    public Single<BulkWriteResult> bulkWrite(final List<? extends WriteModel<? extends TDocument>> requests,
+                                             final BulkWriteOptions options) {
+        return RxSingles.create(new Block<SingleResultCallback<BulkWriteResult>>() {
+            @Override
+            public void apply(final SingleResultCallback<BulkWriteResult> callback) {
+                wrapped.bulkWrite(requests, options, invalidating(features.getQueryCache(), callback));
+            }
+        }, observableAdapter, track("bulkWrite"));
+    }
+
+    @Override
+    public Completable insertOne(final TDocument document) {
+        return RxSingles.createCompletable(new Block<SingleResultCallback<Void>>() {
+            @Override
+            public void apply(final SingleResultCallback<Void> callback) {
+                if (features.getWriteBatcher() != null) {
+                    features.getWriteBatcher().insert(document, invalidating(features.getQueryCache(), callback));
+                } else {
+                    wrapped.insertOne(document, invalidating(features.getQueryCache(), callback));
+                }
+            }
+        }, observableAdapter, track("insertOne"));
+    }
+
+    @Override
+    public Completable insertOne(final TDocument document, final InsertOneOptions options) {
+        return RxSingles.createCompletable(new Block<SingleResultCallback<Void>>() {
+            @Override
+            public void apply(final SingleResultCallback<Void> callback) {
+                if (features.getWriteBatcher() != null && options.getBypassDocumentValidation() == null) {
+                    features.getWriteBatcher().insert(document, invalidating(features.getQueryCache(), callback));
+                } else {
+                    wrapped.insertOne(document, options, invalidating(features.getQueryCache(), callback));
+                }
+            }
+        }, observableAdapter, track("insertOne"));
+    }
+
+    @Override
+    public Completable insertMany(final List<? extends TDocument> documents) {
+        return insertMany(documents, new InsertManyOptions());
+    }
+
+    @Override
+    public Completable insertMany(final List<? extends TDocument> documents, final InsertManyOptions options) {
+        return RxSingles.createCompletable(new Block<SingleResultCallback<Void>>() {
+            @Override
+            public void apply(final SingleResultCallback<Void> callback) {
+                wrapped.insertMany(documents, options, invalidating(features.getQueryCache(), callback));
+            }
+        }, observableAdapter, track("insertMany"));
+    }
+
+    @Override
+    public Single<DeleteResult> deleteOne(final Bson filter) {
+        return RxSingles.create(new Block<SingleResultCallback<DeleteResult>>() {
+            @Override
+            public void apply(final SingleResultCallback<DeleteResult> callback) {
+                wrapped.deleteOne(filter, invalidating(features.getQueryCache(), callback));
+            }
+        }, observableAdapter, track("deleteOne"));
+    }
+
+    @Override
+    public Single<DeleteResult> deleteOne(final Bson filter, final DeleteOptions options) {
+        return RxSingles.create(new Block<SingleResultCallback<DeleteResult>>() {
+            @Override
+            public void apply(final SingleResultCallback<DeleteResult> callback) {
+                wrapped.deleteOne(filter, options, invalidating(features.getQueryCache(), callback));
+            }
+        }, observableAdapter, track("deleteOne"));
+    }
+
+    @Override
+    public Single<DeleteResult> deleteMany(final Bson filter) {
+        return RxSingles.create(new Block<SingleResultCallback<DeleteResult>>() {
+            @Override
+            public void apply(final SingleResultCallback<DeleteResult> callback) {
+                wrapped.deleteMany(filter, invalidating(features.getQueryCache(), callback));
+            }
+        }, observableAdapter, track("deleteMany"));
+    }
+
+    @Override
+    public Single<DeleteResult> deleteMany(final Bson filter, final DeleteOptions options) {
+        return RxSingles.create(new Block<SingleResultCallback<DeleteResult>>() {
+            @Override
+            public void apply(final SingleResultCallback<DeleteResult> callback) {
+                wrapped.deleteMany(filter, options, invalidating(features.getQueryCache(), callback));
+            }
+        }, observableAdapter, track("deleteMany"));
+    }
+
+    @Override
+    public Single<UpdateResult> replaceOne(final Bson filter, final TDocument replacement) {
+        return replaceOne(filter, replacement, new UpdateOptions());
+    }
+
+    @Override
+    public Single<UpdateResult> replaceOne(final Bson filter, final TDocument replacement, final UpdateOptions options) {
+        return RxSingles.create(new Block<SingleResultCallback<UpdateResult>>() {
+            @Override
+            public void apply(final SingleResultCallback<UpdateResult> callback) {
+                wrapped.replaceOne(filter, replacement, options, invalidating(features.getQueryCache(), callback));
+            }
+        }, observableAdapter, track("replaceOne"));
+    }
+
+    @Override
+    public Single<UpdateResult> updateOne(final Bson filter, final Bson update) {
+        return updateOne(filter, update, new UpdateOptions());
+    }
+
+    @Override
+    public Single<UpdateResult> updateOne(final Bson filter, final Bson update, final UpdateOptions options) {
+        return RxSingles.create(new Block<SingleResultCallback<UpdateResult>>() {
+            @Override
+            public void apply(final SingleResultCallback<UpdateResult> callback) {
+                wrapped.updateOne(filter, update, options, invalidating(features.getQueryCache(), callback));
+            }
+        }, observableAdapter, track("updateOne"));
+    }
+
+    @Override
+    public Single<UpdateResult> updateMany(final Bson filter, final Bson update) {
+        return updateMany(filter, update, new UpdateOptions());
+    }
+
+    @Override
+    public Single<UpdateResult> updateMany(final Bson filter, final Bson update, final UpdateOptions options) {
+        return RxSingles.create(new Block<SingleResultCallback<UpdateResult>>() {
+            @Override
+            public void apply(final SingleResultCallback<UpdateResult> callback) {
+                wrapped.updateMany(filter, update, options, invalidating(features.getQueryCache(), callback));
+            }
+        }, observableAdapter, track("updateMany"));
+    }
+
+    @Override
+    public Single<TDocument> findOneAndDelete(final Bson filter) {
+        return findOneAndDelete(filter, new FindOneAndDeleteOptions());
+    }
+
+    @Override
+    public Single<TDocument> findOneAndDelete(final Bson filter, final FindOneAndDeleteOptions options) {
+        return RxSingles.create(new Block<SingleResultCallback<TDocument>>() {
+            @Override
+            public void apply(final SingleResultCallback<TDocument> callback) {
+                wrapped.findOneAndDelete(filter, options, invalidating(features.getQueryCache(), callback));
+            }
+        }, observableAdapter, track("findOneAndDelete"));
+    }
+
+    @Override
+    public Single<TDocument> findOneAndReplace(final Bson filter, final TDocument replacement) {
+        return findOneAndReplace(filter, replacement, new FindOneAndReplaceOptions());
+    }
+
+    @Override
+    public Single<TDocument> findOneAndReplace(final Bson filter, final TDocument replacement,
+                                               final FindOneAndReplaceOptions options) {
+        return RxSingles.create(new Block<SingleResultCallback<TDocument>>() {
+            @Override
+            public void apply(final SingleResultCallback<TDocument> callback) {
+                wrapped.findOneAndReplace(filter, replacement, options, invalidating(features.getQueryCache(), callback));
+            }
+        }, observableAdapter, track("findOneAndReplace"));
+    }
+
+    @Override
+    public Single<TDocument> findOneAndUpdate(final Bson filter, final Bson update) {
+        return findOneAndUpdate(filter, update, new FindOneAndUpdateOptions());
+    }
+
+    @Override
+    public Single<TDocument> findOneAndUpdate(final Bson filter, final Bson update, final FindOneAndUpdateOptions options) {
+        return RxSingles.create(new Block<SingleResultCallback<TDocument>>() {
+            @Override
+            public void apply(final SingleResultCallback<TDocument> callback) {
+                wrapped.findOneAndUpdate(filter, update, options, invalidating(features.getQueryCache(), callback));
+            }
+        }, observableAdapter, track("findOneAndUpdate"));
+    }
+
+    @Override
+    public Completable drop() {
+        return RxSingles.createCompletable(new Block<SingleResultCallback<Void>>() {
+            @Override
+            public void apply(final SingleResultCallback<Void> callback) {
+                wrapped.drop(invalidating(features.getQueryCache(), callback));
+            }
+        }, observableAdapter, track("drop"));
+    }
+
+    @Override
+    public Single<String> createIndex(final Bson key) {
+        return createIndex(key, new IndexOptions());
+    }
+
+    @Override
+    public Single<String> createIndex(final Bson key, final IndexOptions options) {
+        return RxSingles.create(new Block<SingleResultCallback<String>>() {
+            @Override
+            public void apply(final SingleResultCallback<String> callback) {
+                wrapped.createIndex(key, options, callback);
+            }
+        }, observableAdapter, track("createIndex"));
+    }
+
+    @Override
+    public Completable dropIndex(final String indexName) {
+        return RxSingles.createCompletable(new Block<SingleResultCallback<Void>>() {
+            @Override
+            public void apply(final SingleResultCallback<Void> callback) {
+                wrapped.dropIndex(indexName, callback);
+            }
+        }, observableAdapter, track("dropIndex"));
+    }
+
+    @Override
+    public Completable dropIndex(final Bson keys) {
+        return RxSingles.createCompletable(new Block<SingleResultCallback<Void>>() {
+            @Override
+            public void apply(final SingleResultCallback<Void> callback) {
+                wrapped.dropIndex(keys, callback);
+            }
+        }, observableAdapter, track("dropIndex"));
+    }
+
+    @Override
+    public Completable dropIndexes() {
+        return dropIndex("*");
+    }
+
+    @Override
+    public Completable renameCollection(final MongoNamespace newCollectionNamespace) {
+        return renameCollection(newCollectionNamespace, new RenameCollectionOptions());
+    }
+
+    @Override
+    public Completable renameCollection(final MongoNamespace newCollectionNamespace, final RenameCollectionOptions options) {
+        return RxSingles.createCompletable(new Block<SingleResultCallback<Void>>() {
+            @Override
+            public void apply(final SingleResultCallback<Void> callback) {
+                wrapped.renameCollection(newCollectionNamespace, options, invalidating(features.getQueryCache(), callback));
+            }
+        }, observableAdapter, track("renameCollection"));
+    }
+
+    private TrackedOperation track(final String operation) {
+        if (!isTracked(features.getMetrics(), observableAdapter)) {
+            return null;
+        }
+        return TrackedOperation.create(features.getMetrics(), operation, getNamespace().getFullName(), wrapped.getReadPreference(),
+                wrapped.getDocumentClass());
+    }
+}
@@ -0,0 +1,415 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.Block;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.async.SingleResultCallback;
+import com.mongodb.async.client.MongoCollection;
+import com.mongodb.async.client.Observables;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.bulk.WriteConcernError;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.rx.client.ObservableAdapter;
+import com.mongodb.rx.client.StreamingBulkWriteOptions;
+import org.bson.RawBsonDocument;
+import rx.Observable;
+import rx.Producer;
+import rx.Subscriber;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.mongodb.assertions.Assertions.isTrueArgument;
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * Writes the requests emitted by an Observable as a sequence of bulk writes.
+ *
+ * <p>The requests are encoded as they arrive and cut into batches by count and by encoded size. Requests are only requested from the
+ * upstream Observable while a batch is being filled and there is demand for it, so the number of requests held in memory is bounded by
+ * the number of batches in flight rather than by the size of the stream.</p>
+ *
+ * <p>As with an unordered bulk write of a list, an unordered stream carries on past batches that fail with write errors, and fails at
+ * the end with a {@code MongoBulkWriteException} that combines them. Any other error, and any error of an ordered stream, stops the
+ * stream at once.</p>
+ *
+ * <p>The indexes of the upserts of each result, and of the errors and upserts of each {@code MongoBulkWriteException}, are relative to
+ * the start of the stream rather than to the batch.</p>
+ */
+final class StreamingBulkWrite {
+
+    static <TDocument> Observable<BulkWriteResult> bulkWrite(final MongoCollection<TDocument> collection,
+                                                             final Observable<? extends WriteModel<? extends TDocument>> requests,
+                                                             final StreamingBulkWriteOptions options,
+                                                             final ObservableAdapter observableAdapter) {
+        notNull("requests", requests);
+        notNull("options", options);
+        final MongoCollection<RawBsonDocument> rawCollection = collection.withDocumentClass(RawBsonDocument.class);
+        final BulkWriteOptions bulkWriteOptions = new BulkWriteOptions().ordered(options.isOrdered())
+                .bypassDocumentValidation(options.getBypassDocumentValidation());
+
+        final Observable<List<WriteModel<RawBsonDocument>>> batches = requests.lift(
+                new BatchingOperator<TDocument>(collection, options.getMaxBatchSize(), options.getMaxBatchBytes()));
+        final Func1<List<WriteModel<RawBsonDocument>>, Observable<BulkWriteResult>> write =
+                new Func1<List<WriteModel<RawBsonDocument>>, Observable<BulkWriteResult>>() {
+                    @Override
+                    public Observable<BulkWriteResult> call(final List<WriteModel<RawBsonDocument>> batch) {
+                        return RxObservables.create(Observables.observe(new Block<SingleResultCallback<BulkWriteResult>>() {
+                            @Override
+                            public void apply(final SingleResultCallback<BulkWriteResult> callback) {
+                                rawCollection.bulkWrite(batch, bulkWriteOptions, callback);
+                            }
+                        }), new ObservableHelper.NoopObservableAdapter());
+                    }
+                };
+
+        final boolean ordered = options.isOrdered();
+        final int maxBatchesInFlight = options.getMaxBatchesInFlight();
+        return observableAdapter.adapt(Observable.defer(new Func0<Observable<BulkWriteResult>>() {
+            @Override
+            public Observable<BulkWriteResult> call() {
+                final BulkWriteErrors errors = new BulkWriteErrors();
+                Func1<List<WriteModel<RawBsonDocument>>, Observable<BulkWriteResult>> writeAtOffset =
+                        new Func1<List<WriteModel<RawBsonDocument>>, Observable<BulkWriteResult>>() {
+                            private int offset;
+
+                            @Override
+                            public Observable<BulkWriteResult> call(final List<WriteModel<RawBsonDocument>> batch) {
+                                final int batchOffset = offset;
+                                offset += batch.size();
+                                return write.call(batch).map(new Func1<BulkWriteResult, BulkWriteResult>() {
+                                    @Override
+                                    public BulkWriteResult call(final BulkWriteResult result) {
+                                        return withOffset(result, batchOffset);
+                                    }
+                                }).onErrorResumeNext(new Func1<Throwable, Observable<BulkWriteResult>>() {
+                                    @Override
+                                    public Observable<BulkWriteResult> call(final Throwable t) {
+                                        if (!(t instanceof MongoBulkWriteException)) {
+                                            return Observable.error(t);
+                                        } else if (ordered) {
+                                            BulkWriteErrors batchErrors = new BulkWriteErrors();
+                                            batchErrors.add((MongoBulkWriteException) t, batchOffset);
+                                            return Observable.error(batchErrors.toException());
+                                        }
+                                        errors.add((MongoBulkWriteException) t, batchOffset);
+                                        return Observable.empty();
+                                    }
+                                });
+                            }
+                        };
+                if (ordered) {
+                    return batches.concatMap(writeAtOffset);
+                }
+                return batches.flatMap(writeAtOffset, maxBatchesInFlight)
+                        .concatWith(Observable.defer(new Func0<Observable<BulkWriteResult>>() {
+                            @Override
+                            public Observable<BulkWriteResult> call() {
+                                MongoBulkWriteException exception = errors.toException();
+                                return exception == null ? Observable.<BulkWriteResult>empty()
+                                        : Observable.<BulkWriteResult>error(exception);
+                            }
+                        }));
+            }
+        }));
+    }
+
+    /**
+     * Offsets the indexes of the upserts of the result of a batch by the position of the batch in the stream.
+     */
+    private static BulkWriteResult withOffset(final BulkWriteResult result, final int offset) {
+        if (offset == 0 || !result.wasAcknowledged() || result.getUpserts().isEmpty()) {
+            return result;
+        }
+        return BulkWriteResult.acknowledged(result.getInsertedCount(), result.getMatchedCount(), result.getDeletedCount(),
+                result.isModifiedCountAvailable() ? result.getModifiedCount() : null, withOffset(result.getUpserts(), offset));
+    }
+
+    private static List<BulkWriteUpsert> withOffset(final List<BulkWriteUpsert> upserts, final int offset) {
+        List<BulkWriteUpsert> offsetUpserts = new ArrayList<BulkWriteUpsert>(upserts.size());
+        for (BulkWriteUpsert upsert : upserts) {
+            offsetUpserts.add(new BulkWriteUpsert(upsert.getIndex() + offset, upsert.getId()));
+        }
+        return offsetUpserts;
+    }
+
+    /**
+     * Combines the write errors of the failed batches of a stream, with the indexes of the errors and upserts relative to the start of the
+     * stream.
+     */
+    private static final class BulkWriteErrors {
+        /* protected by `this` */
+        private final List<BulkWriteError> writeErrors = new ArrayList<BulkWriteError>();
+        private final List<BulkWriteUpsert> upserts = new ArrayList<BulkWriteUpsert>();
+        private MongoBulkWriteException first;
+        private WriteConcernError writeConcernError;
+        private boolean acknowledged = true;
+        private boolean modifiedCountAvailable = true;
+        private int insertedCount;
+        private int matchedCount;
+        private int deletedCount;
+        private int modifiedCount;
+        /* protected by `this` */
+
+        synchronized void add(final MongoBulkWriteException exception, final int offset) {
+            if (first == null) {
+                first = exception;
+            }
+            for (BulkWriteError error : exception.getWriteErrors()) {
+                writeErrors.add(new BulkWriteError(error.getCode(), error.getMessage(), error.getDetails(), error.getIndex() + offset));
+            }
+            if (exception.getWriteConcernError() != null) {
+                writeConcernError = exception.getWriteConcernError();
+            }
+            BulkWriteResult result = exception.getWriteResult();
+            if (!result.wasAcknowledged()) {
+                acknowledged = false;
+                return;
+            }
+            insertedCount += result.getInsertedCount();
+            matchedCount += result.getMatchedCount();
+            deletedCount += result.getDeletedCount();
+            if (result.isModifiedCountAvailable()) {
+                modifiedCount += result.getModifiedCount();
+            } else {
+                modifiedCountAvailable = false;
+            }
+            upserts.addAll(withOffset(result.getUpserts(), offset));
+        }
+
+        synchronized MongoBulkWriteException toException() {
+            if (first == null) {
+                return null;
+            }
+            BulkWriteResult result = acknowledged
+                    ? BulkWriteResult.acknowledged(insertedCount, matchedCount, deletedCount,
+                            modifiedCountAvailable ? modifiedCount : null, upserts)
+                    : BulkWriteResult.unacknowledged();
+            return new MongoBulkWriteException(result, writeErrors, writeConcernError, first.getServerAddress());
+        }
+    }
+
+    /**
+     * Cuts the upstream requests into batches, each of which is emitted as an encoded list of write models.
+     *
+     * @param <TDocument> the document type of the collection
+     */
+    static final class BatchingOperator<TDocument>
+            implements Observable.Operator<List<WriteModel<RawBsonDocument>>, WriteModel<? extends TDocument>> {
+        private final MongoCollection<TDocument> collection;
+        private final int maxBatchSize;
+        private final int maxBatchBytes;
+
+        BatchingOperator(final MongoCollection<TDocument> collection, final int maxBatchSize, final int maxBatchBytes) {
+            isTrueArgument("maxBatchSize > 0", maxBatchSize > 0);
+            isTrueArgument("maxBatchBytes > 0", maxBatchBytes > 0);
+            this.collection = notNull("collection", collection);
+            this.maxBatchSize = maxBatchSize;
+            this.maxBatchBytes = maxBatchBytes;
+        }
+
+        @Override
+        public Subscriber<? super WriteModel<? extends TDocument>> call(final Subscriber<? super List<WriteModel<RawBsonDocument>>> child) {
+            final BatchingSubscriber<TDocument> parent = new BatchingSubscriber<TDocument>(child, collection, maxBatchSize, maxBatchBytes);
+            child.add(parent);
+            child.setProducer(new Producer() {
+                @Override
+                public void request(final long n) {
+                    parent.requestBatches(n);
+                }
+            });
+            return parent;
+        }
+    }
+
+    private static final class BatchingSubscriber<TDocument> extends Subscriber<WriteModel<? extends TDocument>> {
+        private final Subscriber<? super List<WriteModel<RawBsonDocument>>> child;
+        private final MongoCollection<TDocument> collection;
+        private final int maxBatchSize;
+        private final int maxBatchBytes;
+
+        /* protected by `this` */
+        private final ArrayDeque<List<WriteModel<RawBsonDocument>>> readyBatches = new ArrayDeque<List<WriteModel<RawBsonDocument>>>();
+        private List<WriteModel<RawBsonDocument>> currentBatch = new ArrayList<WriteModel<RawBsonDocument>>();
+        private int currentBatchBytes;
+        private long requestedBatches;
+        private long requestedUpstream;
+        private boolean done;
+        private Throwable error;
+        private boolean terminated;
+        private boolean emitting;
+        private boolean missed;
+        /* protected by `this` */
+
+        BatchingSubscriber(final Subscriber<? super List<WriteModel<RawBsonDocument>>> child, final MongoCollection<TDocument> collection,
+                           final int maxBatchSize, final int maxBatchBytes) {
+            this.child = child;
+            this.collection = collection;
+            this.maxBatchSize = maxBatchSize;
+            this.maxBatchBytes = maxBatchBytes;
+        }
+
+        @Override
+        public void onStart() {
+            request(0);
+        }
+
+        void requestBatches(final long n) {
+            if (n < 0) {
+                throw new IllegalArgumentException("Number requested must be >= 0: " + n);
+            } else if (n == 0) {
+                return;
+            }
+            synchronized (this) {
+                if (requestedBatches + n < 0) {
+                    requestedBatches = Long.MAX_VALUE;
+                } else {
+                    requestedBatches += n;
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void onNext(final WriteModel<? extends TDocument> writeModel) {
+            WriteModel<RawBsonDocument> encoded;
+            int size;
+            try {
+                encoded = RawWriteModels.encodeWriteModel(collection, writeModel);
+                size = RawWriteModels.getEncodedSize(encoded);
+            } catch (Throwable t) {
+                unsubscribe();
+                onError(t);
+                return;
+            }
+
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                requestedUpstream--;
+                if (!currentBatch.isEmpty() && currentBatchBytes + size > maxBatchBytes) {
+                    cutBatch();
+                }
+                currentBatch.add(encoded);
+                currentBatchBytes += size;
+                if (currentBatch.size() >= maxBatchSize || currentBatchBytes >= maxBatchBytes) {
+                    cutBatch();
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                error = t;
+            }
+            drain();
+        }
+
+        @Override
+        public void onCompleted() {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                if (!currentBatch.isEmpty()) {
+                    cutBatch();
+                }
+            }
+            drain();
+        }
+
+        private void cutBatch() {
+            readyBatches.add(currentBatch);
+            currentBatch = new ArrayList<WriteModel<RawBsonDocument>>();
+            currentBatchBytes = 0;
+        }
+
+        private void drain() {
+            synchronized (this) {
+                if (emitting) {
+                    missed = true;
+                    return;
+                }
+                emitting = true;
+            }
+
+            while (true) {
+                List<WriteModel<RawBsonDocument>> batch = null;
+                Throwable failure = null;
+                boolean complete = false;
+                long toRequest = 0;
+                synchronized (this) {
+                    if (terminated) {
+                        emitting = false;
+                        return;
+                    } else if (error != null) {
+                        terminated = true;
+                        failure = error;
+                        readyBatches.clear();
+                    } else if (requestedBatches > 0 && !readyBatches.isEmpty()) {
+                        batch = readyBatches.poll();
+                        if (requestedBatches != Long.MAX_VALUE) {
+                            requestedBatches--;
+                        }
+                    } else if (done && readyBatches.isEmpty()) {
+                        terminated = true;
+                        complete = true;
+                    } else if (requestedBatches > 0 && requestedUpstream == 0) {
+                        toRequest = maxBatchSize - currentBatch.size();
+                        requestedUpstream = toRequest;
+                    } else if (!missed) {
+                        emitting = false;
+                        return;
+                    } else {
+                        missed = false;
+                        continue;
+                    }
+                }
+
+                if (failure != null) {
+                    child.onError(failure);
+                    return;
+                } else if (complete) {
+                    child.onCompleted();
+                    return;
+                } else if (batch != null) {
+                    child.onNext(batch);
+                } else {
+                    request(toRequest);
+                }
+            }
+        }
+    }
+
+    private StreamingBulkWrite() {
+    }
+}
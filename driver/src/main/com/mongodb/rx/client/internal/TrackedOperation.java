@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.rx.client.ObservableAdapter;
+import com.mongodb.rx.client.OperationAwareObservableAdapter;
+import com.mongodb.rx.client.OperationContext;
+import rx.Observable;
+
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * An operation whose Observables are described to an {@link OperationAwareObservableAdapter} and recorded in the metrics of the client.
+ *
+ * <p>Operations are only described when either would use the description, so the implementations check {@link #isTracked} before
+ * creating one, and pass null otherwise.</p>
+ */
+final class TrackedOperation {
+    private final OperationContext context;
+    private final OperationRecorder recorder;
+
+    private TrackedOperation(final OperationContext context, final OperationRecorder recorder) {
+        this.context = notNull("context", context);
+        this.recorder = recorder;
+    }
+
+    OperationContext getContext() {
+        return context;
+    }
+
+    OperationRecorder getRecorder() {
+        return recorder;
+    }
+
+    static boolean isTracked(final MetricsRegistry metrics, final ObservableAdapter observableAdapter) {
+        return metrics != null || observableAdapter instanceof OperationAwareObservableAdapter;
+    }
+
+    static TrackedOperation create(final MetricsRegistry metrics, final String operation, final String namespace,
+                                   final ReadPreference readPreference, final Class<?> documentClass) {
+        return new TrackedOperation(new OperationContext(operation, namespace, readPreference, documentClass),
+                metrics == null ? null : metrics.recorder(namespace, operation));
+    }
+
+    /**
+     * Records each subscription to the Observable if the operation is not null, then adapts it, describing the operation if the adapter
+     * is an {@link OperationAwareObservableAdapter}.
+     */
+    static <T> Observable<T> adapt(final Observable<T> observable, final ObservableAdapter observableAdapter,
+                                   final TrackedOperation operation) {
+        if (operation == null) {
+            return observableAdapter.adapt(observable);
+        }
+        return adaptWithoutRecording(OperationRecorder.record(operation.recorder, observable), observableAdapter, operation);
+    }
+
+    /**
+     * Adapts the Observable, describing the operation if the adapter is an {@link OperationAwareObservableAdapter}, for Observables
+     * whose operation is already recorded.
+     */
+    static <T> Observable<T> adaptWithoutRecording(final Observable<T> observable, final ObservableAdapter observableAdapter,
+                                                   final TrackedOperation operation) {
+        if (operation != null && observableAdapter instanceof OperationAwareObservableAdapter) {
+            return ((OperationAwareObservableAdapter) observableAdapter).adapt(observable, operation.context);
+        }
+        return observableAdapter.adapt(observable);
+    }
+}
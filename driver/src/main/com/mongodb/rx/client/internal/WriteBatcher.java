@@ -0,0 +1,209 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoWriteConcernException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.WriteError;
+import com.mongodb.async.SingleResultCallback;
+import com.mongodb.async.client.MongoCollection;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.RawBsonDocument;
+import rx.Scheduler;
+import rx.functions.Action0;
+import rx.schedulers.Schedulers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.assertions.Assertions.isTrueArgument;
+import static com.mongodb.assertions.Assertions.notNull;
+
+/**
+ * Coalesces single document inserts into unordered {@code insertMany} operations.
+ *
+ * <p>Each document is encoded once, when it is added, so that the size of the pending batch is known. A batch is sent as soon as it
+ * holds {@code maxBatchSize} documents or {@code maxBatchBytes} bytes, or {@code maxDelay} after its first document was added,
+ * whichever comes first. Write errors are demultiplexed back to the callback of the document that caused them.</p>
+ *
+ * @param <TDocument> the document type
+ */
+final class WriteBatcher<TDocument> {
+    private static final InsertManyOptions UNORDERED = new InsertManyOptions().ordered(false);
+
+    private final MongoCollection<TDocument> wrapped;
+    private final MongoCollection<RawBsonDocument> rawCollection;
+    private final int maxBatchSize;
+    private final int maxBatchBytes;
+    private final long maxDelay;
+    private final TimeUnit timeUnit;
+    private final Scheduler scheduler;
+
+    /* protected by `this` */
+    private List<PendingInsert> pending = new ArrayList<PendingInsert>();
+    private int pendingBytes;
+    /* protected by `this` */
+
+    WriteBatcher(final MongoCollection<TDocument> wrapped, final int maxBatchSize, final int maxBatchBytes, final long maxDelay,
+                 final TimeUnit timeUnit) {
+        this(wrapped, maxBatchSize, maxBatchBytes, maxDelay, timeUnit, Schedulers.computation());
+    }
+
+    WriteBatcher(final MongoCollection<TDocument> wrapped, final int maxBatchSize, final int maxBatchBytes, final long maxDelay,
+                 final TimeUnit timeUnit, final Scheduler scheduler) {
+        isTrueArgument("maxBatchSize > 0", maxBatchSize > 0);
+        isTrueArgument("maxBatchBytes > 0", maxBatchBytes > 0);
+        isTrueArgument("maxDelay >= 0", maxDelay >= 0);
+        this.wrapped = notNull("wrapped", wrapped);
+        this.rawCollection = wrapped.withDocumentClass(RawBsonDocument.class);
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchBytes = maxBatchBytes;
+        this.maxDelay = maxDelay;
+        this.timeUnit = notNull("timeUnit", timeUnit);
+        this.scheduler = notNull("scheduler", scheduler);
+    }
+
+    /**
+     * Creates a batcher with the same limits for another collection.
+     *
+     * @param collection  the collection
+     * @param <T>         the document type of the collection
+     * @return the batcher
+     */
+    <T> WriteBatcher<T> withCollection(final MongoCollection<T> collection) {
+        return new WriteBatcher<T>(collection, maxBatchSize, maxBatchBytes, maxDelay, timeUnit, scheduler);
+    }
+
+    /**
+     * Adds the document to the pending batch.
+     *
+     * @param document the document to insert, which will have an _id generated if it is missing one
+     * @param callback the callback that is completed once the batch holding the document has been written
+     */
+    void insert(final TDocument document, final SingleResultCallback<Void> callback) {
+        RawBsonDocument encoded;
+        try {
+            encoded = RawWriteModels.encodeDocument(wrapped, document);
+        } catch (Throwable t) {
+            callback.onResult(null, t);
+            return;
+        }
+
+        int size = encoded.getByteBuffer().remaining();
+        List<PendingInsert> batch = null;
+        List<PendingInsert> batchToSchedule = null;
+        synchronized (this) {
+            pending.add(new PendingInsert(encoded, callback));
+            pendingBytes += size;
+            if (pending.size() >= maxBatchSize || pendingBytes >= maxBatchBytes || maxDelay == 0) {
+                batch = takePending();
+            } else if (pending.size() == 1) {
+                batchToSchedule = pending;
+            }
+        }
+
+        if (batch != null) {
+            write(batch);
+        } else if (batchToSchedule != null) {
+            scheduleFlush(batchToSchedule);
+        }
+    }
+
+    private void scheduleFlush(final List<PendingInsert> scheduledBatch) {
+        final Scheduler.Worker worker = scheduler.createWorker();
+        worker.schedule(new Action0() {
+            @Override
+            public void call() {
+                worker.unsubscribe();
+                List<PendingInsert> batch = null;
+                synchronized (WriteBatcher.this) {
+                    if (pending == scheduledBatch) {
+                        batch = takePending();
+                    }
+                }
+                if (batch != null) {
+                    write(batch);
+                }
+            }
+        }, maxDelay, timeUnit);
+    }
+
+    private List<PendingInsert> takePending() {
+        List<PendingInsert> batch = pending;
+        pending = new ArrayList<PendingInsert>();
+        pendingBytes = 0;
+        return batch;
+    }
+
+    private void write(final List<PendingInsert> batch) {
+        List<RawBsonDocument> documents = new ArrayList<RawBsonDocument>(batch.size());
+        for (PendingInsert pendingInsert : batch) {
+            documents.add(pendingInsert.document);
+        }
+        try {
+            rawCollection.insertMany(documents, UNORDERED, new SingleResultCallback<Void>() {
+                @Override
+                public void onResult(final Void result, final Throwable t) {
+                    if (t instanceof MongoBulkWriteException) {
+                        onBulkWriteException(batch, (MongoBulkWriteException) t);
+                    } else {
+                        for (PendingInsert pendingInsert : batch) {
+                            pendingInsert.callback.onResult(null, t);
+                        }
+                    }
+                }
+            });
+        } catch (Throwable t) {
+            for (PendingInsert pendingInsert : batch) {
+                pendingInsert.callback.onResult(null, t);
+            }
+        }
+    }
+
+    private void onBulkWriteException(final List<PendingInsert> batch, final MongoBulkWriteException e) {
+        Map<Integer, BulkWriteError> writeErrors = new HashMap<Integer, BulkWriteError>();
+        for (BulkWriteError writeError : e.getWriteErrors()) {
+            writeErrors.put(writeError.getIndex(), writeError);
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            BulkWriteError writeError = writeErrors.get(i);
+            if (writeError != null) {
+                batch.get(i).callback.onResult(null, new MongoWriteException(new WriteError(writeError.getCode(),
+                        writeError.getMessage(), writeError.getDetails()), e.getServerAddress()));
+            } else if (e.getWriteConcernError() != null) {
+                batch.get(i).callback.onResult(null, new MongoWriteConcernException(e.getWriteConcernError(), e.getServerAddress()));
+            } else {
+                batch.get(i).callback.onResult(null, null);
+            }
+        }
+    }
+
+    private static final class PendingInsert {
+        private final RawBsonDocument document;
+        private final SingleResultCallback<Void> callback;
+
+        PendingInsert(final RawBsonDocument document, final SingleResultCallback<Void> callback) {
+            this.document = document;
+            this.callback = callback;
+        }
+    }
+}
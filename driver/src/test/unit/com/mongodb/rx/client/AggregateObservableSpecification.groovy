@@ -25,7 +25,8 @@ class AggregateObservableSpecification extends Specification {
     def 'should have the same methods as the wrapped AggregateIterable'() {
         given:
         def wrapped = (AggregateIterable.methods*.name - MongoIterable.methods*.name).sort()
-        def local = (AggregateObservable.methods*.name - MongoObservable.methods*.name - 'batchSize').sort()
+        def local = (AggregateObservable.methods*.name - MongoObservable.methods*.name - 'batchSize' - 'batchSizeFromDemand'
+                - 'prefetch').sort()
 
         expect:
         wrapped == local
@@ -25,7 +25,7 @@ class ListCollectionsObservableSpecification extends Specification {
     def 'should have the same methods as the wrapped ListCollectionsIterable'() {
         given:
         def wrapped = (ListCollectionsIterable.methods*.name - MongoIterable.methods*.name).sort()
-        def local = (ListCollectionsObservable.methods*.name - MongoObservable.methods*.name - 'batchSize').sort()
+        def local = (ListCollectionsObservable.methods*.name - MongoObservable.methods*.name - 'batchSize' - 'batchSizeFromDemand').sort()
         expect:
         wrapped == local
     }
@@ -23,7 +23,7 @@ class MongoClientSpecification extends Specification {
 
     def 'should have the same methods as the wrapped MongoClient'() {
         given:
-        def exclusions = ['getObservableAdapter', 'withObservableAdapter']
+        def exclusions = ['getMetrics', 'getObservableAdapter', 'withObservableAdapter']
         def wrapped = WrappedMongoClient.methods*.name.sort()
         def local = MongoClient.methods*.name.sort() - exclusions
 
@@ -17,15 +17,19 @@
 package com.mongodb.rx.client
 
 import com.mongodb.async.client.MongoCollection as WrappedMongoCollection
+import rx.Observable
 import spock.lang.Specification
 
 class MongoCollectionSpecification extends Specification {
 
     def 'should have the same methods as the wrapped MongoCollection'() {
         given:
-        def exclusions = ['getObservableAdapter', 'withObservableAdapter']
+        def exclusions = ['asSingle', 'getHedgedReadStatistics', 'getObservableAdapter', 'getQueryCacheStatistics', 'loader',
+                          'parallelScan', 'watch', 'withHedgedReads', 'withObservableAdapter', 'withQueryCache', 'withRawDocuments',
+                          'withWriteBatching']
         def wrapped = WrappedMongoCollection.methods*.name.sort()
-        def local = MongoCollection.methods*.name.sort() - exclusions
+        def streamingMethods = MongoCollection.methods.findAll { it.parameterTypes.contains(Observable) }
+        def local = (MongoCollection.methods - streamingMethods)*.name.sort() - exclusions
 
         expect:
         wrapped == local
@@ -23,7 +23,7 @@ class MongoDatabaseSpecification extends Specification {
 
     def 'should have the same methods as the wrapped MongoDatabase'() {
         given:
-        def exclusions = ['getObservableAdapter', 'withObservableAdapter']
+        def exclusions = ['getObservableAdapter', 'watch', 'withObservableAdapter']
         def wrapped = WrappedMongoDatabase.methods*.name.sort()
         def local = MongoDatabase.methods*.name.sort() - exclusions
 
@@ -24,7 +24,8 @@ class GridFSBucketSpecification extends Specification {
     def 'should have the same methods as the wrapped GridFSBucket'() {
         given:
         def wrapped = (WrappedGridFSBucket.methods*.name).sort().toSet()
-        def local = (GridFSBucket.methods*.name - 'getObservableAdapter').sort().toSet()
+        def local = (GridFSBucket.methods*.name - ['downloadAsObservable', 'downloadRange', 'getChunkCacheStatistics',
+                                                   'getObservableAdapter', 'uploadFromObservable', 'withChunkCache']).sort().toSet()
 
         expect:
         wrapped == local
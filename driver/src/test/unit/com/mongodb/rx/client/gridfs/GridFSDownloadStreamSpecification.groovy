@@ -24,7 +24,7 @@ class GridFSDownloadStreamSpecification extends Specification {
     def 'should have the same methods as the wrapped GridFSDownloadStream'() {
         given:
         def wrapped = (WrappedGridFSDownloadStream.methods*.name).sort()
-        def local = (GridFSDownloadStream.methods*.name).sort()
+        def local = (GridFSDownloadStream.methods*.name - 'seek').sort()
 
         expect:
         wrapped == local
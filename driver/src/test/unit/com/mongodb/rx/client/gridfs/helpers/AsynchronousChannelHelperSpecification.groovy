@@ -0,0 +1,112 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.gridfs.helpers
+
+import com.mongodb.MongoGridFSException
+import rx.observers.TestSubscriber
+import spock.lang.Specification
+
+import java.nio.ByteBuffer
+import java.nio.channels.AsynchronousFileChannel
+import java.nio.file.Files
+
+import static java.nio.file.StandardOpenOption.READ
+
+class AsynchronousChannelHelperSpecification extends Specification {
+
+    def 'should read files from the start'() {
+        given:
+        def path = Files.createTempFile('gridfs', '.bin')
+        def content = (0..<100).collect { it as byte } as byte[]
+        Files.write(path, content)
+
+        expect:
+        readAll(toAsyncInputStream(path), 30) == content
+
+        cleanup:
+        Files.delete(path)
+
+        where:
+        toAsyncInputStream << [{ AsynchronousChannelHelper.pathToInputStream(it) },
+                               { AsynchronousChannelHelper.pathToMemoryMappedInputStream(it) },
+                               { AsynchronousChannelHelper.channelToInputStream(AsynchronousFileChannel.open(it, READ)) }]
+    }
+
+    def 'should write files from the start with positional writes'() {
+        given:
+        def path = Files.createTempFile('gridfs', '.bin')
+        Files.write(path, new byte[200])
+        def asyncOutputStream = AsynchronousChannelHelper.pathToOutputStream(path)
+
+        when:
+        [[1, 2, 3], [4, 5]].each {
+            def subscriber = new TestSubscriber<Integer>()
+            asyncOutputStream.write(ByteBuffer.wrap(it as byte[])).subscribe(subscriber)
+            subscriber.awaitTerminalEvent()
+            subscriber.assertValue(it.size())
+        }
+        def subscriber = new TestSubscriber()
+        asyncOutputStream.close().subscribe(subscriber)
+        subscriber.awaitTerminalEvent()
+
+        then:
+        subscriber.assertCompleted()
+        Files.readAllBytes(path) == [1, 2, 3, 4, 5] as byte[]
+
+        cleanup:
+        Files.delete(path)
+    }
+
+    def 'should report errors opening files'() {
+        given:
+        def path = Files.createTempFile('gridfs', '.bin')
+        Files.delete(path)
+        def subscriber = new TestSubscriber<Integer>()
+
+        when:
+        toAsyncInputStream(path).read(ByteBuffer.allocate(10)).subscribe(subscriber)
+        subscriber.awaitTerminalEvent()
+
+        then:
+        subscriber.assertError(MongoGridFSException)
+
+        where:
+        toAsyncInputStream << [{ AsynchronousChannelHelper.pathToInputStream(it) },
+                               { AsynchronousChannelHelper.pathToMemoryMappedInputStream(it) }]
+    }
+
+    def readAll(asyncInputStream, int bufferSize) {
+        def bytes = []
+        while (true) {
+            def buffer = ByteBuffer.allocate(bufferSize)
+            def subscriber = new TestSubscriber<Integer>()
+            asyncInputStream.read(buffer).subscribe(subscriber)
+            subscriber.awaitTerminalEvent()
+            subscriber.assertNoErrors()
+            if (subscriber.getOnNextEvents()[0] < 0) {
+                break
+            }
+            buffer.flip()
+            bytes.addAll(buffer.array()[0..<buffer.limit()] as List)
+        }
+        def subscriber = new TestSubscriber()
+        asyncInputStream.close().subscribe(subscriber)
+        subscriber.awaitTerminalEvent()
+        subscriber.assertCompleted()
+        bytes as byte[]
+    }
+}
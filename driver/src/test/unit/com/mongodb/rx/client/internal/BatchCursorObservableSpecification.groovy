@@ -0,0 +1,306 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal
+
+import com.mongodb.MongoException
+import com.mongodb.async.AsyncBatchCursor
+import com.mongodb.async.client.MongoIterable
+import rx.observers.TestSubscriber
+import spock.lang.Specification
+
+class BatchCursorObservableSpecification extends Specification {
+
+    def observableAdapter = new ObservableHelper.NoopObservableAdapter()
+    def settings = BatchCursorSettings.DEFAULT.demandDriven(5, 50)
+
+    def 'should size the first batch from the initial demand'() {
+        given:
+        def iterable = Mock(MongoIterable)
+        def cursor = Mock(AsyncBatchCursor)
+        def subscriber = new TestSubscriber(0)
+
+        when:
+        RxObservables.create(new BatchCursorObservable(iterable, settings), observableAdapter).subscribe(subscriber)
+
+        then:
+        0 * iterable.batchCursor(_)
+
+        when:
+        subscriber.requestMore(requested)
+
+        then:
+        1 * iterable.batchSize(expectedBatchSize)
+        1 * iterable.batchCursor(_) >> { args -> args[0].onResult(cursor, null) }
+        1 * cursor.next(_)
+
+        where:
+        requested      | expectedBatchSize
+        1              | 5
+        20             | 20
+        Long.MAX_VALUE | 50
+    }
+
+    def 'should never request a batch size of one'() {
+        given:
+        def iterable = Mock(MongoIterable)
+        def subscriber = new TestSubscriber(0)
+        RxObservables.create(new BatchCursorObservable(iterable, batchCursorSettings), observableAdapter).subscribe(subscriber)
+
+        when:
+        subscriber.requestMore(1)
+
+        then:
+        1 * iterable.batchSize(2)
+        1 * iterable.batchCursor(_)
+
+        where:
+        batchCursorSettings << [BatchCursorSettings.DEFAULT.demandDriven(1, 50), BatchCursorSettings.DEFAULT.demandDriven(1, 1),
+                                BatchCursorSettings.DEFAULT.prefetch(0, 1)]
+    }
+
+    def 'should size subsequent batches from the outstanding demand'() {
+        given:
+        def iterable = Mock(MongoIterable)
+        def cursor = Mock(AsyncBatchCursor)
+        def subscriber = new TestSubscriber(0)
+        RxObservables.create(new BatchCursorObservable(iterable, settings), observableAdapter).subscribe(subscriber)
+
+        when:
+        subscriber.requestMore(8)
+
+        then:
+        1 * iterable.batchCursor(_) >> { args -> args[0].onResult(cursor, null) }
+        1 * cursor.setBatchSize(8)
+        1 * cursor.next(_) >> { args -> args[0].onResult([1, 2, 3, 4, 5, 6], null) }
+        1 * cursor.setBatchSize(5)
+        1 * cursor.next(_) >> { args -> args[0].onResult([7, 8], null) }
+        subscriber.assertReceivedOnNext([1, 2, 3, 4, 5, 6, 7, 8])
+
+        when:
+        subscriber.requestMore(30)
+
+        then:
+        1 * cursor.setBatchSize(30)
+        1 * cursor.next(_) >> { args -> args[0].onResult([9, 10], null) }
+        1 * cursor.setBatchSize(28)
+        1 * cursor.next(_) >> { args -> args[0].onResult(null, null) }
+        1 * cursor.close()
+        subscriber.assertReceivedOnNext([1, 2, 3, 4, 5, 6, 7, 8, 9, 10])
+        subscriber.assertCompleted()
+    }
+
+    def 'should not emit more than requested'() {
+        given:
+        def iterable = Mock(MongoIterable)
+        def cursor = Mock(AsyncBatchCursor)
+        def subscriber = new TestSubscriber(0)
+        RxObservables.create(new BatchCursorObservable(iterable, settings), observableAdapter).subscribe(subscriber)
+
+        when:
+        subscriber.requestMore(2)
+
+        then:
+        1 * iterable.batchCursor(_) >> { args -> args[0].onResult(cursor, null) }
+        1 * cursor.next(_) >> { args -> args[0].onResult([1, 2, 3, 4, 5], null) }
+        subscriber.assertReceivedOnNext([1, 2])
+
+        when:
+        subscriber.requestMore(3)
+
+        then:
+        0 * cursor.next(_)
+        subscriber.assertReceivedOnNext([1, 2, 3, 4, 5])
+    }
+
+    def 'should pass errors to the subscriber and close the cursor'() {
+        given:
+        def iterable = Mock(MongoIterable)
+        def cursor = Mock(AsyncBatchCursor)
+        def subscriber = new TestSubscriber(0)
+        RxObservables.create(new BatchCursorObservable(iterable, settings), observableAdapter).subscribe(subscriber)
+
+        when:
+        subscriber.requestMore(10)
+
+        then:
+        1 * iterable.batchCursor(_) >> { args -> args[0].onResult(cursor, null) }
+        1 * cursor.next(_) >> { args -> args[0].onResult(null, new MongoException('failed')) }
+        1 * cursor.close()
+        subscriber.assertError(MongoException)
+    }
+
+    def 'should close the cursor when unsubscribed'() {
+        given:
+        def iterable = Mock(MongoIterable)
+        def cursor = Mock(AsyncBatchCursor)
+        def subscriber = new TestSubscriber(0)
+        RxObservables.create(new BatchCursorObservable(iterable, settings), observableAdapter).subscribe(subscriber)
+
+        when:
+        subscriber.requestMore(1)
+
+        then:
+        1 * iterable.batchCursor(_) >> { args -> args[0].onResult(cursor, null) }
+        1 * cursor.next(_) >> { args -> args[0].onResult([1, 2], null) }
+
+        when:
+        subscriber.unsubscribe()
+
+        then:
+        1 * cursor.close()
+    }
+
+    def 'should request the next batch ahead of demand when prefetching'() {
+        given:
+        def iterable = Mock(MongoIterable)
+        def cursor = Mock(AsyncBatchCursor)
+        def subscriber = new TestSubscriber(0)
+        def prefetching = BatchCursorSettings.DEFAULT.prefetch(2, 6)
+        RxObservables.create(new BatchCursorObservable(iterable, prefetching), observableAdapter).subscribe(subscriber)
+
+        when:
+        subscriber.requestMore(1)
+
+        then:
+        1 * iterable.batchSize(6)
+        1 * iterable.batchCursor(_) >> { args -> args[0].onResult(cursor, null) }
+        1 * cursor.setBatchSize(6)
+        1 * cursor.next(_) >> { args -> args[0].onResult([1, 2, 3, 4, 5, 6], null) }
+        0 * cursor.next(_)
+        subscriber.assertReceivedOnNext([1])
+
+        when:
+        subscriber.requestMore(3)
+
+        then: 'the next batch is requested once the buffer falls to the low watermark'
+        1 * cursor.setBatchSize(4)
+        1 * cursor.next(_)
+        subscriber.assertReceivedOnNext([1, 2, 3, 4])
+    }
+
+    def 'should only have one batch in flight when prefetching'() {
+        given:
+        def iterable = Mock(MongoIterable)
+        def cursor = Mock(AsyncBatchCursor)
+        def subscriber = new TestSubscriber(0)
+        def prefetching = BatchCursorSettings.DEFAULT.prefetch(5, 10)
+        RxObservables.create(new BatchCursorObservable(iterable, prefetching), observableAdapter).subscribe(subscriber)
+
+        when:
+        subscriber.requestMore(4)
+
+        then:
+        1 * iterable.batchCursor(_) >> { args -> args[0].onResult(cursor, null) }
+        1 * cursor.next(_) >> { args -> args[0].onResult([1, 2, 3, 4, 5, 6, 7, 8], null) }
+        1 * cursor.next(_)
+        subscriber.assertReceivedOnNext([1, 2, 3, 4])
+
+        when:
+        subscriber.requestMore(4)
+
+        then:
+        0 * cursor.next(_)
+        subscriber.assertReceivedOnNext([1, 2, 3, 4, 5, 6, 7, 8])
+    }
+
+    def 'should emit one list per batch and count demand in batches'() {
+        given:
+        def iterable = Mock(MongoIterable)
+        def cursor = Mock(AsyncBatchCursor)
+        def subscriber = new TestSubscriber(0)
+        RxObservables.create(BatchCursorObservable.observeBatches(iterable, BatchCursorSettings.DEFAULT), observableAdapter)
+                .subscribe(subscriber)
+
+        when:
+        subscriber.requestMore(1)
+
+        then:
+        0 * iterable.batchSize(_)
+        1 * iterable.batchCursor(_) >> { args -> args[0].onResult(cursor, null) }
+        0 * cursor.setBatchSize(_)
+        1 * cursor.next(_) >> { args -> args[0].onResult([1, 2, 3], null) }
+        subscriber.assertReceivedOnNext([[1, 2, 3]])
+
+        when:
+        subscriber.requestMore(2)
+
+        then: 'empty batches are not emitted'
+        1 * cursor.next(_) >> { args -> args[0].onResult([], null) }
+        1 * cursor.next(_) >> { args -> args[0].onResult([4, 5], null) }
+        1 * cursor.next(_) >> { args -> args[0].onResult(null, null) }
+        subscriber.assertReceivedOnNext([[1, 2, 3], [4, 5]])
+        subscriber.assertCompleted()
+    }
+
+    def 'should keep the configured batch size when emitting batches sized from demand'() {
+        given:
+        def iterable = Mock(MongoIterable)
+        def subscriber = new TestSubscriber(0)
+        RxObservables.create(BatchCursorObservable.observeBatches(iterable, settings), observableAdapter).subscribe(subscriber)
+
+        when:
+        subscriber.requestMore(1)
+
+        then:
+        0 * iterable.batchSize(_)
+        1 * iterable.batchCursor(_)
+    }
+
+    def 'should size batches to read ahead when emitting batches'() {
+        given:
+        def iterable = Mock(MongoIterable)
+        def cursor = Mock(AsyncBatchCursor)
+        def subscriber = new TestSubscriber(0)
+        RxObservables.create(BatchCursorObservable.observeBatches(iterable, BatchCursorSettings.DEFAULT.prefetch(2, 6)), observableAdapter)
+                .subscribe(subscriber)
+
+        when:
+        subscriber.requestMore(1)
+
+        then:
+        1 * iterable.batchSize(6)
+        1 * iterable.batchCursor(_) >> { args -> args[0].onResult(cursor, null) }
+        1 * cursor.setBatchSize(6)
+        1 * cursor.next(_)
+    }
+
+    def 'should validate the batch size bounds'() {
+        when:
+        BatchCursorSettings.DEFAULT.demandDriven(min, max)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        min | max
+        0   | 10
+        10  | 5
+    }
+
+    def 'should validate the prefetch watermarks'() {
+        when:
+        BatchCursorSettings.DEFAULT.prefetch(low, high)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        low | high
+        -1  | 10
+        10  | 10
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal
+
+import com.mongodb.MongoCommandException
+import com.mongodb.MongoSocketReadException
+import com.mongodb.ReadConcern
+import com.mongodb.ReadPreference
+import com.mongodb.ServerAddress
+import com.mongodb.async.AsyncBatchCursor
+import com.mongodb.async.client.MongoClients
+import com.mongodb.async.client.MongoDatabase as WrappedMongoDatabase
+import com.mongodb.rx.client.FullDocument
+import com.mongodb.rx.client.ResumeTokenStore
+import org.bson.BsonDocument
+import org.bson.BsonString
+import org.bson.Document
+import rx.observers.TestSubscriber
+import spock.lang.Specification
+
+import static com.mongodb.rx.client.internal.ObservableHelper.NoopObservableAdapter
+
+class ChangeStreamObservableImplSpecification extends Specification {
+
+    def codecRegistry = MongoClients.getDefaultCodecRegistry()
+    def openedPipelines = []
+    def cursors = []
+    def opener = { pipeline, batchSize, collation, callback ->
+        openedPipelines.add(pipeline)
+        callback.onResult(cursors.remove(0), null)
+    } as ChangeStreamObservableImpl.CursorOpener
+
+    def 'should prepend the change stream stage and only fetch while there is demand'() {
+        given:
+        def cursor = Mock(AsyncBatchCursor)
+        cursors.add(cursor)
+        def observable = new ChangeStreamObservableImpl(opener, [new Document('$match', new Document('operationType', 'insert'))],
+                Document, codecRegistry, new NoopObservableAdapter()).fullDocument(FullDocument.UPDATE_LOOKUP)
+        def subscriber = new TestSubscriber(0)
+
+        when:
+        observable.subscribe(subscriber)
+
+        then:
+        0 * cursor.next(_)
+        openedPipelines.isEmpty()
+
+        when:
+        subscriber.requestMore(1)
+
+        then:
+        1 * cursor.next(_) >> { it[0].onResult([event(1), event(2)], null) }
+        openedPipelines == [[BsonDocument.parse('{$changeStream: {fullDocument: "updateLookup"}}'),
+                             BsonDocument.parse('{$match: {operationType: "insert"}}')]]
+        subscriber.assertValueCount(1)
+        subscriber.getOnNextEvents()[0] instanceof Document
+
+        when:
+        subscriber.requestMore(1)
+
+        then:
+        0 * cursor.next(_)
+        subscriber.assertValueCount(2)
+    }
+
+    def 'should resume once after a resumable error and checkpoint the resume token'() {
+        given:
+        def firstCursor = Mock(AsyncBatchCursor)
+        def secondCursor = Mock(AsyncBatchCursor)
+        cursors.addAll([firstCursor, secondCursor])
+        def saved = []
+        def store = Stub(ResumeTokenStore) {
+            load() >> token(0)
+            save(_) >> { saved.add(it[0]) }
+        }
+        def subscriber = new TestSubscriber()
+
+        when:
+        new ChangeStreamObservableImpl(opener, [], BsonDocument, codecRegistry, new NoopObservableAdapter())
+                .resumeTokenStore(store).subscribe(subscriber)
+
+        then:
+        1 * firstCursor.next(_) >> { it[0].onResult([event(1)], null) }
+        1 * firstCursor.next(_) >> { it[0].onResult(null, new MongoSocketReadException('closed', new ServerAddress())) }
+        1 * firstCursor.close()
+        1 * secondCursor.next(_) >> { it[0].onResult([event(2)], null) }
+        1 * secondCursor.next(_) >> { it[0].onResult(null, null) }
+        openedPipelines*.get(0)*.getDocument('$changeStream')*.getDocument('resumeAfter') == [token(0), token(1)]
+        saved == [token(1), token(2)]
+        subscriber.assertValues(event(1), event(2))
+        subscriber.assertCompleted()
+    }
+
+    def 'should not resume after a non resumable error'() {
+        given:
+        def cursor = Mock(AsyncBatchCursor)
+        cursors.add(cursor)
+        def error = new MongoCommandException(BsonDocument.parse('{ok: 0, code: 2, errmsg: "bad"}'), new ServerAddress())
+        def subscriber = new TestSubscriber()
+
+        when:
+        new ChangeStreamObservableImpl(opener, [], Document, codecRegistry, new NoopObservableAdapter()).subscribe(subscriber)
+
+        then:
+        1 * cursor.next(_) >> { it[0].onResult(null, error) }
+        subscriber.assertError(error)
+        openedPipelines.size() == 1
+    }
+
+    def 'should fail if the resume token is missing'() {
+        given:
+        def cursor = Mock(AsyncBatchCursor)
+        cursors.add(cursor)
+        def subscriber = new TestSubscriber()
+
+        when:
+        new ChangeStreamObservableImpl(opener, [], Document, codecRegistry, new NoopObservableAdapter()).subscribe(subscriber)
+
+        then:
+        1 * cursor.next(_) >> { it[0].onResult([new BsonDocument()], null) }
+        1 * cursor.close()
+        subscriber.assertNoValues()
+        subscriber.getOnErrorEvents().size() == 1
+    }
+
+    def 'should close the cursor when unsubscribed'() {
+        given:
+        def cursor = Mock(AsyncBatchCursor)
+        cursors.add(cursor)
+        def subscriber = new TestSubscriber(1)
+
+        when:
+        new ChangeStreamObservableImpl(opener, [], Document, codecRegistry, new NoopObservableAdapter()).subscribe(subscriber)
+        subscriber.unsubscribe()
+
+        then:
+        1 * cursor.next(_) >> { it[0].onResult([event(1)], null) }
+        1 * cursor.close()
+    }
+
+    def 'should run a database level aggregate and iterate it with getMore'() {
+        given:
+        def database = Mock(WrappedMongoDatabase) {
+            getReadConcern() >> ReadConcern.MAJORITY
+        }
+        def subscriber = new TestSubscriber()
+
+        when:
+        new ChangeStreamObservableImpl(ChangeStreamObservableImpl.databaseCursorOpener(database), [], Document, codecRegistry,
+                new NoopObservableAdapter()).batchSize(5).subscribe(subscriber)
+
+        then:
+        1 * database.runCommand(BsonDocument.parse('''{aggregate: 1, pipeline: [{$changeStream: {fullDocument: "default"}}],
+                cursor: {batchSize: 5}, readConcern: {level: "majority"}}'''), ReadPreference.primary(), BsonDocument, _) >> {
+            it[3].onResult(BsonDocument.parse('{cursor: {id: {$numberLong: "12"}, ns: "db.$cmd.aggregate", firstBatch: []}, ok: 1}'), null)
+        }
+        1 * database.runCommand(BsonDocument.parse('{getMore: {$numberLong: "12"}, collection: "$cmd.aggregate", batchSize: 5}'),
+                ReadPreference.primary(), BsonDocument, _) >> {
+            it[3].onResult(BsonDocument.parse('{cursor: {id: {$numberLong: "0"}, ns: "db.$cmd.aggregate", nextBatch: [{_id: {t: 1}}]}}'),
+                    null)
+        }
+        subscriber.assertValues(new Document('_id', new Document('t', 1)))
+        subscriber.assertCompleted()
+    }
+
+    def event(int i) {
+        new BsonDocument('_id', token(i)).append('operationType', new BsonString('insert'))
+    }
+
+    def token(int i) {
+        BsonDocument.parse("{t: ${i}}")
+    }
+}
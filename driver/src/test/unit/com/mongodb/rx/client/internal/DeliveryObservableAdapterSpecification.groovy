@@ -0,0 +1,156 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal
+
+import com.mongodb.MongoException
+import com.mongodb.ReadPreference
+import com.mongodb.rx.client.DeliverySettings
+import com.mongodb.rx.client.ObservableAdapter
+import com.mongodb.rx.client.OperationAwareObservableAdapter
+import com.mongodb.rx.client.OperationContext
+import rx.Observable
+import rx.functions.Action1
+import rx.observers.TestSubscriber
+import rx.schedulers.Schedulers
+import spock.lang.Specification
+
+import java.util.concurrent.Executors
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.TimeUnit
+
+import static com.mongodb.rx.client.internal.ObservableHelper.NoopObservableAdapter
+
+class DeliveryObservableAdapterSpecification extends Specification {
+
+    def executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        Thread newThread(final Runnable runnable) {
+            new Thread(runnable, 'delivery')
+        }
+    })
+    def settings = DeliverySettings.builder().executor(executor).batchSize(4).build()
+
+    def cleanup() {
+        executor.shutdownNow()
+    }
+
+    def 'should deliver the results in order on the scheduler'() {
+        given:
+        def threads = Collections.synchronizedSet(new HashSet())
+        def subscriber = new TestSubscriber()
+
+        when:
+        new DeliveryObservableAdapter(settings, new NoopObservableAdapter()).adapt(Observable.range(1, 10))
+                .doOnNext({ threads.add(Thread.currentThread().getName()) } as Action1)
+                .subscribe(subscriber)
+        subscriber.awaitTerminalEvent(10, TimeUnit.SECONDS)
+
+        then:
+        subscriber.assertValues(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)
+        subscriber.assertCompleted()
+        threads == ['delivery'] as Set
+    }
+
+    def 'should request no more than the batch size ahead of the subscriber'() {
+        given:
+        def requests = Collections.synchronizedList([])
+        def subscriber = new TestSubscriber(0)
+
+        when:
+        new DeliveryObservableAdapter(settings, new NoopObservableAdapter())
+                .adapt(Observable.range(1, 100).doOnRequest({ requests.add(it) } as Action1))
+                .subscribe(subscriber)
+
+        then:
+        requests == [4L]
+        subscriber.assertNoValues()
+
+        when:
+        subscriber.requestMore(2)
+        subscriber.awaitValueCount(2, 10, TimeUnit.SECONDS)
+
+        then:
+        subscriber.assertValues(1, 2)
+        requests.sum() <= 6
+    }
+
+    def 'should deliver an error after the results before it'() {
+        given:
+        def subscriber = new TestSubscriber()
+
+        when:
+        new DeliveryObservableAdapter(settings, new NoopObservableAdapter())
+                .adapt(Observable.range(1, 3).concatWith(Observable.error(new MongoException('failed'))))
+                .subscribe(subscriber)
+        subscriber.awaitTerminalEvent(10, TimeUnit.SECONDS)
+
+        then:
+        subscriber.assertValues(1, 2, 3)
+        subscriber.assertError(MongoException)
+    }
+
+    def 'should apply the wrapped adapter after moving the delivery'() {
+        given:
+        def context = new OperationContext('find', 'db.coll', ReadPreference.primary(), null)
+        def contexts = []
+        def operationAware = new OperationAwareObservableAdapter() {
+            @Override
+            def <T> Observable<T> adapt(final Observable<T> observable, final OperationContext operationContext) {
+                contexts.add(operationContext)
+                observable
+            }
+
+            @Override
+            def <T> Observable<T> adapt(final Observable<T> observable) {
+                contexts.add(null)
+                observable
+            }
+        }
+        def wrapped = Mock(ObservableAdapter)
+
+        when:
+        new DeliveryObservableAdapter(settings, operationAware).adapt(Observable.just(1), context)
+        new DeliveryObservableAdapter(settings, operationAware).adapt(Observable.just(1))
+        new DeliveryObservableAdapter(settings, wrapped).adapt(Observable.just(1), context)
+
+        then:
+        contexts == [context, null]
+        1 * wrapped.adapt(_) >> Observable.empty()
+    }
+
+    def 'should deliver on the computation scheduler unless another scheduler is set'() {
+        expect:
+        DeliverySettings.builder().build().getScheduler() == Schedulers.computation()
+        DeliverySettings.builder().scheduler(Schedulers.immediate()).build().getScheduler() == Schedulers.immediate()
+    }
+
+    def 'should keep delivering on the threads of the driver with the immediate scheduler'() {
+        given:
+        def threads = []
+        def subscriber = new TestSubscriber()
+
+        when:
+        new DeliveryObservableAdapter(DeliverySettings.builder().scheduler(Schedulers.immediate()).build(), new NoopObservableAdapter())
+                .adapt(Observable.range(1, 3))
+                .doOnNext({ threads.add(Thread.currentThread()) } as Action1)
+                .subscribe(subscriber)
+
+        then:
+        subscriber.assertValues(1, 2, 3)
+        threads == [Thread.currentThread()] * 3
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal
+
+import com.mongodb.MongoNamespace
+import com.mongodb.ReadPreference
+import com.mongodb.async.client.MongoClient as WrappedMongoClient
+import com.mongodb.async.client.MongoClientSettings
+import com.mongodb.async.client.MongoCollection as WrappedMongoCollection
+import com.mongodb.async.client.MongoDatabase as WrappedMongoDatabase
+import com.mongodb.rx.client.DeliverySettings
+import com.mongodb.rx.client.SlowDeliveryEvent
+import com.mongodb.rx.client.SlowDeliveryListener
+import org.bson.Document
+import rx.observers.TestSubscriber
+import rx.schedulers.Schedulers
+import spock.lang.Specification
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.TimeUnit
+
+import static com.mongodb.rx.client.internal.ObservableHelper.NoopObservableAdapter
+
+class DeliveryWatchdogSpecification extends Specification {
+
+    def events = new CopyOnWriteArrayList<SlowDeliveryEvent>()
+    def listener = new SlowDeliveryListener() {
+        @Override
+        void slowDelivery(final SlowDeliveryEvent event) {
+            events.add(event)
+        }
+    }
+    def recorder = new OperationRecorder('db.coll', 'find')
+
+    def 'should report a subscriber that blocks the thread of the driver with its stack trace'() {
+        given:
+        def wrappedCollection = Mock(WrappedMongoCollection) {
+            getNamespace() >> new MongoNamespace('db.coll')
+            getReadPreference() >> ReadPreference.primary()
+        }
+        def wrappedDatabase = Mock(WrappedMongoDatabase) {
+            getCollection('coll', Document) >> wrappedCollection
+        }
+        def wrapped = Mock(WrappedMongoClient) {
+            getDatabase('db') >> wrappedDatabase
+            getSettings() >> MongoClientSettings.builder().build()
+        }
+        def client = new MongoClientImpl(wrapped, new NoopObservableAdapter(), DeliverySettings.builder().scheduler(Schedulers.immediate())
+                .slowDeliveryThreshold(20, TimeUnit.MILLISECONDS).slowDeliveryListener(listener).build())
+        def subscriber = new TestSubscriber() {
+            @Override
+            void onNext(final Object result) {
+                blockInOnNext()
+                super.onNext(result)
+            }
+        }
+
+        when:
+        client.getDatabase('db').getCollection('coll').insertOne(new Document()).subscribe(subscriber)
+
+        then:
+        1 * wrappedCollection.insertOne(_, _) >> { it[1].onResult(null, null) }
+        subscriber.assertCompleted()
+        events.size() == 1
+        events[0].getNamespace() == 'db.coll'
+        events[0].getOperation() == 'insertOne'
+        events[0].getSignal() == 'onNext'
+        events[0].getThreadName() == Thread.currentThread().getName()
+        events[0].getDuration(TimeUnit.MILLISECONDS) >= 20
+        events[0].getStackTrace()*.getMethodName().contains('blockInOnNext')
+
+        cleanup:
+        client?.close()
+    }
+
+    def 'should not report deliveries within the threshold'() {
+        given:
+        def watchdog = new DeliveryWatchdog(TimeUnit.MILLISECONDS.toNanos(20), listener)
+
+        when:
+        10.times {
+            watchdog.start(recorder, 'onNext')
+            watchdog.finish(TimeUnit.MILLISECONDS.toNanos(1))
+        }
+        Thread.sleep(50)
+
+        then:
+        events.isEmpty()
+
+        cleanup:
+        watchdog.close()
+    }
+
+    def 'should report a delivery that finishes over the threshold before it is sampled without a stack trace'() {
+        given:
+        def watchdog = new DeliveryWatchdog(TimeUnit.HOURS.toNanos(1), listener)
+
+        when:
+        watchdog.start(recorder, 'onCompleted')
+        watchdog.finish(TimeUnit.HOURS.toNanos(2))
+
+        then:
+        events.size() == 1
+        events[0].getNamespace() == 'db.coll'
+        events[0].getOperation() == 'find'
+        events[0].getSignal() == 'onCompleted'
+        events[0].getDuration(TimeUnit.HOURS) == 2
+        events[0].getStackTrace().length == 0
+
+        cleanup:
+        watchdog.close()
+    }
+
+    def 'should only report the outermost of nested deliveries once'() {
+        given:
+        def watchdog = new DeliveryWatchdog(TimeUnit.MILLISECONDS.toNanos(10), listener)
+
+        when:
+        watchdog.start(recorder, 'onNext')
+        watchdog.start(new OperationRecorder('db.other', 'count'), 'onCompleted')
+        Thread.sleep(50)
+        watchdog.finish(TimeUnit.MILLISECONDS.toNanos(50))
+        watchdog.finish(TimeUnit.MILLISECONDS.toNanos(50))
+
+        then:
+        events.size() == 1
+        events[0].getNamespace() == 'db.coll'
+        events[0].getSignal() == 'onNext'
+
+        cleanup:
+        watchdog.close()
+    }
+
+    private static void blockInOnNext() {
+        Thread.sleep(200)
+    }
+}
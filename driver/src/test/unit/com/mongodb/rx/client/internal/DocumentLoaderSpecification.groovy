@@ -0,0 +1,295 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal
+
+import com.mongodb.MongoClientException
+import com.mongodb.MongoException
+import com.mongodb.async.client.FindIterable
+import com.mongodb.async.client.MongoClients
+import com.mongodb.async.client.MongoCollection as WrappedMongoCollection
+import org.bson.BsonDecimal128
+import org.bson.BsonDocument
+import org.bson.BsonDouble
+import org.bson.BsonInt32
+import org.bson.BsonInt64
+import org.bson.BsonString
+import org.bson.Document
+import org.bson.RawBsonDocument
+import org.bson.types.Decimal128
+import rx.observers.TestSubscriber
+import rx.schedulers.TestScheduler
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+import static com.mongodb.rx.client.internal.ObservableHelper.NoopObservableAdapter
+
+class DocumentLoaderSpecification extends Specification {
+
+    def scheduler = new TestScheduler()
+    def findIterable = Mock(FindIterable)
+    def rawCollection = Mock(WrappedMongoCollection)
+    def wrapped = Mock(WrappedMongoCollection) {
+        getCodecRegistry() >> MongoClients.getDefaultCodecRegistry()
+        getDocumentClass() >> Document
+        withDocumentClass(RawBsonDocument) >> rawCollection
+    }
+
+    def 'should collapse the loads made before the delay into a single query'() {
+        given:
+        def loader = loader(10, 5, false)
+        def subscribers = [1, 2, 1, 3].collect { subscribe(loader, it) }
+
+        when:
+        scheduler.advanceTimeBy(4, TimeUnit.MILLISECONDS)
+
+        then:
+        0 * rawCollection.find(_)
+
+        when:
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS)
+
+        then:
+        1 * rawCollection.find(BsonDocument.parse('{_id: {$in: [1, 2, 3]}}')) >> findIterable
+        1 * findIterable.into(_, _) >> { it[1].onResult([raw('{_id: 2, x: "b"}'), raw('{_id: 1, x: "a"}')], null) }
+        subscribers[0].assertValues(Document.parse('{_id: 1, x: "a"}'))
+        subscribers[1].assertValues(Document.parse('{_id: 2, x: "b"}'))
+        subscribers[2].assertValues(Document.parse('{_id: 1, x: "a"}'))
+        subscribers[3].assertNoValues()
+        subscribers*.assertCompleted()
+    }
+
+    def 'should send a batch as soon as it is full'() {
+        given:
+        def loader = loader(2, 1000, false)
+
+        when:
+        subscribe(loader, 1)
+        subscribe(loader, 2)
+        subscribe(loader, 3)
+
+        then:
+        1 * rawCollection.find(BsonDocument.parse('{_id: {$in: [1, 2]}}')) >> findIterable
+        1 * findIterable.into(_, _) >> { it[1].onResult([], null) }
+
+        when:
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        then:
+        1 * rawCollection.find(BsonDocument.parse('{_id: {$in: [3]}}')) >> findIterable
+        1 * findIterable.into(_, _) >> { it[1].onResult([], null) }
+    }
+
+    def 'should match documents by nested and array keys'() {
+        given:
+        def loader = new DocumentLoaderImpl(wrapped, new NoopObservableAdapter(), 'a.b', 10, 0, TimeUnit.MILLISECONDS, false, scheduler)
+        def first = subscribe(loader, 'x')
+        def second = subscribe(loader, 'y')
+
+        when:
+        scheduler.triggerActions()
+
+        then:
+        1 * rawCollection.find(BsonDocument.parse('{"a.b": {$in: ["x", "y"]}}')) >> findIterable
+        1 * findIterable.into(_, _) >> { it[1].onResult([raw('{_id: 1, a: {b: ["x", "y"]}}'), raw('{_id: 2, a: {b: "y"}}')], null) }
+        first.assertValues(Document.parse('{_id: 1, a: {b: ["x", "y"]}}'))
+        second.assertValues(Document.parse('{_id: 1, a: {b: ["x", "y"]}}'), Document.parse('{_id: 2, a: {b: "y"}}'))
+    }
+
+    def 'should match documents by keys reached through arrays of documents'() {
+        given:
+        def loader = new DocumentLoaderImpl(wrapped, new NoopObservableAdapter(), 'items.sku', 10, 0, TimeUnit.MILLISECONDS, false,
+                scheduler)
+        def first = subscribe(loader, 'a')
+        def second = subscribe(loader, 'b')
+        def missing = subscribe(loader, null)
+
+        when:
+        scheduler.triggerActions()
+
+        then:
+        1 * rawCollection.find(BsonDocument.parse('{"items.sku": {$in: ["a", "b", null]}}')) >> findIterable
+        1 * findIterable.into(_, _) >> {
+            it[1].onResult([raw('{_id: 1, items: [{sku: "a"}, {sku: ["a", "b"]}]}'), raw('{_id: 2, items: [{sku: "b"}, {qty: 1}]}')], null)
+        }
+        first.assertValues(Document.parse('{_id: 1, items: [{sku: "a"}, {sku: ["a", "b"]}]}'))
+        second.assertValues(Document.parse('{_id: 1, items: [{sku: "a"}, {sku: ["a", "b"]}]}'),
+                Document.parse('{_id: 2, items: [{sku: "b"}, {qty: 1}]}'))
+        missing.assertValues(Document.parse('{_id: 2, items: [{sku: "b"}, {qty: 1}]}'))
+    }
+
+    def 'should match documents by keys reached through array positions'() {
+        given:
+        def loader = new DocumentLoaderImpl(wrapped, new NoopObservableAdapter(), 'items.1.sku', 10, 0, TimeUnit.MILLISECONDS, false,
+                scheduler)
+        def second = subscribe(loader, 'b')
+
+        when:
+        scheduler.triggerActions()
+
+        then:
+        1 * rawCollection.find(BsonDocument.parse('{"items.1.sku": {$in: ["b"]}}')) >> findIterable
+        1 * findIterable.into(_, _) >> { it[1].onResult([raw('{_id: 1, items: [{sku: "a"}, {sku: "b"}]}')], null) }
+        second.assertValues(Document.parse('{_id: 1, items: [{sku: "a"}, {sku: "b"}]}'))
+    }
+
+    def 'should match numeric keys to stored numbers of any numeric type'() {
+        given:
+        def loader = loader(10, 0, true)
+        def int32 = subscribe(loader, 1)
+        def int64 = subscribe(loader, 2L)
+        def decimal = subscribe(loader, new Decimal128(new BigDecimal('3.50')))
+
+        when:
+        scheduler.triggerActions()
+
+        then:
+        1 * rawCollection.find(BsonDocument.parse('{_id: {$in: [1, 2, 3.5]}}')) >> findIterable
+        1 * findIterable.into(_, _) >> {
+            it[1].onResult([raw('{_id: {$numberLong: "1"}}'), raw('{_id: 2.0}'), raw('{_id: {$numberDecimal: "3.5"}}')], null)
+        }
+        int32.assertValues(Document.parse('{_id: {$numberLong: "1"}}'))
+        int64.assertValues(Document.parse('{_id: 2.0}'))
+        decimal.assertValues(Document.parse('{_id: {$numberDecimal: "3.5"}}'))
+
+        when:
+        def memoized = subscribe(loader, 1.0d)
+        scheduler.triggerActions()
+
+        then:
+        0 * rawCollection.find(_)
+        memoized.assertValues(Document.parse('{_id: {$numberLong: "1"}}'))
+    }
+
+    def 'should normalize numbers to the narrowest type that represents them exactly'() {
+        expect:
+        DocumentLoaderImpl.normalize(value) == normalized
+
+        where:
+        value                                               | normalized
+        new BsonInt64(1)                                    | new BsonInt32(1)
+        new BsonInt64(1L << 40)                             | new BsonInt64(1L << 40)
+        new BsonDouble(-0.0d)                               | new BsonInt32(0)
+        new BsonDouble(1.5d)                                | new BsonDouble(1.5d)
+        new BsonDouble(1e30d)                               | new BsonDouble(1e30d)
+        new BsonDecimal128(Decimal128.parse('1.00'))        | new BsonInt32(1)
+        new BsonDecimal128(Decimal128.parse('-0'))          | new BsonInt32(0)
+        new BsonDecimal128(Decimal128.parse('0.10'))        | new BsonDecimal128(Decimal128.parse('0.1'))
+        new BsonDecimal128(Decimal128.parse('NaN'))         | new BsonDouble(Double.NaN)
+        new BsonString('1')                                 | new BsonString('1')
+    }
+
+    def 'should fail the loads of a batch when a returned document matches none of its keys'() {
+        given:
+        def loader = loader(10, 0, true)
+        def subscriber = subscribe(loader, 'a')
+
+        when:
+        scheduler.triggerActions()
+
+        then:
+        1 * rawCollection.find(_) >> findIterable
+        1 * findIterable.into(_, _) >> { it[1].onResult([raw('{_id: "A"}')], null) }
+        subscriber.assertError(MongoClientException)
+
+        when:
+        subscribe(loader, 'a')
+        scheduler.triggerActions()
+
+        then:
+        1 * rawCollection.find(_) >> findIterable
+        1 * findIterable.into(_, _) >> { it[1].onResult([], null) }
+    }
+
+    def 'should pass a failed query to every load in the batch'() {
+        given:
+        def loader = loader(10, 0, false)
+        def error = new MongoException('failed')
+        def subscribers = [1, 2].collect { subscribe(loader, it) }
+
+        when:
+        scheduler.triggerActions()
+
+        then:
+        1 * rawCollection.find(_) >> findIterable
+        1 * findIterable.into(_, _) >> { it[1].onResult(null, error) }
+        subscribers*.assertError(error)
+    }
+
+    def 'should memoize loaded keys until they are cleared'() {
+        given:
+        def loader = loader(10, 0, true)
+        subscribe(loader, 1)
+
+        when:
+        scheduler.triggerActions()
+
+        then:
+        1 * rawCollection.find(_) >> findIterable
+        1 * findIterable.into(_, _) >> { it[1].onResult([raw('{_id: 1}')], null) }
+
+        when:
+        def subscriber = subscribe(loader, 1)
+        scheduler.triggerActions()
+
+        then:
+        0 * rawCollection.find(_)
+        subscriber.assertValues(Document.parse('{_id: 1}'))
+
+        when:
+        loader.clear(1)
+        subscribe(loader, 1)
+        scheduler.triggerActions()
+
+        then:
+        1 * rawCollection.find(_) >> findIterable
+        1 * findIterable.into(_, _) >> { it[1].onResult([], null) }
+    }
+
+    def 'should not subscribe to the loader until the observable is subscribed to'() {
+        given:
+        def loader = loader(1, 0, false)
+
+        when:
+        def observable = loader.load(1)
+
+        then:
+        0 * rawCollection.find(_)
+
+        when:
+        observable.subscribe(new TestSubscriber())
+
+        then:
+        1 * rawCollection.find(_) >> findIterable
+        1 * findIterable.into(_, _) >> { it[1].onResult([], null) }
+    }
+
+    def loader(int maxBatchSize, long maxDelay, boolean memoize) {
+        new DocumentLoaderImpl(wrapped, new NoopObservableAdapter(), '_id', maxBatchSize, maxDelay, TimeUnit.MILLISECONDS, memoize,
+                scheduler)
+    }
+
+    def subscribe(loader, key) {
+        def subscriber = new TestSubscriber()
+        loader.load(key).subscribe(subscriber)
+        subscriber
+    }
+
+    def raw(String json) {
+        RawBsonDocument.parse(json)
+    }
+}
@@ -17,15 +17,20 @@
 package com.mongodb.rx.client.internal
 
 import com.mongodb.CursorType
+import com.mongodb.async.AsyncBatchCursor
 import com.mongodb.async.client.FindIterable
+import com.mongodb.async.client.MongoClients
+import com.mongodb.async.client.MongoCollection
 import com.mongodb.client.model.Collation
 import com.mongodb.rx.client.ObservableAdapter
 import org.bson.BsonDocument
 import org.bson.BsonInt32
 import org.bson.Document
+import org.bson.RawBsonDocument
 import rx.observers.TestSubscriber
 import spock.lang.Specification
 
+import java.nio.ByteBuffer
 import java.util.concurrent.TimeUnit
 
 class FindObservableImplSpecification extends Specification {
@@ -111,4 +116,98 @@ class FindObservableImplSpecification extends Specification {
         1 * wrapped.first(_)
     }
 
+    def 'should size batches from demand when requested'() {
+        given:
+        def wrapped = Mock(FindIterable)
+        def observable = new FindObservableImpl<Document>(wrapped, new ObservableHelper.NoopObservableAdapter())
+                .batchSizeFromDemand(10, 1000)
+
+        when:
+        observable.subscribe(new TestSubscriber<Document>(1))
+
+        then:
+        1 * wrapped.batchSize(10) >> wrapped
+        1 * wrapped.batchCursor(_)
+
+        when:
+        observable.subscribe(new TestSubscriber<Document>())
+
+        then:
+        1 * wrapped.batchSize(1000) >> wrapped
+        1 * wrapped.batchCursor(_)
+    }
+
+    def 'should emit batches'() {
+        given:
+        def wrapped = Mock(FindIterable)
+        def observable = new FindObservableImpl<Document>(wrapped, new ObservableHelper.NoopObservableAdapter())
+
+        when:
+        observable.toObservableBatches().subscribe(new TestSubscriber<List<Document>>(1))
+
+        then:
+        0 * wrapped.batchSize(_)
+        1 * wrapped.batchCursor(_)
+    }
+
+    def 'should keep the batch size configured on the wrapped iterable when emitting batches'() {
+        given:
+        def configuredBatchSize = 50
+        def cursorBatchSize = null
+        def cursor = Mock(AsyncBatchCursor)
+        def wrapped = Stub(FindIterable) {
+            batchSize(_) >> { args -> configuredBatchSize = args[0]; delegate }
+            batchCursor(_) >> { args -> cursorBatchSize = configuredBatchSize; args[0].onResult(cursor, null) }
+        }
+        def batches = [[new Document()], null]
+        def subscriber = new TestSubscriber<List<Document>>(2)
+
+        when:
+        new FindObservableImpl<Document>(wrapped, new ObservableHelper.NoopObservableAdapter()).toObservableBatches().subscribe(subscriber)
+
+        then:
+        cursorBatchSize == 50
+        0 * cursor.setBatchSize(_)
+        2 * cursor.next(_) >> { args -> args[0].onResult(batches.remove(0), null) }
+        subscriber.assertValueCount(1)
+        subscriber.assertCompleted()
+    }
+
+    def 'should emit each batch as concatenated BSON documents'() {
+        given:
+        def codec = MongoClients.getDefaultCodecRegistry().get(Document)
+        def expected = [new Document('_id', 1), new Document('_id', 2)].collect {
+            def buffer = new RawBsonDocument(it, codec).getByteBuffer()
+            buffer.array()[0..<buffer.remaining()]
+        }.flatten() as byte[]
+        def batches = [results, null]
+        def cursor = Stub(AsyncBatchCursor) {
+            next(_) >> { it[0].onResult(batches.remove(0), null) }
+        }
+        def wrapped = Stub(FindIterable) {
+            batchCursor(_) >> { it[0].onResult(cursor, null) }
+        }
+        def collection = Stub(MongoCollection) {
+            getCodecRegistry() >> MongoClients.getDefaultCodecRegistry()
+        }
+        def subscriber = new TestSubscriber<ByteBuffer>()
+
+        when:
+        new FindObservableImpl(wrapped, new ObservableHelper.NoopObservableAdapter(), collection, null, resultClass,
+                CollectionFeatures.none(), null).toObservableRawBatches().subscribe(subscriber)
+
+        then:
+        subscriber.assertValueCount(1)
+        subscriber.assertCompleted()
+        def buffer = subscriber.getOnNextEvents()[0]
+        def bytes = new byte[buffer.remaining()]
+        buffer.get(bytes)
+        bytes == expected
+
+        where:
+        resultClass     | results
+        RawBsonDocument | [new RawBsonDocument(new Document('_id', 1), MongoClients.getDefaultCodecRegistry().get(Document)),
+                           new RawBsonDocument(new Document('_id', 2), MongoClients.getDefaultCodecRegistry().get(Document))]
+        Document        | [new Document('_id', 1), new Document('_id', 2)]
+    }
 }
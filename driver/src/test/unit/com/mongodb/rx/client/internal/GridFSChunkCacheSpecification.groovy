@@ -0,0 +1,141 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal
+
+import com.mongodb.async.SingleResultCallback
+import org.bson.BsonInt32
+import spock.lang.Specification
+
+import java.nio.ByteBuffer
+
+class GridFSChunkCacheSpecification extends Specification {
+
+    def file1 = new BsonInt32(1)
+    def file2 = new BsonInt32(2)
+
+    def 'should return the cached prefix of a range of chunks and count the rest as misses'() {
+        given:
+        def cache = new GridFSChunkCache(100, false)
+        cache.put(file1, 0, data(0, 10), cache.getGeneration())
+        cache.put(file1, 1, data(1, 10), cache.getGeneration())
+        cache.put(file1, 3, data(3, 10), cache.getGeneration())
+
+        when:
+        def cached = cache.get(file1, 0, 4)
+
+        then:
+        cached*.get(0) == [0, 1] as byte[]
+        cache.getStatistics().getHitCount() == 2
+        cache.getStatistics().getMissCount() == 2
+        cache.getStatistics().getHitRatio() == 0.5d
+        cache.getStatistics().getSize() == 3
+        cache.getStatistics().getBytes() == 30
+    }
+
+    def 'should hand out independent buffers over copies of the data'() {
+        given:
+        def cache = new GridFSChunkCache(100, directBuffers)
+        def source = data(7, 10)
+        cache.put(file1, 0, source, cache.getGeneration())
+        source.put(0, 42 as byte)
+
+        when:
+        def first = cache.get(file1, 0, 1)[0]
+        first.position(5)
+        def second = cache.get(file1, 0, 1)[0]
+
+        then:
+        first.isDirect() == directBuffers
+        second.position() == 0
+        second.remaining() == 10
+        second.get(0) == 7 as byte
+
+        where:
+        directBuffers << [false, true]
+    }
+
+    def 'should evict the least recently used chunks to stay within the byte bound'() {
+        given:
+        def cache = new GridFSChunkCache(30, false)
+        (0..<3).each { cache.put(file1, it, data(it, 10), cache.getGeneration()) }
+        cache.get(file1, 0, 1)
+
+        when:
+        cache.put(file2, 0, data(9, 15), cache.getGeneration())
+
+        then:
+        cache.get(file1, 0, 1).size() == 1
+        cache.get(file1, 1, 2).isEmpty()
+        cache.get(file1, 2, 3).isEmpty()
+        cache.getStatistics().getEvictionCount() == 2
+        cache.getStatistics().getBytes() == 25
+
+        when:
+        cache.put(file2, 1, data(9, 31), cache.getGeneration())
+
+        then:
+        cache.get(file2, 1, 2).isEmpty()
+        cache.getStatistics().getBytes() == 25
+    }
+
+    def 'should invalidate the chunks of a file and the chunks of queries in flight'() {
+        given:
+        def cache = new GridFSChunkCache(100, false)
+        cache.put(file1, 0, data(0, 10), cache.getGeneration())
+        cache.put(file2, 0, data(0, 10), cache.getGeneration())
+        def generation = cache.getGeneration()
+
+        when:
+        cache.invalidate(file1)
+        cache.put(file1, 1, data(1, 10), generation)
+
+        then:
+        cache.get(file1, 0, 2).isEmpty()
+        cache.get(file2, 0, 1).size() == 1
+        cache.getStatistics().getInvalidationCount() == 1
+
+        when:
+        cache.invalidate(null)
+
+        then:
+        cache.get(file2, 0, 1).isEmpty()
+        cache.getStatistics().getBytes() == 0
+    }
+
+    def 'should invalidate both when an operation is sent and when it completes'() {
+        given:
+        def cache = new GridFSChunkCache(100, false)
+        def callback = Mock(SingleResultCallback)
+
+        when:
+        def invalidating = GridFSChunkCache.invalidating(cache, file1, callback)
+        cache.put(file1, 0, data(0, 10), cache.getGeneration())
+        invalidating.onResult(null, null)
+
+        then:
+        1 * callback.onResult(null, null)
+        cache.get(file1, 0, 1).isEmpty()
+        cache.getStatistics().getInvalidationCount() == 2
+        GridFSChunkCache.invalidating(null, file1, callback).is(callback)
+    }
+
+    def data(int value, int length) {
+        def bytes = new byte[length]
+        Arrays.fill(bytes, value as byte)
+        ByteBuffer.wrap(bytes)
+    }
+}
@@ -97,4 +97,14 @@ class GridFSDownloadStreamImplSpecification extends Specification {
         1 * wrapped.close(_)
     }
 
+    def 'should only seek streams opened from a bucket created by GridFSBuckets'() {
+        given:
+        def downloadStream = new GridFSDownloadStreamImpl(Stub(WrappedGridFSDownloadStream), Stub(ObservableAdapter))
+
+        when:
+        downloadStream.seek(10)
+
+        then:
+        thrown(IllegalStateException)
+    }
 }
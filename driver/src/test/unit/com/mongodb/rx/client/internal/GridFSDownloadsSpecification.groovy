@@ -0,0 +1,355 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal
+
+import com.mongodb.MongoGridFSException
+import com.mongodb.async.AsyncBatchCursor
+import com.mongodb.async.client.FindIterable
+import com.mongodb.async.client.MongoCollection as WrappedMongoCollection
+import com.mongodb.async.client.gridfs.GridFSBucket as WrappedGridFSBucket
+import com.mongodb.async.client.gridfs.GridFSDownloadStream as WrappedGridFSDownloadStream
+import com.mongodb.client.gridfs.model.GridFSFile
+import com.mongodb.rx.client.gridfs.AsyncOutputStream
+import com.mongodb.rx.client.gridfs.GridFSBufferPool
+import com.mongodb.rx.client.gridfs.GridFSObservableDownloadOptions
+import com.mongodb.rx.client.gridfs.GridFSParallelDownloadOptions
+import org.bson.BsonBinary
+import org.bson.BsonDocument
+import org.bson.BsonInt32
+import org.bson.BsonObjectId
+import org.bson.types.ObjectId
+import rx.Observable
+import rx.observers.TestSubscriber
+import spock.lang.Specification
+
+import java.nio.ByteBuffer
+
+import static com.mongodb.rx.client.internal.ObservableHelper.NoopObservableAdapter
+
+class GridFSDownloadsSpecification extends Specification {
+
+    def fileId = new BsonObjectId(new ObjectId())
+    def content = (0..<20).collect { it as byte } as byte[]
+    def file = new GridFSFile(fileId, 'file', content.length, 3, new Date(), 'md5', null)
+    def filesCollection = Mock(WrappedMongoCollection)
+    def chunksCollection = Mock(WrappedMongoCollection)
+    def bucket = new GridFSBucketImpl(Stub(WrappedGridFSBucket), new GridFSChunkStore(filesCollection, chunksCollection),
+            new NoopObservableAdapter())
+    def pendingRanges = [:]
+    def written = []
+    def destination = [write: { ByteBuffer buffer ->
+        def bytes = new byte[buffer.remaining()]
+        buffer.get(bytes)
+        written.addAll(bytes as List)
+        Observable.just(bytes.length)
+    }, close: { Observable.empty() }] as AsyncOutputStream
+
+    def setup() {
+        filesCollection.find(new BsonDocument('_id', fileId)) >> { iterable([file]) }
+        chunksCollection.find(_) >> { args ->
+            int from = args[0].getDocument('n').getInt32('$gte').getValue()
+            int to = args[0].getDocument('n').getInt32('$lt').getValue()
+            iterable { callback -> pendingRanges[from] = { callback.onResult((from..<to).collect { chunk(it) }, null) } }
+        }
+    }
+
+    def 'should read ranges of chunks concurrently and write them in order'() {
+        given:
+        def subscriber = new TestSubscriber()
+
+        when:
+        bucket.downloadToStream(fileId, destination, new GridFSParallelDownloadOptions().parallelism(2).windowSize(4))
+                .subscribe(subscriber)
+
+        then:
+        pendingRanges.keySet() == [0, 2] as Set
+
+        when:
+        pendingRanges.remove(2).call()
+
+        then:
+        written.isEmpty()
+
+        when:
+        pendingRanges.remove(0).call()
+
+        then:
+        written == (0..<12).collect { it as byte }
+        pendingRanges.keySet() == [4, 6] as Set
+
+        when:
+        while (!pendingRanges.isEmpty()) {
+            pendingRanges.remove(pendingRanges.keySet().min()).call()
+        }
+
+        then:
+        written == content as List
+        subscriber.assertValues(20L)
+        subscriber.assertCompleted()
+    }
+
+    def 'should only read the chunks holding a range and trim the first and last of them'() {
+        given:
+        def subscriber = new TestSubscriber()
+
+        when:
+        bucket.downloadRange(fileId, 4, 11, destination).subscribe(subscriber)
+
+        then:
+        pendingRanges.keySet() == [1] as Set
+
+        when:
+        pendingRanges.remove(1).call()
+
+        then:
+        written == (4..<11).collect { it as byte }
+        subscriber.assertValues(7L)
+        subscriber.assertCompleted()
+    }
+
+    def 'should cut a range short at the end of the file'() {
+        given:
+        def subscriber = new TestSubscriber()
+
+        when:
+        bucket.downloadRange(fileId, from, to, destination).subscribe(subscriber)
+        while (!pendingRanges.isEmpty()) {
+            pendingRanges.remove(pendingRanges.keySet().min()).call()
+        }
+
+        then:
+        written == expected.collect { it as byte }
+        subscriber.assertValues(expected.size() as long)
+
+        where:
+        from | to  | expected
+        18   | 100 | [18, 19]
+        20   | 30  | []
+        5    | 5   | []
+        0    | 20  | 0..<20
+    }
+
+    def 'should read from the chunk holding the position after a seek'() {
+        given:
+        def wrappedStream = Mock(WrappedGridFSDownloadStream)
+        def stream = new GridFSDownloadStreamImpl(wrappedStream, new GridFSChunkStore(filesCollection, chunksCollection),
+                new NoopObservableAdapter()).batchSize(2)
+        def read = { int length ->
+            def buffer = ByteBuffer.allocate(length)
+            def subscriber = new TestSubscriber()
+            stream.read(buffer).subscribe(subscriber)
+            while (!pendingRanges.isEmpty()) {
+                pendingRanges.remove(pendingRanges.keySet().min()).call()
+            }
+            [subscriber.getOnNextEvents()[0], buffer.array()[0..<buffer.position()]]
+        }
+
+        when:
+        stream.seek(7)
+        def results = [read(4), read(4)]
+
+        then:
+        1 * wrappedStream.getGridFSFile(_) >> { it[0].onResult(file, null) }
+        1 * chunksCollection.find({ it.getDocument('n').getInt32('$gte').getValue() == 2 }) >> iterable([chunk(2), chunk(3)])
+        0 * wrappedStream.read(_, _)
+        results == [[4, [7, 8, 9, 10]], [1, [11]]]
+
+        when:
+        stream.seek(19)
+        results = [read(4), read(4)]
+
+        then:
+        1 * chunksCollection.find({ it.getDocument('n').getInt32('$gte').getValue() == 6 }) >> iterable([chunk(6)])
+        results == [[1, [19]], [-1, []]]
+    }
+
+    def 'should serve repeated downloads from the chunk cache until the file is deleted'() {
+        given:
+        def wrappedBucket = Mock(WrappedGridFSBucket)
+        def wrappedStream = Mock(WrappedGridFSDownloadStream) {
+            getGridFSFile(_) >> { it[0].onResult(file, null) }
+        }
+        def cachingBucket = new GridFSBucketImpl(wrappedBucket, new GridFSChunkStore(filesCollection, chunksCollection),
+                new NoopObservableAdapter()).withChunkCache(1024)
+        def download = {
+            written.clear()
+            def subscriber = new TestSubscriber()
+            cachingBucket.downloadToStream(fileId, destination).subscribe(subscriber)
+            while (!pendingRanges.isEmpty()) {
+                pendingRanges.remove(pendingRanges.keySet().min()).call()
+            }
+            subscriber.assertValues(20L)
+            written
+        }
+        def read = { stream ->
+            def buffer = ByteBuffer.allocate(30)
+            stream.read(buffer).subscribe(new TestSubscriber())
+            buffer.array()[0..<buffer.position()]
+        }
+
+        when:
+        def first = download()
+
+        then:
+        1 * chunksCollection.find(_) >> iterable((0..<7).collect { chunk(it) })
+        first == content as List
+
+        when:
+        def second = download()
+        def streamed = read(cachingBucket.openDownloadStream(fileId))
+
+        then:
+        1 * wrappedBucket.openDownloadStream(fileId) >> wrappedStream
+        0 * chunksCollection.find(_)
+        0 * wrappedBucket.downloadToStream(*_)
+        0 * wrappedStream.read(*_)
+        second == content as List
+        streamed == (0..<12).collect { it as byte }
+        cachingBucket.getChunkCacheStatistics().getHitCount() == 11
+        cachingBucket.getChunkCacheStatistics().getMissCount() == 7
+        cachingBucket.getChunkCacheStatistics().getBytes() == 20
+
+        when:
+        cachingBucket.delete(fileId).subscribe(new TestSubscriber())
+        download()
+
+        then:
+        1 * wrappedBucket.delete(fileId, _) >> { it[1].onResult(null, null) }
+        1 * chunksCollection.find(_) >> iterable((0..<7).collect { chunk(it) })
+        cachingBucket.getChunkCacheStatistics().getInvalidationCount() == 2
+    }
+
+    def 'should emit chunks as they are requested and read each batch once the previous one has been requested'() {
+        given:
+        def subscriber = new TestSubscriber(0)
+        def data = {
+            subscriber.getOnNextEvents().collect { buffer ->
+                def bytes = new byte[buffer.remaining()]
+                buffer.duplicate().get(bytes)
+                bytes as List
+            }.flatten()
+        }
+
+        when:
+        bucket.downloadAsObservable(fileId, new GridFSObservableDownloadOptions().batchSize(3)).subscribe(subscriber)
+        pendingRanges.remove(0).call()
+
+        then:
+        subscriber.getOnNextEvents().isEmpty()
+
+        when:
+        subscriber.requestMore(2)
+
+        then:
+        subscriber.getOnNextEvents().size() == 2
+        pendingRanges.isEmpty()
+
+        when:
+        subscriber.requestMore(1)
+
+        then:
+        subscriber.getOnNextEvents().size() == 3
+        pendingRanges.keySet() == [3] as Set
+
+        when:
+        subscriber.requestMore(Long.MAX_VALUE)
+        while (!pendingRanges.isEmpty()) {
+            pendingRanges.remove(pendingRanges.keySet().min()).call()
+        }
+
+        then:
+        data() == content as List
+        subscriber.assertCompleted()
+    }
+
+    def 'should copy the data of each chunk into a pooled buffer when it is emitted'() {
+        given:
+        def subscriber = new TestSubscriber(2)
+        def bufferPool = Mock(GridFSBufferPool)
+
+        when:
+        bucket.downloadAsObservable(fileId, new GridFSObservableDownloadOptions().bufferPool(bufferPool)).subscribe(subscriber)
+        pendingRanges.remove(0).call()
+
+        then:
+        2 * bufferPool.acquire(3) >> { ByteBuffer.allocateDirect(8) }
+        subscriber.getOnNextEvents()*.isDirect() == [true, true]
+        subscriber.getOnNextEvents()*.remaining() == [3, 3]
+        subscriber.getOnNextEvents()[1].get(0) == 3 as byte
+    }
+
+    def 'should fail if a chunk is missing'() {
+        given:
+        def subscriber = new TestSubscriber()
+        chunksCollection = Mock(WrappedMongoCollection) {
+            find(_) >> iterable([chunk(0), chunk(2)])
+        }
+        bucket = new GridFSBucketImpl(Stub(WrappedGridFSBucket), new GridFSChunkStore(filesCollection, chunksCollection),
+                new NoopObservableAdapter())
+
+        when:
+        bucket.downloadToStream(fileId, destination, new GridFSParallelDownloadOptions().parallelism(1).windowSize(4))
+                .subscribe(subscriber)
+
+        then:
+        subscriber.getOnErrorEvents()*.class == [MongoGridFSException]
+        written.isEmpty()
+    }
+
+    def 'should fail if the file does not exist'() {
+        given:
+        def subscriber = new TestSubscriber()
+
+        when:
+        bucket.downloadToStream(new BsonInt32(1), destination, new GridFSParallelDownloadOptions()).subscribe(subscriber)
+
+        then:
+        1 * filesCollection.find(new BsonDocument('_id', new BsonInt32(1))) >> iterable([])
+        subscriber.getOnErrorEvents()*.class == [MongoGridFSException]
+    }
+
+    def 'should require a bucket created by GridFSBuckets'() {
+        when:
+        new GridFSBucketImpl(Stub(WrappedGridFSBucket), new NoopObservableAdapter())
+                .downloadToStream(fileId, destination, new GridFSParallelDownloadOptions())
+
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def chunk(int n) {
+        new BsonDocument('files_id', fileId).append('n', new BsonInt32(n))
+                .append('data', new BsonBinary(content[(n * 3)..<Math.min(n * 3 + 3, content.length)] as byte[]))
+    }
+
+    def iterable(List results) {
+        iterable { callback -> callback.onResult(results, null) }
+    }
+
+    def iterable(Closure firstBatch) {
+        def batches = 0
+        def cursor = Stub(AsyncBatchCursor) {
+            next(_) >> { args -> batches++ == 0 ? firstBatch(args[0]) : args[0].onResult(null, null) }
+        }
+        def iterable = Mock(FindIterable)
+        iterable.limit(_) >> iterable
+        iterable.sort(_) >> iterable
+        iterable.batchSize(_) >> iterable
+        iterable.batchCursor(_) >> { args -> args[0].onResult(cursor, null) }
+        iterable
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal
+
+import com.mongodb.MongoException
+import com.mongodb.ReadPreference
+import com.mongodb.async.client.FindIterable
+import com.mongodb.async.client.ListIndexesIterable
+import com.mongodb.async.client.MongoCollection as WrappedMongoCollection
+import com.mongodb.async.client.gridfs.GridFSBucket as WrappedGridFSBucket
+import com.mongodb.client.gridfs.model.GridFSUploadOptions
+import com.mongodb.rx.client.gridfs.GridFSParallelUploadOptions
+import org.bson.BsonDocument
+import org.bson.BsonString
+import org.bson.Document
+import rx.Observable
+import rx.observers.TestSubscriber
+import spock.lang.Specification
+
+import java.nio.ByteBuffer
+
+import static com.mongodb.internal.HexUtils.hexMD5
+import static com.mongodb.rx.client.gridfs.helpers.AsyncStreamHelper.toAsyncInputStream
+import static com.mongodb.rx.client.internal.ObservableHelper.NoopObservableAdapter
+
+class GridFSUploadsSpecification extends Specification {
+
+    def content = (0..<10).collect { it as byte } as byte[]
+    def filesCollection = Mock(WrappedMongoCollection)
+    def chunksCollection = Mock(WrappedMongoCollection)
+    def bucket = new GridFSBucketImpl(Stub(WrappedGridFSBucket), new GridFSChunkStore(filesCollection, chunksCollection),
+            new NoopObservableAdapter())
+    def options = new GridFSUploadOptions().chunkSizeBytes(3).metadata(new Document('type', 'test'))
+    def parallelOptions = new GridFSParallelUploadOptions().chunksPerBatch(2).maxBatchesInFlight(2)
+    def primaryFilesCollection = Mock(WrappedMongoCollection)
+    def primaryChunksCollection = Mock(WrappedMongoCollection)
+    def existingFile = new BsonDocument('_id', new BsonString('existing'))
+
+    def setup() {
+        filesCollection.withDocumentClass(BsonDocument) >> primaryFilesCollection
+        primaryFilesCollection.withReadPreference(ReadPreference.primary()) >> primaryFilesCollection
+        primaryFilesCollection.find() >> Stub(FindIterable) {
+            projection(_) >> it
+            first(_) >> { it[0].onResult(existingFile, null) }
+        }
+        chunksCollection.withReadPreference(ReadPreference.primary()) >> primaryChunksCollection
+    }
+
+    def 'should create the indexes of an empty bucket once before inserting any chunks'() {
+        given:
+        existingFile = null
+        def indexes = [BsonDocument.parse('{key: {_id: 1}}')]
+
+        when:
+        2.times {
+            bucket.uploadFromStream('file', toAsyncInputStream(content), options, parallelOptions).subscribe(new TestSubscriber())
+        }
+
+        then:
+        1 * primaryFilesCollection.listIndexes(BsonDocument) >> listIndexes(indexes)
+        1 * primaryFilesCollection.createIndex(BsonDocument.parse('{filename: 1, uploadDate: 1}'), { !it.isUnique() }, _) >> {
+            it[2].onResult('filename_1_uploadDate_1', null)
+        }
+
+        then:
+        1 * primaryChunksCollection.listIndexes(BsonDocument) >> listIndexes(indexes)
+        1 * primaryChunksCollection.createIndex(BsonDocument.parse('{files_id: 1, n: 1}'), { it.isUnique() }, _) >> {
+            it[2].onResult('files_id_1_n_1', null)
+        }
+
+        then:
+        4 * chunksCollection.insertMany(_, _) >> { it[1].onResult(null, null) }
+        2 * filesCollection.insertOne(_, _) >> { it[1].onResult(null, null) }
+    }
+
+    def 'should not create indexes that already exist'() {
+        given:
+        existingFile = null
+        def indexes = [BsonDocument.parse('{key: {filename: 1, uploadDate: 1.0}}'), BsonDocument.parse('{key: {files_id: 1, n: 1}}')]
+        def subscriber = new TestSubscriber()
+
+        when:
+        bucket.uploadFromStream('file', toAsyncInputStream(content), options, parallelOptions).subscribe(subscriber)
+
+        then:
+        1 * primaryFilesCollection.listIndexes(BsonDocument) >> listIndexes(indexes)
+        1 * primaryChunksCollection.listIndexes(BsonDocument) >> listIndexes(indexes)
+        0 * primaryFilesCollection.createIndex(*_)
+        0 * primaryChunksCollection.createIndex(*_)
+        2 * chunksCollection.insertMany(_, _) >> { it[1].onResult(null, null) }
+        1 * filesCollection.insertOne(_, _) >> { it[1].onResult(null, null) }
+        subscriber.assertCompleted()
+    }
+
+    def 'should keep several batches of chunks in flight and insert the file once they are acknowledged'() {
+        given:
+        def subscriber = new TestSubscriber()
+        def inserts = []
+        def files = []
+
+        when:
+        bucket.uploadFromStream('file', toAsyncInputStream(content), options, parallelOptions).subscribe(subscriber)
+
+        then:
+        2 * chunksCollection.insertMany(_, _) >> { inserts.add(it) }
+        0 * filesCollection.insertOne(_, _)
+
+        when:
+        inserts*.get(1)*.onResult(null, null)
+
+        then:
+        1 * filesCollection.insertOne(_, _) >> { args ->
+            files.add(args[0])
+            args[1].onResult(null, null)
+        }
+        files*.getFilename() == ['file']
+        files*.getLength() == [10L]
+        files*.getChunkSize() == [3]
+        files*.getMD5() == [hexMD5(content)]
+        files*.getMetadata() == [new Document('type', 'test')]
+        inserts*.get(0)*.size() == [2, 2]
+        inserts*.get(0).flatten()*.getInt32('n')*.getValue() == [0, 1, 2, 3]
+        inserts*.get(0).flatten()*.getBinary('data')*.getData()*.length == [3, 3, 3, 1]
+        subscriber.assertValues(files[0].getObjectId())
+        subscriber.assertCompleted()
+    }
+
+    def 'should delete the inserted chunks when the upload fails'() {
+        given:
+        def error = new MongoException('failed')
+        def subscriber = new TestSubscriber()
+
+        when:
+        bucket.uploadFromStream(new BsonString('id'), 'file', toAsyncInputStream(content), options, parallelOptions)
+                .subscribe(subscriber)
+
+        then:
+        1 * chunksCollection.insertMany(_, _) >> { it[1].onResult(null, null) }
+        1 * chunksCollection.insertMany(_, _) >> { it[1].onResult(null, error) }
+        1 * chunksCollection.deleteMany(new BsonDocument('files_id', new BsonString('id')), _) >> { it[1].onResult(null, null) }
+        0 * filesCollection.insertOne(_, _)
+        subscriber.assertError(error)
+    }
+
+    def 'should wait for the inserts in flight before deleting the chunks of a failed upload'() {
+        given:
+        def error = new MongoException('failed')
+        def subscriber = new TestSubscriber()
+        def pending = []
+
+        when:
+        bucket.uploadFromStream(new BsonString('id'), 'file', toAsyncInputStream(content), options, parallelOptions)
+                .subscribe(subscriber)
+
+        then:
+        1 * chunksCollection.insertMany(_, _) >> { pending.add(it[1]) }
+        1 * chunksCollection.insertMany(_, _) >> { it[1].onResult(null, error) }
+        0 * chunksCollection.deleteMany(_, _)
+        subscriber.assertNoTerminalEvent()
+
+        when:
+        pending*.onResult(null, null)
+
+        then:
+        1 * chunksCollection.deleteMany(new BsonDocument('files_id', new BsonString('id')), _) >> { it[1].onResult(null, null) }
+        0 * filesCollection.insertOne(_, _)
+        subscriber.assertError(error)
+    }
+
+    def 'should only insert the file for an empty source'() {
+        given:
+        def subscriber = new TestSubscriber()
+
+        when:
+        bucket.uploadFromStream(new BsonString('id'), 'file', toAsyncInputStream(new byte[0]), options, parallelOptions)
+                .subscribe(subscriber)
+
+        then:
+        0 * chunksCollection.insertMany(_, _)
+        1 * filesCollection.insertOne({ it.getLength() == 0 && it.getId() == new BsonString('id') }, _) >> { it[1].onResult(null, null) }
+        subscriber.assertCompleted()
+    }
+
+    def 'should coalesce fragments of any size into full chunks'() {
+        given:
+        def subscriber = new TestSubscriber()
+        def inserts = []
+        def files = []
+        def fragments = [[0], [1, 2, 3, 4], [5, 6, 7], [], [8, 9]].collect { ByteBuffer.wrap(it as byte[]) }
+
+        when:
+        bucket.uploadFromObservable('file', Observable.from(fragments), options).subscribe(subscriber)
+
+        then:
+        1 * chunksCollection.insertMany(_, _) >> { args ->
+            inserts.addAll(args[0])
+            args[1].onResult(null, null)
+        }
+        1 * filesCollection.insertOne(_, _) >> { args ->
+            files.add(args[0])
+            args[1].onResult(null, null)
+        }
+        inserts*.getBinary('data')*.getData()*.toList() == [[0, 1, 2], [3, 4, 5], [6, 7, 8], [9]]
+        files*.getLength() == [10L]
+        files*.getMD5() == [hexMD5(content)]
+        subscriber.assertValues(files[0].getObjectId())
+    }
+
+    def 'should insert a fragment that is a whole chunk without copying it'() {
+        given:
+        def chunk = [0, 1, 2] as byte[]
+        def inserts = []
+
+        when:
+        bucket.uploadFromObservable(new BsonString('id'), 'file', Observable.just(ByteBuffer.wrap(chunk), ByteBuffer.wrap(chunk, 1, 2)),
+                options).subscribe(new TestSubscriber())
+
+        then:
+        1 * chunksCollection.insertMany(_, _) >> { args ->
+            inserts.addAll(args[0])
+            args[1].onResult(null, null)
+        }
+        1 * filesCollection.insertOne(_, _) >> { it[1].onResult(null, null) }
+        inserts[0].getBinary('data').getData().is(chunk)
+        inserts[1].getBinary('data').getData().toList() == [1, 2]
+    }
+
+    def 'should only request fragments from the source while there is room for more inserts in flight'() {
+        given:
+        def requested = 0L
+        def source = Observable.from((0..<40).collect { ByteBuffer.wrap([it, it, it] as byte[]) }).doOnRequest { requested += it }
+        def pending = []
+        def subscriber = new TestSubscriber()
+
+        when:
+        bucket.uploadFromObservable('file', source, options).subscribe(subscriber)
+
+        then:
+        4 * chunksCollection.insertMany(_, _) >> { pending.add(it[1]) }
+        requested < 20
+
+        when:
+        while (!pending.isEmpty()) {
+            pending.remove(0).onResult(null, null)
+        }
+
+        then:
+        6 * chunksCollection.insertMany(_, _) >> { pending.add(it[1]) }
+        1 * filesCollection.insertOne(_, _) >> { it[1].onResult(null, null) }
+        subscriber.assertValueCount(1)
+    }
+
+    def listIndexes(final List<BsonDocument> indexes) {
+        Stub(ListIndexesIterable) {
+            into(_, _) >> { it[0].addAll(indexes); it[1].onResult(it[0], null) }
+        }
+    }
+}
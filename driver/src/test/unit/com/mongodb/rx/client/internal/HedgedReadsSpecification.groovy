@@ -0,0 +1,190 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal
+
+import com.mongodb.Block
+import com.mongodb.MongoException
+import com.mongodb.async.SingleResultCallback
+import com.mongodb.async.client.FindIterable
+import com.mongodb.async.client.MongoCollection as WrappedMongoCollection
+import com.mongodb.rx.client.HedgedReadSettings
+import org.bson.Document
+import rx.observers.TestSubscriber
+import rx.schedulers.TestScheduler
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+import static com.mongodb.rx.client.internal.ObservableHelper.NoopObservableAdapter
+
+class HedgedReadsSpecification extends Specification {
+
+    def scheduler = new TestScheduler()
+    def settings = HedgedReadSettings.builder().delay(10, TimeUnit.MILLISECONDS).build()
+    def hedgedReads = new HedgedReads(settings, scheduler)
+    def callbacks = []
+    def operation = { callback -> callbacks.add(callback) } as Block
+
+    def 'should not hedge a read answered within the delay'() {
+        given:
+        def result = execute()
+
+        when:
+        scheduler.advanceTimeBy(5, TimeUnit.MILLISECONDS)
+        callbacks[0].onResult('primary', null)
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        then:
+        callbacks.size() == 1
+        result == [['primary', null]]
+        hedgedReads.getStatistics().getReadCount() == 1
+        hedgedReads.getStatistics().getHedgeCount() == 0
+    }
+
+    def 'should send a duplicate read after the delay and use the first response'() {
+        given:
+        def result = execute()
+
+        when:
+        scheduler.advanceTimeBy(10, TimeUnit.MILLISECONDS)
+
+        then:
+        callbacks.size() == 2
+
+        when:
+        callbacks[1].onResult('hedge', null)
+        callbacks[0].onResult('primary', null)
+
+        then:
+        result == [['hedge', null]]
+        hedgedReads.getStatistics().getHedgeCount() == 1
+        hedgedReads.getStatistics().getHedgeWinCount() == 1
+        hedgedReads.getStatistics().getHedgeRate() == 1.0d
+    }
+
+    def 'should fail without hedging when the read fails within the delay'() {
+        given:
+        def error = new MongoException('failed')
+        def result = execute()
+
+        when:
+        callbacks[0].onResult(null, error)
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        then:
+        callbacks.size() == 1
+        result == [[null, error]]
+    }
+
+    def 'should only fail once every attempt has failed'() {
+        given:
+        def firstError = new MongoException('first')
+        def secondError = new MongoException('second')
+        def result = execute()
+        scheduler.advanceTimeBy(10, TimeUnit.MILLISECONDS)
+
+        when:
+        callbacks[0].onResult(null, firstError)
+
+        then:
+        result.isEmpty()
+
+        when:
+        callbacks[1].onResult(null, secondError)
+
+        then:
+        result == [[null, secondError]]
+    }
+
+    def 'should wait for the configured percentile of the observed latencies'() {
+        given:
+        hedgedReads = new HedgedReads(HedgedReadSettings.builder().delay(10, TimeUnit.MILLISECONDS).percentile(50).minSamples(2).build(),
+                scheduler)
+        [10, 200].each { latency ->
+            execute()
+            Thread.sleep(latency)
+            callbacks.remove(0).onResult('primary', null)
+        }
+
+        when:
+        execute()
+        scheduler.advanceTimeBy(200, TimeUnit.MILLISECONDS)
+
+        then:
+        hedgedReads.getStatistics().getDelay(TimeUnit.MILLISECONDS) >= 10
+        hedgedReads.getStatistics().getDelay(TimeUnit.MILLISECONDS) < 200
+        callbacks.size() == 2
+    }
+
+    def 'should hedge counts and small finds of a collection'() {
+        given:
+        def wrapped = Mock(WrappedMongoCollection)
+        def findIterable = Mock(FindIterable)
+        def collection = new MongoCollectionImpl(wrapped, new NoopObservableAdapter(),
+                CollectionFeatures.none().withHedgedReads(hedgedReads))
+        def countSubscriber = new TestSubscriber()
+        def findSubscriber = new TestSubscriber()
+
+        when:
+        collection.count().subscribe(countSubscriber)
+        collection.find().limit(1).subscribe(findSubscriber)
+        scheduler.advanceTimeBy(10, TimeUnit.MILLISECONDS)
+
+        then:
+        1 * wrapped.find(_, _) >> findIterable
+        2 * wrapped.count(_, _, _) >> { callbacks.add(it[2]) }
+        2 * findIterable.into(_, _) >> { callbacks.add(it[1]) }
+
+        when:
+        callbacks[2].onResult(1L, null)
+        callbacks[3].onResult([new Document('_id', 1)], null)
+
+        then:
+        countSubscriber.assertValues(1L)
+        findSubscriber.assertValues(new Document('_id', 1))
+        collection.getHedgedReadStatistics().getHedgeWinCount() == 2
+    }
+
+    def 'should stream finds with no limit or a limit over the maximum from a cursor without hedging them'() {
+        given:
+        def wrapped = Mock(WrappedMongoCollection)
+        def findIterable = Mock(FindIterable)
+        def hedgedReads = new HedgedReads(HedgedReadSettings.builder().delay(10, TimeUnit.MILLISECONDS).maxFindLimit(100).build(),
+                scheduler)
+        def collection = new MongoCollectionImpl(wrapped, new NoopObservableAdapter(),
+                CollectionFeatures.none().withHedgedReads(hedgedReads))
+
+        when:
+        collection.find().limit(limit).subscribe(new TestSubscriber())
+        scheduler.advanceTimeBy(10, TimeUnit.MILLISECONDS)
+
+        then:
+        1 * wrapped.find(_, _) >> findIterable
+        0 * findIterable.into(_, _)
+        1 * findIterable.batchCursor(_)
+        hedgedReads.getStatistics().getHedgeCount() == 0
+
+        where:
+        limit << [0, 101, -101, 1000000]
+    }
+
+    def execute() {
+        def results = []
+        hedgedReads.hedge(operation).apply({ result, t -> results.add([result, t]) } as SingleResultCallback)
+        results
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal
+
+import com.mongodb.MongoException
+import com.mongodb.async.client.FindIterable
+import com.mongodb.async.client.MongoClients
+import com.mongodb.async.client.MongoCollection
+import com.mongodb.client.model.Collation
+import com.mongodb.client.model.FindOptions
+import com.mongodb.rx.client.PageToken
+import org.bson.BsonBinaryWriter
+import org.bson.BsonDocument
+import org.bson.BsonInt32
+import org.bson.Document
+import org.bson.codecs.BsonDocumentCodec
+import org.bson.codecs.EncoderContext
+import org.bson.io.BasicOutputBuffer
+import rx.observers.TestSubscriber
+import spock.lang.Specification
+
+import static com.mongodb.client.model.Projections.include
+import static com.mongodb.client.model.Sorts.ascending
+import static com.mongodb.client.model.Sorts.descending
+import static com.mongodb.client.model.Sorts.orderBy
+import static java.util.concurrent.TimeUnit.MILLISECONDS
+import static java.util.concurrent.TimeUnit.SECONDS
+
+class KeysetPagerSpecification extends Specification {
+
+    def codecRegistry = MongoClients.getDefaultCodecRegistry()
+    def filter = new Document('status', 'A')
+    def collection = Mock(MongoCollection) {
+        getCodecRegistry() >> codecRegistry
+    }
+
+    def 'should build the range filter from compound sort keys'() {
+        given:
+        def sort = BsonDocument.parse('{a: 1, b: -1, _id: 1}')
+        def last = BsonDocument.parse('{a: 5, b: "x", _id: 10}')
+
+        expect:
+        KeysetPager.getRangeFilter(sort, last) == BsonDocument.parse('''{$or: [
+                {a: {$gt: 5}},
+                {a: {$eq: 5}, b: {$lt: "x"}},
+                {a: {$eq: 5}, b: {$eq: null}},
+                {a: {$eq: 5}, b: {$eq: "x"}, _id: {$gt: 10}}]}''')
+    }
+
+    def 'should seek past null and missing sort key values'() {
+        expect:
+        KeysetPager.getRangeFilter(BsonDocument.parse(sort), BsonDocument.parse(last)) == BsonDocument.parse(rangeFilter)
+
+        where:
+        sort               | last                   | rangeFilter
+        '{a: 1, _id: 1}'   | '{a: null, _id: 3}'    | '{$or: [{a: {$ne: null}}, {a: {$eq: null}, _id: {$gt: 3}}]}'
+        '{a: 1, _id: 1}'   | '{_id: 3}'             | '{$or: [{a: {$ne: null}}, {a: {$eq: null}, _id: {$gt: 3}}]}'
+        '{a: -1, _id: 1}'  | '{a: null, _id: 3}'    | '{$or: [{a: {$eq: null}, _id: {$gt: 3}}]}'
+        '{a: -1, _id: 1}'  | '{a: 5, _id: 3}'       | '{$or: [{a: {$lt: 5}}, {a: {$eq: null}}, {a: {$eq: 5}, _id: {$gt: 3}}]}'
+    }
+
+    def 'should append an _id tie-breaker and round trip the token'() {
+        given:
+        def token = PageToken.first(descending('createdAt'), 20)
+
+        expect:
+        token.getSort() == BsonDocument.parse('{createdAt: -1, _id: 1}')
+        PageToken.parse(token.encode()) == token
+        PageToken.parse(token.next(BsonDocument.parse('{createdAt: 1, _id: 2}')).encode()).getLastSortKeyValues() ==
+                BsonDocument.parse('{createdAt: 1, _id: 2}')
+    }
+
+    def 'should encode the token as URL safe Base64 and not expose its state'() {
+        given:
+        def token = PageToken.first(ascending('a'), 10).next(BsonDocument.parse('{a: "??>>", _id: 1}'))
+
+        when:
+        def encoded = token.encode()
+        token.getSort().append('b', new BsonInt32(1))
+        token.getLastSortKeyValues().append('b', new BsonInt32(1))
+
+        then:
+        encoded ==~ /[A-Za-z0-9_-]+/
+        PageToken.parse(encoded) == token
+        token.getSort() == BsonDocument.parse('{a: 1, _id: 1}')
+        token.getLastSortKeyValues() == BsonDocument.parse('{a: "??>>", _id: 1}')
+    }
+
+    def 'should reject an invalid encoded token'() {
+        when:
+        PageToken.parse('not a token')
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def 'should reject an encoded token that is not a page token'() {
+        when:
+        PageToken.parse(encoded)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        encoded << ['AAAA',
+                    PageToken.first(ascending('a'), 10).encode()[0..-5],
+                    encode('{pageSize: 10}'),
+                    encode('{sort: {_id: 1}}'),
+                    encode('{sort: {_id: 1}, pageSize: "10"}'),
+                    encode('{sort: {_id: 1}, pageSize: 0}'),
+                    encode('{sort: {_id: "text"}, pageSize: 10}'),
+                    encode('{sort: {_id: 1}, pageSize: 10, after: 1}')]
+    }
+
+    def 'should only accept ascending or descending sort keys'() {
+        when:
+        PageToken.first(new Document('score', new Document('$meta', 'textScore')), 10)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def 'should fetch a page and create the token for the next one'() {
+        given:
+        def find = Mock(FindIterable)
+        def pager = new KeysetPager(collection, filter, new FindOptions(), Document)
+        def subscriber = new TestSubscriber()
+        def token = PageToken.first(orderBy(ascending('a'), ascending('nested.b')), 2)
+        def documents = [new Document('_id', 1).append('a', 1).append('nested', new Document('b', 1)),
+                         new Document('_id', 2).append('a', 1).append('nested', new Document('b', 2)),
+                         new Document('_id', 3).append('a', 2).append('nested', new Document('b', 1))]
+        def results = [documents, [documents[2]]]
+
+        when:
+        pager.pages(token).subscribe(subscriber)
+
+        then:
+        1 * collection.find(filter.toBsonDocument(Document, codecRegistry), Document) >> find
+        1 * collection.find(BsonDocument.parse('''{$and: [{status: "A"}, {$or: [
+                {a: {$gt: 1}},
+                {a: {$eq: 1}, "nested.b": {$gt: 2}},
+                {a: {$eq: 1}, "nested.b": {$eq: 2}, _id: {$gt: 2}}]}]}'''), Document) >> find
+        2 * find.sort(token.getSort())
+        2 * find.limit(3)
+        2 * find.into(_, _) >> { it[1].onResult(results.remove(0), null) }
+        subscriber.getOnNextEvents()*.getDocuments() == [documents[0..1], [documents[2]]]
+        subscriber.getOnNextEvents()[0].hasNextPage()
+        !subscriber.getOnNextEvents()[1].hasNextPage()
+        subscriber.assertCompleted()
+    }
+
+    def 'should only fetch pages once they are requested'() {
+        given:
+        def find = Mock(FindIterable)
+        collection.find(_, _) >> find
+        def pager = new KeysetPager(collection, filter, new FindOptions(), Document)
+        def subscriber = new TestSubscriber(0)
+
+        when:
+        pager.pages(PageToken.first(ascending('_id'), 1)).subscribe(subscriber)
+
+        then:
+        0 * find.into(_, _)
+
+        when:
+        subscriber.requestMore(1)
+
+        then:
+        1 * find.into(_, _) >> { it[1].onResult([new Document('_id', 1), new Document('_id', 2)], null) }
+        subscriber.assertValueCount(1)
+
+        when:
+        subscriber.requestMore(1)
+
+        then:
+        1 * find.into(_, _) >> { it[1].onResult(null, new MongoException('failed')) }
+        subscriber.assertError(MongoException)
+    }
+
+    def 'should page through FindObservable'() {
+        given:
+        def wrapped = Mock(FindIterable)
+        def find = Mock(FindIterable)
+        def observable = new FindObservableImpl(wrapped, new ObservableHelper.NoopObservableAdapter(), collection, filter, Document,
+                CollectionFeatures.none(), null)
+        def subscriber = new TestSubscriber()
+
+        when:
+        observable.page(PageToken.first(ascending('_id'), 10)).subscribe(subscriber)
+
+        then:
+        1 * collection.find(filter.toBsonDocument(Document, codecRegistry), Document) >> find
+        1 * find.sort(BsonDocument.parse('{_id: 1}'))
+        1 * find.limit(11)
+        1 * find.into(_, _) >> { it[1].onResult([new Document('_id', 1)], null) }
+        0 * wrapped._
+        subscriber.assertValueCount(1)
+        subscriber.assertCompleted()
+    }
+
+    def 'should fetch each page with a find of its own that has the options of the paged find'() {
+        given:
+        def wrapped = Mock(FindIterable)
+        def find = Mock(FindIterable)
+        def collation = Collation.builder().locale('en').build()
+        def observable = new FindObservableImpl(wrapped, new ObservableHelper.NoopObservableAdapter(), collection, null, Document,
+                CollectionFeatures.none(), null)
+                .sort(descending('a')).limit(5).skip(10)
+                .projection(include('a')).maxTime(1, SECONDS).collation(collation).comment('paged')
+
+        when:
+        observable.pages(ascending('a'), 2).subscribe(new TestSubscriber())
+
+        then:
+        1 * collection.find(new BsonDocument(), Document) >> find
+        1 * find.projection(include('a'))
+        1 * find.maxTime(1000, MILLISECONDS)
+        1 * find.collation(collation)
+        1 * find.comment('paged')
+        1 * find.sort(BsonDocument.parse('{a: 1, _id: 1}'))
+        1 * find.limit(3)
+        0 * find.skip(_)
+        1 * find.into(_, _) >> { it[1].onResult([], null) }
+        0 * wrapped._
+    }
+
+    private static String encode(final String json) {
+        def buffer = new BasicOutputBuffer()
+        new BsonDocumentCodec().encode(new BsonBinaryWriter(buffer), BsonDocument.parse(json), EncoderContext.builder().build())
+        buffer.toByteArray().encodeBase64().toString()
+    }
+}
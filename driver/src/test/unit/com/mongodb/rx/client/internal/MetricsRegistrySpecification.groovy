@@ -0,0 +1,181 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal
+
+import com.mongodb.MongoException
+import com.mongodb.MongoNamespace
+import com.mongodb.ReadPreference
+import com.mongodb.async.client.MongoClient as WrappedMongoClient
+import com.mongodb.async.client.MongoClientSettings
+import com.mongodb.async.client.MongoCollection as WrappedMongoCollection
+import com.mongodb.async.client.MongoDatabase as WrappedMongoDatabase
+import org.bson.Document
+import rx.observers.TestSubscriber
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+import static com.mongodb.rx.client.internal.ObservableHelper.NoopObservableAdapter
+
+class MetricsRegistrySpecification extends Specification {
+
+    def metrics = new MetricsRegistry()
+    def wrapped = Mock(WrappedMongoCollection) {
+        getNamespace() >> new MongoNamespace('db.coll')
+        getReadPreference() >> ReadPreference.primary()
+    }
+    def collection = new MongoCollectionImpl(wrapped, new NoopObservableAdapter(), CollectionFeatures.none().withMetrics(metrics))
+
+    def 'should record latencies to within the precision of their bucket'() {
+        given:
+        def recorder = new LatencyRecorder()
+
+        when:
+        (1..1000).each { recorder.record(TimeUnit.MICROSECONDS.toNanos(it)) }
+        def histogram = recorder.getHistogram()
+
+        then:
+        histogram.getCount() == 1000
+        histogram.getMin(TimeUnit.NANOSECONDS) == 1000
+        histogram.getMax(TimeUnit.MICROSECONDS) == 1000
+        histogram.getMean(TimeUnit.MICROSECONDS) == 500
+        Math.abs(histogram.getValueAtPercentile(50, TimeUnit.MICROSECONDS) - 500) <= 10
+        Math.abs(histogram.getValueAtPercentile(99, TimeUnit.MICROSECONDS) - 990) <= 20
+        histogram.getValueAtPercentile(100, TimeUnit.MICROSECONDS) == 1000
+    }
+
+    def 'should map every value to a bucket whose highest value is at least the value'() {
+        expect:
+        LatencyRecorder.highestValueOf(LatencyRecorder.indexOf(value)) >= value
+        LatencyRecorder.indexOf(LatencyRecorder.highestValueOf(LatencyRecorder.indexOf(value))) == LatencyRecorder.indexOf(value)
+
+        where:
+        value << [0L, 1L, 63L, 64L, 65L, 127L, 128L, 1000L, 123456789L, (1L << 44) - 1]
+    }
+
+    def 'should record an operation that completes'() {
+        given:
+        def subscriber = new TestSubscriber()
+
+        when:
+        collection.insertOne(new Document()).subscribe(subscriber)
+        def operation = metrics.getMetrics().getOperation('db.coll', 'insertOne')
+
+        then:
+        1 * wrapped.insertOne(_, _) >> { it[1].onResult(null, null) }
+        subscriber.assertCompleted()
+        operation.getInFlightCount() == 0
+        operation.getErrorCount() == 0
+        operation.getResultCount() == 1
+        operation.getTimeToFirstResult().getCount() == 1
+        operation.getTimeToCompletion().getCount() == 1
+    }
+
+    def 'should count operations in flight and those that fail'() {
+        given:
+        def callbacks = []
+        def subscriber = new TestSubscriber()
+
+        when:
+        collection.count().subscribe(subscriber)
+
+        then:
+        1 * wrapped.count(_, _, _) >> { callbacks.add(it[2]) }
+        metrics.getMetrics().getOperation('db.coll', 'count').getInFlightCount() == 1
+
+        when:
+        callbacks[0].onResult(null, new MongoException('failed'))
+        def operation = metrics.getMetrics().getOperation('db.coll', 'count')
+
+        then:
+        operation.getInFlightCount() == 0
+        operation.getErrorCount() == 1
+        operation.getTimeToCompletion().getCount() == 0
+    }
+
+    def 'should stop counting an operation in flight once it is unsubscribed from'() {
+        given:
+        def subscriber = new TestSubscriber()
+
+        when:
+        collection.count().subscribe(subscriber)
+        subscriber.unsubscribe()
+        def operation = metrics.getMetrics().getOperation('db.coll', 'count')
+
+        then:
+        1 * wrapped.count(_, _, _)
+        operation.getInFlightCount() == 0
+        operation.getErrorCount() == 0
+        operation.getTimeToCompletion().getCount() == 0
+    }
+
+    def 'should record the time spent delivering results to the subscriber'() {
+        given:
+        def subscriber = new TestSubscriber() {
+            @Override
+            void onCompleted() {
+                Thread.sleep(5)
+                super.onCompleted()
+            }
+        }
+
+        when:
+        collection.insertOne(new Document()).subscribe(subscriber)
+        def operation = metrics.getMetrics().getOperation('db.coll', 'insertOne')
+
+        then:
+        1 * wrapped.insertOne(_, _) >> { it[1].onResult(null, null) }
+        operation.getDeliveryTime().getCount() == 2
+        operation.getDeliveryTime().getMax(TimeUnit.MILLISECONDS) >= 5
+    }
+
+    def 'should record the operations of the single collection'() {
+        when:
+        collection.asSingle().insertOne(new Document()).subscribe()
+        def operation = metrics.getMetrics().getOperation('db.coll', 'insertOne')
+
+        then:
+        1 * wrapped.insertOne(_, _) >> { it[1].onResult(null, null) }
+        operation.getInFlightCount() == 0
+        operation.getTimeToCompletion().getCount() == 1
+    }
+
+    def 'should record the operations of the databases and collections of a client'() {
+        given:
+        def wrappedDatabase = Mock(WrappedMongoDatabase) {
+            getName() >> 'db'
+            getReadPreference() >> ReadPreference.primary()
+            getCollection('coll', Document) >> wrapped
+        }
+        def wrappedClient = Mock(WrappedMongoClient) {
+            getDatabase('db') >> wrappedDatabase
+            getSettings() >> MongoClientSettings.builder().build()
+        }
+        def client = new MongoClientImpl(wrappedClient, new NoopObservableAdapter())
+
+        when:
+        client.getDatabase('db').getCollection('coll').insertOne(new Document()).subscribe()
+        client.getDatabase('db').drop().subscribe()
+
+        then:
+        1 * wrapped.insertOne(_, _) >> { it[1].onResult(null, null) }
+        1 * wrappedDatabase.drop(_) >> { it[0].onResult(null, null) }
+        client.getMetrics().getOperations()*.getNamespace() == ['db', 'db.coll']
+        client.getMetrics().getOperations()*.getOperation() == ['drop', 'insertOne']
+        client.getMetrics().getOperation('db.coll', 'find') == null
+    }
+}
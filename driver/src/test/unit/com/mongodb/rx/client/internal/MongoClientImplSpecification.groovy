@@ -16,8 +16,10 @@
 
 package com.mongodb.rx.client.internal
 
+import com.mongodb.ReadPreference
 import com.mongodb.async.client.ListDatabasesIterable
 import com.mongodb.async.client.MongoClient as WrappedMongoClient
+import com.mongodb.async.client.MongoClientSettings
 import com.mongodb.rx.client.ObservableAdapter
 import org.bson.BsonDocument
 import org.bson.Document
@@ -28,7 +30,9 @@ import static spock.util.matcher.HamcrestSupport.expect
 
 class MongoClientImplSpecification extends Specification {
 
-    def wrapped = Mock(WrappedMongoClient)
+    def wrapped = Mock(WrappedMongoClient) {
+        getSettings() >> MongoClientSettings.builder().build()
+    }
     def observableAdapter = Stub(ObservableAdapter)
     def mongoClient = new MongoClientImpl(wrapped, observableAdapter)
 
@@ -46,21 +50,24 @@ class MongoClientImplSpecification extends Specification {
         def wrapped = Mock(WrappedMongoClient) {
             1 * listDatabases(Document) >> wrappedResult
             1 * listDatabases(BsonDocument) >> wrappedResult
+            getSettings() >> MongoClientSettings.builder().build()
         }
         def mongoClient = new MongoClientImpl(wrapped, observableAdapter)
-
+        def metrics = mongoClient.@metrics
 
         when:
         def observable = mongoClient.listDatabases()
 
         then:
-        expect observable, isTheSameAs(new ListDatabasesObservableImpl(wrappedResult, observableAdapter))
+        expect observable, isTheSameAs(new ListDatabasesObservableImpl(wrappedResult, observableAdapter,
+                TrackedOperation.create(metrics, 'listDatabases', 'admin', ReadPreference.primary(), Document)))
 
         when:
         observable = mongoClient.listDatabases(BsonDocument)
 
         then:
-        expect observable, isTheSameAs(new ListDatabasesObservableImpl(wrappedResult, observableAdapter))
+        expect observable, isTheSameAs(new ListDatabasesObservableImpl(wrappedResult, observableAdapter,
+                TrackedOperation.create(metrics, 'listDatabases', 'admin', ReadPreference.primary(), BsonDocument)))
     }
 
     def 'should call the underlying listDatabaseNames'() {
@@ -202,7 +202,8 @@ class MongoCollectionImplSpecification extends Specification {
 
         then:
         1 * wrapped.distinct('field', String) >> wrappedIterable
-        expect observable, isTheSameAs(new DistinctObservableImpl(wrappedIterable, observableAdapter))
+        expect observable, isTheSameAs(new DistinctObservableImpl(wrappedIterable, observableAdapter, 'field', String, null)
+                .filter(new BsonDocument()))
     }
 
     def 'should create FindObservable correctly'() {
@@ -215,14 +216,16 @@ class MongoCollectionImplSpecification extends Specification {
         then:
         1 * wrapped.getDocumentClass() >> Document
         1 * wrapped.find(new BsonDocument(), Document) >> wrappedIterable
-        expect observable, isTheSameAs(new FindObservableImpl(wrappedIterable, observableAdapter))
+        expect observable, isTheSameAs(new FindObservableImpl(wrappedIterable, observableAdapter, wrapped, new BsonDocument(), Document,
+                CollectionFeatures.none(), null))
 
         when:
         observable = mongoCollection.find(BsonDocument)
 
         then:
         1 * wrapped.find(new BsonDocument(), BsonDocument) >> wrappedIterable
-        expect observable, isTheSameAs(new FindObservableImpl(wrappedIterable, observableAdapter))
+        expect observable, isTheSameAs(new FindObservableImpl(wrappedIterable, observableAdapter, wrapped, new BsonDocument(), BsonDocument,
+                CollectionFeatures.none(), null))
 
         when:
         observable = mongoCollection.find(new Document())
@@ -230,14 +233,16 @@ class MongoCollectionImplSpecification extends Specification {
         then:
         1 * wrapped.getDocumentClass() >> Document
         1 * wrapped.find(new Document(), Document) >> wrappedIterable
-        expect observable, isTheSameAs(new FindObservableImpl(wrappedIterable, observableAdapter))
+        expect observable, isTheSameAs(new FindObservableImpl(wrappedIterable, observableAdapter, wrapped, new Document(), Document,
+                CollectionFeatures.none(), null))
 
         when:
         observable = mongoCollection.find(new Document(), BsonDocument)
 
         then:
         1 * wrapped.find(new Document(), BsonDocument) >> wrappedIterable
-        expect observable, isTheSameAs(new FindObservableImpl(wrappedIterable, observableAdapter))
+        expect observable, isTheSameAs(new FindObservableImpl(wrappedIterable, observableAdapter, wrapped, new Document(), BsonDocument,
+                CollectionFeatures.none(), null))
     }
 
     def 'should use AggregateObservable correctly'() {
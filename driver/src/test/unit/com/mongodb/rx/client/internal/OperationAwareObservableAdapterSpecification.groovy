@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal
+
+import com.mongodb.MongoNamespace
+import com.mongodb.ReadPreference
+import com.mongodb.async.client.FindIterable
+import com.mongodb.async.client.MongoCollection as WrappedMongoCollection
+import com.mongodb.rx.client.ObservableAdapter
+import com.mongodb.rx.client.OperationAwareObservableAdapter
+import com.mongodb.rx.client.OperationContext
+import org.bson.BsonDocument
+import org.bson.Document
+import rx.Observable
+import rx.observers.TestSubscriber
+import spock.lang.Specification
+
+class OperationAwareObservableAdapterSpecification extends Specification {
+
+    def wrapped = Mock(WrappedMongoCollection) {
+        getNamespace() >> new MongoNamespace('db.coll')
+        getReadPreference() >> ReadPreference.secondary()
+        getDocumentClass() >> Document
+    }
+
+    def 'should describe the operation to an operation aware adapter'() {
+        given:
+        def contexts = []
+        def adapter = new OperationAwareObservableAdapter() {
+            @Override
+            def <T> Observable<T> adapt(final Observable<T> observable, final OperationContext context) {
+                contexts.add(context)
+                observable
+            }
+
+            @Override
+            def <T> Observable<T> adapt(final Observable<T> observable) {
+                throw new UnsupportedOperationException()
+            }
+        }
+        def collection = new MongoCollectionImpl(wrapped, adapter)
+
+        when:
+        collection.count().subscribe(new TestSubscriber())
+        collection.find(BsonDocument).toObservable().subscribe(new TestSubscriber())
+
+        then:
+        1 * wrapped.count(_, _, _)
+        1 * wrapped.find(_, BsonDocument) >> Stub(FindIterable)
+        contexts*.getOperation() == ['count', 'find']
+        contexts*.getNamespace() == ['db.coll', 'db.coll']
+        contexts*.getReadPreference() == [ReadPreference.secondary(), ReadPreference.secondary()]
+        contexts*.getDocumentClass() == [Document, BsonDocument]
+    }
+
+    def 'should not describe the operation to other adapters'() {
+        given:
+        def adapter = Mock(ObservableAdapter)
+        def collection = new MongoCollectionImpl(wrapped, adapter)
+
+        when:
+        collection.find().toObservable()
+
+        then:
+        1 * wrapped.find(_, Document) >> Stub(FindIterable)
+        1 * adapter.adapt(_) >> Observable.empty()
+        0 * wrapped.getNamespace()
+    }
+}
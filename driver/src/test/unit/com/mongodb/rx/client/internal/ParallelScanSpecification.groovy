@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal
+
+import com.mongodb.async.AsyncBatchCursor
+import com.mongodb.async.client.AggregateIterable
+import com.mongodb.async.client.FindIterable
+import com.mongodb.async.client.MongoCollection as WrappedMongoCollection
+import org.bson.BsonDocument
+import org.bson.BsonInt32
+import org.bson.Document
+import rx.observers.TestSubscriber
+import spock.lang.Specification
+
+class ParallelScanSpecification extends Specification {
+
+    def 'should pick evenly spaced boundaries from the sample'() {
+        given:
+        def sampledIds = ids.collect { new BsonDocument('_id', new BsonInt32(it)) }
+
+        expect:
+        ParallelScan.getBoundaries(sampledIds, partitions)*.value == expected
+
+        where:
+        ids                | partitions | expected
+        (1..12)            | 4          | [4, 7, 10]
+        (1..12)            | 1          | []
+        [1, 1, 1, 1, 2, 2] | 3          | [1, 2]
+        [1, 2]             | 4          | [1, 2]
+        []                 | 4          | []
+    }
+
+    def 'should create a hinted find for each range'() {
+        given:
+        def wrapped = Mock(WrappedMongoCollection)
+        def rawCollection = Mock(WrappedMongoCollection)
+        def aggregateIterable = Mock(AggregateIterable)
+        def findIterables = (1..3).collect { Mock(FindIterable) }
+        def mongoCollection = new MongoCollectionImpl(wrapped, new ObservableHelper.NoopObservableAdapter())
+        def subscriber = new TestSubscriber()
+        def batches = [(1..30).collect { new BsonDocument('_id', new BsonInt32(it)) }, null]
+        def cursor = Stub(AsyncBatchCursor) {
+            next(_) >> { it[0].onResult(batches.remove(0), null) }
+        }
+
+        when:
+        mongoCollection.parallelScan(3).subscribe(subscriber)
+
+        then:
+        1 * wrapped.withDocumentClass(BsonDocument) >> rawCollection
+        1 * rawCollection.aggregate({ it*.toBsonDocument(BsonDocument, null)*.keySet()*.first() == ['$sample', '$project', '$sort'] }) >>
+                aggregateIterable
+        1 * aggregateIterable.batchCursor(_) >> { it[0].onResult(cursor, null) }
+        _ * wrapped.getDocumentClass() >> Document
+        3 * wrapped.find(_, Document) >>> findIterables
+        findIterables.each { 1 * it.hint(new BsonDocument('_id', new BsonInt32(1))) }
+        0 * findIterables[0].min(_)
+        1 * findIterables[0].max(new BsonDocument('_id', new BsonInt32(11)))
+        1 * findIterables[1].min(new BsonDocument('_id', new BsonInt32(11)))
+        1 * findIterables[1].max(new BsonDocument('_id', new BsonInt32(21)))
+        1 * findIterables[2].min(new BsonDocument('_id', new BsonInt32(21)))
+        0 * findIterables[2].max(_)
+        subscriber.assertValueCount(3)
+        subscriber.assertCompleted()
+    }
+
+    def 'should validate the number of partitions'() {
+        when:
+        new MongoCollectionImpl(Mock(WrappedMongoCollection), new ObservableHelper.NoopObservableAdapter()).parallelScan(0)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal
+
+import com.mongodb.Block
+import com.mongodb.MongoNamespace
+import com.mongodb.ReadConcern
+import com.mongodb.ReadPreference
+import com.mongodb.WriteConcern
+import com.mongodb.async.SingleResultCallback
+import com.mongodb.async.client.FindIterable
+import com.mongodb.async.client.MongoClients
+import com.mongodb.async.client.MongoCollection as WrappedMongoCollection
+import com.mongodb.client.model.CountOptions
+import com.mongodb.rx.client.QueryCacheSettings
+import org.bson.BsonDocument
+import org.bson.BsonInt32
+import org.bson.Document
+import rx.observers.TestSubscriber
+import rx.schedulers.TestScheduler
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+import static com.mongodb.rx.client.internal.ObservableHelper.NoopObservableAdapter
+import static org.bson.codecs.configuration.CodecRegistries.fromRegistries
+
+class QueryCacheSpecification extends Specification {
+
+    def namespace = new MongoNamespace('db', 'coll')
+    def wrapped = Mock(WrappedMongoCollection) {
+        getNamespace() >> namespace
+        getReadPreference() >> ReadPreference.primary()
+        getReadConcern() >> ReadConcern.DEFAULT
+        getCodecRegistry() >> MongoClients.getDefaultCodecRegistry()
+        getDocumentClass() >> Document
+    }
+    def collection = new MongoCollectionImpl(wrapped, new NoopObservableAdapter())
+            .withQueryCache(QueryCacheSettings.builder().build())
+
+    def 'should serve repeated counts from the cache'() {
+        when:
+        def first = count(collection, new Document('x', 1))
+        def second = count(collection, new Document('x', 1))
+
+        then:
+        1 * wrapped.count(_, _, _) >> { it[2].onResult(42L, null) }
+        first.assertValues(42L)
+        second.assertValues(42L)
+        second.assertCompleted()
+        collection.getQueryCacheStatistics().getHitCount() == 1
+        collection.getQueryCacheStatistics().getMissCount() == 1
+
+        when:
+        count(collection, new Document('x', 2))
+
+        then:
+        1 * wrapped.count(_, _, _) >> { it[2].onResult(7L, null) }
+    }
+
+    def 'should invalidate the cache on writes through the collection'() {
+        given:
+        wrapped.count(_, _, _) >> { it[2].onResult(42L, null) }
+        count(collection, new Document())
+
+        when:
+        collection.deleteOne(new Document('x', 1)).subscribe(new TestSubscriber())
+
+        then:
+        1 * wrapped.deleteOne(_, _) >> { it[1].onResult(null, null) }
+        collection.getQueryCacheStatistics().getSize() == 0
+        collection.getQueryCacheStatistics().getInvalidationCount() == 2
+
+        when:
+        count(collection, new Document())
+
+        then:
+        collection.getQueryCacheStatistics().getMissCount() == 2
+    }
+
+    def 'should share the cache with derived collections'() {
+        given:
+        wrapped.withWriteConcern(_) >> wrapped
+        def derived = collection.withWriteConcern(WriteConcern.MAJORITY)
+
+        when:
+        count(collection, new Document())
+        derived.insertOne(new Document()).subscribe(new TestSubscriber())
+        count(collection, new Document())
+
+        then:
+        1 * wrapped.insertOne(_, _) >> { it[1].onResult(null, null) }
+        2 * wrapped.count(_, _, _) >> { it[2].onResult(1L, null) }
+    }
+
+    def 'should not share cached results between collections with different codec registries'() {
+        given:
+        def otherWrapped = Mock(WrappedMongoCollection) {
+            getNamespace() >> namespace
+            getReadPreference() >> ReadPreference.primary()
+            getReadConcern() >> ReadConcern.DEFAULT
+            getCodecRegistry() >> fromRegistries(MongoClients.getDefaultCodecRegistry())
+            getDocumentClass() >> Document
+        }
+        wrapped.withCodecRegistry(_) >> otherWrapped
+        def derived = collection.withCodecRegistry(fromRegistries(MongoClients.getDefaultCodecRegistry()))
+
+        when:
+        count(collection, new Document())
+        count(derived, new Document())
+
+        then:
+        1 * wrapped.count(_, _, _) >> { it[2].onResult(1L, null) }
+        1 * otherWrapped.count(_, _, _) >> { it[2].onResult(2L, null) }
+    }
+
+    def 'should cache finds with a limit and first'() {
+        given:
+        def findIterable = Mock(FindIterable)
+        wrapped.find(_, Document) >> findIterable
+
+        when:
+        def subscriber = new TestSubscriber()
+        collection.find(new Document('x', 1)).limit(2).subscribe(subscriber)
+        collection.find(new Document('x', 1)).limit(2).subscribe(new TestSubscriber())
+
+        then:
+        1 * findIterable.into(_, _) >> { it[0].addAll([new Document('_id', 1), new Document('_id', 2)]); it[1].onResult(it[0], null) }
+        subscriber.assertValueCount(2)
+
+        when:
+        subscriber = new TestSubscriber()
+        collection.find(new Document('x', 1)).first().subscribe(subscriber)
+        collection.find(new Document('x', 1)).first().subscribe(new TestSubscriber())
+
+        then:
+        1 * findIterable.first(_) >> { it[0].onResult(new Document('_id', 1), null) }
+        subscriber.assertValues(new Document('_id', 1))
+    }
+
+    def 'should not cache finds with options that are not part of the key'() {
+        given:
+        def findIterable = Mock(FindIterable)
+        wrapped.find(_, Document) >> findIterable
+
+        when:
+        collection.find().max(new Document('x', 1)).first().subscribe(new TestSubscriber())
+        collection.find().max(new Document('x', 1)).first().subscribe(new TestSubscriber())
+
+        then:
+        2 * findIterable.first(_) >> { it[0].onResult(null, null) }
+        collection.getQueryCacheStatistics().getMissCount() == 0
+    }
+
+    def 'should expire entries after the time to live'() {
+        given:
+        def scheduler = new TestScheduler()
+        def cache = new QueryCache(QueryCacheSettings.builder().expireAfterWrite(1, TimeUnit.SECONDS).build(), scheduler)
+        def loads = 0
+        def loader = { SingleResultCallback callback -> loads++; callback.onResult([1], null) } as Block
+
+        when:
+        get(cache, key(1), loader)
+        scheduler.advanceTimeBy(999, TimeUnit.MILLISECONDS)
+        get(cache, key(1), loader)
+
+        then:
+        loads == 1
+
+        when:
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS)
+        get(cache, key(1), loader)
+
+        then:
+        loads == 2
+        cache.getStatistics().getEvictionCount() == 1
+    }
+
+    def 'should evict the least recently used entries when over the maximum entries or weight'() {
+        given:
+        def cache = new QueryCache(QueryCacheSettings.builder().maxEntries(2).maxWeight(4).build())
+
+        when:
+        get(cache, key(1), loader([1]))
+        get(cache, key(2), loader([2]))
+        get(cache, key(1), loader([1]))
+        get(cache, key(3), loader([3]))
+
+        then:
+        cache.getStatistics().getSize() == 2
+        cache.getStatistics().getEvictionCount() == 1
+        get(cache, key(1), loader([-1])) == [1]
+        get(cache, key(2), loader([-2])) == [-2]
+
+        when:
+        get(cache, key(4), loader([4, 4, 4]))
+
+        then:
+        cache.getStatistics().getSize() == 2
+        cache.getStatistics().getWeight() == 4
+        get(cache, key(1), loader([-1])) == [-1]
+
+        when:
+        get(cache, key(5), loader([5, 5, 5, 5, 5]))
+
+        then:
+        get(cache, key(5), loader([-5])) == [-5]
+    }
+
+    def 'should not cache results loaded while the cache was invalidated'() {
+        given:
+        def cache = new QueryCache(QueryCacheSettings.builder().build())
+        SingleResultCallback pending = null
+
+        when:
+        cache.get(key(1), { pending = it } as Block, { result, t -> } as SingleResultCallback)
+        cache.invalidate()
+        pending.onResult([1], null)
+
+        then:
+        cache.getStatistics().getSize() == 0
+    }
+
+    def count(collection, filter) {
+        def subscriber = new TestSubscriber()
+        collection.count(filter, new CountOptions()).subscribe(subscriber)
+        subscriber
+    }
+
+    def key(int value) {
+        new QueryCache.Key(namespace, ReadPreference.primary(), ReadConcern.DEFAULT, MongoClients.getDefaultCodecRegistry(), Integer,
+                new BsonDocument('q', new BsonInt32(value)).toJson().bytes)
+    }
+
+    def loader(List results) {
+        { SingleResultCallback callback -> callback.onResult(results, null) } as Block
+    }
+
+    def get(QueryCache cache, QueryCache.Key key, Block loader) {
+        def results = null
+        cache.get(key, loader, { result, t -> results = result } as SingleResultCallback)
+        results
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal
+
+import com.mongodb.MongoException
+import com.mongodb.MongoNamespace
+import com.mongodb.async.client.MongoCollection as WrappedMongoCollection
+import com.mongodb.client.model.CountOptions
+import com.mongodb.client.model.FindOneAndUpdateOptions
+import com.mongodb.client.model.IndexOptions
+import com.mongodb.client.model.InsertOneOptions
+import com.mongodb.client.model.RenameCollectionOptions
+import com.mongodb.client.model.UpdateOptions
+import com.mongodb.client.result.DeleteResult
+import com.mongodb.rx.client.MongoCollection
+import com.mongodb.rx.client.ObservableAdapter
+import com.mongodb.rx.client.SingleMongoCollection
+import org.bson.BsonDocument
+import org.bson.Document
+import rx.observers.TestSubscriber
+import spock.lang.Specification
+
+class SingleMongoCollectionImplSpecification extends Specification {
+
+    def subscriber = { new TestSubscriber() }
+    def wrapped = Mock(WrappedMongoCollection)
+    def observableAdapter = new ObservableHelper.NoopObservableAdapter()
+    def mongoCollection = new MongoCollectionImpl(wrapped, observableAdapter)
+    def singleCollection = mongoCollection.asSingle()
+    def filter = new Document('_id', 1)
+
+    def 'should have the single result methods of MongoCollection'() {
+        given:
+        def exclusions = ['asObservable']
+        def observableMethods = MongoCollection.methods*.name as Set
+        def local = SingleMongoCollection.methods*.name as Set
+
+        expect:
+        observableMethods.containsAll(local - exclusions)
+    }
+
+    def 'should return the collection it was created from'() {
+        expect:
+        singleCollection.asObservable().is(mongoCollection)
+    }
+
+    def 'should not call the underlying method until subscribed'() {
+        when:
+        def single = singleCollection.count()
+
+        then:
+        0 * wrapped.count(_, _, _)
+
+        when:
+        single.subscribe(subscriber())
+
+        then:
+        1 * wrapped.count(new BsonDocument(), { it instanceof CountOptions }, _)
+    }
+
+    def 'should emit the result of the underlying method'() {
+        given:
+        def subscriber = subscriber()
+        def result = DeleteResult.acknowledged(1)
+
+        when:
+        singleCollection.deleteOne(filter).subscribe(subscriber)
+
+        then:
+        1 * wrapped.deleteOne(filter, _) >> { args -> args.last().onResult(result, null) }
+        subscriber.assertValue(result)
+        subscriber.assertCompleted()
+    }
+
+    def 'should emit null when findOneAndUpdate matches no documents'() {
+        given:
+        def subscriber = subscriber()
+        def update = new Document('$set', new Document('x', 1))
+
+        when:
+        singleCollection.findOneAndUpdate(filter, update).subscribe(subscriber)
+
+        then:
+        1 * wrapped.findOneAndUpdate(filter, update, { it instanceof FindOneAndUpdateOptions }, _) >> { args ->
+            args.last().onResult(null, null)
+        }
+        subscriber.assertValue(null)
+        subscriber.assertCompleted()
+    }
+
+    def 'should complete without a value for void operations'() {
+        given:
+        def insert = new Document('_id', 1)
+        def options = new InsertOneOptions()
+        def subscriber = subscriber()
+
+        when:
+        singleCollection.insertOne(insert, options).subscribe(subscriber)
+
+        then:
+        1 * wrapped.insertOne(insert, options, _) >> { args -> args.last().onResult(null, null) }
+        subscriber.assertNoValues()
+        subscriber.assertCompleted()
+    }
+
+    def 'should pass errors to the subscriber'() {
+        given:
+        def singleSubscriber = subscriber()
+        def completableSubscriber = subscriber()
+
+        when:
+        singleCollection.updateOne(filter, filter).subscribe(singleSubscriber)
+        singleCollection.drop().subscribe(completableSubscriber)
+
+        then:
+        1 * wrapped.updateOne(filter, filter, { it instanceof UpdateOptions }, _) >> { args ->
+            args.last().onResult(null, new MongoException('failed'))
+        }
+        1 * wrapped.drop(_) >> { args -> args.last().onResult(null, new MongoException('failed')) }
+        singleSubscriber.assertError(MongoException)
+        completableSubscriber.assertError(MongoException)
+    }
+
+    def 'should pass exceptions thrown by the underlying method to the subscriber'() {
+        given:
+        def subscriber = subscriber()
+
+        when:
+        singleCollection.createIndex(filter).subscribe(subscriber)
+
+        then:
+        1 * wrapped.createIndex(filter, { it instanceof IndexOptions }, _) >> { throw new IllegalArgumentException() }
+        subscriber.assertError(IllegalArgumentException)
+    }
+
+    def 'should use the default options for the overloads without options'() {
+        given:
+        def namespace = new MongoNamespace('db', 'coll')
+
+        when:
+        singleCollection.dropIndexes().subscribe(subscriber())
+        singleCollection.renameCollection(namespace).subscribe(subscriber())
+
+        then:
+        1 * wrapped.dropIndex('*', _)
+        1 * wrapped.renameCollection(namespace, { it instanceof RenameCollectionOptions }, _)
+    }
+
+    def 'should use the observable adapter'() {
+        given:
+        def observableAdapter = Mock(ObservableAdapter)
+        def singleCollection = new MongoCollectionImpl(wrapped, observableAdapter).asSingle()
+
+        when:
+        singleCollection.count(filter).subscribe(subscriber())
+        singleCollection.dropIndex('index').subscribe(subscriber())
+
+        then:
+        2 * observableAdapter.adapt(_) >> { args -> args[0] }
+        1 * wrapped.count(filter, _, _)
+        1 * wrapped.dropIndex('index', _)
+    }
+}
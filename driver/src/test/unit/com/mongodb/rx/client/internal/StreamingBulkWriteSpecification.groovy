@@ -0,0 +1,253 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal
+
+import com.mongodb.MongoBulkWriteException
+import com.mongodb.MongoException
+import com.mongodb.ServerAddress
+import com.mongodb.async.client.MongoClients
+import com.mongodb.async.client.MongoCollection as WrappedMongoCollection
+import com.mongodb.bulk.BulkWriteError
+import com.mongodb.bulk.BulkWriteResult
+import com.mongodb.bulk.BulkWriteUpsert
+import com.mongodb.client.model.DeleteOneModel
+import com.mongodb.client.model.InsertOneModel
+import com.mongodb.client.model.ReplaceOneModel
+import com.mongodb.client.model.UpdateOneModel
+import com.mongodb.rx.client.StreamingBulkWriteOptions
+import org.bson.BsonDocument
+import org.bson.BsonInt32
+import org.bson.Document
+import org.bson.RawBsonDocument
+import rx.Observable
+import rx.observers.TestSubscriber
+import rx.subjects.PublishSubject
+import spock.lang.Specification
+
+class StreamingBulkWriteSpecification extends Specification {
+
+    def observableAdapter = new ObservableHelper.NoopObservableAdapter()
+    def rawCollection = Mock(WrappedMongoCollection)
+    def wrapped = Stub(WrappedMongoCollection) {
+        getCodecRegistry() >> MongoClients.getDefaultCodecRegistry()
+        getDocumentClass() >> Document
+        withDocumentClass(RawBsonDocument) >> rawCollection
+    }
+    def result = BulkWriteResult.acknowledged(1, 0, 0, null, [])
+
+    def 'should cut batches by count and emit one result per batch'() {
+        given:
+        def subscriber = new TestSubscriber()
+        def requests = Observable.range(1, 5).map { new InsertOneModel(new Document('_id', it)) }
+        def options = new StreamingBulkWriteOptions().maxBatchSize(2)
+
+        when:
+        StreamingBulkWrite.bulkWrite(wrapped, requests, options, observableAdapter).subscribe(subscriber)
+
+        then:
+        1 * rawCollection.bulkWrite({ it*.document*.getInt32('_id')*.value == [1, 2] }, { it.isOrdered() }, _) >> {
+            it[2].onResult(result, null)
+        }
+        1 * rawCollection.bulkWrite({ it*.document*.getInt32('_id')*.value == [3, 4] }, _, _) >> { it[2].onResult(result, null) }
+        1 * rawCollection.bulkWrite({ it*.document*.getInt32('_id')*.value == [5] }, _, _) >> { it[2].onResult(result, null) }
+        subscriber.assertValues(result, result, result)
+        subscriber.assertCompleted()
+    }
+
+    def 'should cut batches by encoded size'() {
+        given:
+        def subscriber = new TestSubscriber()
+        def document = new Document('_id', 1).append('x', 'a' * 100)
+        def size = new RawBsonDocument(document, MongoClients.getDefaultCodecRegistry().get(Document)).getByteBuffer().remaining()
+        def requests = Observable.range(1, 3).map { new InsertOneModel(new Document('_id', it).append('x', 'a' * 100)) }
+        def options = new StreamingBulkWriteOptions().maxBatchBytes(size * 2 + 1)
+
+        when:
+        StreamingBulkWrite.bulkWrite(wrapped, requests, options, observableAdapter).subscribe(subscriber)
+
+        then:
+        1 * rawCollection.bulkWrite({ it.size() == 2 }, _, _) >> { it[2].onResult(result, null) }
+        1 * rawCollection.bulkWrite({ it.size() == 1 }, _, _) >> { it[2].onResult(result, null) }
+        subscriber.assertValueCount(2)
+    }
+
+    def 'should only request upstream elements as capacity frees up'() {
+        given:
+        def requested = []
+        def subject = PublishSubject.create()
+        def requests = subject.onBackpressureBuffer().doOnRequest { requested += it }
+        def callbacks = []
+        def options = new StreamingBulkWriteOptions().ordered(false).maxBatchSize(2).maxBatchesInFlight(2)
+        def subscriber = new TestSubscriber()
+
+        when:
+        StreamingBulkWrite.bulkWrite(wrapped, requests.map { new InsertOneModel(new Document('_id', it)) }, options, observableAdapter)
+                .subscribe(subscriber)
+        (1..6).each { subject.onNext(it) }
+
+        then:
+        2 * rawCollection.bulkWrite(_, { !it.isOrdered() }, _) >> { callbacks += it[2] }
+        requested.sum() == 4
+
+        when:
+        callbacks[0].onResult(result, null)
+
+        then:
+        1 * rawCollection.bulkWrite({ it*.document*.getInt32('_id')*.value == [5, 6] }, _, _)
+        requested.sum() == 6
+        subscriber.assertValueCount(1)
+    }
+
+    def 'should encode each type of write model'() {
+        given:
+        def subscriber = new TestSubscriber()
+        def filter = new Document('_id', 1)
+        def requests = Observable.just(new InsertOneModel(new Document('x', 1)), new ReplaceOneModel(filter, new Document('x', 2)),
+                new UpdateOneModel(filter, new Document('$set', new Document('x', 3))), new DeleteOneModel(filter))
+
+        when:
+        StreamingBulkWrite.bulkWrite(wrapped, requests, new StreamingBulkWriteOptions(), observableAdapter).subscribe(subscriber)
+
+        then:
+        1 * rawCollection.bulkWrite({
+            it[0].document.containsKey('_id') && it[1].replacement == RawBsonDocument.parse('{x: 2}') &&
+                    it[2].update == RawBsonDocument.parse('{$set: {x: 3}}') && it[3].filter == RawBsonDocument.parse('{_id: 1}')
+        }, _, _) >> { it[2].onResult(result, null) }
+        subscriber.assertCompleted()
+    }
+
+    def 'should stop at the first failed batch when ordered'() {
+        given:
+        def subscriber = new TestSubscriber()
+        def requests = Observable.range(1, 4).map { new InsertOneModel(new Document('_id', it)) }
+
+        when:
+        StreamingBulkWrite.bulkWrite(wrapped, requests, new StreamingBulkWriteOptions().maxBatchSize(2), observableAdapter)
+                .subscribe(subscriber)
+
+        then:
+        1 * rawCollection.bulkWrite(_, _, _) >> { it[2].onResult(null, new MongoException('failed')) }
+        subscriber.assertError(MongoException)
+    }
+
+    def 'should index the write errors and upserts of an ordered stream from the start of the stream'() {
+        given:
+        def subscriber = new TestSubscriber()
+        def requests = Observable.range(0, 6).map { new InsertOneModel(new Document('_id', it)) }
+        def serverAddress = new ServerAddress()
+        def upsertResult = BulkWriteResult.acknowledged(0, 0, 0, 0, [new BulkWriteUpsert(1, new BsonInt32(1))])
+        def failure = new MongoBulkWriteException(BulkWriteResult.acknowledged(0, 0, 0, 0, [new BulkWriteUpsert(0, new BsonInt32(2))]),
+                [new BulkWriteError(11000, 'duplicate key', new BsonDocument(), 1)], null, serverAddress)
+
+        when:
+        StreamingBulkWrite.bulkWrite(wrapped, requests, new StreamingBulkWriteOptions().maxBatchSize(2), observableAdapter)
+                .subscribe(subscriber)
+
+        then:
+        1 * rawCollection.bulkWrite({ it*.document*.getInt32('_id')*.value == [0, 1] }, _, _) >> { it[2].onResult(result, null) }
+        1 * rawCollection.bulkWrite({ it*.document*.getInt32('_id')*.value == [2, 3] }, _, _) >> { it[2].onResult(upsertResult, null) }
+        1 * rawCollection.bulkWrite({ it*.document*.getInt32('_id')*.value == [4, 5] }, _, _) >> { it[2].onResult(null, failure) }
+        subscriber.getOnNextEvents()[1].getUpserts()*.getIndex() == [3]
+        subscriber.assertError(MongoBulkWriteException)
+        def exception = subscriber.getOnErrorEvents()[0] as MongoBulkWriteException
+        exception.getWriteErrors()*.getIndex() == [5]
+        exception.getWriteResult().getUpserts()*.getIndex() == [4]
+        exception.getServerAddress() == serverAddress
+    }
+
+    def 'should carry on past failed batches when unordered and combine their write errors at the end'() {
+        given:
+        def subscriber = new TestSubscriber()
+        def requests = Observable.range(0, 6).map { new InsertOneModel(new Document('_id', it)) }
+        def options = new StreamingBulkWriteOptions().ordered(false).maxBatchSize(2)
+        def serverAddress = new ServerAddress()
+        def failures = [
+                new MongoBulkWriteException(BulkWriteResult.acknowledged(1, 0, 0, 0, []),
+                        [new BulkWriteError(11000, 'duplicate key', new BsonDocument(), 1)], null, serverAddress),
+                new MongoBulkWriteException(BulkWriteResult.acknowledged(0, 0, 0, 0, []),
+                        [new BulkWriteError(11000, 'duplicate key', new BsonDocument(), 0),
+                         new BulkWriteError(11000, 'duplicate key', new BsonDocument(), 1)], null, serverAddress)]
+
+        when:
+        StreamingBulkWrite.bulkWrite(wrapped, requests, options, observableAdapter).subscribe(subscriber)
+
+        then:
+        1 * rawCollection.bulkWrite({ it*.document*.getInt32('_id')*.value == [0, 1] }, _, _) >> { it[2].onResult(result, null) }
+        1 * rawCollection.bulkWrite({ it*.document*.getInt32('_id')*.value == [2, 3] }, _, _) >> {
+            it[2].onResult(null, failures[0])
+        }
+        1 * rawCollection.bulkWrite({ it*.document*.getInt32('_id')*.value == [4, 5] }, _, _) >> {
+            it[2].onResult(null, failures[1])
+        }
+        subscriber.assertValues(result)
+        subscriber.assertError(MongoBulkWriteException)
+        def exception = subscriber.getOnErrorEvents()[0] as MongoBulkWriteException
+        exception.getWriteErrors()*.getIndex() == [3, 4, 5]
+        exception.getWriteResult().getInsertedCount() == 1
+        exception.getServerAddress() == serverAddress
+    }
+
+    def 'should stop at the first batch that fails without write errors when unordered'() {
+        given:
+        def subscriber = new TestSubscriber()
+        def requests = Observable.range(0, 6).map { new InsertOneModel(new Document('_id', it)) }
+        def options = new StreamingBulkWriteOptions().ordered(false).maxBatchSize(2).maxBatchesInFlight(1)
+
+        when:
+        StreamingBulkWrite.bulkWrite(wrapped, requests, options, observableAdapter).subscribe(subscriber)
+
+        then:
+        1 * rawCollection.bulkWrite(_, _, _) >> { it[2].onResult(null, new MongoException('failed')) }
+        subscriber.assertError(MongoException)
+    }
+
+    def 'should copy encoded documents out of the encoding buffer'() {
+        when:
+        def encoded = RawWriteModels.encodeWriteModel(wrapped, new DeleteOneModel(new Document('_id', 1)))
+        def buffer = encoded.filter.getByteBuffer()
+
+        then:
+        buffer.asNIO().array().length == buffer.remaining()
+    }
+
+    def 'should pass upstream errors to the subscriber'() {
+        given:
+        def subscriber = new TestSubscriber()
+        def requests = Observable.error(new MongoException('failed'))
+
+        when:
+        StreamingBulkWrite.bulkWrite(wrapped, requests, new StreamingBulkWriteOptions(), observableAdapter).subscribe(subscriber)
+
+        then:
+        0 * rawCollection.bulkWrite(_, _, _)
+        subscriber.assertError(MongoException)
+    }
+
+    def 'should validate the options'() {
+        when:
+        new StreamingBulkWriteOptions().maxBatchBytes(48 * 1024 * 1024 + 1)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        when:
+        new StreamingBulkWriteOptions().maxBatchesInFlight(0)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
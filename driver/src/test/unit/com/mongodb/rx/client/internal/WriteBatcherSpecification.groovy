@@ -0,0 +1,223 @@
+/*
+ * Copyright 2017 MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.rx.client.internal
+
+import com.mongodb.Block
+import com.mongodb.MongoBulkWriteException
+import com.mongodb.MongoException
+import com.mongodb.MongoWriteConcernException
+import com.mongodb.MongoWriteException
+import com.mongodb.ServerAddress
+import com.mongodb.async.client.MongoClients
+import com.mongodb.async.client.MongoCollection as WrappedMongoCollection
+import com.mongodb.async.client.Observables
+import com.mongodb.bulk.BulkWriteError
+import com.mongodb.bulk.BulkWriteResult
+import com.mongodb.bulk.WriteConcernError
+import com.mongodb.client.model.InsertOneOptions
+import org.bson.BsonDocument
+import org.bson.BsonObjectId
+import org.bson.Document
+import org.bson.RawBsonDocument
+import rx.observers.TestSubscriber
+import rx.schedulers.TestScheduler
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class WriteBatcherSpecification extends Specification {
+
+    def scheduler = new TestScheduler()
+    def rawCollection = Mock(WrappedMongoCollection)
+    def wrapped = Stub(WrappedMongoCollection) {
+        getCodecRegistry() >> MongoClients.getDefaultCodecRegistry()
+        getDocumentClass() >> Document
+        withDocumentClass(RawBsonDocument) >> rawCollection
+    }
+
+    def 'should send a batch once it holds the maximum number of documents'() {
+        given:
+        def batcher = new WriteBatcher(wrapped, 3, Integer.MAX_VALUE, 1, TimeUnit.SECONDS, scheduler)
+        def subscribers = (1..3).collect { new TestSubscriber() }
+
+        when:
+        insert(batcher, new Document('_id', 1), subscribers[0])
+        insert(batcher, new Document('_id', 2), subscribers[1])
+
+        then:
+        0 * rawCollection.insertMany(_, _, _)
+
+        when:
+        insert(batcher, new Document('_id', 3), subscribers[2])
+
+        then:
+        1 * rawCollection.insertMany({ it*.getInt32('_id')*.value == [1, 2, 3] }, { !it.isOrdered() }, _) >> {
+            it[2].onResult(null, null)
+        }
+        subscribers.each { it.assertCompleted() }
+    }
+
+    def 'should send a batch once it holds the maximum number of bytes'() {
+        given:
+        def document = new Document('_id', 1)
+        def size = new RawBsonDocument(document, MongoClients.getDefaultCodecRegistry().get(Document)).getByteBuffer().remaining()
+        def batcher = new WriteBatcher(wrapped, 100, size * 2, 1, TimeUnit.SECONDS, scheduler)
+
+        when:
+        insert(batcher, document, new TestSubscriber())
+
+        then:
+        0 * rawCollection.insertMany(_, _, _)
+
+        when:
+        insert(batcher, new Document('_id', 2), new TestSubscriber())
+
+        then:
+        1 * rawCollection.insertMany({ it.size() == 2 }, _, _)
+    }
+
+    def 'should send a partial batch after the maximum delay'() {
+        given:
+        def batcher = new WriteBatcher(wrapped, 100, Integer.MAX_VALUE, 5, TimeUnit.MILLISECONDS, scheduler)
+        def subscriber = new TestSubscriber()
+
+        when:
+        insert(batcher, new Document('_id', 1), subscriber)
+        scheduler.advanceTimeBy(4, TimeUnit.MILLISECONDS)
+
+        then:
+        0 * rawCollection.insertMany(_, _, _)
+
+        when:
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS)
+
+        then:
+        1 * rawCollection.insertMany({ it.size() == 1 }, _, _) >> { it[2].onResult(null, null) }
+        subscriber.assertCompleted()
+    }
+
+    def 'should generate an _id for documents that are missing one'() {
+        given:
+        def batcher = new WriteBatcher(wrapped, 1, Integer.MAX_VALUE, 1, TimeUnit.SECONDS, scheduler)
+        def document = new Document('x', 1)
+
+        when:
+        insert(batcher, document, new TestSubscriber())
+
+        then:
+        document.containsKey('_id')
+        1 * rawCollection.insertMany({ it[0].get('_id') == new BsonObjectId(document.getObjectId('_id')) }, _, _)
+    }
+
+    def 'should pass write errors only to the inserts that caused them'() {
+        given:
+        def batcher = new WriteBatcher(wrapped, 3, Integer.MAX_VALUE, 1, TimeUnit.SECONDS, scheduler)
+        def subscribers = (1..3).collect { new TestSubscriber() }
+        def exception = new MongoBulkWriteException(BulkWriteResult.acknowledged(2, 0, 0, null, []),
+                [new BulkWriteError(11000, 'duplicate key', new BsonDocument(), 1)], null, new ServerAddress())
+
+        when:
+        (0..2).each { insert(batcher, new Document('_id', it), subscribers[it]) }
+
+        then:
+        1 * rawCollection.insertMany(_, _, _) >> { it[2].onResult(null, exception) }
+        subscribers[0].assertCompleted()
+        subscribers[1].assertError(MongoWriteException)
+        subscribers[1].getOnErrorEvents()[0].getCode() == 11000
+        subscribers[2].assertCompleted()
+    }
+
+    def 'should pass write concern errors to the inserts without write errors'() {
+        given:
+        def batcher = new WriteBatcher(wrapped, 2, Integer.MAX_VALUE, 1, TimeUnit.SECONDS, scheduler)
+        def subscribers = (1..2).collect { new TestSubscriber() }
+        def exception = new MongoBulkWriteException(BulkWriteResult.acknowledged(1, 0, 0, null, []),
+                [new BulkWriteError(11000, 'duplicate key', new BsonDocument(), 0)],
+                new WriteConcernError(64, 'waiting for replication timed out', new BsonDocument()), new ServerAddress())
+
+        when:
+        (0..1).each { insert(batcher, new Document('_id', it), subscribers[it]) }
+
+        then:
+        1 * rawCollection.insertMany(_, _, _) >> { it[2].onResult(null, exception) }
+        subscribers[0].assertError(MongoWriteException)
+        subscribers[1].assertError(MongoWriteConcernException)
+    }
+
+    def 'should pass other errors to every insert in the batch'() {
+        given:
+        def batcher = new WriteBatcher(wrapped, 2, Integer.MAX_VALUE, 1, TimeUnit.SECONDS, scheduler)
+        def subscribers = (1..2).collect { new TestSubscriber() }
+
+        when:
+        (0..1).each { insert(batcher, new Document('_id', it), subscribers[it]) }
+
+        then:
+        1 * rawCollection.insertMany(_, _, _) >> { it[2].onResult(null, new MongoException('failed')) }
+        subscribers.each { it.assertError(MongoException) }
+    }
+
+    def 'should only batch inserts from a collection created with write batching'() {
+        given:
+        def wrapped = Mock(WrappedMongoCollection)
+        def collection = new MongoCollectionImpl(wrapped, new ObservableHelper.NoopObservableAdapter())
+        def document = new Document('_id', 1)
+
+        when:
+        collection.insertOne(document).subscribe(new TestSubscriber())
+
+        then:
+        1 * wrapped.insertOne(document, _)
+
+        when:
+        collection = collection.withWriteBatching(1, Integer.MAX_VALUE, 1, TimeUnit.SECONDS)
+        collection.insertOne(document, new InsertOneOptions().bypassDocumentValidation(true)).subscribe(new TestSubscriber())
+
+        then:
+        1 * wrapped.withDocumentClass(RawBsonDocument) >> rawCollection
+        1 * wrapped.insertOne(document, _, _)
+
+        when:
+        collection.insertOne(document).subscribe(new TestSubscriber())
+
+        then:
+        1 * wrapped.getCodecRegistry() >> MongoClients.getDefaultCodecRegistry()
+        1 * wrapped.getDocumentClass() >> Document
+        0 * wrapped.insertOne(_, _)
+        1 * rawCollection.insertMany(_, _, _)
+    }
+
+    def 'should validate the limits'() {
+        when:
+        new WriteBatcher(wrapped, maxBatchSize, maxBatchBytes, maxDelay, TimeUnit.SECONDS)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        maxBatchSize | maxBatchBytes | maxDelay
+        0            | 1             | 1
+        1            | 0             | 1
+        1            | 1             | -1
+    }
+
+    private static void insert(final WriteBatcher batcher, final Document document, final TestSubscriber subscriber) {
+        RxObservables.create(Observables.observe({ callback ->
+            batcher.insert(document, ObservableHelper.voidToSuccessCallback(callback))
+        } as Block), new ObservableHelper.NoopObservableAdapter()).subscribe(subscriber)
+    }
+}